@@ -1,55 +1,104 @@
 package fr.esgi.annotation;
 
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Locale;
-import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.MessageSource;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RestController;
 
 import fr.esgi.config.ErrorMessage;
 import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.security.RoleMask;
+import fr.esgi.security.jwt.AccountUserDetails;
 
 /**
  * Implementation for annotation Authorized.
  * 
+ * The roles of the annotated methods of the REST controllers are compiled
+ * into a bitmask at startup and matched against the roles of the principal.
+ * 
  * @author christopher
  *
  */
 @Aspect
 @Component
-public class AuthorizedAspect {
-	
+public class AuthorizedAspect implements SmartInitializingSingleton {
+
+	private static final String REST_PACKAGE = "fr.esgi.web.rest";
+
 	private final MessageSource messageSource;
 
+	private final ApplicationContext applicationContext;
+
+	private final Map<Method, Integer> requiredRolesByMethod = new ConcurrentHashMap<>();
+
 	@Autowired
-	public AuthorizedAspect(MessageSource messageSource) {
+	public AuthorizedAspect(MessageSource messageSource, ApplicationContext applicationContext) {
 		this.messageSource = messageSource;
+		this.applicationContext = applicationContext;
+	}
+
+	/**
+	 * Compile the roles of the annotated methods of the REST controllers, an
+	 * unknown role fails the startup.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		for (Object controller : applicationContext.getBeansWithAnnotation(RestController.class).values()) {
+			Class<?> controllerClass = AopUtils.getTargetClass(controller);
+			if (controllerClass.getName().startsWith(REST_PACKAGE)) {
+				ReflectionUtils.doWithMethods(controllerClass,
+						method -> requiredRolesByMethod.put(method, compile(method.getAnnotation(Authorized.class))),
+						method -> method.isAnnotationPresent(Authorized.class));
+			}
+		}
 	}
 
-	@Before("execution(* *.*(..)) && @annotation(authorized)")
+	@Before("execution(public * fr.esgi.web.rest..*(..)) && @annotation(authorized)")
 	public void checkUser(JoinPoint joinPoint, Authorized authorized) throws BurgerSTerminalException {
 		Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 		if (principal instanceof UserDetails) {
 			final Collection<? extends GrantedAuthority> authorities = ((UserDetails) principal).getAuthorities();
-			final Optional<? extends GrantedAuthority> role = authorities.stream().findFirst();
 
-			if (role.isPresent()) {
-				boolean found = Stream.of(authorized.values()).anyMatch(r -> r.equals(role.get().toString()));
-				if (!found) {
+			if (!authorities.isEmpty()) {
+				int roles = principal instanceof AccountUserDetails
+						? ((AccountUserDetails) principal).getRoles()
+						: RoleMask.of(authorities);
+				if ((roles & getRequiredRoles(joinPoint, authorized)) == 0) {
 					throw new BurgerSTerminalException(HttpStatus.UNAUTHORIZED.value(),
 							messageSource.getMessage(ErrorMessage.ERROR_USER_ROLE_REQUIRED_ACTION, null, Locale.FRENCH));
 				}
 			}
 		}
 	}
-}
\ No newline at end of file
+
+	private int getRequiredRoles(JoinPoint joinPoint, Authorized authorized) {
+		Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+		Integer requiredRoles = requiredRolesByMethod.get(method);
+		if (null == requiredRoles) {
+			requiredRoles = requiredRolesByMethod.computeIfAbsent(method, m -> compile(authorized));
+		}
+		return requiredRoles;
+	}
+
+	private static int compile(Authorized authorized) {
+		return RoleMask.of(authorized.values());
+	}
+}
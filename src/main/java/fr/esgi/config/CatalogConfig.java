@@ -0,0 +1,23 @@
+package fr.esgi.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import fr.esgi.service.catalog.CatalogChangeLog;
+
+/**
+ * CatalogConfig for the versions of the catalog read by the terminals.
+ */
+@Configuration
+public class CatalogConfig {
+
+	/**
+	 * The versions start at the start time of the server in microseconds: a
+	 * version known by a terminal is not reused after a restart, unless more
+	 * than a thousand changes were made per millisecond.
+	 */
+	@Bean
+	public CatalogChangeLog catalogChangeLog() {
+		return new CatalogChangeLog(Constants.CATALOG_CHANGE_LOG_SIZE, System.currentTimeMillis() * 1000);
+	}
+}
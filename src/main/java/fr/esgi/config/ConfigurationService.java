@@ -29,6 +29,54 @@ public class ConfigurationService {
     
     @Value("${app.paypal.ReturnUrl}")
     private String paypalReturnUrl;
+
+    @Value("${app.paymentSessionTtlInMilliseconds:10800000}")
+    private long paymentSessionTtlInMilliseconds;
+
+    @Value("${app.userCacheTtlInMilliseconds:30000}")
+    private long userCacheTtlInMilliseconds;
+
+    @Value("${app.rateLimit.authenticate:30}")
+    private int authenticateRateLimit;
+
+    @Value("${app.rateLimit.register:10}")
+    private int registerRateLimit;
+
+    @Value("${app.rateLimit.payment:20}")
+    private int paymentRateLimit;
+
+    @Value("${app.rateLimit.availability:120}")
+    private int availabilityRateLimit;
+
+    @Value("${app.rateLimit.periodInMilliseconds:60000}")
+    private long rateLimitPeriodInMilliseconds;
+
+    @Value("${app.bcryptStrength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.imageCacheSizeInBytes:67108864}")
+    private long imageCacheSizeInBytes;
+
+    @Value("${app.thumbnailMaxPixels:25000000}")
+    private long thumbnailMaxPixels;
+
+    @Value("${app.importDirectory:${java.io.tmpdir}/burgersterminal-imports}")
+    private String importDirectory;
+
+    @Value("${app.ingestionDirectory:${java.io.tmpdir}/burgersterminal-ingestion}")
+    private String ingestionDirectory;
+
+    @Value("${app.nodeId:${random.uuid}}")
+    private String nodeId;
+
+    @Value("${app.importJobHeartbeatDelayInMilliseconds:30000}")
+    private long importJobHeartbeatDelayInMilliseconds;
+
+    @Value("${app.importJobs:2}")
+    private int importJobs;
+
+    @Value("${app.importThreads:6}")
+    private int importThreads;
     
     public Set<String> getCorsAllowedOrigins() {
         return corsAllowedOrigins;
@@ -53,5 +101,69 @@ public class ConfigurationService {
 	public String getPaypalReturnUrl() {
 		return paypalReturnUrl;
 	}
+
+	public long getPaymentSessionTtlInMilliseconds() {
+		return paymentSessionTtlInMilliseconds;
+	}
+
+	public long getUserCacheTtlInMilliseconds() {
+		return userCacheTtlInMilliseconds;
+	}
+
+	public int getAuthenticateRateLimit() {
+		return authenticateRateLimit;
+	}
+
+	public int getRegisterRateLimit() {
+		return registerRateLimit;
+	}
+
+	public int getPaymentRateLimit() {
+		return paymentRateLimit;
+	}
+
+	public int getAvailabilityRateLimit() {
+		return availabilityRateLimit;
+	}
+
+	public long getRateLimitPeriodInMilliseconds() {
+		return rateLimitPeriodInMilliseconds;
+	}
+
+	public int getBcryptStrength() {
+		return bcryptStrength;
+	}
+
+	public long getImageCacheSizeInBytes() {
+		return imageCacheSizeInBytes;
+	}
+
+	public long getThumbnailMaxPixels() {
+		return thumbnailMaxPixels;
+	}
+
+	public String getImportDirectory() {
+		return importDirectory;
+	}
+
+	public String getIngestionDirectory() {
+		return ingestionDirectory;
+	}
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	public long getImportJobHeartbeatDelayInMilliseconds() {
+		return importJobHeartbeatDelayInMilliseconds;
+	}
+
+	public int getImportJobs() {
+		return importJobs;
+	}
+
+	public int getImportThreads() {
+		return importThreads;
+	}
 	
 }
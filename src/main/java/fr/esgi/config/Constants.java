@@ -9,8 +9,30 @@ public final class Constants {
     public static final String AUTHORIZATION = "Authorization";
     public static final String HEADER = "header";
     public static final String BEARER = "Bearer ";
+    public static final String CORS_ALLOWED_METHODS = "POST, PUT, PATCH, GET, OPTIONS, DELETE";
+    public static final String CORS_ALLOWED_HEADERS = "Authorization,Content-Type,Accept,Accept-Language,Cache-Control,If-Modified-Since,If-None-Match,Range,X-Requested-With";
+    public static final String CORS_EXPOSED_HEADERS = "Authorization,Cache-Control,Content-Language,Content-Type,Expires,Last-Modified,Pragma,Location,ETag,Retry-After";
+    public static final String CORS_MAX_AGE_IN_SECONDS = "86400";
+    public static final int CORS_MAX_MATCHED_ORIGINS = 1000;
+    public static final int TOKEN_CACHE_SIZE = 10000;
+    public static final int USER_CACHE_SIZE = 10000;
+    public static final int REVOKED_TOKEN_BLOOM_SIZE = 1 << 20;
+    public static final int REVOKED_TOKEN_BLOOM_HASHES = 7;
+    public static final long TOKEN_REVOCATION_REFRESH_OVERLAP_IN_MILLISECONDS = 60000L;
+    public static final int RATE_LIMIT_MAX_BUCKETS = 100000;
+    public static final int TAKEN_LOGIN_BLOOM_SIZE = 1 << 23;
+    public static final int TAKEN_LOGIN_BLOOM_HASHES = 7;
+    public static final int PASSWORD_QUEUE_CAPACITY_PER_THREAD = 8;
     public static final String STRING = "string";
     public static final String IMAGES = "/images";
+    public static final long IMAGE_MAX_AGE_IN_SECONDS = 60;
+    public static final long IMAGE_IMMUTABLE_MAX_AGE_IN_DAYS = 365;
+    public static final String BLOBS = "blobs";
+    public static final String THUMBNAILS = "thumbnails";
+    public static final int[] THUMBNAIL_SIZES = { 64, 128, 256 };
+    public static final int IMAGE_THREADS = 2;
+    public static final int IMAGE_QUEUE_CAPACITY = 100;
+    public static final long IMAGE_CACHE_MAX_IMAGE_SIZE = 1024 * 1024;
     public static final String DELIMITER = "/";
     public static final String DOUBLE_BACKSLASH = "\\";
     public static final String TEMP = "/tmp";
@@ -32,6 +54,22 @@ public final class Constants {
     public static final String COMMA = ";";
     public static final String CSV = "csv";
     public static final String JSON = "json";
+    public static final int IMPORT_CHUNK_SIZE = 500;
+    public static final int IMPORT_QUEUE_CAPACITY = 1000;
+    public static final int IMPORT_STAGE_THREADS = 3;
+    public static final int IMPORT_JOB_QUEUE_CAPACITY = 16;
+    public static final int IMPORT_REPORT_MAX_ERRORS = 100;
+    public static final int IMPORT_MAX_RECORD_LENGTH = 64 * 1024;
+    public static final int IMPORT_READ_BUFFER_SIZE = 1024 * 1024;
+    public static final int IMPORT_JOB_STALE_HEARTBEATS = 3;
+    public static final String EXPORT_FETCH_SIZE = "500";
+    public static final String INGESTION_INCOMING = "incoming";
+    public static final String INGESTION_PROCESSING = "processing";
+    public static final String INGESTION_PROCESSED = "processed";
+    public static final String INGESTION_FAILED = "failed";
+    public static final int CATALOG_CHANGE_LOG_SIZE = 10000;
+    public static final String CATALOG_TOPIC = "/topic/catalog";
+    public static final int CATALOG_BROADCAST_MAX_CHANGES = 500;
 
 	public static final String MANAGER_ID = "managerId";
 	public static final String CATEGORY_ID = "categoryId";
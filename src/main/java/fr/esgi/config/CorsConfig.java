@@ -0,0 +1,24 @@
+package fr.esgi.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * CorsConfig registering the {@link CorsFilter} before all the other filters,
+ * the security ones included, so that the preflight requests are answered
+ * at once.
+ */
+@Configuration
+public class CorsConfig {
+
+	@Bean
+	public FilterRegistrationBean<CorsFilter> corsFilter(ConfigurationService configurationService) {
+		FilterRegistrationBean<CorsFilter> registration = new FilterRegistrationBean<>(
+				new CorsFilter(configurationService));
+		registration.addUrlPatterns("/*");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return registration;
+	}
+}
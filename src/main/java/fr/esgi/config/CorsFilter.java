@@ -1,46 +1,73 @@
 package fr.esgi.config;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.stereotype.Component;
 
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Cors filter allowing cross-domain requests
+ * Cors filter allowing cross-domain requests from the app.authorizedURLs.
+ *
+ * The headers are computed once per allowed origin. An allowed origin can be
+ * a pattern of subdomains, as https://*.example.com: the parent domains of
+ * the origin are looked up in a set of the patterns. The preflight requests
+ * are answered by this filter, registered first, without going through the
+ * security filters.
  * @author christopher
  *
  */
-@Component
 public class CorsFilter implements Filter {
 
-    private final ConfigurationService configurationService;
+    private static final String WILDCARD = "*";
+
+    private static final String SCHEME_SEPARATOR = "://";
+
+    private final Map<String, CorsHeaders> allowedOrigins = new HashMap<>();
+
+    private final Set<String> allowedOriginPatterns = new HashSet<>();
+
+    /**
+     * The headers of the origins matching a pattern, computed on their first
+     * request.
+     */
+    private final Map<String, CorsHeaders> matchedOrigins = new ConcurrentHashMap<>();
 
-    @Autowired
     public CorsFilter(ConfigurationService configurationService) {
-        this.configurationService = configurationService;
+        for (String allowedOrigin : configurationService.getCorsAllowedOrigins()) {
+            String origin = allowedOrigin.trim();
+            if (origin.contains(SCHEME_SEPARATOR + WILDCARD + ".")) {
+                allowedOriginPatterns.add(origin);
+            } else if (!origin.isEmpty()) {
+                allowedOrigins.put(origin, new CorsHeaders(origin));
+            }
+        }
     }
 
+    @Override
     public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain) throws IOException, ServletException {
         final HttpServletResponse response = (HttpServletResponse) res;
         final HttpServletRequest request = (HttpServletRequest) req;
 
         final String origin = request.getHeader(HttpHeaders.ORIGIN);
+        final boolean preflight = HttpMethod.OPTIONS.name().equals(request.getMethod());
 
-        if (configurationService.getCorsAllowedOrigins().contains(origin)) {
-            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
-            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS));
-            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, "POST, PUT, PATCH, GET, OPTIONS, DELETE");
-            response.setHeader(HttpHeaders.ACCESS_CONTROL_MAX_AGE, "3600");
-            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
-            response.setHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, "Authorization,Cache-Control,Content-Language,Content-Type,Expires,Last-Modified,Pragma,Location");
+        if (null != origin) {
+            final CorsHeaders corsHeaders = getCorsHeaders(origin);
+            if (null != corsHeaders) {
+                corsHeaders.apply(response, preflight);
+            }
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ORIGIN);
         }
 
-        if (HttpMethod.OPTIONS.name().equals(request.getMethod())) {
+        if (preflight) {
             response.setStatus(HttpServletResponse.SC_OK);
             return;
         }
@@ -48,4 +75,82 @@ public class CorsFilter implements Filter {
         chain.doFilter(req, res);
     }
 
+    /**
+     * @return the headers of the origin, null if it is not allowed
+     */
+    private CorsHeaders getCorsHeaders(String origin) {
+        CorsHeaders corsHeaders = allowedOrigins.get(origin);
+        if (null == corsHeaders && !allowedOriginPatterns.isEmpty()) {
+            corsHeaders = matchedOrigins.get(origin);
+            if (null == corsHeaders && matchesPattern(origin)) {
+                corsHeaders = new CorsHeaders(origin);
+                if (matchedOrigins.size() < Constants.CORS_MAX_MATCHED_ORIGINS) {
+                    matchedOrigins.put(origin, corsHeaders);
+                }
+            }
+        }
+        return corsHeaders;
+    }
+
+    /**
+     * Look up https://*.b.example.com, then https://*.example.com and so on
+     * for the origin https://a.b.example.com, with its port if any.
+     */
+    private boolean matchesPattern(String origin) {
+        final int schemeEnd = origin.indexOf(SCHEME_SEPARATOR);
+        if (schemeEnd < 0) {
+            return false;
+        }
+        final int hostStart = schemeEnd + SCHEME_SEPARATOR.length();
+        final int portStart = origin.indexOf(':', hostStart);
+        final int hostEnd = portStart < 0 ? origin.length() : portStart;
+        final String prefix = origin.substring(0, hostStart) + WILDCARD;
+        final String port = origin.substring(hostEnd);
+
+        for (int dot = origin.indexOf('.', hostStart); dot > 0 && dot < hostEnd; dot = origin.indexOf('.', dot + 1)) {
+            if (allowedOriginPatterns.contains(prefix + origin.substring(dot, hostEnd) + port)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        // Nothing to initialize.
+    }
+
+    @Override
+    public void destroy() {
+        // Nothing to release.
+    }
+
+    /**
+     * The immutable headers sent to an allowed origin.
+     */
+    private static final class CorsHeaders {
+
+        private final String[][] headers;
+
+        private final String[][] preflightHeaders;
+
+        private CorsHeaders(String origin) {
+            this.headers = new String[][] {
+                    { HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin },
+                    { HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true" },
+                    { HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, Constants.CORS_EXPOSED_HEADERS } };
+            this.preflightHeaders = new String[][] {
+                    { HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin },
+                    { HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true" },
+                    { HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, Constants.CORS_ALLOWED_METHODS },
+                    { HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, Constants.CORS_ALLOWED_HEADERS },
+                    { HttpHeaders.ACCESS_CONTROL_MAX_AGE, Constants.CORS_MAX_AGE_IN_SECONDS } };
+        }
+
+        private void apply(HttpServletResponse response, boolean preflight) {
+            for (String[] header : preflight ? preflightHeaders : headers) {
+                response.setHeader(header[0], header[1]);
+            }
+        }
+    }
 }
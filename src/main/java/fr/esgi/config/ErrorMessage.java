@@ -21,6 +21,10 @@ public final class ErrorMessage {
     public static final String AN_ERROR_OCCURRED_DURING_THE_IMPORT = "An error occurred during the import";
     public static final String THE_FILE_DOES_NOT_CONTAIN_THE_CORRECT_NUMBER_OF_COLUMNS = "The file does not contain the correct number of columns";
     public static final String ERROR_DURING_READING_OF_FILE = "Error during reading of file";
+    public static final String THE_VALUE_IS_REQUIRED = "The value is required";
+    public static final String THE_VALUE_IS_NOT_A_NUMBER = "The value is not a number";
+    public static final String THE_COLUMN_IS_UNEXPECTED = "The column is unexpected";
+    public static final String THE_COLUMN_IS_MISSING = "The column is missing";
     
     public static final String ERROR_HAPPENED_DURING_PAYMENT_CREATION = "error.happened.during.payment.creation";
     
@@ -28,10 +32,15 @@ public final class ErrorMessage {
     
     public static final String ERROR_CATEGORY_NOT_FOUND = "error.category.not.found";
     
+    public static final String ERROR_MANAGER_NOT_FOUND = "error.manager.not.found";
+    
+    public static final String ERROR_IMPORT_JOB_NOT_FOUND = "error.import.job.not.found";
+    
     public static final String ERROR_COMMAND_MUST_HAVE_ID = "error.command.must.have.id";
     public static final String ERROR_COMMAND_NOT_FOUND = "error.command.not.found";
     public static final String ERROR_NEW_COMMAND_ID_EXIST = "error.new.command.id.exist";
     public static final String ERROR_NOT_COMMANDS = "error.not.commands";
+    public static final String ERROR_CUSTOMER_ID_REQUIRED = "error.customer.id.required";
     
     public static final String ERROR_PRODUCT_MUST_HAVE_ID = "error.product.must.have.id";
     public static final String ERROR_NEW_PRODUCT_ID_EXIST = "error.new.product.id.exist";
@@ -46,6 +55,7 @@ public final class ErrorMessage {
     public static final String ERROR_PAYMENT_CREATION = "error.payment.creation";
 
     public static final String ERROR_DURING_READING_OF_IMAGE = "error.image.reading";
+    public static final String ERROR_IMAGE_NOT_FOUND = "error.image.not.found";
     public static final String ERROR_USER_ROLE_REQUIRED_ACTION = "error.user.role.required.action";
     
     private ErrorMessage() {}
@@ -0,0 +1,27 @@
+package fr.esgi.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * ImageConfig for the threads generating the thumbnails of the uploaded
+ * images.
+ */
+@Configuration
+public class ImageConfig {
+
+	/**
+	 * The uploads beyond the capacity of the queue are rejected: their
+	 * thumbnails are not generated and the original image is served.
+	 */
+	@Bean(name = "imageExecutor")
+	public ThreadPoolTaskExecutor imageExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(Constants.IMAGE_THREADS);
+		executor.setMaxPoolSize(Constants.IMAGE_THREADS);
+		executor.setQueueCapacity(Constants.IMAGE_QUEUE_CAPACITY);
+		executor.setThreadNamePrefix("image-");
+		return executor;
+	}
+}
@@ -0,0 +1,54 @@
+package fr.esgi.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+
+/**
+ * ImportConfig for the threads of the import pipelines and the scan of the
+ * ingestion directory.
+ */
+@Configuration
+@EnableScheduling
+public class ImportConfig {
+
+	/**
+	 * Each import holds three threads of this pool until it ends, and the
+	 * stages of an import block on each other: a stage left waiting in the
+	 * queue would block the stages already running. The app.importThreads of
+	 * the pool must therefore cover every stage of the app.importJobs imports
+	 * that the import job executor runs at once.
+	 */
+	@Bean(name = "importExecutor")
+	public ThreadPoolTaskExecutor importExecutor(ConfigurationService configurationService) {
+		int threads = configurationService.getImportThreads();
+		Assert.state(threads >= Constants.IMPORT_STAGE_THREADS * configurationService.getImportJobs(),
+				"app.importThreads must be at least " + Constants.IMPORT_STAGE_THREADS + " times app.importJobs");
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setThreadNamePrefix("import-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		return executor;
+	}
+
+	/**
+	 * Runs the import jobs, the only callers of the import pipelines: its size
+	 * bounds the number of imports running at once. A job waits for its
+	 * pipeline, so the jobs do not share the pool of the pipelines.
+	 *
+	 * The jobs beyond the capacity of the queue are rejected: they stay
+	 * pending in the database and are started by a later heartbeat.
+	 */
+	@Bean(name = "importJobExecutor")
+	public ThreadPoolTaskExecutor importJobExecutor(ConfigurationService configurationService) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(configurationService.getImportJobs());
+		executor.setMaxPoolSize(configurationService.getImportJobs());
+		executor.setQueueCapacity(Constants.IMPORT_JOB_QUEUE_CAPACITY);
+		executor.setThreadNamePrefix("import-job-");
+		return executor;
+	}
+}
@@ -0,0 +1,29 @@
+package fr.esgi.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+/**
+ * StompSendInterceptor rejecting the SEND frames of the clients.
+ *
+ * The terminals only subscribe: the simple broker would relay a SEND to
+ * /topic to every subscriber, so the catalog topic could be forged. Only the
+ * server publishes, through the broker messaging template, which does not go
+ * through the client inbound channel.
+ */
+public class StompSendInterceptor implements ChannelInterceptor {
+
+	@Override
+	public Message<?> preSend(Message<?> message, MessageChannel channel) {
+		StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+		if (null != accessor && StompCommand.SEND == accessor.getCommand()) {
+			throw new MessageDeliveryException(message, "The clients can not send to " + accessor.getDestination());
+		}
+		return message;
+	}
+}
@@ -1,7 +1,10 @@
 package fr.esgi.dao;
 
+import java.util.List;
+
 import fr.esgi.domain.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -11,4 +14,7 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+	@Query("SELECT c.id FROM Category c")
+	List<Long> findAllIds();
+
 }
@@ -1,13 +1,23 @@
 package fr.esgi.dao;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import fr.esgi.config.Constants;
 import fr.esgi.domain.Command;
+import fr.esgi.service.dto.CommandDTO;
 
+import java.time.ZonedDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -20,6 +30,18 @@ public interface CommandRepository extends JpaRepository<Command, Long> {
 
 	Optional<Command> findByPaymentId(String paymentId);
 
+	@Query("SELECT c.id FROM Command c WHERE c.paymentId = :paymentId")
+	Optional<Long> findIdByPaymentId(@Param("paymentId") String paymentId);
+
+	@Modifying
+	@Query("UPDATE Command c "
+			+ "SET c.orderStatus = :orderStatus, c.saleId = :saleId, c.date = :date "
+			+ "WHERE c.id = :id")
+	int updatePaymentStatus(@Param("id") Long id,
+			@Param("orderStatus") String orderStatus,
+			@Param("saleId") String saleId,
+			@Param("date") ZonedDateTime date);
+
 	@Query("SELECT c FROM Command c "
 			+ "WHERE c.customer.id = :customerId "
 			+ "AND orderStatus = :orderStatus ORDER BY date DESC")
@@ -27,4 +49,9 @@ public interface CommandRepository extends JpaRepository<Command, Long> {
 			@Param("customerId") Long customerId,
 			@Param("orderStatus") String orderStatus);
 
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = Constants.EXPORT_FETCH_SIZE))
+	@Query("SELECT new fr.esgi.service.dto.CommandDTO(c.id, c.orderStatus, c.date, cu.id, c.paymentId, c.price, c.saleId) "
+			+ "FROM Command c LEFT JOIN c.customer cu ORDER BY c.id")
+	Stream<CommandDTO> streamAll();
+
 }
@@ -0,0 +1,43 @@
+package fr.esgi.dao;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import fr.esgi.domain.ImageBlob;
+
+/**
+ * Spring Data JPA repository for the ImageBlob entity.
+ *
+ * The reference counts are updated in the database, so concurrent uploads
+ * of the same image do not lose an increment.
+ */
+@Repository
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+	@Modifying
+	@Query("UPDATE ImageBlob b SET b.referenceCount = b.referenceCount + 1 WHERE b.hash = :hash")
+	int incrementReferenceCount(@Param("hash") String hash);
+
+	@Modifying
+	@Query("UPDATE ImageBlob b SET b.referenceCount = b.referenceCount - 1 "
+			+ "WHERE b.hash = :hash AND b.referenceCount > 0")
+	int decrementReferenceCount(@Param("hash") String hash);
+
+	@Query("SELECT b.hash FROM ImageBlob b WHERE b.referenceCount = 0")
+	List<String> findAllUnreferencedHashes();
+
+	/**
+	 * Committed on return: the file of the image is deleted only once no
+	 * upload can reference it again.
+	 */
+	@Modifying
+	@Transactional
+	@Query("DELETE FROM ImageBlob b WHERE b.hash = :hash AND b.referenceCount = 0")
+	int deleteIfUnreferenced(@Param("hash") String hash);
+}
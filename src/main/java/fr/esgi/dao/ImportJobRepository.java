@@ -0,0 +1,44 @@
+package fr.esgi.dao;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import fr.esgi.domain.ImportJob;
+import fr.esgi.enums.ImportJobStatus;
+
+/**
+ * Spring Data JPA repository for the ImportJob entity.
+ */
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+	List<ImportJob> findAllByStatusInOrderByIdAsc(Collection<ImportJobStatus> statuses);
+
+	/**
+	 * Take a job over if it has no owner, already belongs to the node or its
+	 * owner has stopped beating. Only one node can win the update.
+	 *
+	 * @return 1 if the job is now owned by the node, 0 otherwise
+	 */
+	@Transactional
+	@Modifying
+	@Query("UPDATE ImportJob j SET j.owner = :owner, j.heartbeat = :now WHERE j.id = :id AND j.status IN :statuses"
+			+ " AND (j.owner IS NULL OR j.owner = :owner OR j.heartbeat IS NULL OR j.heartbeat < :staleBefore)")
+	int claim(@Param("id") Long id, @Param("owner") String owner, @Param("statuses") Collection<ImportJobStatus> statuses,
+			@Param("now") ZonedDateTime now, @Param("staleBefore") ZonedDateTime staleBefore);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE ImportJob j SET j.heartbeat = :now WHERE j.owner = :owner AND j.status IN :statuses")
+	int beat(@Param("owner") String owner, @Param("statuses") Collection<ImportJobStatus> statuses,
+			@Param("now") ZonedDateTime now);
+
+}
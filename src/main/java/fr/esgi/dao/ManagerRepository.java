@@ -1,5 +1,6 @@
 package fr.esgi.dao;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -22,4 +23,7 @@ public interface ManagerRepository extends JpaRepository<Manager, Long> {
 			+ "OR UPPER(m.user.email) = UPPER(:userName)")
      Optional<Manager> findByUserName(@Param("userName") String userName);
 
+	@Query("SELECT m.id FROM Manager m")
+	List<Long> findAllIds();
+
 }
@@ -1,11 +1,20 @@
 package fr.esgi.dao;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import fr.esgi.config.Constants;
 import fr.esgi.domain.Menu;
+import fr.esgi.service.dto.MenuDTO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,7 +23,11 @@ import org.springframework.stereotype.Repository;
  * @author christopher
  */
 @Repository
-public interface MenuRepository extends JpaRepository<Menu, Long> {
+public interface MenuRepository extends JpaRepository<Menu, Long>, MenuRepositoryCustom {
+
+	String FIND_ALL_DTO = "SELECT new fr.esgi.service.dto.MenuDTO(m.id, m.name, m.price, m.available, ma.id) "
+			+ "FROM Menu m LEFT JOIN m.manager ma ORDER BY m.id";
+
 	Menu findByName(String name);
 	void deleteByName(String name);
 	
@@ -25,4 +38,24 @@ public interface MenuRepository extends JpaRepository<Menu, Long> {
 			+ "GROUP BY command_menus.menus_id LIMIT :menusCount", nativeQuery = true)
 	List<Menu> findAllTrendsMenus(@Param("orderStatus") String orderStatus, @Param("menusCount") int menusCount);
 
+	@Query("SELECT m.id, m.name FROM Menu m WHERE m.name IN :names")
+	List<Object[]> findIdsByNames(@Param("names") Collection<String> names);
+
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = Constants.EXPORT_FETCH_SIZE))
+	@Query(FIND_ALL_DTO)
+	Stream<MenuDTO> streamAll();
+
+	@Query(FIND_ALL_DTO)
+	List<MenuDTO> findAllDTO();
+
+	@Query("SELECT new fr.esgi.service.dto.MenuDTO(m.id, m.name, m.price, m.available, ma.id) "
+			+ "FROM Menu m LEFT JOIN m.manager ma WHERE m.id IN :ids ORDER BY m.id")
+	List<MenuDTO> findAllDTOByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Query("SELECT m.id, p.id FROM Menu m JOIN m.products p")
+	List<Object[]> findAllProductIds();
+
+	@Query("SELECT m.id, p.id FROM Menu m JOIN m.products p WHERE m.id IN :ids")
+	List<Object[]> findProductIdsByMenuIdIn(@Param("ids") Collection<Long> ids);
+
 }
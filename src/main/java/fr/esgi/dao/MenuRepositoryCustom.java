@@ -0,0 +1,20 @@
+package fr.esgi.dao;
+
+import java.util.List;
+
+import fr.esgi.domain.Menu;
+
+/**
+ * Custom operations of the MenuRepository.
+ */
+public interface MenuRepositoryCustom {
+
+	/**
+	 * Update the name, price, availability and manager of existing menus in a
+	 * single JDBC batch.
+	 * 
+	 * @param menus the menus to update, with their id
+	 * @return the number of rows updated
+	 */
+	int updateAll(List<Menu> menus);
+}
@@ -0,0 +1,49 @@
+package fr.esgi.dao;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import fr.esgi.domain.Menu;
+
+/**
+ * Implementation of the custom operations of the MenuRepository.
+ */
+public class MenuRepositoryImpl implements MenuRepositoryCustom {
+
+	private static final String UPDATE_MENU = "UPDATE menu "
+			+ "SET name = ?, price = ?, available = ?, manager_id = ? "
+			+ "WHERE id = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public MenuRepositoryImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public int updateAll(List<Menu> menus) {
+		if (menus.isEmpty()) {
+			return 0;
+		}
+		List<Object[]> batchArgs = new ArrayList<>(menus.size());
+		for (Menu menu : menus) {
+			batchArgs.add(new Object[] {
+					menu.getName(),
+					menu.getPrice(),
+					menu.getAvailable(),
+					null == menu.getManager() ? null : menu.getManager().getId(),
+					menu.getId() });
+		}
+		int updated = 0;
+		for (int count : jdbcTemplate.batchUpdate(UPDATE_MENU, batchArgs)) {
+			// a rewritten batch does not report the count of each statement
+			updated += Statement.SUCCESS_NO_INFO == count ? 1 : count;
+		}
+		return updated;
+	}
+}
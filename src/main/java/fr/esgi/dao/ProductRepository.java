@@ -1,23 +1,35 @@
 package fr.esgi.dao;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import fr.esgi.config.Constants;
 import fr.esgi.domain.Product;
+import fr.esgi.service.dto.ProductDTO;
 
 /**
  * Spring Data JPA repository for the ProductRepository entity.
  * @author christopher
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+	 String FIND_ALL_DTO = "SELECT new fr.esgi.service.dto.ProductDTO(p.id, p.name, p.price, p.available, c.id, m.id) "
+			 + "FROM Product p LEFT JOIN p.category c LEFT JOIN p.manager m ORDER BY p.id";
 
 	 Optional<Product> findOneByNameIgnoreCase(String name);
 	 
@@ -30,4 +42,18 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 			 + "ON m.products_id = p.id "
 			 + "WHERE m.menus_id = :menuId", nativeQuery = true)
 	 List<Product> findAllByMenuId(@Param("menuId") Long menuId);
+
+	 @Query("SELECT p.id, p.name FROM Product p WHERE p.name IN :names")
+	 List<Object[]> findIdsByNames(@Param("names") Collection<String> names);
+
+	 @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = Constants.EXPORT_FETCH_SIZE))
+	 @Query(FIND_ALL_DTO)
+	 Stream<ProductDTO> streamAll();
+
+	 @Query(FIND_ALL_DTO)
+	 List<ProductDTO> findAllDTO();
+
+	 @Query("SELECT new fr.esgi.service.dto.ProductDTO(p.id, p.name, p.price, p.available, c.id, m.id) "
+			 + "FROM Product p LEFT JOIN p.category c LEFT JOIN p.manager m WHERE p.id IN :ids ORDER BY p.id")
+	 List<ProductDTO> findAllDTOByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,20 @@
+package fr.esgi.dao;
+
+import java.util.List;
+
+import fr.esgi.domain.Product;
+
+/**
+ * Custom operations of the ProductRepository.
+ */
+public interface ProductRepositoryCustom {
+
+	/**
+	 * Update the name, price, availability, category and manager of existing
+	 * products in a single JDBC batch.
+	 * 
+	 * @param products the products to update, with their id
+	 * @return the number of rows updated
+	 */
+	int updateAll(List<Product> products);
+}
@@ -0,0 +1,50 @@
+package fr.esgi.dao;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import fr.esgi.domain.Product;
+
+/**
+ * Implementation of the custom operations of the ProductRepository.
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+	private static final String UPDATE_PRODUCT = "UPDATE product "
+			+ "SET name = ?, price = ?, available = ?, category_id = ?, manager_id = ? "
+			+ "WHERE id = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public ProductRepositoryImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public int updateAll(List<Product> products) {
+		if (products.isEmpty()) {
+			return 0;
+		}
+		List<Object[]> batchArgs = new ArrayList<>(products.size());
+		for (Product product : products) {
+			batchArgs.add(new Object[] {
+					product.getName(),
+					product.getPrice(),
+					product.isAvailable(),
+					null == product.getCategory() ? null : product.getCategory().getId(),
+					null == product.getManager() ? null : product.getManager().getId(),
+					product.getId() });
+		}
+		int updated = 0;
+		for (int count : jdbcTemplate.batchUpdate(UPDATE_PRODUCT, batchArgs)) {
+			// a rewritten batch does not report the count of each statement
+			updated += Statement.SUCCESS_NO_INFO == count ? 1 : count;
+		}
+		return updated;
+	}
+}
@@ -0,0 +1,24 @@
+package fr.esgi.dao;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import fr.esgi.domain.RevokedSubject;
+
+/**
+ * Spring Data JPA repository for the RevokedSubject entity.
+ */
+@Repository
+public interface RevokedSubjectRepository extends JpaRepository<RevokedSubject, String> {
+
+	List<RevokedSubject> findAllByRevokedAtGreaterThanAndExpirationGreaterThan(long since, long now);
+
+	@Modifying
+	@Query("DELETE FROM RevokedSubject s WHERE s.expiration <= :now")
+	int deleteExpired(@Param("now") long now);
+}
@@ -0,0 +1,24 @@
+package fr.esgi.dao;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import fr.esgi.domain.RevokedToken;
+
+/**
+ * Spring Data JPA repository for the RevokedToken entity.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+	List<RevokedToken> findAllByRevokedAtGreaterThanAndExpirationGreaterThan(long since, long now);
+
+	@Modifying
+	@Query("DELETE FROM RevokedToken t WHERE t.expiration <= :now")
+	int deleteExpired(@Param("now") long now);
+}
@@ -1,9 +1,14 @@
 package fr.esgi.dao;
 
 import fr.esgi.domain.User;
+import fr.esgi.service.dto.UserAccountDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 /**
  * Spring Data JPA repository for the UserRepository entity.
@@ -16,4 +21,36 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findOneByEmailIgnoreCase(String email);
 
+    boolean existsByLoginPseudo(String loginPseudo);
+
+    boolean existsByLoginEmail(String loginEmail);
+
+    @Query("SELECT u.pseudo FROM User u")
+    List<String> findAllPseudos();
+
+    @Query("SELECT u.email FROM User u WHERE u.email IS NOT NULL")
+    List<String> findAllEmails();
+
+    /**
+     * Find the accounts of the user with this email or pseudo, with his role
+     * and the ids of his customer and manager profiles, in one query.
+     *
+     * @param login the email or the pseudo, in lower case
+     */
+    @Query("SELECT new fr.esgi.service.dto.UserAccountDTO(u.pseudo, u.email, u.password, u.activated, r.name, c.id, m.id) "
+            + "FROM User u "
+            + "LEFT JOIN u.role r "
+            + "LEFT JOIN Customer c ON c.user = u "
+            + "LEFT JOIN Manager m ON m.user = u "
+            + "WHERE u.loginEmail = :login OR u.loginPseudo = :login")
+    List<UserAccountDTO> findAllAccountsByLogin(@Param("login") String login);
+
+    /**
+     * Fill the lower case logins of the users created before they existed.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.loginPseudo = LOWER(u.pseudo), u.loginEmail = LOWER(u.email) "
+            + "WHERE u.loginPseudo IS NULL")
+    int normalizeLogins();
+
 }
@@ -0,0 +1,121 @@
+package fr.esgi.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * An image of the content-addressed store, identified by the SHA-256 of its
+ * content.
+ *
+ * The reference count is the number of users having this image: an image
+ * no longer referenced is deleted by the next sweep of the store.
+ */
+@Entity
+@Table(name = "image_blob", indexes = @Index(name = "idx_image_blob_reference_count", columnList = "referenceCount"))
+public class ImageBlob implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@Size(min = 64, max = 64)
+	@Column(name = "hash", length = 64)
+	private String hash;
+
+	@NotNull
+	@Size(max = 100)
+	@Column(name = "contentType", length = 100)
+	private String contentType;
+
+	@Column(name = "length")
+	private long length;
+
+	@Column(name = "referenceCount")
+	private int referenceCount;
+
+	public ImageBlob() {
+		// Empty constructor needed for Hibernate.
+	}
+
+	public String getHash() {
+		return hash;
+	}
+
+	public void setHash(String hash) {
+		this.hash = hash;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public void setContentType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	public void setLength(long length) {
+		this.length = length;
+	}
+
+	public int getReferenceCount() {
+		return referenceCount;
+	}
+
+	public void setReferenceCount(int referenceCount) {
+		this.referenceCount = referenceCount;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(hash, contentType, length, referenceCount);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ImageBlob other = (ImageBlob) obj;
+		return Objects.equals(hash, other.hash)
+				&& Objects.equals(contentType, other.contentType)
+				&& length == other.length
+				&& referenceCount == other.referenceCount;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ImageBlob [");
+		if (hash != null) {
+			builder.append("hash=");
+			builder.append(hash);
+			builder.append(", ");
+		}
+		if (contentType != null) {
+			builder.append("contentType=");
+			builder.append(contentType);
+			builder.append(", ");
+		}
+		builder.append("length=");
+		builder.append(length);
+		builder.append(", ");
+		builder.append("referenceCount=");
+		builder.append(referenceCount);
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,404 @@
+package fr.esgi.domain;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import fr.esgi.enums.ImportJobStatus;
+import fr.esgi.enums.ImportType;
+
+/**
+ * An import of products or menus run in the background.
+ *
+ * The checkpoint is the position of the last row committed: an interrupted
+ * job is resumed after it.
+ *
+ * A job belongs to the node running it, which refreshes its heartbeat. The
+ * owner and the heartbeat are only changed by the claim and heartbeat
+ * queries of the repository, never by a save of the entity.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_import_job_status", columnList = "status"))
+public class ImportJob implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.AUTO)
+	private Long id;
+
+	@NotNull
+	@Enumerated(EnumType.STRING)
+	@Column(name = "type", length = 20)
+	private ImportType type;
+
+	@NotNull
+	@Column(name = "fileFormat", length = 10)
+	private String fileFormat;
+
+	@Size(max = 255)
+	@Column(name = "fileName")
+	private String fileName;
+
+	@Size(max = 1024)
+	@Column(name = "filePath", length = 1024)
+	private String filePath;
+
+	@Column(name = "fileSize")
+	private long fileSize;
+
+	@NotNull
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", length = 20)
+	private ImportJobStatus status;
+
+	@Column(name = "rowsParsed")
+	private long rowsParsed;
+
+	@Column(name = "rowsWritten")
+	private long rowsWritten;
+
+	@Column(name = "rowsUpdated")
+	private long rowsUpdated;
+
+	@Column(name = "rowsFailed")
+	private long rowsFailed;
+
+	@Column(name = "checkpoint")
+	private long checkpoint;
+
+	@Column(name = "bytesRead")
+	private long bytesRead;
+
+	@Column(name = "startDate")
+	private ZonedDateTime startDate;
+
+	@Column(name = "endDate")
+	private ZonedDateTime endDate;
+
+	@Column(name = "lastUpdate")
+	private ZonedDateTime lastUpdate;
+
+	@Column(name = "processingTime")
+	private long processingTime;
+
+	@Size(max = 64)
+	@Column(name = "owner", length = 64, updatable = false)
+	private String owner;
+
+	@Column(name = "heartbeat", updatable = false)
+	private ZonedDateTime heartbeat;
+
+	@Size(max = 1024)
+	@Column(name = "errorMessage", length = 1024)
+	private String errorMessage;
+
+	public ImportJob() {
+		// Empty constructor needed for Hibernate.
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public ImportType getType() {
+		return type;
+	}
+
+	public void setType(ImportType type) {
+		this.type = type;
+	}
+
+	public String getFileFormat() {
+		return fileFormat;
+	}
+
+	public void setFileFormat(String fileFormat) {
+		this.fileFormat = fileFormat;
+	}
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	public void setFileName(String fileName) {
+		this.fileName = fileName;
+	}
+
+	public String getFilePath() {
+		return filePath;
+	}
+
+	public void setFilePath(String filePath) {
+		this.filePath = filePath;
+	}
+
+	public long getFileSize() {
+		return fileSize;
+	}
+
+	public void setFileSize(long fileSize) {
+		this.fileSize = fileSize;
+	}
+
+	public ImportJobStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(ImportJobStatus status) {
+		this.status = status;
+	}
+
+	public long getRowsParsed() {
+		return rowsParsed;
+	}
+
+	public void setRowsParsed(long rowsParsed) {
+		this.rowsParsed = rowsParsed;
+	}
+
+	public long getRowsWritten() {
+		return rowsWritten;
+	}
+
+	public void setRowsWritten(long rowsWritten) {
+		this.rowsWritten = rowsWritten;
+	}
+
+	public long getRowsUpdated() {
+		return rowsUpdated;
+	}
+
+	public void setRowsUpdated(long rowsUpdated) {
+		this.rowsUpdated = rowsUpdated;
+	}
+
+	public long getRowsFailed() {
+		return rowsFailed;
+	}
+
+	public void setRowsFailed(long rowsFailed) {
+		this.rowsFailed = rowsFailed;
+	}
+
+	public long getCheckpoint() {
+		return checkpoint;
+	}
+
+	public void setCheckpoint(long checkpoint) {
+		this.checkpoint = checkpoint;
+	}
+
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	public void setBytesRead(long bytesRead) {
+		this.bytesRead = bytesRead;
+	}
+
+	public ZonedDateTime getStartDate() {
+		return startDate;
+	}
+
+	public void setStartDate(ZonedDateTime startDate) {
+		this.startDate = startDate;
+	}
+
+	public ZonedDateTime getEndDate() {
+		return endDate;
+	}
+
+	public void setEndDate(ZonedDateTime endDate) {
+		this.endDate = endDate;
+	}
+
+	public ZonedDateTime getLastUpdate() {
+		return lastUpdate;
+	}
+
+	public void setLastUpdate(ZonedDateTime lastUpdate) {
+		this.lastUpdate = lastUpdate;
+	}
+
+	/**
+	 * @return the time spent running the job, in milliseconds, without the
+	 *         time it was interrupted
+	 */
+	public long getProcessingTime() {
+		return processingTime;
+	}
+
+	public void setProcessingTime(long processingTime) {
+		this.processingTime = processingTime;
+	}
+
+	public String getOwner() {
+		return owner;
+	}
+
+	public void setOwner(String owner) {
+		this.owner = owner;
+	}
+
+	public ZonedDateTime getHeartbeat() {
+		return heartbeat;
+	}
+
+	public void setHeartbeat(ZonedDateTime heartbeat) {
+		this.heartbeat = heartbeat;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, type, fileFormat, fileName, filePath, fileSize, status, rowsParsed, rowsWritten,
+				rowsUpdated, rowsFailed, checkpoint, bytesRead, startDate, endDate, lastUpdate,
+				processingTime, owner, heartbeat, errorMessage);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ImportJob other = (ImportJob) obj;
+		return Objects.equals(id, other.id)
+				&& Objects.equals(type, other.type)
+				&& Objects.equals(fileFormat, other.fileFormat)
+				&& Objects.equals(fileName, other.fileName)
+				&& Objects.equals(filePath, other.filePath)
+				&& fileSize == other.fileSize
+				&& Objects.equals(status, other.status)
+				&& rowsParsed == other.rowsParsed
+				&& rowsWritten == other.rowsWritten
+				&& rowsUpdated == other.rowsUpdated
+				&& rowsFailed == other.rowsFailed
+				&& checkpoint == other.checkpoint
+				&& bytesRead == other.bytesRead
+				&& Objects.equals(startDate, other.startDate)
+				&& Objects.equals(endDate, other.endDate)
+				&& Objects.equals(lastUpdate, other.lastUpdate)
+				&& processingTime == other.processingTime
+				&& Objects.equals(owner, other.owner)
+				&& Objects.equals(heartbeat, other.heartbeat)
+				&& Objects.equals(errorMessage, other.errorMessage);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ImportJob [");
+		if (id != null) {
+			builder.append("id=");
+			builder.append(id);
+			builder.append(", ");
+		}
+		if (type != null) {
+			builder.append("type=");
+			builder.append(type);
+			builder.append(", ");
+		}
+		if (fileFormat != null) {
+			builder.append("fileFormat=");
+			builder.append(fileFormat);
+			builder.append(", ");
+		}
+		if (fileName != null) {
+			builder.append("fileName=");
+			builder.append(fileName);
+			builder.append(", ");
+		}
+		if (filePath != null) {
+			builder.append("filePath=");
+			builder.append(filePath);
+			builder.append(", ");
+		}
+		builder.append("fileSize=");
+		builder.append(fileSize);
+		builder.append(", ");
+		if (status != null) {
+			builder.append("status=");
+			builder.append(status);
+			builder.append(", ");
+		}
+		builder.append("rowsParsed=");
+		builder.append(rowsParsed);
+		builder.append(", ");
+		builder.append("rowsWritten=");
+		builder.append(rowsWritten);
+		builder.append(", ");
+		builder.append("rowsUpdated=");
+		builder.append(rowsUpdated);
+		builder.append(", ");
+		builder.append("rowsFailed=");
+		builder.append(rowsFailed);
+		builder.append(", ");
+		builder.append("checkpoint=");
+		builder.append(checkpoint);
+		builder.append(", ");
+		builder.append("bytesRead=");
+		builder.append(bytesRead);
+		builder.append(", ");
+		if (startDate != null) {
+			builder.append("startDate=");
+			builder.append(startDate);
+			builder.append(", ");
+		}
+		if (endDate != null) {
+			builder.append("endDate=");
+			builder.append(endDate);
+			builder.append(", ");
+		}
+		if (lastUpdate != null) {
+			builder.append("lastUpdate=");
+			builder.append(lastUpdate);
+			builder.append(", ");
+		}
+		builder.append("processingTime=");
+		builder.append(processingTime);
+		builder.append(", ");
+		if (owner != null) {
+			builder.append("owner=");
+			builder.append(owner);
+			builder.append(", ");
+		}
+		if (heartbeat != null) {
+			builder.append("heartbeat=");
+			builder.append(heartbeat);
+			builder.append(", ");
+		}
+		if (errorMessage != null) {
+			builder.append("errorMessage=");
+			builder.append(errorMessage);
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+}
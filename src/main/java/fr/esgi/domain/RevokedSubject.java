@@ -0,0 +1,123 @@
+package fr.esgi.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.validation.constraints.Size;
+
+/**
+ * The revocation of all the tokens of a subject, the pseudo of a user,
+ * issued before notBefore. It is kept until the last of these tokens
+ * expires. The nodes load the revocations by revokedAt, incrementally.
+ */
+@Entity
+@Table(name = "revoked_subject", indexes = {
+		@Index(name = "idx_revoked_subject_expiration", columnList = "expiration"),
+		@Index(name = "idx_revoked_subject_revoked_at", columnList = "revokedAt") })
+public class RevokedSubject implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@Size(max = 50)
+	@Column(name = "subject", length = 50)
+	private String subject;
+
+	@Column(name = "notBefore")
+	private long notBefore;
+
+	@Column(name = "expiration")
+	private long expiration;
+
+	@Column(name = "revokedAt")
+	private long revokedAt;
+
+	public RevokedSubject() {
+		// Empty constructor needed for Hibernate.
+	}
+
+	public RevokedSubject(String subject, long notBefore, long expiration, long revokedAt) {
+		this.subject = subject;
+		this.notBefore = notBefore;
+		this.expiration = expiration;
+		this.revokedAt = revokedAt;
+	}
+
+	public String getSubject() {
+		return subject;
+	}
+
+	public void setSubject(String subject) {
+		this.subject = subject;
+	}
+
+	public long getNotBefore() {
+		return notBefore;
+	}
+
+	public void setNotBefore(long notBefore) {
+		this.notBefore = notBefore;
+	}
+
+	public long getExpiration() {
+		return expiration;
+	}
+
+	public void setExpiration(long expiration) {
+		this.expiration = expiration;
+	}
+
+	public long getRevokedAt() {
+		return revokedAt;
+	}
+
+	public void setRevokedAt(long revokedAt) {
+		this.revokedAt = revokedAt;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(subject, notBefore, expiration, revokedAt);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		RevokedSubject other = (RevokedSubject) obj;
+		return Objects.equals(subject, other.subject)
+				&& notBefore == other.notBefore
+				&& expiration == other.expiration
+				&& revokedAt == other.revokedAt;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("RevokedSubject [");
+		if (subject != null) {
+			builder.append("subject=");
+			builder.append(subject);
+			builder.append(", ");
+		}
+		builder.append("notBefore=");
+		builder.append(notBefore);
+		builder.append(", ");
+		builder.append("expiration=");
+		builder.append(expiration);
+		builder.append(", ");
+		builder.append("revokedAt=");
+		builder.append(revokedAt);
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,106 @@
+package fr.esgi.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.validation.constraints.Size;
+
+/**
+ * A revoked token, identified by its jti claim. It is kept until the token
+ * expires. The nodes load the revocations by revokedAt, incrementally.
+ */
+@Entity
+@Table(name = "revoked_token", indexes = {
+		@Index(name = "idx_revoked_token_expiration", columnList = "expiration"),
+		@Index(name = "idx_revoked_token_revoked_at", columnList = "revokedAt") })
+public class RevokedToken implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@Size(max = 36)
+	@Column(name = "tokenId", length = 36)
+	private String tokenId;
+
+	@Column(name = "expiration")
+	private long expiration;
+
+	@Column(name = "revokedAt")
+	private long revokedAt;
+
+	public RevokedToken() {
+		// Empty constructor needed for Hibernate.
+	}
+
+	public RevokedToken(String tokenId, long expiration, long revokedAt) {
+		this.tokenId = tokenId;
+		this.expiration = expiration;
+		this.revokedAt = revokedAt;
+	}
+
+	public String getTokenId() {
+		return tokenId;
+	}
+
+	public void setTokenId(String tokenId) {
+		this.tokenId = tokenId;
+	}
+
+	public long getExpiration() {
+		return expiration;
+	}
+
+	public void setExpiration(long expiration) {
+		this.expiration = expiration;
+	}
+
+	public long getRevokedAt() {
+		return revokedAt;
+	}
+
+	public void setRevokedAt(long revokedAt) {
+		this.revokedAt = revokedAt;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(tokenId, expiration, revokedAt);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		RevokedToken other = (RevokedToken) obj;
+		return Objects.equals(tokenId, other.tokenId)
+				&& expiration == other.expiration
+				&& revokedAt == other.revokedAt;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("RevokedToken [");
+		if (tokenId != null) {
+			builder.append("tokenId=");
+			builder.append(tokenId);
+			builder.append(", ");
+		}
+		builder.append("expiration=");
+		builder.append(expiration);
+		builder.append(", ");
+		builder.append("revokedAt=");
+		builder.append(revokedAt);
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -11,6 +11,7 @@ import javax.validation.constraints.Size;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.Locale;
 import java.util.Objects;
 
 /**
@@ -19,6 +20,9 @@ import java.util.Objects;
  * A user.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_user_login_pseudo", columnList = "login_pseudo"),
+        @Index(name = "idx_user_login_email", columnList = "login_email") })
 public class User implements Serializable {
 
 	private static final long serialVersionUID = 1L;
@@ -63,6 +67,28 @@ public class User implements Serializable {
     @Column(name = "image_url", length = 256)
     private String imageUrl;
 
+    /**
+     * The pseudo in lower case, to find a user by his login on an index.
+     */
+    @JsonIgnore
+    @Column(name = "login_pseudo", length = 50)
+    private String loginPseudo;
+
+    /**
+     * The email in lower case, to find a user by his login on an index.
+     */
+    @JsonIgnore
+    @Column(name = "login_email", length = 100)
+    private String loginEmail;
+
+    @Size(max = 100)
+    @Column(name = "image_content_type", length = 100)
+    private String imageContentType;
+
+    @Size(max = 64)
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
     @Column
     private LocalDate birthDay;
 
@@ -145,6 +171,22 @@ public class User implements Serializable {
         this.imageUrl = imageUrl;
     }
 
+    public String getImageContentType() {
+        return imageContentType;
+    }
+
+    public void setImageContentType(String imageContentType) {
+        this.imageContentType = imageContentType;
+    }
+
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
     public LocalDate getBirthDay() {
         return birthDay;
     }
@@ -161,6 +203,21 @@ public class User implements Serializable {
         this.role = role;
     }
 
+    public String getLoginPseudo() {
+        return loginPseudo;
+    }
+
+    public String getLoginEmail() {
+        return loginEmail;
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void normalizeLogins() {
+        loginPseudo = (null == pseudo) ? null : pseudo.toLowerCase(Locale.ENGLISH);
+        loginEmail = (null == email) ? null : email.toLowerCase(Locale.ENGLISH);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -231,6 +288,16 @@ public class User implements Serializable {
 			builder.append(imageUrl);
 			builder.append(", ");
 		}
+		if (imageContentType != null) {
+			builder.append("imageContentType=");
+			builder.append(imageContentType);
+			builder.append(", ");
+		}
+		if (imageHash != null) {
+			builder.append("imageHash=");
+			builder.append(imageHash);
+			builder.append(", ");
+		}
 		if (birthDay != null) {
 			builder.append("birthDay=");
 			builder.append(birthDay);
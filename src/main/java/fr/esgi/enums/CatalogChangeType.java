@@ -0,0 +1,10 @@
+package fr.esgi.enums;
+
+
+public enum CatalogChangeType {
+
+    UPSERT,
+
+    DELETE,
+
+}
@@ -0,0 +1,14 @@
+package fr.esgi.enums;
+
+
+public enum ImportJobStatus {
+
+    PENDING,
+
+    RUNNING,
+
+    DONE,
+
+    FAILED,
+
+}
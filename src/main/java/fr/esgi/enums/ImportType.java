@@ -0,0 +1,10 @@
+package fr.esgi.enums;
+
+
+public enum ImportType {
+
+    PRODUCT,
+
+    MENU,
+
+}
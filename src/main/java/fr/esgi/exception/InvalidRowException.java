@@ -0,0 +1,31 @@
+package fr.esgi.exception;
+
+/**
+ * BurgerSTerminalException for a row of an import file which can not be imported.
+ */
+public class InvalidRowException extends BurgerSTerminalException {
+
+    private static final long serialVersionUID = 1L;
+    private final String column;
+
+    public InvalidRowException(String column, String errorMessage) {
+        super(errorMessage);
+        this.column = column;
+    }
+
+    public InvalidRowException(String column, String errorMessage, Throwable cause) {
+        super(errorMessage);
+        this.column = column;
+        initCause(cause);
+    }
+
+    /**
+     * Get the column of the invalid value.
+     *
+     * @return the column, null if the whole row is invalid
+     */
+    public String getColumn() {
+        return column;
+    }
+
+}
@@ -0,0 +1,19 @@
+package fr.esgi.exception;
+
+/**
+ * PasswordHashingRejectedException when the queue of the password hashing
+ * threads is full.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
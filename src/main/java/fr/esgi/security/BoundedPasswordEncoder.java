@@ -0,0 +1,139 @@
+package fr.esgi.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import fr.esgi.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * PasswordEncoder running the encoding and the matching of the passwords on
+ * dedicated threads, so that a burst of logins does not hold every request
+ * thread on a CPU bound hash.
+ *
+ * The threads take the passwords from a bounded queue: when it is full the
+ * password is rejected at once with a {@link PasswordHashingRejectedException}
+ * instead of waiting.
+ *
+ * The time spent in the queue and the time of the hash are published under
+ * password.hash.queue.wait and password.hash.time, by operation.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder, DisposableBean {
+
+	private static final String OPERATION = "operation";
+
+	private final PasswordEncoder delegate;
+
+	private final ThreadPoolExecutor executor;
+
+	private final CompositeMeterRegistry meterRegistry = new CompositeMeterRegistry();
+
+	private final Timer encodeQueueWait;
+
+	private final Timer encodeTime;
+
+	private final Timer matchesQueueWait;
+
+	private final Timer matchesTime;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+		this.delegate = delegate;
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-"),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.encodeQueueWait = queueWaitTimer("encode");
+		this.encodeTime = hashTimer("encode");
+		this.matchesQueueWait = queueWaitTimer("matches");
+		this.matchesTime = hashTimer("matches");
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return submit(() -> delegate.encode(rawPassword), encodeQueueWait, encodeTime);
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return submit(() -> delegate.matches(rawPassword, encodedPassword), matchesQueueWait, matchesTime);
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	/**
+	 * Get the number of passwords waiting for a thread.
+	 *
+	 * @return the size of the queue
+	 */
+	public int getQueueSize() {
+		return executor.getQueue().size();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		meterRegistry.add(registry);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	private <T> T submit(Callable<T> hash, Timer queueWait, Timer hashTime) {
+		long submittedAt = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+				return hashTime.recordCallable(hash);
+			});
+		} catch (RejectedExecutionException e) {
+			throw new PasswordHashingRejectedException("Too many passwords waiting to be hashed", e);
+		}
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingRejectedException("Interrupted while waiting for the password to be hashed", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	private Timer queueWaitTimer(String operation) {
+		return Timer.builder("password.hash.queue.wait")
+				.description("The time spent by the passwords waiting for a hashing thread")
+				.tag(OPERATION, operation)
+				.register(meterRegistry);
+	}
+
+	private Timer hashTimer(String operation) {
+		return Timer.builder("password.hash.time")
+				.description("The time spent hashing the passwords")
+				.tag(OPERATION, operation)
+				.register(meterRegistry);
+	}
+}
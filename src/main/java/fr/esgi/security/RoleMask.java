@@ -0,0 +1,60 @@
+package fr.esgi.security;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import fr.esgi.enums.RoleName;
+
+/**
+ * Utility class for the roles as a bitmask: the bit of a role is its
+ * position in {@link RoleName}, so checking a role is a bitwise and.
+ */
+public final class RoleMask {
+
+	private static final Map<String, Integer> MASK_BY_NAME = new HashMap<>();
+
+	static {
+		for (RoleName roleName : RoleName.values()) {
+			MASK_BY_NAME.put(roleName.name(), 1 << roleName.ordinal());
+		}
+	}
+
+	private RoleMask() {}
+
+	/**
+	 * Get the mask of the roles required by an action.
+	 *
+	 * @param roleNames the names of the roles
+	 * @return the mask of the roles
+	 * @throws IllegalArgumentException if a name is not a {@link RoleName}
+	 */
+	public static int of(String... roleNames) {
+		int mask = 0;
+		for (String roleName : roleNames) {
+			Integer roleMask = MASK_BY_NAME.get(roleName);
+			if (null == roleMask) {
+				throw new IllegalArgumentException("Unknown role: " + roleName);
+			}
+			mask |= roleMask;
+		}
+		return mask;
+	}
+
+	/**
+	 * Get the mask of the roles of a user. The authorities which are not
+	 * roles are ignored.
+	 *
+	 * @param authorities the authorities of the user
+	 * @return the mask of the roles
+	 */
+	public static int of(Collection<? extends GrantedAuthority> authorities) {
+		int mask = 0;
+		for (GrantedAuthority authority : authorities) {
+			mask |= MASK_BY_NAME.getOrDefault(authority.getAuthority(), 0);
+		}
+		return mask;
+	}
+}
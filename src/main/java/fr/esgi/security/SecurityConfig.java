@@ -1,8 +1,12 @@
 package fr.esgi.security;
 
-import fr.esgi.config.CorsFilter;
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.config.Constants;
 import fr.esgi.security.jwt.JWTConfigurer;
+import fr.esgi.security.jwt.RevokedTokenCache;
 import fr.esgi.security.jwt.TokenProvider;
+import fr.esgi.security.ratelimit.RateLimitFilter;
+import fr.esgi.security.ratelimit.RateLimiter;
 import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,7 +21,6 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import javax.annotation.PostConstruct;
@@ -37,15 +40,22 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private final TokenProvider tokenProvider;
 
-    private final CorsFilter corsFilter;
+    private final ConfigurationService configurationService;
 
+    private final RevokedTokenCache revokedTokenCache;
+
+    private final RateLimiter rateLimiter;
 
     public SecurityConfig(AuthenticationManagerBuilder authenticationManagerBuilder,
-                          UserDetailsService userDetailsService,TokenProvider tokenProvider, CorsFilter corsFilter) {
+                          UserDetailsService userDetailsService,TokenProvider tokenProvider,
+                          ConfigurationService configurationService, RevokedTokenCache revokedTokenCache,
+                          RateLimiter rateLimiter) {
         this.authenticationManagerBuilder = authenticationManagerBuilder;
         this.userDetailsService = userDetailsService;
         this.tokenProvider = tokenProvider;
-        this.corsFilter = corsFilter;
+        this.configurationService = configurationService;
+        this.revokedTokenCache = revokedTokenCache;
+        this.rateLimiter = rateLimiter;
     }
 
     @PostConstruct
@@ -59,9 +69,15 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         }
     }
 
+    /**
+     * The passwords are hashed by one thread per core, the cost of BCrypt is
+     * app.bcryptStrength: each step doubles the time of a hash.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(configurationService.getBcryptStrength()),
+                threads, threads * Constants.PASSWORD_QUEUE_CAPACITY_PER_THREAD);
     }
 
     @Override
@@ -74,7 +90,6 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http
-                .addFilterBefore(corsFilter, UsernamePasswordAuthenticationFilter.class)
                 .exceptionHandling()
                 .and()
                 .csrf()
@@ -93,17 +108,22 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/api/complete/payment").permitAll()
                 .antMatchers("/api/menus/trends").permitAll()
                 .antMatchers("/api/menu/**").permitAll()
+                .antMatchers("/api/catalog/**").permitAll()
+                .antMatchers("/api/images/**").permitAll()
+                .antMatchers("/ws/**").permitAll()
                 .antMatchers("/api/users/reset-password/").permitAll()
                 .antMatchers("/api/authenticate").permitAll()
                 .antMatchers("/v2/api-docs", "/configuration/**", "/swagger*/**", "/webjars/**").permitAll()
                 .antMatchers("/api/**").authenticated()
                 .and()
-                .apply(securityConfigurerAdapter());
+                .apply(securityConfigurerAdapter())
+                .and()
+                .addFilterAfter(new RateLimitFilter(rateLimiter), UsernamePasswordAuthenticationFilter.class);
 
     }
   
     private JWTConfigurer securityConfigurerAdapter() {
-        return new JWTConfigurer(tokenProvider);
+        return new JWTConfigurer(tokenProvider, revokedTokenCache);
     }
 
     @Bean
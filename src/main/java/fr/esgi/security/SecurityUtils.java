@@ -0,0 +1,43 @@
+package fr.esgi.security;
+
+import java.util.Optional;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import fr.esgi.security.jwt.AccountUserDetails;
+
+/**
+ * Utility class for the current user.
+ */
+public final class SecurityUtils {
+
+	private SecurityUtils() {}
+
+	/**
+	 * Get the id of the customer profile of the current user, from the claims
+	 * of his token.
+	 *
+	 * @return the id, or an empty Optional if the user is not authenticated or is not a customer
+	 */
+	public static Optional<Long> getCurrentCustomerId() {
+		return getCurrentAccount().map(AccountUserDetails::getCustomerId);
+	}
+
+	/**
+	 * Get the id of the manager profile of the current user, from the claims
+	 * of his token.
+	 *
+	 * @return the id, or an empty Optional if the user is not authenticated or is not a manager
+	 */
+	public static Optional<Long> getCurrentManagerId() {
+		return getCurrentAccount().map(AccountUserDetails::getManagerId);
+	}
+
+	private static Optional<AccountUserDetails> getCurrentAccount() {
+		return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
+				.map(Authentication::getPrincipal)
+				.filter(AccountUserDetails.class::isInstance)
+				.map(AccountUserDetails.class::cast);
+	}
+}
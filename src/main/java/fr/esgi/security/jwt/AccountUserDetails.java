@@ -0,0 +1,56 @@
+package fr.esgi.security.jwt;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import fr.esgi.security.RoleMask;
+
+/**
+ * The principal of an authenticated user, with the ids of his customer and
+ * manager profiles. The ids are signed in the token, so the requests get
+ * them from the principal without reading the database.
+ *
+ * The roles are also kept as a bitmask, see {@link RoleMask}.
+ */
+public class AccountUserDetails extends User {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Long customerId;
+
+	private final Long managerId;
+
+	private final int roles;
+
+	public AccountUserDetails(String username, String password, boolean enabled,
+			Collection<? extends GrantedAuthority> authorities, Long customerId, Long managerId) {
+		super(username, password, enabled, true, true, true, authorities);
+		this.customerId = customerId;
+		this.managerId = managerId;
+		this.roles = RoleMask.of(authorities);
+	}
+
+	/**
+	 * @return the id of the customer profile of the user, null if he has none
+	 */
+	public Long getCustomerId() {
+		return customerId;
+	}
+
+	/**
+	 * @return the id of the manager profile of the user, null if he has none
+	 */
+	public Long getManagerId() {
+		return managerId;
+	}
+
+	/**
+	 * @return the mask of the roles of the user
+	 */
+	public int getRoles() {
+		return roles;
+	}
+
+}
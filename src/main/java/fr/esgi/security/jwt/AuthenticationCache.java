@@ -0,0 +1,96 @@
+package fr.esgi.security.jwt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.security.core.Authentication;
+
+/**
+ * Cache of the authentications of the tokens already verified, keyed by the
+ * SHA-256 of the token, so the signature of a token is verified once and not
+ * on every request.
+ *
+ * An entry expires with its token. The cache holds at most "maxSize" tokens:
+ * once full, the least recently used one is evicted, so the expired tokens,
+ * never used again, go first.
+ */
+public class AuthenticationCache {
+
+	private final Map<ByteBuffer, CachedAuthentication> authentications;
+
+	public AuthenticationCache(int maxSize) {
+		this.authentications = new LinkedHashMap<ByteBuffer, CachedAuthentication>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ByteBuffer, CachedAuthentication> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Get the authentication of a verified token.
+	 *
+	 * @param token the token
+	 * @param now the current time, in milliseconds
+	 * @return the authentication, null if the token is unknown or expired
+	 */
+	public Authentication get(String token, long now) {
+		final ByteBuffer key = digest(token);
+		synchronized (this) {
+			final CachedAuthentication cachedAuthentication = authentications.get(key);
+			if (null == cachedAuthentication) {
+				return null;
+			}
+			if (now >= cachedAuthentication.expiration) {
+				authentications.remove(key);
+				return null;
+			}
+			return cachedAuthentication.authentication;
+		}
+	}
+
+	/**
+	 * Add the authentication of a verified token.
+	 *
+	 * @param token the token
+	 * @param authentication the authentication built from its claims
+	 * @param expiration the expiration of the token, in milliseconds
+	 */
+	public void put(String token, Authentication authentication, long expiration) {
+		final ByteBuffer key = digest(token);
+		synchronized (this) {
+			authentications.put(key, new CachedAuthentication(authentication, expiration));
+		}
+	}
+
+	public synchronized int size() {
+		return authentications.size();
+	}
+
+	private static ByteBuffer digest(String token) {
+		try {
+			return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported", e);
+		}
+	}
+
+	private static class CachedAuthentication {
+
+		private final Authentication authentication;
+
+		private final long expiration;
+
+		CachedAuthentication(Authentication authentication, long expiration) {
+			this.authentication = authentication;
+			this.expiration = expiration;
+		}
+	}
+}
@@ -1,6 +1,6 @@
 package fr.esgi.security.jwt;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
@@ -8,7 +8,6 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,10 +16,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import fr.esgi.dao.UserRepository;
-import fr.esgi.domain.Role;
-import fr.esgi.domain.User;
 import fr.esgi.enums.RoleName;
-import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.service.dto.UserAccountDTO;
 
 /**
  * Authenticate a user from the database.
@@ -33,53 +30,57 @@ public class DomainUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    private final UserAccountCache userAccountCache;
+
     @Autowired
-    public DomainUserDetailsService(UserRepository userRepository) {
+    public DomainUserDetailsService(UserRepository userRepository, UserAccountCache userAccountCache) {
         this.userRepository = userRepository;
+        this.userAccountCache = userAccountCache;
     }
 
+    /**
+     * Load the user by his email or else by his pseudo, with his role and the
+     * ids of his customer and manager profiles, in one query on the lower case
+     * logins. The accounts found are cached for a short time. A user not
+     * activated is disabled.
+     */
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(final String login) {
         LOGGER.debug("Authenticating {}", login);
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
-        Optional<User> userByEmailFromDatabase = userRepository.findOneByEmailIgnoreCase(lowercaseLogin);
-        return userByEmailFromDatabase.map(user -> {
-            try {
-                return createSpringSecurityUser(lowercaseLogin, user);
-            } catch (BurgerSTerminalException e) {
-                return null;
-            }
-        }).orElseGet(() -> {
-            Optional<User> userByLoginFromDatabase = userRepository.findOneByPseudoIgnoreCase(lowercaseLogin);
-            return userByLoginFromDatabase.map(user -> {
-                try {
-                    return createSpringSecurityUser(lowercaseLogin, user);
-                } catch (BurgerSTerminalException e) {
-                    return null;
-                }
-            })
+        UserAccountDTO account = userAccountCache.get(lowercaseLogin);
+        if (null == account) {
+            account = findAccount(lowercaseLogin)
                     .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the " +
                             "database"));
-        });
-    }
-
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) throws BurgerSTerminalException {
-        if (!user.isActivated()) {
-            throw new BurgerSTerminalException("User " + lowercaseLogin + " was not activated");
+            userAccountCache.put(lowercaseLogin, account);
         }
+        return createSpringSecurityUser(account);
+    }
 
-        final List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
-        grantedAuthorities.add(new SimpleGrantedAuthority(getRole(user)));
+    private Optional<UserAccountDTO> findAccount(String lowercaseLogin) {
+        List<UserAccountDTO> accounts = userRepository.findAllAccountsByLogin(lowercaseLogin);
+        Optional<UserAccountDTO> accountByEmail = accounts.stream()
+                .filter(account -> lowercaseLogin.equalsIgnoreCase(account.getEmail()))
+                .findFirst();
+        return accountByEmail.isPresent() ? accountByEmail : accounts.stream().findFirst();
+    }
 
-        return new org.springframework.security.core.userdetails.User(user.getPseudo(),
-                user.getPassword(),
-                grantedAuthorities);
+    private AccountUserDetails createSpringSecurityUser(UserAccountDTO account) {
+        if (!account.isActivated()) {
+            LOGGER.debug("User {} was not activated", account.getPseudo());
+        }
+        return new AccountUserDetails(account.getPseudo(),
+                account.getPassword(),
+                account.isActivated(),
+                Collections.singletonList(new SimpleGrantedAuthority(getRole(account))),
+                account.getCustomerId(),
+                account.getManagerId());
     }
 
-    private String getRole(User user) {
-    	return Optional.of(user).map(User::getRole)
-    			.map(Role::getName)
+    private String getRole(UserAccountDTO account) {
+    	return Optional.ofNullable(account.getRoleName())
     			.orElse(RoleName.ROLE_CUSTOMER.toString());
     }
 }
@@ -0,0 +1,71 @@
+package fr.esgi.security.jwt;
+
+import java.util.Collection;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * The authentication of a request by a token, with the id, the issue time
+ * and the expiration of the token to revoke it.
+ *
+ * One instance is cached per token and shared by all the requests that
+ * present it, so it is immutable: its mutators throw an
+ * UnsupportedOperationException.
+ */
+public class JWTAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String tokenId;
+
+	private final long issuedAt;
+
+	private final long expiration;
+
+	public JWTAuthenticationToken(Object principal, String token, Collection<? extends GrantedAuthority> authorities,
+			String tokenId, long issuedAt, long expiration) {
+		super(principal, token, authorities);
+		this.tokenId = tokenId;
+		this.issuedAt = issuedAt;
+		this.expiration = expiration;
+	}
+
+	/**
+	 * @return the jti of the token, null for the tokens issued without one
+	 */
+	public String getTokenId() {
+		return tokenId;
+	}
+
+	/**
+	 * @return the time the token was issued, in milliseconds, 0 for the tokens
+	 *         issued without an iat claim
+	 */
+	public long getIssuedAt() {
+		return issuedAt;
+	}
+
+	/**
+	 * @return the time the token expires, in milliseconds
+	 */
+	public long getExpiration() {
+		return expiration;
+	}
+
+	@Override
+	public void setAuthenticated(boolean isAuthenticated) {
+		throw new UnsupportedOperationException("The authentication of a token is immutable");
+	}
+
+	@Override
+	public void setDetails(Object details) {
+		throw new UnsupportedOperationException("The authentication of a token is immutable");
+	}
+
+	@Override
+	public void eraseCredentials() {
+		throw new UnsupportedOperationException("The authentication of a token is immutable");
+	}
+
+}
@@ -15,13 +15,16 @@ public class JWTConfigurer extends SecurityConfigurerAdapter<DefaultSecurityFilt
 
     private TokenProvider tokenProvider;
 
-    public JWTConfigurer(TokenProvider tokenProvider) {
+    private RevokedTokenCache revokedTokenCache;
+
+    public JWTConfigurer(TokenProvider tokenProvider, RevokedTokenCache revokedTokenCache) {
         this.tokenProvider = tokenProvider;
+        this.revokedTokenCache = revokedTokenCache;
     }
 
     @Override
     public void configure(HttpSecurity http) {
-        JWTFilter customFilter = new JWTFilter(tokenProvider);
+        JWTFilter customFilter = new JWTFilter(tokenProvider, revokedTokenCache);
         http.addFilterBefore(customFilter, UsernamePasswordAuthenticationFilter.class);
     }
 
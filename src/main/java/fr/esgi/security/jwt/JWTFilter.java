@@ -11,18 +11,22 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Filters incoming requests and installs a Spring Security principal if a header corresponding to a valid user is
- * found.
+ * found. The revoked tokens are ignored.
  * @author christopher
  */
 public class JWTFilter extends GenericFilterBean {
 
     private TokenProvider tokenProvider;
 
-    public JWTFilter(TokenProvider tokenProvider) {
+    private RevokedTokenCache revokedTokenCache;
+
+    public JWTFilter(TokenProvider tokenProvider, RevokedTokenCache revokedTokenCache) {
         this.tokenProvider = tokenProvider;
+        this.revokedTokenCache = revokedTokenCache;
     }
 
     @Override
@@ -30,13 +34,23 @@ public class JWTFilter extends GenericFilterBean {
             throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.hasText(jwt)) {
+            Optional<Authentication> authentication = this.tokenProvider.getValidAuthentication(jwt)
+                    .filter(this::isNotRevoked);
+            authentication.ifPresent(SecurityContextHolder.getContext()::setAuthentication);
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
 
+    private boolean isNotRevoked(Authentication authentication) {
+        if (authentication instanceof JWTAuthenticationToken) {
+            JWTAuthenticationToken token = (JWTAuthenticationToken) authentication;
+            return (null == token.getTokenId() || !revokedTokenCache.isRevoked(token.getTokenId()))
+                    && !revokedTokenCache.isRevoked(token.getName(), token.getIssuedAt());
+        }
+        return true;
+    }
+
     private String resolveToken(HttpServletRequest request){
         String bearerToken = request.getHeader(JWTConfigurer.AUTHORIZATION_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,117 @@
+package fr.esgi.security.jwt;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import fr.esgi.config.Constants;
+import fr.esgi.service.cache.BloomFilter;
+
+/**
+ * In-memory set of the revoked tokens, by id, and of the revoked subjects,
+ * consulted on every request.
+ *
+ * A Bloom filter in front of the exact set answers for the tokens never
+ * revoked, the common case, with a few bit probes. The revoked tokens are
+ * kept until they expire, then the filter is rebuilt without them.
+ *
+ * A revoked subject revokes all the tokens of a user issued before a time,
+ * its not-before. The subjects are few, they are kept in a map, skipped
+ * while it is empty.
+ */
+@Component
+public class RevokedTokenCache {
+
+	private final Map<String, Long> expirationByTokenId = new ConcurrentHashMap<>();
+
+	private final Map<String, RevokedSubject> revokedSubjects = new ConcurrentHashMap<>();
+
+	private volatile BloomFilter bloomFilter = newBloomFilter();
+
+	/**
+	 * @param tokenId the id of the token
+	 * @return true if the token was revoked
+	 */
+	public boolean isRevoked(String tokenId) {
+		return bloomFilter.mightContain(tokenId) && expirationByTokenId.containsKey(tokenId);
+	}
+
+	/**
+	 * @param subject the subject of the token, case insensitive
+	 * @param issuedAt the time the token was issued, in milliseconds
+	 * @return true if the tokens of the subject issued at this time were
+	 *         revoked
+	 */
+	public boolean isRevoked(String subject, long issuedAt) {
+		if (revokedSubjects.isEmpty() || null == subject) {
+			return false;
+		}
+		RevokedSubject revokedSubject = revokedSubjects.get(subject.toLowerCase(Locale.ROOT));
+		return null != revokedSubject && issuedAt < revokedSubject.notBefore;
+	}
+
+	/**
+	 * Add a revoked token, the exact set first so that the token is never in
+	 * the filter only.
+	 *
+	 * @param tokenId the id of the token
+	 * @param expiration the time the token expires, in milliseconds
+	 */
+	public synchronized void revoke(String tokenId, long expiration) {
+		expirationByTokenId.put(tokenId, expiration);
+		bloomFilter.put(tokenId);
+	}
+
+	/**
+	 * Revoke the tokens of a subject issued before a time. The latest of the
+	 * revocations of a subject is kept.
+	 *
+	 * @param subject the subject of the tokens, case insensitive
+	 * @param notBefore the time before which the tokens are revoked, in
+	 *        milliseconds
+	 * @param expiration the time the last of these tokens expires, in
+	 *        milliseconds
+	 */
+	public void revokeSubject(String subject, long notBefore, long expiration) {
+		revokedSubjects.merge(subject.toLowerCase(Locale.ROOT), new RevokedSubject(notBefore, expiration),
+				(current, revoked) -> current.notBefore >= revoked.notBefore ? current : revoked);
+	}
+
+	/**
+	 * Remove the expired tokens and subjects, and rebuild the filter with the
+	 * other tokens, if any expired.
+	 *
+	 * @param now the current time, in milliseconds
+	 */
+	public synchronized void prune(long now) {
+		revokedSubjects.values().removeIf(revokedSubject -> revokedSubject.expiration <= now);
+		if (!expirationByTokenId.values().removeIf(expiration -> expiration <= now)) {
+			return;
+		}
+		BloomFilter rebuiltBloomFilter = newBloomFilter();
+		expirationByTokenId.keySet().forEach(rebuiltBloomFilter::put);
+		bloomFilter = rebuiltBloomFilter;
+	}
+
+	public int size() {
+		return expirationByTokenId.size();
+	}
+
+	private static BloomFilter newBloomFilter() {
+		return new BloomFilter(Constants.REVOKED_TOKEN_BLOOM_SIZE, Constants.REVOKED_TOKEN_BLOOM_HASHES);
+	}
+
+	private static final class RevokedSubject {
+
+		private final long notBefore;
+
+		private final long expiration;
+
+		private RevokedSubject(long notBefore, long expiration) {
+			this.notBefore = notBefore;
+			this.expiration = expiration;
+		}
+	}
+}
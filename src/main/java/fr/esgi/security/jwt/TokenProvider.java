@@ -4,18 +4,23 @@ import io.jsonwebtoken.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 
+import fr.esgi.config.Constants;
 import fr.esgi.enums.RoleName;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 /**
  * TokenProvider for managing configuration validity of token.
@@ -30,6 +35,10 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    private static final String CUSTOMER_ID_KEY = "customerId";
+
+    private static final String MANAGER_ID_KEY = "managerId";
+
     @Value("${app.secrey}")
     private String secretKey;
 
@@ -39,6 +48,13 @@ public class TokenProvider {
     @Value("${app.tokenValidityInMillisecondsForRememberMe}")
     private long tokenValidityInMillisecondsForRememberMe;
 
+    private final AuthenticationCache authenticationCache = new AuthenticationCache(Constants.TOKEN_CACHE_SIZE);
+
+    /**
+     * The authorities are the same for all the tokens of a role.
+     */
+    private final Map<String, List<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+
 
     public String createToken(Authentication authentication, boolean rememberMe) {
         String authorities = authentication.getAuthorities().stream()
@@ -53,9 +69,17 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
                 .setSubject(authentication.getName())
-                .claim(AUTHORITIES_KEY, authorities)
+                .claim(AUTHORITIES_KEY, authorities);
+        if (authentication.getPrincipal() instanceof AccountUserDetails) {
+            AccountUserDetails account = (AccountUserDetails) authentication.getPrincipal();
+            builder.claim(CUSTOMER_ID_KEY, account.getCustomerId())
+                    .claim(MANAGER_ID_KEY, account.getManagerId());
+        }
+        return builder
                 .signWith(SignatureAlgorithm.HS512, secretKey)
                 .setExpiration(validity)
                 .compact();
@@ -67,6 +91,8 @@ public class TokenProvider {
         validity = new Date(now + this.tokenValidityInMillisecondsForRememberMe);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
                 .setSubject(USER)
                 .claim(AUTHORITIES_KEY, RoleName.ROLE_ADMIN.name())
                 .signWith(SignatureAlgorithm.HS512, secretKey)
@@ -74,26 +100,59 @@ public class TokenProvider {
                 .compact();
     }
 
-    public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(secretKey)
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verify a token and get its authentication. The signature of a token is
+     * verified once, its authentication is then kept until it expires.
+     *
+     * @param token the token
+     * @return the authentication, or an empty Optional if the token is not valid
+     */
+    public Optional<Authentication> getValidAuthentication(String token) {
+        long now = System.currentTimeMillis();
+        Authentication authentication = authenticationCache.get(token, now);
+        if (null != authentication) {
+            return Optional.of(authentication);
+        }
+
+        Claims claims = parseClaims(token);
+        if (null == claims) {
+            return Optional.empty();
+        }
+        authentication = getAuthentication(claims, token);
+        if (null != claims.getExpiration()) {
+            authenticationCache.put(token, authentication, claims.getExpiration().getTime());
+        }
+        return Optional.of(authentication);
+    }
+
+    /**
+     * @return the longest validity of a token, in milliseconds
+     */
+    public long getMaxTokenValidityInMilliseconds() {
+        return Math.max(tokenValidityInMilliseconds, tokenValidityInMillisecondsForRememberMe);
+    }
 
-        Collection<? extends GrantedAuthority> authorities =
-                Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
+    private Authentication getAuthentication(Claims claims, String token) {
+        Collection<? extends GrantedAuthority> authorities = authoritiesByClaim.computeIfAbsent(
+                claims.get(AUTHORITIES_KEY).toString(),
+                claim -> Collections.unmodifiableList(Arrays.stream(claim.split(","))
                         .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toList());
+                        .collect(Collectors.toList())));
 
-        User principal = new User(claims.getSubject(), "", authorities);
+        AccountUserDetails principal = new AccountUserDetails(claims.getSubject(), "", true, authorities,
+                claims.get(CUSTOMER_ID_KEY, Long.class), claims.get(MANAGER_ID_KEY, Long.class));
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        long expiration = null == claims.getExpiration() ? Long.MAX_VALUE : claims.getExpiration().getTime();
+        long issuedAt = null == claims.getIssuedAt() ? 0L : claims.getIssuedAt().getTime();
+        return new JWTAuthenticationToken(principal, token, authorities, claims.getId(), issuedAt, expiration);
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * @return the claims of the token, null if it is not valid
+     */
+    private Claims parseClaims(String authToken) {
         try {
-            Jwts.parser().setSigningKey(secretKey).parseClaimsJws(authToken);
-            return true;
+            return Jwts.parser().setSigningKey(secretKey).parseClaimsJws(authToken).getBody();
         } catch (SignatureException e) {
             LOGGER.info("Invalid JWT signature.");
             LOGGER.trace("Invalid JWT signature trace: {}", e);
@@ -110,6 +169,6 @@ public class TokenProvider {
             LOGGER.info("JWT token compact of handler are invalid.");
             LOGGER.trace("JWT token compact of handler are invalid trace: {}", e);
         }
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,116 @@
+package fr.esgi.security.jwt;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.config.Constants;
+import fr.esgi.service.dto.UserAccountDTO;
+import fr.esgi.service.event.UserChangedEvent;
+
+/**
+ * Short-lived cache of the accounts read to authenticate the users, keyed by
+ * login in lower case, so the logins of a shift start do not read the same
+ * users again and again. Accounts expire after app.userCacheTtlInMilliseconds
+ * and are removed as soon as their user changes.
+ *
+ * The accounts are cached rather than the UserDetails: Spring Security erases
+ * the password of the UserDetails once a user is authenticated.
+ */
+@Component
+public class UserAccountCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(UserAccountCache.class);
+
+	private final Map<String, CachedAccount> accounts = new ConcurrentHashMap<>();
+
+	private final long ttlInMilliseconds;
+
+	@Autowired
+	public UserAccountCache(ConfigurationService configurationService) {
+		this.ttlInMilliseconds = configurationService.getUserCacheTtlInMilliseconds();
+	}
+
+	/**
+	 * @param login the email or the pseudo, in lower case
+	 * @return the account, null if it is not cached or expired
+	 */
+	public UserAccountDTO get(String login) {
+		CachedAccount cachedAccount = accounts.get(login);
+		if (null == cachedAccount) {
+			return null;
+		}
+		if (cachedAccount.isExpired(System.currentTimeMillis())) {
+			accounts.remove(login, cachedAccount);
+			return null;
+		}
+		return cachedAccount.account;
+	}
+
+	/**
+	 * @param login the email or the pseudo, in lower case
+	 * @param account the account found with this login
+	 */
+	public void put(String login, UserAccountDTO account) {
+		if (ttlInMilliseconds <= 0) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		if (accounts.size() >= Constants.USER_CACHE_SIZE) {
+			accounts.values().removeIf(cachedAccount -> cachedAccount.isExpired(now));
+			if (accounts.size() >= Constants.USER_CACHE_SIZE) {
+				accounts.clear();
+			}
+		}
+		accounts.put(login, new CachedAccount(account, now + ttlInMilliseconds));
+	}
+
+	/**
+	 * Remove the account of a user once his change is committed.
+	 *
+	 * @param event the change
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		LOGGER.debug("Remove the cached account of {}", event.getPseudo());
+		accounts.values().removeIf(cachedAccount -> matches(cachedAccount.account.getPseudo(), event.getPseudo())
+				|| matches(cachedAccount.account.getEmail(), event.getEmail()));
+		if (null != event.getPseudo()) {
+			accounts.remove(event.getPseudo().toLowerCase(Locale.ENGLISH));
+		}
+		if (null != event.getEmail()) {
+			accounts.remove(event.getEmail().toLowerCase(Locale.ENGLISH));
+		}
+	}
+
+	public int size() {
+		return accounts.size();
+	}
+
+	private static boolean matches(String value, String changedValue) {
+		return null != value && value.equalsIgnoreCase(changedValue);
+	}
+
+	private static class CachedAccount {
+
+		private final UserAccountDTO account;
+
+		private final long expiration;
+
+		CachedAccount(UserAccountDTO account, long expiration) {
+			this.account = account;
+			this.expiration = expiration;
+		}
+
+		boolean isExpired(long now) {
+			return now >= expiration;
+		}
+	}
+}
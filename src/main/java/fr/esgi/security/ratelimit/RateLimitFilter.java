@@ -0,0 +1,69 @@
+package fr.esgi.security.ratelimit;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.GenericFilterBean;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Filters the requests to the rate limited routes: a request is rejected
+ * with 429 (Too Many Requests) and a Retry-After header when its address, or
+ * its authenticated user, has no token left.
+ *
+ * The route is the path of the request as Spring MVC resolves it: decoded,
+ * without the context path and the ;-parameters, so that an encoded or
+ * decorated path does not escape its policy.
+ *
+ * The address is the remote address of the request, set from the
+ * X-Forwarded-For header when server.use-forward-headers is enabled.
+ */
+public class RateLimitFilter extends GenericFilterBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitFilter.class);
+
+	private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+	private final RateLimiter rateLimiter;
+
+	public RateLimitFilter(RateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+
+	@Override
+	public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+			throws IOException, ServletException {
+		HttpServletRequest request = (HttpServletRequest) servletRequest;
+		Optional<RateLimitPolicy> policy = rateLimiter.getPolicy(urlPathHelper.getPathWithinApplication(request));
+		if (policy.isPresent()) {
+			long waitInMilliseconds = rateLimiter.tryAcquire(policy.get(), "ip:" + request.getRemoteAddr());
+			Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+			if (0 == waitInMilliseconds && null != authentication && authentication.isAuthenticated()
+					&& !(authentication instanceof AnonymousAuthenticationToken)) {
+				waitInMilliseconds = rateLimiter.tryAcquire(policy.get(), "user:" + authentication.getName());
+			}
+			if (0 != waitInMilliseconds) {
+				LOGGER.debug("Too many requests to {} from {}", policy.get().getName(), request.getRemoteAddr());
+				HttpServletResponse response = (HttpServletResponse) servletResponse;
+				response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((waitInMilliseconds + 999) / 1000));
+				response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+				return;
+			}
+		}
+		filterChain.doFilter(servletRequest, servletResponse);
+	}
+}
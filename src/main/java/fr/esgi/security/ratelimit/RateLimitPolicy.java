@@ -0,0 +1,37 @@
+package fr.esgi.security.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The number of requests a client can make to a route in a period.
+ */
+public class RateLimitPolicy {
+
+	private final String name;
+
+	private final int capacity;
+
+	private final long periodInNanos;
+
+	public RateLimitPolicy(String name, int capacity, long periodInMilliseconds) {
+		this.name = name;
+		this.capacity = capacity;
+		this.periodInNanos = TimeUnit.MILLISECONDS.toNanos(periodInMilliseconds);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public long getPeriodInNanos() {
+		return periodInNanos;
+	}
+
+	public TokenBucket newBucket(long now) {
+		return new TokenBucket(capacity, periodInNanos, now);
+	}
+}
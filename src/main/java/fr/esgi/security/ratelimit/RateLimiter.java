@@ -0,0 +1,113 @@
+package fr.esgi.security.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.config.Constants;
+
+/**
+ * Rate limiter of the routes expensive to serve, with one token bucket per
+ * route and client. The routes are Ant patterns, like the ones of the
+ * security configuration, so that a policy covers the sub-paths of a route;
+ * the first pattern that matches applies.
+ *
+ * The buckets are bounded to {@link Constants#RATE_LIMIT_MAX_BUCKETS}: the
+ * full ones are dropped by the periodic sweep, or at once when the limit is
+ * reached. If every bucket is still in use, the new clients of a route share
+ * one bucket until the next sweep.
+ */
+@Component
+public class RateLimiter {
+
+	private final PathMatcher pathMatcher = new AntPathMatcher();
+
+	private final Map<String, RateLimitPolicy> policiesByPattern = new LinkedHashMap<>();
+
+	private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+	private final Map<String, TokenBucket> overflowBuckets = new ConcurrentHashMap<>();
+
+	private final int maxBuckets;
+
+	@Autowired
+	public RateLimiter(ConfigurationService configurationService) {
+		this(configurationService, Constants.RATE_LIMIT_MAX_BUCKETS);
+	}
+
+	public RateLimiter(ConfigurationService configurationService, int maxBuckets) {
+		this.maxBuckets = maxBuckets;
+		policiesByPattern.put("/api/authenticate", new RateLimitPolicy("authenticate",
+				configurationService.getAuthenticateRateLimit(), configurationService.getRateLimitPeriodInMilliseconds()));
+		policiesByPattern.put("/api/register/availability", new RateLimitPolicy("availability",
+				configurationService.getAvailabilityRateLimit(), configurationService.getRateLimitPeriodInMilliseconds()));
+		policiesByPattern.put("/api/register/**", new RateLimitPolicy("register",
+				configurationService.getRegisterRateLimit(), configurationService.getRateLimitPeriodInMilliseconds()));
+		policiesByPattern.put("/api/make/payment", new RateLimitPolicy("payment",
+				configurationService.getPaymentRateLimit(), configurationService.getRateLimitPeriodInMilliseconds()));
+	}
+
+	/**
+	 * Get the policy of a route, the first whose pattern matches, the
+	 * trailing slash matched by Spring MVC being ignored.
+	 *
+	 * @param path the decoded path of the request, without the context path
+	 * @return the policy of the route, or an empty Optional if it is not limited
+	 */
+	public Optional<RateLimitPolicy> getPolicy(String path) {
+		String route = path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+		return policiesByPattern.entrySet().stream()
+				.filter(entry -> pathMatcher.match(entry.getKey(), route))
+				.map(Map.Entry::getValue)
+				.findFirst();
+	}
+
+	/**
+	 * Take a token from the bucket of a client for a route.
+	 *
+	 * @param policy the policy of the route
+	 * @param client the client, its address or its login
+	 * @return 0 if the request is allowed, otherwise the time to wait, in milliseconds
+	 */
+	public long tryAcquire(RateLimitPolicy policy, String client) {
+		long now = System.nanoTime();
+		String key = policy.getName() + ':' + client;
+		TokenBucket bucket = buckets.get(key);
+		if (null == bucket) {
+			if (buckets.size() >= maxBuckets) {
+				sweep(now);
+			}
+			bucket = buckets.size() < maxBuckets
+					? buckets.computeIfAbsent(key, k -> policy.newBucket(now))
+					: overflowBuckets.computeIfAbsent(policy.getName(), k -> policy.newBucket(now));
+		}
+		long waitInNanos = bucket.tryConsume(now);
+		return 0 == waitInNanos ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitInNanos));
+	}
+
+	/**
+	 * Drop the full buckets.
+	 */
+	@Scheduled(fixedDelayString = "${app.rateLimitSweepDelayInMilliseconds:60000}")
+	public void sweep() {
+		sweep(System.nanoTime());
+	}
+
+	public int size() {
+		return buckets.size();
+	}
+
+	private void sweep(long now) {
+		buckets.values().removeIf(bucket -> bucket.isFull(now));
+		overflowBuckets.values().removeIf(bucket -> bucket.isFull(now));
+	}
+}
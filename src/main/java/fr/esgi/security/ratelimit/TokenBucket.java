@@ -0,0 +1,60 @@
+package fr.esgi.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket refilled of one token every interval, up to its capacity.
+ *
+ * The bucket is kept as a single time, the time it will be full again, and
+ * taking a token is one compare-and-set on it: the requests of a client do
+ * not lock each other.
+ */
+public class TokenBucket {
+
+	private final long intervalInNanos;
+
+	private final long toleranceInNanos;
+
+	private final AtomicLong fullAt;
+
+	/**
+	 * @param capacity the number of tokens of the full bucket
+	 * @param periodInNanos the time to refill the empty bucket
+	 * @param now the current time, from {@link System#nanoTime()}
+	 */
+	public TokenBucket(int capacity, long periodInNanos, long now) {
+		this.intervalInNanos = periodInNanos / capacity;
+		this.toleranceInNanos = periodInNanos - intervalInNanos;
+		this.fullAt = new AtomicLong(now);
+	}
+
+	/**
+	 * Take a token.
+	 *
+	 * @param now the current time, from {@link System#nanoTime()}
+	 * @return 0 if a token was taken, otherwise the time until the next token, in nanoseconds
+	 */
+	public long tryConsume(long now) {
+		while (true) {
+			long current = fullAt.get();
+			long start = current - now > 0 ? current : now;
+			long ahead = start - now;
+			if (ahead > toleranceInNanos) {
+				return ahead - toleranceInNanos;
+			}
+			if (fullAt.compareAndSet(current, start + intervalInNanos)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * A full bucket is the same as a new one, it can be dropped.
+	 *
+	 * @param now the current time, from {@link System#nanoTime()}
+	 * @return true if the bucket is full
+	 */
+	public boolean isFull(long now) {
+		return fullAt.get() - now <= 0;
+	}
+}
@@ -0,0 +1,16 @@
+package fr.esgi.service;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Service Interface for broadcasting the catalog changes to the terminals
+ * connected to the WebSocket endpoint.
+ */
+@Service
+public interface CatalogBroadcastService {
+
+	/**
+	 * Broadcast the catalog changes made since the last broadcast.
+	 */
+	void broadcastChanges();
+}
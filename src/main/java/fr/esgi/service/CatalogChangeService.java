@@ -0,0 +1,28 @@
+package fr.esgi.service;
+
+import org.springframework.stereotype.Service;
+
+import fr.esgi.service.dto.CatalogChangesDTO;
+import fr.esgi.service.event.CatalogChangedEvent;
+
+/**
+ * Service Interface for the catalog changes read by the terminals.
+ */
+@Service
+public interface CatalogChangeService {
+
+	/**
+	 * Get the products and menus upserted or deleted since a version.
+	 *
+	 * @param since the catalog version known by the terminal
+	 * @return the changes, or the whole catalog if the version is no longer in the change log
+	 */
+	CatalogChangesDTO getChangesSince(long since);
+
+	/**
+	 * Record a change in the change log once it is committed.
+	 *
+	 * @param event the change
+	 */
+	void onCatalogChanged(CatalogChangedEvent event);
+}
@@ -0,0 +1,19 @@
+package fr.esgi.service;
+
+import org.springframework.stereotype.Service;
+
+import fr.esgi.service.catalog.CatalogSnapshot;
+
+/**
+ * Service Interface for the binary catalog snapshot read by the terminals.
+ */
+@Service
+public interface CatalogSnapshotService {
+
+	/**
+	 * Get the snapshot of the current catalog version.
+	 *
+	 * @return the snapshot, built once per catalog version
+	 */
+	CatalogSnapshot getSnapshot();
+}
@@ -1,6 +1,7 @@
 package fr.esgi.service;
 
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
 
@@ -19,4 +20,11 @@ public interface CategoryService {
 	 * @return the list of entities
 	 */
 	List<CategoryDTO> findAll();
+
+	/**
+	 * Get the ids of all the categories.
+	 * 
+	 * @return the set of ids
+	 */
+	Set<Long> findAllIds();
 }
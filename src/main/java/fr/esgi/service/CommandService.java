@@ -1,5 +1,6 @@
 package fr.esgi.service;
 
+import java.time.ZonedDateTime;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
@@ -38,6 +39,25 @@ public interface CommandService {
 	 */
 	Optional<CommandDTO> findByPaymentId(String paymentId);
 
+	/**
+	 * Get the id of the "paymentId" command.
+	 *
+	 * @param paymentId the paymentId of the entity
+	 * @return the id of the entity
+	 */
+	Optional<Long> findIdByPaymentId(String paymentId);
+
+	/**
+	 * Update the status, the saleId and the date of the "id" command.
+	 *
+	 * @param id the id of the entity
+	 * @param orderStatus the new status
+	 * @param saleId the id of the PayPal sale
+	 * @param date the date of the payment
+	 * @return true if the entity was updated
+	 */
+	boolean updatePaymentStatus(Long id, String orderStatus, String saleId, ZonedDateTime date);
+
 	/**
 	 * Update a command.
 	 *
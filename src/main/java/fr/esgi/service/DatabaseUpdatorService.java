@@ -1,13 +1,13 @@
 package fr.esgi.service;
 
-import java.util.List;
+import java.io.InputStream;
 
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import fr.esgi.exception.BurgerSTerminalException;
-import fr.esgi.service.dto.MenuDTO;
-import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.dto.ImportReportDTO;
+import fr.esgi.service.importer.ImportProgressListener;
+import fr.esgi.service.importer.RowErrorListener;
 
 /**
  * Interface for the file import based database update
@@ -17,16 +17,22 @@ import fr.esgi.service.dto.ProductDTO;
 public interface DatabaseUpdatorService {
 
 	/**
-	 * Import JSON or CSV file of products. 
+	 * Import JSON or CSV stream of products, skipping the rows already imported.
+	 * With a row error listener, the invalid rows are reported and skipped.
 	 * 
-	 * @return the list of entities
+	 * @param rowErrorListener the listener of the invalid rows, null to stop at the first one
+	 * @return the report of the import
 	 */
-	List<ProductDTO> importProductsFile(MultipartFile fileToImport, String fileFormat) throws BurgerSTerminalException;
+	ImportReportDTO importProducts(InputStream inputStream, String fileFormat, long skippedRows,
+			ImportProgressListener progressListener, RowErrorListener rowErrorListener) throws BurgerSTerminalException;
 
 	/**
-	 * Import JSON or CSV file of menus. 
+	 * Import JSON or CSV stream of menus, skipping the rows already imported.
+	 * With a row error listener, the invalid rows are reported and skipped.
 	 * 
-	 * @return the list of entities
+	 * @param rowErrorListener the listener of the invalid rows, null to stop at the first one
+	 * @return the report of the import
 	 */
-	List<MenuDTO> importMenusFile(MultipartFile inputFile, String fileFormat) throws BurgerSTerminalException;
+	ImportReportDTO importMenus(InputStream inputStream, String fileFormat, long skippedRows,
+			ImportProgressListener progressListener, RowErrorListener rowErrorListener) throws BurgerSTerminalException;
 }
@@ -0,0 +1,40 @@
+package fr.esgi.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Service Interface for exporting the catalog and the commands.
+ */
+@Service
+public interface ExportService {
+
+	/**
+	 * Write all the products to the stream.
+	 *
+	 * @param format       the format of the export: csv or json
+	 * @param outputStream the stream to write to, left open
+	 * @throws IOException if the stream can not be written
+	 */
+	void exportProducts(String format, OutputStream outputStream) throws IOException;
+
+	/**
+	 * Write all the menus to the stream.
+	 *
+	 * @param format       the format of the export: csv or json
+	 * @param outputStream the stream to write to, left open
+	 * @throws IOException if the stream can not be written
+	 */
+	void exportMenus(String format, OutputStream outputStream) throws IOException;
+
+	/**
+	 * Write all the commands to the stream.
+	 *
+	 * @param format       the format of the export: csv or json
+	 * @param outputStream the stream to write to, left open
+	 * @throws IOException if the stream can not be written
+	 */
+	void exportCommands(String format, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,56 @@
+package fr.esgi.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+
+import fr.esgi.service.image.StoredImage;
+
+/**
+ * Service Interface for the content-addressed store of the images.
+ */
+@Service
+public interface ImageStoreService {
+
+	/**
+	 * Store an image, or reference the same one if it is already stored.
+	 *
+	 * @param inputStream the content of the image
+	 * @param contentType the content type of the image
+	 * @return the SHA-256 of the image, in hexadecimal
+	 * @throws IOException if the image can not be written
+	 */
+	String store(InputStream inputStream, String contentType) throws IOException;
+
+	/**
+	 * Release a reference to an image. The image is deleted by the next
+	 * sweep once it is no longer referenced.
+	 *
+	 * @param hash the SHA-256 of the image
+	 */
+	void release(String hash);
+
+	/**
+	 * Get a stored image.
+	 *
+	 * @param hash the SHA-256 of the image
+	 * @return the image, or an empty Optional if it is not stored
+	 */
+	Optional<StoredImage> getImage(String hash);
+
+	/**
+	 * Get the thumbnail of a stored image nearest to a size.
+	 *
+	 * @param hash the SHA-256 of the image
+	 * @param size the size wanted, in pixels
+	 * @return the thumbnail, or an empty Optional if it is not generated yet
+	 */
+	Optional<StoredImage> getThumbnail(String hash, int size);
+
+	/**
+	 * Delete the images no longer referenced.
+	 */
+	void sweep();
+}
@@ -0,0 +1,74 @@
+package fr.esgi.service;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import fr.esgi.enums.ImportType;
+import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.service.dto.ImportJobDTO;
+
+/**
+ * Service Interface for managing the import jobs.
+ */
+@Service
+public interface ImportJobService {
+
+	/**
+	 * Save the file and start its import in the background.
+	 *
+	 * @param fileToImport the JSON or CSV file to import
+	 * @param type the type of the rows of the file
+	 * @param fileFormat the format of the file
+	 * @return the pending job
+	 * @throws BurgerSTerminalException if the file can not be saved
+	 */
+	ImportJobDTO submit(MultipartFile fileToImport, ImportType type, String fileFormat) throws BurgerSTerminalException;
+
+	/**
+	 * Move a file of the ingestion directory to its processing folder and
+	 * start its import in the background. Once imported, the file is moved to
+	 * the processed or the failed folder.
+	 *
+	 * @param fileToImport the JSON or CSV file to import
+	 * @param type the type of the rows of the file
+	 * @param fileFormat the format of the file
+	 * @return the pending job
+	 * @throws BurgerSTerminalException if the file can not be moved
+	 */
+	ImportJobDTO submit(Path fileToImport, ImportType type, String fileFormat) throws BurgerSTerminalException;
+
+	/**
+	 * Get the "id" import job with its progress.
+	 *
+	 * @param id the id of the entity
+	 * @return the entity
+	 */
+	Optional<ImportJobDTO> findOne(Long id);
+
+	/**
+	 * Get the CSV report of the rows rejected by the "id" import job.
+	 *
+	 * @param id the id of the entity
+	 * @return the report, empty if the job does not exist or has not started
+	 */
+	Optional<Resource> getErrorReport(Long id);
+
+	/**
+	 * Get all the import jobs, the last submitted first.
+	 *
+	 * @return the page of entities
+	 */
+	Page<ImportJobDTO> findAll(Pageable pageable);
+
+	/**
+	 * Beat the heartbeat of the jobs of this node, then claim and resume the
+	 * jobs interrupted by a shutdown after their last committed row.
+	 */
+	void resumeInterruptedJobs();
+}
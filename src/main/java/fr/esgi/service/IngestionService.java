@@ -0,0 +1,16 @@
+package fr.esgi.service;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Service Interface for the ingestion directory, where the suppliers drop
+ * their catalog files.
+ */
+@Service
+public interface IngestionService {
+
+	/**
+	 * Submit the import of the new files of the incoming folders.
+	 */
+	void scanIncomingDirectories();
+}
@@ -1,5 +1,7 @@
 package fr.esgi.service;
 
+import java.util.Set;
+
 import org.springframework.stereotype.Service;
 
 /**
@@ -15,4 +17,11 @@ public interface ManagerService {
 	 * @return the id of the manager
 	 */
 	Long findByUserName(String userName);
+
+	/**
+	 * Get the ids of all the managers.
+	 * 
+	 * @return the set of ids
+	 */
+	Set<Long> findAllIds();
 }
@@ -43,6 +43,14 @@ public interface MenuService {
 	 */
 	List<MenuDTO> saveAll(List<MenuDTO> menusDTO);
 
+	/**
+	 * Create the new menus and update the existing ones, found by name.
+	 * 
+	 * @param menusDTO the list of entities to save
+	 * @return the number of existing rows updated, a name repeated in the list counted once
+	 */
+	int upsertAll(List<MenuDTO> menusDTO);
+
 	/**
 	 * Save a menu.
 	 *
@@ -35,6 +35,14 @@ public interface ProductService {
 	 */
 	List<ProductDTO> saveAll(List<ProductDTO> products);
 
+	/**
+	 * Create the new products and update the existing ones, found by name.
+	 * 
+	 * @param productsDTO the list of entities to save
+	 * @return the number of existing rows updated, a name repeated in the list counted once
+	 */
+	int upsertAll(List<ProductDTO> productsDTO);
+
 	/**
 	 * Add product.
 	 * 
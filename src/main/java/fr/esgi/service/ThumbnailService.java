@@ -0,0 +1,42 @@
+package fr.esgi.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+
+import fr.esgi.service.image.StoredImage;
+
+/**
+ * Service Interface for the thumbnails of the uploaded images.
+ */
+@Service
+public interface ThumbnailService {
+
+	/**
+	 * Generate the thumbnails of an image in the background, unless they
+	 * are already generated.
+	 *
+	 * @param image the uploaded image
+	 * @param contentType the content type of the image
+	 */
+	void generate(Path image, String contentType);
+
+	/**
+	 * Get the thumbnail of an image nearest to a size.
+	 *
+	 * @param image the original image
+	 * @param size the size wanted, in pixels
+	 * @return the thumbnail, or an empty Optional if it is not generated yet
+	 */
+	Optional<StoredImage> getThumbnail(StoredImage image, int size);
+
+	/**
+	 * Delete the thumbnails of an image.
+	 *
+	 * @param image the original image
+	 * @throws IOException if the thumbnails can not be deleted
+	 */
+	void delete(Path image) throws IOException;
+}
@@ -0,0 +1,35 @@
+package fr.esgi.service;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Service Interface for revoking the tokens before they expire.
+ */
+@Service
+public interface TokenRevocationService {
+
+	/**
+	 * Revoke a token, on this node at once and on the others at their next
+	 * refresh.
+	 *
+	 * @param tokenId the jti of the token
+	 * @param expiration the time the token expires, in milliseconds
+	 */
+	void revoke(String tokenId, long expiration);
+
+	/**
+	 * Revoke all the tokens of a subject issued until now, on this node at
+	 * once and on the others at their next refresh.
+	 *
+	 * @param subject the pseudo of the user, case insensitive
+	 * @param expiration the time the last of these tokens expires, in
+	 *        milliseconds
+	 */
+	void revokeSubject(String subject, long expiration);
+
+	/**
+	 * Load the revocations made by all the nodes since the last refresh and
+	 * forget the expired ones.
+	 */
+	void refresh();
+}
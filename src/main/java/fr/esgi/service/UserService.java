@@ -1,6 +1,5 @@
 package fr.esgi.service;
 
-import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
@@ -9,6 +8,7 @@ import org.springframework.web.multipart.MultipartFile;
 import fr.esgi.domain.User;
 import fr.esgi.exception.BurgerSTerminalException;
 import fr.esgi.service.dto.UserDTO;
+import fr.esgi.service.image.StoredImage;
 
 /**
  * Service Interface for managing User.
@@ -25,6 +25,33 @@ public interface UserService {
 	 */
 	UserDTO registerUser(UserDTO userDTO, String password);
 
+	/**
+	 * Fill the lower case logins of the users created before they existed.
+	 */
+	void normalizeLogins();
+
+	/**
+	 * Fill the filter of the taken logins with the users registered on all the
+	 * nodes.
+	 */
+	void loadTakenLogins();
+
+	/**
+	 * Check if no user has a pseudo.
+	 * 
+	 * @param pseudo
+	 * @return true if the pseudo is free
+	 */
+	boolean isPseudoAvailable(String pseudo);
+
+	/**
+	 * Check if no user has an email.
+	 * 
+	 * @param email
+	 * @return true if the email is free
+	 */
+	boolean isEmailAvailable(String email);
+
 	/**
 	 * Returns user by login.
 	 * 
@@ -51,11 +78,22 @@ public interface UserService {
 	void store(MultipartFile file, Long userId) throws BurgerSTerminalException;
 
 	/**
-	 * Download file from pseudo.
+	 * Get the image of a user, with the content type recorded at upload.
+	 * 
+	 * @param pseudo
+	 * @return the image, or an empty Optional if the user does not exist or has no image
+	 * @throws BurgerSTerminalException if the file does not exist
+	 */
+	Optional<StoredImage> getImage(String pseudo) throws BurgerSTerminalException;
+
+	/**
+	 * Get the thumbnail of the image of a user nearest to a size. The
+	 * original image is returned until the thumbnails are generated.
 	 * 
 	 * @param pseudo
-	 * @return
-	 * @throws BurgerSTerminalException 
+	 * @param size the size wanted, in pixels
+	 * @return the image, or an empty Optional if the user does not exist or has no image
+	 * @throws BurgerSTerminalException if the file does not exist
 	 */
-	Map<String, byte[]> getImageURL(String pseudo) throws BurgerSTerminalException;
+	Optional<StoredImage> getImage(String pseudo, int size) throws BurgerSTerminalException;
 }
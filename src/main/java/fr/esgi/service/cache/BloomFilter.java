@@ -0,0 +1,76 @@
+package fr.esgi.service.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of strings: a string never added is reported absent after a
+ * few bit probes, a string reported present may not have been added.
+ *
+ * The strings can not be removed, the filter is rebuilt instead.
+ */
+public class BloomFilter {
+
+	private final AtomicLongArray bits;
+
+	private final int size;
+
+	private final int hashes;
+
+	/**
+	 * @param size the number of bits, rounded up to a multiple of 64
+	 * @param hashes the number of bits set by a string
+	 */
+	public BloomFilter(int size, int hashes) {
+		this.bits = new AtomicLongArray((size + 63) / 64);
+		this.size = bits.length() * 64;
+		this.hashes = hashes;
+	}
+
+	public void put(String value) {
+		long hash = hash(value);
+		for (int i = 0; i < hashes; i++) {
+			int index = index(hash, i);
+			long mask = 1L << index;
+			int word = index >>> 6;
+			long current;
+			do {
+				current = bits.get(word);
+			} while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+		}
+	}
+
+	public boolean mightContain(String value) {
+		long hash = hash(value);
+		for (int i = 0; i < hashes; i++) {
+			int index = index(hash, i);
+			if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The probes are derived from the two halves of one 64 bits hash.
+	 */
+	private int index(long hash, int i) {
+		int combined = (int) hash + i * (int) (hash >>> 32);
+		return (combined & Integer.MAX_VALUE) % size;
+	}
+
+	/**
+	 * FNV-1a hash of the characters, then mixed so that both halves are
+	 * spread.
+	 */
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
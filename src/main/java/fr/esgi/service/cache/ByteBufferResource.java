@@ -0,0 +1,81 @@
+package fr.esgi.service.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * A {@link org.springframework.core.io.Resource} reading a buffer, so a
+ * cached image is served, ranges included, straight from its buffer.
+ */
+public class ByteBufferResource extends AbstractResource {
+
+	private final ByteBuffer content;
+
+	private final String description;
+
+	/**
+	 * @param content the content, read from its position to its limit
+	 * @param description the description of the content, for the logs
+	 */
+	public ByteBufferResource(ByteBuffer content, String description) {
+		this.content = content;
+		this.description = description;
+	}
+
+	@Override
+	public InputStream getInputStream() {
+		return new ByteBufferInputStream(content.duplicate());
+	}
+
+	@Override
+	public long contentLength() {
+		return content.remaining();
+	}
+
+	@Override
+	public String getDescription() {
+		return "Cached image [" + description + "]";
+	}
+
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (0 == length) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, count);
+			return count;
+		}
+
+		@Override
+		public long skip(long count) {
+			int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return buffer.remaining();
+		}
+	}
+}
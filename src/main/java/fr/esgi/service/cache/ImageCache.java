@@ -0,0 +1,212 @@
+package fr.esgi.service.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.config.Constants;
+import fr.esgi.service.image.StoredImage;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * In-memory cache of the bytes of the most recently served images, keyed by
+ * the path of the file.
+ *
+ * The cache is bounded by the total size of the images, app.imageCacheSizeInBytes,
+ * and evicts the least recently served ones. The bytes are kept in direct
+ * buffers, out of the heap. An entry is served only while the ETag of the
+ * file is unchanged, and the images above {@link Constants#IMAGE_CACHE_MAX_IMAGE_SIZE}
+ * are always streamed from the disk.
+ *
+ * The hits, misses, evictions, size and hit ratio are published under
+ * images.cache.*.
+ */
+@Component
+public class ImageCache implements MeterBinder {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ImageCache.class);
+
+	private final Map<Path, CachedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final long maxSizeInBytes;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private long sizeInBytes;
+
+	@Autowired
+	public ImageCache(ConfigurationService configurationService) {
+		this.maxSizeInBytes = configurationService.getImageCacheSizeInBytes();
+	}
+
+	/**
+	 * Get the content of an image, from the cache or else from the disk.
+	 *
+	 * @param image the image to serve
+	 * @return the content of the image
+	 * @throws IOException if the file can not be read
+	 */
+	public Resource getResource(StoredImage image) throws IOException {
+		if (maxSizeInBytes <= 0 || image.getLength() > Math.min(maxSizeInBytes, Constants.IMAGE_CACHE_MAX_IMAGE_SIZE)) {
+			return image.getResource();
+		}
+
+		final String eTag = image.getETag();
+		synchronized (this) {
+			CachedImage cachedImage = images.get(image.getPath());
+			if (null != cachedImage && cachedImage.eTag.equals(eTag)) {
+				hits.increment();
+				return new ByteBufferResource(cachedImage.content.duplicate(), image.getPath().toString());
+			}
+		}
+		misses.increment();
+
+		final ByteBuffer content = read(image.getPath(), image.getLength());
+		if (content.limit() == image.getLength()) {
+			put(image.getPath(), new CachedImage(eTag, content));
+		}
+		return new ByteBufferResource(content.duplicate(), image.getPath().toString());
+	}
+
+	/**
+	 * Remove an image from the cache.
+	 *
+	 * @param path the path of the file of the image
+	 */
+	public synchronized void invalidate(Path path) {
+		remove(path);
+	}
+
+	/**
+	 * Remove the images of a folder from the cache.
+	 *
+	 * @param directory the folder
+	 */
+	public synchronized void invalidateAll(Path directory) {
+		for (Iterator<Path> iterator = images.keySet().iterator(); iterator.hasNext();) {
+			Path path = iterator.next();
+			if (path.startsWith(directory)) {
+				sizeInBytes -= images.get(path).content.capacity();
+				iterator.remove();
+			}
+		}
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return the share of the requests served from the cache, between 0 and 1
+	 */
+	public double getHitRatio() {
+		long hitCount = hits.sum();
+		long requestCount = hitCount + misses.sum();
+		return (0 == requestCount) ? 0 : (double) hitCount / requestCount;
+	}
+
+	public synchronized long getSizeInBytes() {
+		return sizeInBytes;
+	}
+
+	public synchronized int size() {
+		return images.size();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("images.cache.hits", this, ImageCache::getHitCount)
+				.description("The images served from the memory")
+				.register(registry);
+		FunctionCounter.builder("images.cache.misses", this, ImageCache::getMissCount)
+				.description("The images read from the disk")
+				.register(registry);
+		FunctionCounter.builder("images.cache.evictions", this, ImageCache::getEvictionCount)
+				.description("The images evicted to stay under the size of the cache")
+				.register(registry);
+		Gauge.builder("images.cache.hit.ratio", this, ImageCache::getHitRatio)
+				.description("The share of the images served from the memory")
+				.register(registry);
+		Gauge.builder("images.cache.size", this, ImageCache::getSizeInBytes)
+				.description("The size of the images in the cache")
+				.baseUnit("bytes")
+				.register(registry);
+	}
+
+	private synchronized void put(Path path, CachedImage cachedImage) {
+		remove(path);
+		images.put(path, cachedImage);
+		sizeInBytes += cachedImage.content.capacity();
+
+		// The least recently served images come first.
+		for (Iterator<CachedImage> iterator = images.values().iterator(); sizeInBytes > maxSizeInBytes
+				&& iterator.hasNext();) {
+			sizeInBytes -= iterator.next().content.capacity();
+			iterator.remove();
+			evictions.increment();
+		}
+		LOGGER.debug("Cached the image {}, {} bytes in the cache", path, sizeInBytes);
+	}
+
+	private void remove(Path path) {
+		CachedImage cachedImage = images.remove(path);
+		if (null != cachedImage) {
+			sizeInBytes -= cachedImage.content.capacity();
+		}
+	}
+
+	/**
+	 * Read a file in a direct buffer, the whole file or at most "length" bytes
+	 * if it grew since its size was read.
+	 */
+	private static ByteBuffer read(Path path, long length) throws IOException {
+		final ByteBuffer content = ByteBuffer.allocateDirect((int) length);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			while (content.hasRemaining() && channel.read(content) >= 0) {
+				// Read until the buffer is full or the end of the file.
+			}
+		}
+		content.flip();
+		return content.asReadOnlyBuffer();
+	}
+
+	private static class CachedImage {
+
+		private final String eTag;
+
+		private final ByteBuffer content;
+
+		CachedImage(String eTag, ByteBuffer content) {
+			this.eTag = eTag;
+			this.content = content;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package fr.esgi.service.cache;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact view of a created payment, kept until the payment is completed,
+ * with the total the executed payment must match.
+ */
+public final class PaymentSession {
+
+	private final String paymentId;
+
+	private final Long commandId;
+
+	private final BigDecimal total;
+
+	private final long expiresAt;
+
+	public PaymentSession(String paymentId, Long commandId, BigDecimal total, long expiresAt) {
+		this.paymentId = paymentId;
+		this.commandId = commandId;
+		this.total = total;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getPaymentId() {
+		return paymentId;
+	}
+
+	public Long getCommandId() {
+		return commandId;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+
+	public boolean isExpired(long now) {
+		return now >= expiresAt;
+	}
+
+	/**
+	 * @param paid the total of the executed payment, whatever its scale
+	 * @return true if it is the total of the command
+	 */
+	public boolean isPaidBy(BigDecimal paid) {
+		return null != total && null != paid && total.compareTo(paid) == 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("PaymentSession [paymentId=");
+		builder.append(paymentId);
+		builder.append(", commandId=");
+		builder.append(commandId);
+		builder.append(", total=");
+		builder.append(total);
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,80 @@
+package fr.esgi.service.cache;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import fr.esgi.config.ConfigurationService;
+
+/**
+ * In-memory registry of the payments waiting for completion, keyed by paymentId.
+ * Sessions expire after app.paymentSessionTtlInMilliseconds.
+ */
+@Component
+public class PaymentSessionCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PaymentSessionCache.class);
+
+	private final Map<String, PaymentSession> sessions = new ConcurrentHashMap<>();
+
+	private final long ttlInMilliseconds;
+
+	private volatile long nextSweep;
+
+	@Autowired
+	public PaymentSessionCache(ConfigurationService configurationService) {
+		this.ttlInMilliseconds = configurationService.getPaymentSessionTtlInMilliseconds();
+		this.nextSweep = System.currentTimeMillis() + ttlInMilliseconds;
+	}
+
+	/**
+	 * Register the session of a created payment.
+	 * 
+	 * @param paymentId the id of the PayPal payment
+	 * @param commandId the id of the command
+	 * @param total the price of the command
+	 * @return the registered session
+	 */
+	public PaymentSession register(String paymentId, Long commandId, BigDecimal total) {
+		long now = System.currentTimeMillis();
+		PaymentSession session = new PaymentSession(paymentId, commandId, total, now + ttlInMilliseconds);
+		sessions.put(paymentId, session);
+		if (now >= nextSweep) {
+			sweep(now);
+		}
+		LOGGER.debug("Registered {}", session);
+		return session;
+	}
+
+	/**
+	 * Remove and return the session of the "paymentId" payment.
+	 * 
+	 * @param paymentId the id of the PayPal payment
+	 * @return the session, empty if unknown or expired
+	 */
+	public Optional<PaymentSession> remove(String paymentId) {
+		if (null == paymentId) {
+			return Optional.empty();
+		}
+		PaymentSession session = sessions.remove(paymentId);
+		if (null == session || session.isExpired(System.currentTimeMillis())) {
+			return Optional.empty();
+		}
+		return Optional.of(session);
+	}
+
+	public int size() {
+		return sessions.size();
+	}
+
+	private void sweep(long now) {
+		nextSweep = now + ttlInMilliseconds;
+		sessions.values().removeIf(session -> session.isExpired(now));
+	}
+}
@@ -0,0 +1,61 @@
+package fr.esgi.service.cache;
+
+import java.util.Locale;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import fr.esgi.config.Constants;
+import fr.esgi.service.event.UserChangedEvent;
+
+/**
+ * Bloom filter of the pseudos and emails already registered, in lower case.
+ *
+ * A login absent from the filter is free, without reading the database; a
+ * login present may be free and is checked in the database. The filter is
+ * local to the node: it is filled at startup and on the registrations of this
+ * node, and the registrations of the other nodes are added by a periodic
+ * reload, so it may miss them meanwhile. The unique constraints of the user
+ * table stay the reference.
+ */
+@Component
+public class TakenLoginCache {
+
+	private static final String PSEUDO = "p:";
+
+	private static final String EMAIL = "e:";
+
+	private final BloomFilter bloomFilter = new BloomFilter(Constants.TAKEN_LOGIN_BLOOM_SIZE,
+			Constants.TAKEN_LOGIN_BLOOM_HASHES);
+
+	public boolean mightContainPseudo(String pseudo) {
+		return bloomFilter.mightContain(PSEUDO + pseudo.toLowerCase(Locale.ENGLISH));
+	}
+
+	public boolean mightContainEmail(String email) {
+		return bloomFilter.mightContain(EMAIL + email.toLowerCase(Locale.ENGLISH));
+	}
+
+	public void putPseudo(String pseudo) {
+		if (null != pseudo) {
+			bloomFilter.put(PSEUDO + pseudo.toLowerCase(Locale.ENGLISH));
+		}
+	}
+
+	public void putEmail(String email) {
+		if (null != email) {
+			bloomFilter.put(EMAIL + email.toLowerCase(Locale.ENGLISH));
+		}
+	}
+
+	/**
+	 * Add the logins of a user once his registration is committed.
+	 *
+	 * @param event the change
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		putPseudo(event.getPseudo());
+		putEmail(event.getEmail());
+	}
+}
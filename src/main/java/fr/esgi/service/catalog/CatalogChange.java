@@ -0,0 +1,41 @@
+package fr.esgi.service.catalog;
+
+import fr.esgi.enums.CatalogChangeType;
+import fr.esgi.enums.CatalogItemType;
+
+/**
+ * Change of one product or menu, at a catalog version.
+ */
+public class CatalogChange {
+
+	private final long version;
+
+	private final CatalogItemType itemType;
+
+	private final CatalogChangeType changeType;
+
+	private final long id;
+
+	public CatalogChange(long version, CatalogItemType itemType, CatalogChangeType changeType, long id) {
+		this.version = version;
+		this.itemType = itemType;
+		this.changeType = changeType;
+		this.id = id;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public CatalogItemType getItemType() {
+		return itemType;
+	}
+
+	public CatalogChangeType getChangeType() {
+		return changeType;
+	}
+
+	public long getId() {
+		return id;
+	}
+}
@@ -0,0 +1,79 @@
+package fr.esgi.service.catalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import fr.esgi.enums.CatalogChangeType;
+import fr.esgi.enums.CatalogItemType;
+
+/**
+ * Bounded log of the last catalog changes.
+ *
+ * Each change of a product or a menu gets the next catalog version. The log
+ * keeps the last changes in a ring: the changes since a version are found
+ * by their index, and the oldest ones are dropped once the ring is full.
+ */
+public class CatalogChangeLog {
+
+	private final CatalogChange[] changes;
+
+	private long version;
+
+	/**
+	 * @param capacity the number of changes kept
+	 * @param initialVersion the version of the catalog before the first change
+	 */
+	public CatalogChangeLog(int capacity, long initialVersion) {
+		this.changes = new CatalogChange[capacity];
+		this.version = initialVersion;
+	}
+
+	/**
+	 * Record the change of the items, one version each.
+	 *
+	 * @return the new catalog version
+	 */
+	public synchronized long append(CatalogItemType itemType, CatalogChangeType changeType, Collection<Long> ids) {
+		for (Long id : ids) {
+			if (null == id) {
+				continue;
+			}
+			version++;
+			changes[index(version)] = new CatalogChange(version, itemType, changeType, id);
+		}
+		return version;
+	}
+
+	/**
+	 * @return the current catalog version
+	 */
+	public synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Get the changes after a version, the oldest first.
+	 *
+	 * @param since the version known by the caller
+	 * @return the changes, null if some of them were dropped or if the version is unknown
+	 */
+	public synchronized List<CatalogChange> getChangesSince(long since) {
+		if (since > version || version - since > changes.length) {
+			return null;
+		}
+		List<CatalogChange> result = new ArrayList<>((int) (version - since));
+		for (long v = since + 1; v <= version; v++) {
+			CatalogChange change = changes[index(v)];
+			if (null == change || change.getVersion() != v) {
+				return null;
+			}
+			result.add(change);
+		}
+		return result;
+	}
+
+	private int index(long v) {
+		return (int) (v % changes.length);
+	}
+}
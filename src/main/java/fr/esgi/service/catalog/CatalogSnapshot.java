@@ -0,0 +1,34 @@
+package fr.esgi.service.catalog;
+
+/**
+ * Encoded catalog snapshot of a catalog version.
+ */
+public class CatalogSnapshot {
+
+	private final long catalogVersion;
+
+	private final byte[] content;
+
+	public CatalogSnapshot(long catalogVersion, byte[] content) {
+		this.catalogVersion = catalogVersion;
+		this.content = content;
+	}
+
+	public long getCatalogVersion() {
+		return catalogVersion;
+	}
+
+	/**
+	 * @return the encoded snapshot, shared: it must not be modified
+	 */
+	public byte[] getContent() {
+		return content;
+	}
+
+	/**
+	 * @return the strong entity tag of the snapshot, quoted
+	 */
+	public String getETag() {
+		return "\"" + catalogVersion + "\"";
+	}
+}
@@ -0,0 +1,183 @@
+package fr.esgi.service.catalog;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.esgi.service.dto.CatalogSnapshotDTO;
+import fr.esgi.service.dto.CategoryDTO;
+import fr.esgi.service.dto.MenuDTO;
+import fr.esgi.service.dto.ProductDTO;
+
+/**
+ * Decoder of the binary catalog snapshot. The format is described in
+ * CatalogSnapshotWriter.
+ */
+public final class CatalogSnapshotReader {
+
+	private final DataInputStream inputStream;
+
+	private final List<String> strings = new ArrayList<>();
+
+	private CatalogSnapshotReader(InputStream inputStream) {
+		this.inputStream = new DataInputStream(inputStream);
+	}
+
+	/**
+	 * Decode a snapshot.
+	 *
+	 * @param snapshot the encoded snapshot
+	 * @return the catalog, the products of the menus are the products of the catalog
+	 * @throws IOException if the snapshot is truncated or of another format
+	 */
+	public static CatalogSnapshotDTO read(byte[] snapshot) throws IOException {
+		return read(new ByteArrayInputStream(snapshot));
+	}
+
+	/**
+	 * Decode a snapshot.
+	 *
+	 * @param inputStream the stream of the encoded snapshot
+	 * @return the catalog, the products of the menus are the products of the catalog
+	 * @throws IOException if the snapshot is truncated or of another format
+	 */
+	public static CatalogSnapshotDTO read(InputStream inputStream) throws IOException {
+		return new CatalogSnapshotReader(inputStream).decode();
+	}
+
+	private CatalogSnapshotDTO decode() throws IOException {
+		byte[] magic = new byte[CatalogSnapshotWriter.MAGIC.length];
+		inputStream.readFully(magic);
+		for (int i = 0; i < magic.length; i++) {
+			if (magic[i] != CatalogSnapshotWriter.MAGIC[i]) {
+				throw new IOException("Not a catalog snapshot");
+			}
+		}
+		int format = inputStream.readUnsignedByte();
+		if (format != CatalogSnapshotWriter.FORMAT) {
+			throw new IOException("Unsupported catalog snapshot format " + format);
+		}
+
+		CatalogSnapshotDTO catalog = new CatalogSnapshotDTO();
+		catalog.setCatalogVersion(readVarint());
+		readStrings();
+		catalog.setCategories(readCategories());
+		catalog.setProducts(readProducts());
+		catalog.setMenus(readMenus(catalog.getProducts()));
+		return catalog;
+	}
+
+	private void readStrings() throws IOException {
+		long count = readVarint();
+		for (long i = 0; i < count; i++) {
+			byte[] bytes = new byte[(int) readVarint()];
+			inputStream.readFully(bytes);
+			strings.add(new String(bytes, StandardCharsets.UTF_8));
+		}
+	}
+
+	private List<CategoryDTO> readCategories() throws IOException {
+		long count = readVarint();
+		List<CategoryDTO> categories = new ArrayList<>();
+		long id = 0;
+		for (long i = 0; i < count; i++) {
+			CategoryDTO category = new CategoryDTO();
+			id += readVarint();
+			category.setId(id);
+			category.setName(readString());
+			categories.add(category);
+		}
+		return categories;
+	}
+
+	private List<ProductDTO> readProducts() throws IOException {
+		long count = readVarint();
+		List<ProductDTO> products = new ArrayList<>();
+		long id = 0;
+		for (long i = 0; i < count; i++) {
+			ProductDTO product = new ProductDTO();
+			id += readVarint();
+			product.setId(id);
+			product.setName(readString());
+			product.setPrice(readZigzag() / 100d);
+			product.setAvailable((inputStream.readUnsignedByte() & CatalogSnapshotWriter.AVAILABLE) != 0);
+			long categoryId = readVarint();
+			product.setCategoryId(categoryId == 0 ? null : categoryId - 1);
+			products.add(product);
+		}
+		return products;
+	}
+
+	private List<MenuDTO> readMenus(List<ProductDTO> catalogProducts) throws IOException {
+		Map<Long, ProductDTO> productsById = new HashMap<>();
+		for (ProductDTO product : catalogProducts) {
+			productsById.put(product.getId(), product);
+		}
+
+		long count = readVarint();
+		List<MenuDTO> menus = new ArrayList<>();
+		long id = 0;
+		for (long i = 0; i < count; i++) {
+			MenuDTO menu = new MenuDTO();
+			id += readVarint();
+			menu.setId(id);
+			menu.setName(readString());
+			menu.setPrice(readZigzag() / 100d);
+			menu.setAvailable((inputStream.readUnsignedByte() & CatalogSnapshotWriter.AVAILABLE) != 0);
+
+			long productCount = readVarint();
+			List<ProductDTO> products = new ArrayList<>();
+			long productId = 0;
+			for (long j = 0; j < productCount; j++) {
+				productId += readVarint();
+				ProductDTO product = productsById.get(productId);
+				if (null == product) {
+					product = new ProductDTO();
+					product.setId(productId);
+				}
+				products.add(product);
+			}
+			menu.setProductsDTO(products);
+			menus.add(menu);
+		}
+		return menus;
+	}
+
+	private String readString() throws IOException {
+		long index = readVarint();
+		if (index == 0) {
+			return null;
+		}
+		if (index > strings.size()) {
+			throw new IOException("Unknown string " + index);
+		}
+		return strings.get((int) index - 1);
+	}
+
+	private long readZigzag() throws IOException {
+		long value = readVarint();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private long readVarint() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < Long.SIZE; shift += 7) {
+			int b = inputStream.read();
+			if (b < 0) {
+				throw new EOFException();
+			}
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+}
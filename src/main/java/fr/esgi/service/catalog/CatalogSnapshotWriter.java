@@ -0,0 +1,182 @@
+package fr.esgi.service.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import fr.esgi.service.dto.CatalogSnapshotDTO;
+import fr.esgi.service.dto.CategoryDTO;
+import fr.esgi.service.dto.MenuDTO;
+import fr.esgi.service.dto.ProductDTO;
+
+/**
+ * Encoder of the binary catalog snapshot, decoded by CatalogSnapshotReader.
+ *
+ * <pre>
+ * snapshot   = header strings categories products menus
+ * header     = "BSTC" (4 bytes) format (1 byte, 1) catalogVersion (varint)
+ * strings    = count (varint) { length (varint) UTF-8 bytes }
+ * categories = count (varint) { idDelta (varint) name (varint) }
+ * products   = count (varint) { idDelta (varint) name (varint) price (zigzag varint)
+ *              flags (1 byte) categoryId (varint) }
+ * menus      = count (varint) { idDelta (varint) name (varint) price (zigzag varint)
+ *              flags (1 byte) productCount (varint) { productIdDelta (varint) } }
+ * </pre>
+ *
+ * <ul>
+ * <li>varint: unsigned LEB128, 7 bits per byte from the lowest, the high bit
+ * set on every byte but the last.</li>
+ * <li>zigzag varint: the varint of (n &lt;&lt; 1) ^ (n &gt;&gt; 63).</li>
+ * <li>The records are sorted by id. idDelta is the id minus the id of the
+ * previous record of the section, the id itself for the first one. The
+ * product ids of a menu are encoded the same way.</li>
+ * <li>name: index of the name in the string table, 0 for no name and i + 1
+ * for the i-th string.</li>
+ * <li>price: the price in cents.</li>
+ * <li>flags: bit 0 set if available. A menu of unknown availability is
+ * written as unavailable.</li>
+ * <li>categoryId: 0 for no category, the category id + 1 otherwise.</li>
+ * </ul>
+ *
+ * A reader must reject another magic or format: a new format changes the
+ * format byte.
+ */
+public final class CatalogSnapshotWriter {
+
+	static final byte[] MAGIC = { 'B', 'S', 'T', 'C' };
+
+	static final int FORMAT = 1;
+
+	static final int AVAILABLE = 1;
+
+	private final Map<String, Integer> stringIndexes = new HashMap<>();
+
+	private final List<String> strings = new ArrayList<>();
+
+	private CatalogSnapshotWriter() {
+	}
+
+	/**
+	 * Encode the catalog.
+	 *
+	 * @param catalog the catalog, the products of the menus are read by id only
+	 * @return the snapshot
+	 */
+	public static byte[] write(CatalogSnapshotDTO catalog) {
+		return new CatalogSnapshotWriter().encode(catalog);
+	}
+
+	private byte[] encode(CatalogSnapshotDTO catalog) {
+		List<CategoryDTO> categories = sorted(catalog.getCategories(), CategoryDTO::getId);
+		List<ProductDTO> products = sorted(catalog.getProducts(), ProductDTO::getId);
+		List<MenuDTO> menus = sorted(catalog.getMenus(), MenuDTO::getId);
+
+		// The records are encoded first to fill the string table written before them.
+		ByteArrayOutputStream records = new ByteArrayOutputStream();
+		writeCategories(records, categories);
+		writeProducts(records, products);
+		writeMenus(records, menus);
+
+		ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+		snapshot.write(MAGIC, 0, MAGIC.length);
+		snapshot.write(FORMAT);
+		writeVarint(snapshot, catalog.getCatalogVersion());
+		writeStrings(snapshot);
+		byte[] content = records.toByteArray();
+		snapshot.write(content, 0, content.length);
+		return snapshot.toByteArray();
+	}
+
+	private void writeCategories(ByteArrayOutputStream out, List<CategoryDTO> categories) {
+		writeVarint(out, categories.size());
+		long previousId = 0;
+		for (CategoryDTO category : categories) {
+			writeVarint(out, category.getId() - previousId);
+			previousId = category.getId();
+			writeVarint(out, indexOf(category.getName()));
+		}
+	}
+
+	private void writeProducts(ByteArrayOutputStream out, List<ProductDTO> products) {
+		writeVarint(out, products.size());
+		long previousId = 0;
+		for (ProductDTO product : products) {
+			writeVarint(out, product.getId() - previousId);
+			previousId = product.getId();
+			writeVarint(out, indexOf(product.getName()));
+			writeZigzag(out, toCents(product.getPrice()));
+			out.write(product.isAvailable() ? AVAILABLE : 0);
+			writeVarint(out, null == product.getCategoryId() ? 0 : product.getCategoryId() + 1);
+		}
+	}
+
+	private void writeMenus(ByteArrayOutputStream out, List<MenuDTO> menus) {
+		writeVarint(out, menus.size());
+		long previousId = 0;
+		for (MenuDTO menu : menus) {
+			writeVarint(out, menu.getId() - previousId);
+			previousId = menu.getId();
+			writeVarint(out, indexOf(menu.getName()));
+			writeZigzag(out, toCents(menu.getPrice()));
+			out.write(Boolean.TRUE.equals(menu.getAvailable()) ? AVAILABLE : 0);
+
+			List<ProductDTO> products = sorted(menu.getProductsDTO(), ProductDTO::getId);
+			writeVarint(out, products.size());
+			long previousProductId = 0;
+			for (ProductDTO product : products) {
+				writeVarint(out, product.getId() - previousProductId);
+				previousProductId = product.getId();
+			}
+		}
+	}
+
+	private void writeStrings(ByteArrayOutputStream out) {
+		writeVarint(out, strings.size());
+		for (String string : strings) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeVarint(out, bytes.length);
+			out.write(bytes, 0, bytes.length);
+		}
+	}
+
+	private int indexOf(String string) {
+		if (null == string) {
+			return 0;
+		}
+		return stringIndexes.computeIfAbsent(string, s -> {
+			strings.add(s);
+			return strings.size();
+		});
+	}
+
+	private static <T> List<T> sorted(List<T> records, Function<T, Long> id) {
+		List<T> sorted = new ArrayList<>();
+		if (null != records) {
+			sorted.addAll(records);
+		}
+		sorted.sort(Comparator.comparing(id));
+		return sorted;
+	}
+
+	private static long toCents(double price) {
+		return Math.round(price * 100);
+	}
+
+	private static void writeZigzag(ByteArrayOutputStream out, long value) {
+		writeVarint(out, (value << 1) ^ (value >> 63));
+	}
+
+	private static void writeVarint(ByteArrayOutputStream out, long value) {
+		long remaining = value;
+		while ((remaining & ~0x7FL) != 0) {
+			out.write((int) ((remaining & 0x7F) | 0x80));
+			remaining >>>= 7;
+		}
+		out.write((int) remaining);
+	}
+}
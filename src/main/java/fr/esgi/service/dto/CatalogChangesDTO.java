@@ -0,0 +1,148 @@
+package fr.esgi.service.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO representing the catalog changes since a version known by a terminal.
+ *
+ * When the version is too old, full is true and the lists hold the whole
+ * catalog, which replaces the one of the terminal.
+ */
+public class CatalogChangesDTO {
+
+	private long version;
+
+	private boolean full;
+
+	private List<CategoryDTO> categories;
+
+	private List<ProductDTO> products;
+
+	private List<MenuDTO> menus;
+
+	private List<Long> deletedProductIds;
+
+	private List<Long> deletedMenuIds;
+
+	public CatalogChangesDTO() {
+		// Empty constructor needed for Jackson.
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
+	public boolean isFull() {
+		return full;
+	}
+
+	public void setFull(boolean full) {
+		this.full = full;
+	}
+
+	public List<CategoryDTO> getCategories() {
+		return categories;
+	}
+
+	public void setCategories(List<CategoryDTO> categories) {
+		this.categories = categories;
+	}
+
+	public List<ProductDTO> getProducts() {
+		return products;
+	}
+
+	public void setProducts(List<ProductDTO> products) {
+		this.products = products;
+	}
+
+	public List<MenuDTO> getMenus() {
+		return menus;
+	}
+
+	public void setMenus(List<MenuDTO> menus) {
+		this.menus = menus;
+	}
+
+	public List<Long> getDeletedProductIds() {
+		return deletedProductIds;
+	}
+
+	public void setDeletedProductIds(List<Long> deletedProductIds) {
+		this.deletedProductIds = deletedProductIds;
+	}
+
+	public List<Long> getDeletedMenuIds() {
+		return deletedMenuIds;
+	}
+
+	public void setDeletedMenuIds(List<Long> deletedMenuIds) {
+		this.deletedMenuIds = deletedMenuIds;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(version, full, categories, products, menus, deletedProductIds, deletedMenuIds);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		CatalogChangesDTO other = (CatalogChangesDTO) obj;
+		return version == other.version
+				&& full == other.full
+				&& Objects.equals(categories, other.categories)
+				&& Objects.equals(products, other.products)
+				&& Objects.equals(menus, other.menus)
+				&& Objects.equals(deletedProductIds, other.deletedProductIds)
+				&& Objects.equals(deletedMenuIds, other.deletedMenuIds);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("CatalogChangesDTO [");
+		builder.append("version=");
+		builder.append(version);
+		builder.append(", ");
+		builder.append("full=");
+		builder.append(full);
+		builder.append(", ");
+		if (categories != null) {
+			builder.append("categories=");
+			builder.append(categories);
+			builder.append(", ");
+		}
+		if (products != null) {
+			builder.append("products=");
+			builder.append(products);
+			builder.append(", ");
+		}
+		if (menus != null) {
+			builder.append("menus=");
+			builder.append(menus);
+			builder.append(", ");
+		}
+		if (deletedProductIds != null) {
+			builder.append("deletedProductIds=");
+			builder.append(deletedProductIds);
+			builder.append(", ");
+		}
+		if (deletedMenuIds != null) {
+			builder.append("deletedMenuIds=");
+			builder.append(deletedMenuIds);
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,170 @@
+package fr.esgi.service.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import fr.esgi.enums.CatalogItemType;
+
+/**
+ * A DTO representing a product or a menu changed, with its new values. The
+ * values are omitted for a deleted item, the products ids are only set for
+ * a menu.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogItemUpdateDTO {
+
+	private CatalogItemType itemType;
+
+	private Long id;
+
+	private boolean deleted;
+
+	private String name;
+
+	private Double price;
+
+	private Boolean available;
+
+	private Long categoryId;
+
+	private List<Long> productIds;
+
+	public CatalogItemUpdateDTO() {
+		// Empty constructor needed for Jackson.
+	}
+
+	public CatalogItemType getItemType() {
+		return itemType;
+	}
+
+	public void setItemType(CatalogItemType itemType) {
+		this.itemType = itemType;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public boolean isDeleted() {
+		return deleted;
+	}
+
+	public void setDeleted(boolean deleted) {
+		this.deleted = deleted;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Double getPrice() {
+		return price;
+	}
+
+	public void setPrice(Double price) {
+		this.price = price;
+	}
+
+	public Boolean getAvailable() {
+		return available;
+	}
+
+	public void setAvailable(Boolean available) {
+		this.available = available;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public void setCategoryId(Long categoryId) {
+		this.categoryId = categoryId;
+	}
+
+	public List<Long> getProductIds() {
+		return productIds;
+	}
+
+	public void setProductIds(List<Long> productIds) {
+		this.productIds = productIds;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(itemType, id, deleted, name, price, available, categoryId, productIds);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		CatalogItemUpdateDTO other = (CatalogItemUpdateDTO) obj;
+		return Objects.equals(itemType, other.itemType)
+				&& Objects.equals(id, other.id)
+				&& deleted == other.deleted
+				&& Objects.equals(name, other.name)
+				&& Objects.equals(price, other.price)
+				&& Objects.equals(available, other.available)
+				&& Objects.equals(categoryId, other.categoryId)
+				&& Objects.equals(productIds, other.productIds);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("CatalogItemUpdateDTO [");
+		if (itemType != null) {
+			builder.append("itemType=");
+			builder.append(itemType);
+			builder.append(", ");
+		}
+		if (id != null) {
+			builder.append("id=");
+			builder.append(id);
+			builder.append(", ");
+		}
+		builder.append("deleted=");
+		builder.append(deleted);
+		builder.append(", ");
+		if (name != null) {
+			builder.append("name=");
+			builder.append(name);
+			builder.append(", ");
+		}
+		if (price != null) {
+			builder.append("price=");
+			builder.append(price);
+			builder.append(", ");
+		}
+		if (available != null) {
+			builder.append("available=");
+			builder.append(available);
+			builder.append(", ");
+		}
+		if (categoryId != null) {
+			builder.append("categoryId=");
+			builder.append(categoryId);
+			builder.append(", ");
+		}
+		if (productIds != null) {
+			builder.append("productIds=");
+			builder.append(productIds);
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+}
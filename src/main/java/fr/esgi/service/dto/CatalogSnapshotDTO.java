@@ -0,0 +1,99 @@
+package fr.esgi.service.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO representing the catalog read by the terminals at boot.
+ */
+public class CatalogSnapshotDTO {
+
+	private long catalogVersion;
+
+	private List<CategoryDTO> categories;
+
+	private List<ProductDTO> products;
+
+	private List<MenuDTO> menus;
+
+	public CatalogSnapshotDTO() {
+		// Empty constructor needed for Jackson.
+	}
+
+	public long getCatalogVersion() {
+		return catalogVersion;
+	}
+
+	public void setCatalogVersion(long catalogVersion) {
+		this.catalogVersion = catalogVersion;
+	}
+
+	public List<CategoryDTO> getCategories() {
+		return categories;
+	}
+
+	public void setCategories(List<CategoryDTO> categories) {
+		this.categories = categories;
+	}
+
+	public List<ProductDTO> getProducts() {
+		return products;
+	}
+
+	public void setProducts(List<ProductDTO> products) {
+		this.products = products;
+	}
+
+	public List<MenuDTO> getMenus() {
+		return menus;
+	}
+
+	public void setMenus(List<MenuDTO> menus) {
+		this.menus = menus;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(catalogVersion, categories, products, menus);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		CatalogSnapshotDTO other = (CatalogSnapshotDTO) obj;
+		return catalogVersion == other.catalogVersion
+				&& Objects.equals(categories, other.categories)
+				&& Objects.equals(products, other.products)
+				&& Objects.equals(menus, other.menus);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("CatalogSnapshotDTO [");
+		builder.append("catalogVersion=");
+		builder.append(catalogVersion);
+		builder.append(", ");
+		if (categories != null) {
+			builder.append("categories=");
+			builder.append(categories);
+			builder.append(", ");
+		}
+		if (products != null) {
+			builder.append("products=");
+			builder.append(products);
+			builder.append(", ");
+		}
+		if (menus != null) {
+			builder.append("menus=");
+			builder.append(menus);
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,99 @@
+package fr.esgi.service.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO representing the catalog changes broadcast to the terminals.
+ *
+ * The items bring a terminal from the version fromVersion to the version
+ * version. A terminal at another version, or receiving a resync, reads the
+ * changes through /api/catalog/changes instead.
+ */
+public class CatalogUpdateDTO {
+
+	private long fromVersion;
+
+	private long version;
+
+	private boolean resync;
+
+	private List<CatalogItemUpdateDTO> items;
+
+	public CatalogUpdateDTO() {
+		// Empty constructor needed for Jackson.
+	}
+
+	public long getFromVersion() {
+		return fromVersion;
+	}
+
+	public void setFromVersion(long fromVersion) {
+		this.fromVersion = fromVersion;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
+	public boolean isResync() {
+		return resync;
+	}
+
+	public void setResync(boolean resync) {
+		this.resync = resync;
+	}
+
+	public List<CatalogItemUpdateDTO> getItems() {
+		return items;
+	}
+
+	public void setItems(List<CatalogItemUpdateDTO> items) {
+		this.items = items;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(fromVersion, version, resync, items);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		CatalogUpdateDTO other = (CatalogUpdateDTO) obj;
+		return fromVersion == other.fromVersion
+				&& version == other.version
+				&& resync == other.resync
+				&& Objects.equals(items, other.items);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("CatalogUpdateDTO [");
+		builder.append("fromVersion=");
+		builder.append(fromVersion);
+		builder.append(", ");
+		builder.append("version=");
+		builder.append(version);
+		builder.append(", ");
+		builder.append("resync=");
+		builder.append(resync);
+		builder.append(", ");
+		if (items != null) {
+			builder.append("items=");
+			builder.append(items);
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -35,6 +35,20 @@ public class CommandDTO {
 		// Empty constructor needed for Jackson.
 	}
 
+	/**
+	 * Constructor of the JPQL projections, which do not load the entities.
+	 */
+	public CommandDTO(Long id, String orderStatus, ZonedDateTime date, Long customerId, String paymentId,
+			BigDecimal price, String saleId) {
+		this.id = id;
+		this.orderStatus = orderStatus;
+		this.date = date;
+		this.customerId = customerId;
+		this.paymentId = paymentId;
+		this.price = price;
+		this.saleId = saleId;
+	}
+
 	public Long getId() {
 		return id;
 	}
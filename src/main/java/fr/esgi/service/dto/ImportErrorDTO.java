@@ -0,0 +1,94 @@
+package fr.esgi.service.dto;
+
+import java.util.Objects;
+
+/**
+ * A DTO representing a row rejected by an import.
+ */
+public class ImportErrorDTO {
+
+	private long line;
+
+	private String column;
+
+	private String reason;
+
+	public ImportErrorDTO() {
+		// Empty constructor needed for Jackson.
+	}
+
+	public ImportErrorDTO(long line, String column, String reason) {
+		this.line = line;
+		this.column = column;
+		this.reason = reason;
+	}
+
+	/**
+	 * @return the line of the file on which the row starts
+	 */
+	public long getLine() {
+		return line;
+	}
+
+	public void setLine(long line) {
+		this.line = line;
+	}
+
+	/**
+	 * @return the column of the invalid value, null if the whole row is invalid
+	 */
+	public String getColumn() {
+		return column;
+	}
+
+	public void setColumn(String column) {
+		this.column = column;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	public void setReason(String reason) {
+		this.reason = reason;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(line, column, reason);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ImportErrorDTO other = (ImportErrorDTO) obj;
+		return line == other.line
+				&& Objects.equals(column, other.column)
+				&& Objects.equals(reason, other.reason);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ImportErrorDTO [");
+		builder.append("line=");
+		builder.append(line);
+		builder.append(", ");
+		if (column != null) {
+			builder.append("column=");
+			builder.append(column);
+			builder.append(", ");
+		}
+		if (reason != null) {
+			builder.append("reason=");
+			builder.append(reason);
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,340 @@
+package fr.esgi.service.dto;
+
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+import fr.esgi.enums.ImportJobStatus;
+import fr.esgi.enums.ImportType;
+
+/**
+ * A DTO representing an import job and its progress.
+ */
+public class ImportJobDTO {
+
+	private Long id;
+
+	private ImportType type;
+
+	private String fileFormat;
+
+	private String fileName;
+
+	private long fileSize;
+
+	private ImportJobStatus status;
+
+	private long rowsParsed;
+
+	private long rowsWritten;
+
+	private long rowsUpdated;
+
+	private long rowsFailed;
+
+	private long checkpoint;
+
+	private long bytesRead;
+
+	private ZonedDateTime startDate;
+
+	private ZonedDateTime endDate;
+
+	private ZonedDateTime lastUpdate;
+
+	private String errorMessage;
+
+	private double rowsPerSecond;
+
+	private Long estimatedRemainingSeconds;
+
+	private int progress;
+
+	public ImportJobDTO() {
+		// Empty constructor needed for Jackson.
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public ImportType getType() {
+		return type;
+	}
+
+	public void setType(ImportType type) {
+		this.type = type;
+	}
+
+	public String getFileFormat() {
+		return fileFormat;
+	}
+
+	public void setFileFormat(String fileFormat) {
+		this.fileFormat = fileFormat;
+	}
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	public void setFileName(String fileName) {
+		this.fileName = fileName;
+	}
+
+	public long getFileSize() {
+		return fileSize;
+	}
+
+	public void setFileSize(long fileSize) {
+		this.fileSize = fileSize;
+	}
+
+	public ImportJobStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(ImportJobStatus status) {
+		this.status = status;
+	}
+
+	public long getRowsParsed() {
+		return rowsParsed;
+	}
+
+	public void setRowsParsed(long rowsParsed) {
+		this.rowsParsed = rowsParsed;
+	}
+
+	public long getRowsWritten() {
+		return rowsWritten;
+	}
+
+	public void setRowsWritten(long rowsWritten) {
+		this.rowsWritten = rowsWritten;
+	}
+
+	public long getRowsUpdated() {
+		return rowsUpdated;
+	}
+
+	public void setRowsUpdated(long rowsUpdated) {
+		this.rowsUpdated = rowsUpdated;
+	}
+
+	public long getRowsFailed() {
+		return rowsFailed;
+	}
+
+	public void setRowsFailed(long rowsFailed) {
+		this.rowsFailed = rowsFailed;
+	}
+
+	/**
+	 * @return the position of the last row committed
+	 */
+	public long getCheckpoint() {
+		return checkpoint;
+	}
+
+	public void setCheckpoint(long checkpoint) {
+		this.checkpoint = checkpoint;
+	}
+
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	public void setBytesRead(long bytesRead) {
+		this.bytesRead = bytesRead;
+	}
+
+	public ZonedDateTime getStartDate() {
+		return startDate;
+	}
+
+	public void setStartDate(ZonedDateTime startDate) {
+		this.startDate = startDate;
+	}
+
+	public ZonedDateTime getEndDate() {
+		return endDate;
+	}
+
+	public void setEndDate(ZonedDateTime endDate) {
+		this.endDate = endDate;
+	}
+
+	public ZonedDateTime getLastUpdate() {
+		return lastUpdate;
+	}
+
+	public void setLastUpdate(ZonedDateTime lastUpdate) {
+		this.lastUpdate = lastUpdate;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	/**
+	 * @return the rows written per second since the start of the job
+	 */
+	public double getRowsPerSecond() {
+		return rowsPerSecond;
+	}
+
+	public void setRowsPerSecond(double rowsPerSecond) {
+		this.rowsPerSecond = rowsPerSecond;
+	}
+
+	/**
+	 * @return the estimated time left from the bytes read, null when unknown
+	 */
+	public Long getEstimatedRemainingSeconds() {
+		return estimatedRemainingSeconds;
+	}
+
+	public void setEstimatedRemainingSeconds(Long estimatedRemainingSeconds) {
+		this.estimatedRemainingSeconds = estimatedRemainingSeconds;
+	}
+
+	/**
+	 * @return the percentage of the file read
+	 */
+	public int getProgress() {
+		return progress;
+	}
+
+	public void setProgress(int progress) {
+		this.progress = progress;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, type, fileFormat, fileName, fileSize, status, rowsParsed, rowsWritten,
+				rowsUpdated, rowsFailed, checkpoint, bytesRead, startDate, endDate, lastUpdate,
+				errorMessage, rowsPerSecond, estimatedRemainingSeconds, progress);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ImportJobDTO other = (ImportJobDTO) obj;
+		return Objects.equals(id, other.id)
+				&& Objects.equals(type, other.type)
+				&& Objects.equals(fileFormat, other.fileFormat)
+				&& Objects.equals(fileName, other.fileName)
+				&& fileSize == other.fileSize
+				&& Objects.equals(status, other.status)
+				&& rowsParsed == other.rowsParsed
+				&& rowsWritten == other.rowsWritten
+				&& rowsUpdated == other.rowsUpdated
+				&& rowsFailed == other.rowsFailed
+				&& checkpoint == other.checkpoint
+				&& bytesRead == other.bytesRead
+				&& Objects.equals(startDate, other.startDate)
+				&& Objects.equals(endDate, other.endDate)
+				&& Objects.equals(lastUpdate, other.lastUpdate)
+				&& Objects.equals(errorMessage, other.errorMessage)
+				&& Double.compare(rowsPerSecond, other.rowsPerSecond) == 0
+				&& Objects.equals(estimatedRemainingSeconds, other.estimatedRemainingSeconds)
+				&& progress == other.progress;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ImportJobDTO [");
+		if (id != null) {
+			builder.append("id=");
+			builder.append(id);
+			builder.append(", ");
+		}
+		if (type != null) {
+			builder.append("type=");
+			builder.append(type);
+			builder.append(", ");
+		}
+		if (fileFormat != null) {
+			builder.append("fileFormat=");
+			builder.append(fileFormat);
+			builder.append(", ");
+		}
+		if (fileName != null) {
+			builder.append("fileName=");
+			builder.append(fileName);
+			builder.append(", ");
+		}
+		builder.append("fileSize=");
+		builder.append(fileSize);
+		builder.append(", ");
+		if (status != null) {
+			builder.append("status=");
+			builder.append(status);
+			builder.append(", ");
+		}
+		builder.append("rowsParsed=");
+		builder.append(rowsParsed);
+		builder.append(", ");
+		builder.append("rowsWritten=");
+		builder.append(rowsWritten);
+		builder.append(", ");
+		builder.append("rowsUpdated=");
+		builder.append(rowsUpdated);
+		builder.append(", ");
+		builder.append("rowsFailed=");
+		builder.append(rowsFailed);
+		builder.append(", ");
+		builder.append("checkpoint=");
+		builder.append(checkpoint);
+		builder.append(", ");
+		builder.append("bytesRead=");
+		builder.append(bytesRead);
+		builder.append(", ");
+		if (startDate != null) {
+			builder.append("startDate=");
+			builder.append(startDate);
+			builder.append(", ");
+		}
+		if (endDate != null) {
+			builder.append("endDate=");
+			builder.append(endDate);
+			builder.append(", ");
+		}
+		if (lastUpdate != null) {
+			builder.append("lastUpdate=");
+			builder.append(lastUpdate);
+			builder.append(", ");
+		}
+		if (errorMessage != null) {
+			builder.append("errorMessage=");
+			builder.append(errorMessage);
+			builder.append(", ");
+		}
+		builder.append("rowsPerSecond=");
+		builder.append(rowsPerSecond);
+		builder.append(", ");
+		if (estimatedRemainingSeconds != null) {
+			builder.append("estimatedRemainingSeconds=");
+			builder.append(estimatedRemainingSeconds);
+			builder.append(", ");
+		}
+		builder.append("progress=");
+		builder.append(progress);
+		builder.append("]");
+		return builder.toString();
+	}
+}
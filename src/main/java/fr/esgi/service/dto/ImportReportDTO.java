@@ -0,0 +1,140 @@
+package fr.esgi.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO representing the result of an import.
+ */
+public class ImportReportDTO {
+
+	private long rowsRead;
+
+	private long rowsWritten;
+
+	private long rowsUpdated;
+
+	private long rowsFailed;
+
+	private int chunks;
+
+	private List<ImportStageDTO> stages = new ArrayList<>();
+
+	private List<ImportErrorDTO> errors = new ArrayList<>();
+
+	public ImportReportDTO() {
+		// Empty constructor needed for Jackson.
+	}
+
+	public long getRowsRead() {
+		return rowsRead;
+	}
+
+	public void setRowsRead(long rowsRead) {
+		this.rowsRead = rowsRead;
+	}
+
+	public long getRowsWritten() {
+		return rowsWritten;
+	}
+
+	public void setRowsWritten(long rowsWritten) {
+		this.rowsWritten = rowsWritten;
+	}
+
+	/**
+	 * @return the number of written rows which updated an existing entity
+	 */
+	public long getRowsUpdated() {
+		return rowsUpdated;
+	}
+
+	public void setRowsUpdated(long rowsUpdated) {
+		this.rowsUpdated = rowsUpdated;
+	}
+
+	public long getRowsFailed() {
+		return rowsFailed;
+	}
+
+	public void setRowsFailed(long rowsFailed) {
+		this.rowsFailed = rowsFailed;
+	}
+
+	public int getChunks() {
+		return chunks;
+	}
+
+	public void setChunks(int chunks) {
+		this.chunks = chunks;
+	}
+
+	public List<ImportStageDTO> getStages() {
+		return stages;
+	}
+
+	public void setStages(List<ImportStageDTO> stages) {
+		this.stages = stages;
+	}
+
+	/**
+	 * @return the first rows rejected, the others are only counted in rowsFailed
+	 */
+	public List<ImportErrorDTO> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(List<ImportErrorDTO> errors) {
+		this.errors = errors;
+	}
+
+	public void incrementRowsRead() {
+		this.rowsRead++;
+	}
+
+	public void addChunk(int rowsWritten) {
+		this.rowsWritten += rowsWritten;
+		this.chunks++;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(chunks, rowsRead, rowsUpdated, rowsWritten, rowsFailed, stages, errors);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ImportReportDTO other = (ImportReportDTO) obj;
+		return chunks == other.chunks && rowsRead == other.rowsRead && rowsWritten == other.rowsWritten
+				&& rowsUpdated == other.rowsUpdated && rowsFailed == other.rowsFailed
+				&& Objects.equals(stages, other.stages) && Objects.equals(errors, other.errors);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ImportReportDTO [rowsRead=");
+		builder.append(rowsRead);
+		builder.append(", rowsWritten=");
+		builder.append(rowsWritten);
+		builder.append(", rowsUpdated=");
+		builder.append(rowsUpdated);
+		builder.append(", rowsFailed=");
+		builder.append(rowsFailed);
+		builder.append(", chunks=");
+		builder.append(chunks);
+		builder.append(", stages=");
+		builder.append(stages);
+		builder.append(", errors=");
+		builder.append(errors);
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,108 @@
+package fr.esgi.service.dto;
+
+import java.util.Objects;
+
+/**
+ * A DTO representing the metrics of a stage of an import.
+ */
+public class ImportStageDTO {
+
+	private String name;
+
+	private long processed;
+
+	private long busyInMilliseconds;
+
+	private long idleInMilliseconds;
+
+	private long blockedInMilliseconds;
+
+	public ImportStageDTO() {
+		// Empty constructor needed for Jackson.
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public long getProcessed() {
+		return processed;
+	}
+
+	public void setProcessed(long processed) {
+		this.processed = processed;
+	}
+
+	/**
+	 * @return the time spent processing rows
+	 */
+	public long getBusyInMilliseconds() {
+		return busyInMilliseconds;
+	}
+
+	public void setBusyInMilliseconds(long busyInMilliseconds) {
+		this.busyInMilliseconds = busyInMilliseconds;
+	}
+
+	/**
+	 * @return the time spent waiting for rows from the previous stage
+	 */
+	public long getIdleInMilliseconds() {
+		return idleInMilliseconds;
+	}
+
+	public void setIdleInMilliseconds(long idleInMilliseconds) {
+		this.idleInMilliseconds = idleInMilliseconds;
+	}
+
+	/**
+	 * @return the time spent waiting for room in the queue of the next stage
+	 */
+	public long getBlockedInMilliseconds() {
+		return blockedInMilliseconds;
+	}
+
+	public void setBlockedInMilliseconds(long blockedInMilliseconds) {
+		this.blockedInMilliseconds = blockedInMilliseconds;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(blockedInMilliseconds, busyInMilliseconds, idleInMilliseconds, name, processed);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ImportStageDTO other = (ImportStageDTO) obj;
+		return blockedInMilliseconds == other.blockedInMilliseconds && busyInMilliseconds == other.busyInMilliseconds
+				&& idleInMilliseconds == other.idleInMilliseconds && Objects.equals(name, other.name)
+				&& processed == other.processed;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ImportStageDTO [name=");
+		builder.append(name);
+		builder.append(", processed=");
+		builder.append(processed);
+		builder.append(", busyInMilliseconds=");
+		builder.append(busyInMilliseconds);
+		builder.append(", idleInMilliseconds=");
+		builder.append(idleInMilliseconds);
+		builder.append(", blockedInMilliseconds=");
+		builder.append(blockedInMilliseconds);
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -31,6 +31,17 @@ public class MenuDTO {
 		this.managerId = menu.getManager().getId();
 	}
 
+	/**
+	 * Constructor of the JPQL projections, which do not load the entities.
+	 */
+	public MenuDTO(Long id, String name, double price, Boolean available, Long managerId) {
+		this.id = id;
+		this.name = name;
+		this.price = price;
+		this.available = available;
+		this.managerId = managerId;
+	}
+
 	public Long getId() {
 		return id;
 	}
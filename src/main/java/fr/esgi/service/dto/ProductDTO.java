@@ -31,6 +31,18 @@ public class ProductDTO {
 		this.managerId = product.getManager().getId();
 	}
 
+	/**
+	 * Constructor of the JPQL projections, which do not load the entities.
+	 */
+	public ProductDTO(Long id, String name, double price, boolean available, Long categoryId, Long managerId) {
+		this.id = id;
+		this.name = name;
+		this.price = price;
+		this.available = available;
+		this.categoryId = categoryId;
+		this.managerId = managerId;
+	}
+
 	public Long getId() {
 		return id;
 	}
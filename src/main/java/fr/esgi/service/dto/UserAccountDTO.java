@@ -0,0 +1,61 @@
+package fr.esgi.service.dto;
+
+/**
+ * The account of a user read to authenticate him: his credentials, his role
+ * and the ids of his customer and manager profiles.
+ */
+public class UserAccountDTO {
+
+	private final String pseudo;
+
+	private final String email;
+
+	private final String password;
+
+	private final boolean activated;
+
+	private final String roleName;
+
+	private final Long customerId;
+
+	private final Long managerId;
+
+	public UserAccountDTO(String pseudo, String email, String password, boolean activated, String roleName,
+			Long customerId, Long managerId) {
+		this.pseudo = pseudo;
+		this.email = email;
+		this.password = password;
+		this.activated = activated;
+		this.roleName = roleName;
+		this.customerId = customerId;
+		this.managerId = managerId;
+	}
+
+	public String getPseudo() {
+		return pseudo;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public String getPassword() {
+		return password;
+	}
+
+	public boolean isActivated() {
+		return activated;
+	}
+
+	public String getRoleName() {
+		return roleName;
+	}
+
+	public Long getCustomerId() {
+		return customerId;
+	}
+
+	public Long getManagerId() {
+		return managerId;
+	}
+}
@@ -36,6 +36,9 @@ public class UserDTO {
     @Size(max = 256)
     private String imageUrl;
 
+    @Size(max = 64)
+    private String imageHash;
+
     private LocalDate createDate;
 
     private boolean activated = false;
@@ -58,6 +61,7 @@ public class UserDTO {
         this.activated = user.isActivated();
         this.createDate = user.getCreateDate();
         this.imageUrl = user.getImageUrl();
+        this.imageHash = user.getImageHash();
         this.birthDay = user.getBirthDay();
         if (null != user.getRole()) {
             this.roleId = user.getRole().getId();
@@ -112,6 +116,14 @@ public class UserDTO {
         this.imageUrl = imageUrl;
     }
 
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
     public boolean isActivated() {
         return activated;
     }
@@ -156,6 +168,7 @@ public class UserDTO {
                 Objects.equals(lastName, userDTO.lastName) &&
                 Objects.equals(email, userDTO.email) &&
                 Objects.equals(imageUrl, userDTO.imageUrl) &&
+                Objects.equals(imageHash, userDTO.imageHash) &&
                 Objects.equals(createDate, userDTO.createDate) &&
                 Objects.equals(birthDay, userDTO.birthDay) &&
                 Objects.equals(roleId, userDTO.roleId);
@@ -163,7 +176,7 @@ public class UserDTO {
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, pseudo, firstName, lastName, email, imageUrl, createDate, activated, birthDay, roleId);
+        return Objects.hash(id, pseudo, firstName, lastName, email, imageUrl, imageHash, createDate, activated, birthDay, roleId);
     }
 
 	@Override
@@ -200,6 +213,11 @@ public class UserDTO {
 			builder.append(imageUrl);
 			builder.append(", ");
 		}
+		if (imageHash != null) {
+			builder.append("imageHash=");
+			builder.append(imageHash);
+			builder.append(", ");
+		}
 		if (createDate != null) {
 			builder.append("createDate=");
 			builder.append(createDate);
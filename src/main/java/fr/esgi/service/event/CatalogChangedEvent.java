@@ -0,0 +1,36 @@
+package fr.esgi.service.event;
+
+import java.util.Collection;
+
+import fr.esgi.enums.CatalogChangeType;
+import fr.esgi.enums.CatalogItemType;
+
+/**
+ * Published when products or menus are created, updated or deleted.
+ */
+public class CatalogChangedEvent {
+
+	private final CatalogItemType itemType;
+
+	private final CatalogChangeType changeType;
+
+	private final Collection<Long> ids;
+
+	public CatalogChangedEvent(CatalogItemType itemType, CatalogChangeType changeType, Collection<Long> ids) {
+		this.itemType = itemType;
+		this.changeType = changeType;
+		this.ids = ids;
+	}
+
+	public CatalogItemType getItemType() {
+		return itemType;
+	}
+
+	public CatalogChangeType getChangeType() {
+		return changeType;
+	}
+
+	public Collection<Long> getIds() {
+		return ids;
+	}
+}
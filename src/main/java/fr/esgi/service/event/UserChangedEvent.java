@@ -0,0 +1,24 @@
+package fr.esgi.service.event;
+
+/**
+ * Published when a user is created or updated.
+ */
+public class UserChangedEvent {
+
+	private final String pseudo;
+
+	private final String email;
+
+	public UserChangedEvent(String pseudo, String email) {
+		this.pseudo = pseudo;
+		this.email = email;
+	}
+
+	public String getPseudo() {
+		return pseudo;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+}
@@ -0,0 +1,75 @@
+package fr.esgi.service.exporter;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writer of CSV records, the counterpart of CsvRecordReader.
+ *
+ * A field is quoted only when it contains the delimiter, a quote or a line
+ * break. Null values are written as empty fields.
+ */
+public class CsvRecordWriter implements Closeable, Flushable {
+
+	private static final char QUOTE = '"';
+
+	private static final String LINE_SEPARATOR = "\n";
+
+	private final Writer writer;
+
+	private final char delimiter;
+
+	public CsvRecordWriter(Writer writer, char delimiter) {
+		this.writer = writer;
+		this.delimiter = delimiter;
+	}
+
+	/**
+	 * Write a record on its own line.
+	 *
+	 * @param values the values of the fields, written with toString
+	 * @throws IOException if the stream can not be written
+	 */
+	public void writeRecord(List<?> values) throws IOException {
+		for (int i = 0; i < values.size(); i++) {
+			if (i > 0) {
+				writer.write(delimiter);
+			}
+			Object value = values.get(i);
+			if (null != value) {
+				writeField(value.toString());
+			}
+		}
+		writer.write(LINE_SEPARATOR);
+	}
+
+	private void writeField(String field) throws IOException {
+		if (field.indexOf(delimiter) < 0 && field.indexOf(QUOTE) < 0
+				&& field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+			writer.write(field);
+			return;
+		}
+		writer.write(QUOTE);
+		for (int i = 0; i < field.length(); i++) {
+			char c = field.charAt(i);
+			if (c == QUOTE) {
+				writer.write(QUOTE);
+			}
+			writer.write(c);
+		}
+		writer.write(QUOTE);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
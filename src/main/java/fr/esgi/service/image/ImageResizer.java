@@ -0,0 +1,57 @@
+package fr.esgi.service.image;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Resizing of the images into thumbnails.
+ *
+ * The image is halved until it is less than twice the target size, then
+ * scaled to it: a single bilinear step would skip most of the pixels of a
+ * large photo.
+ */
+public final class ImageResizer {
+
+	private ImageResizer() {
+		// private constructor needed for utility class.
+	}
+
+	/**
+	 * Scale an image down to fit in a square, keeping its ratio.
+	 *
+	 * @param image the image to scale
+	 * @param size the side of the square
+	 * @param opaque true to drop the transparency, for the formats without alpha
+	 * @return the scaled image
+	 */
+	public static BufferedImage resize(BufferedImage image, int size, boolean opaque) {
+		double ratio = Math.min((double) size / image.getWidth(), (double) size / image.getHeight());
+		int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+		int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+		int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+
+		BufferedImage result = image;
+		int currentWidth = image.getWidth();
+		int currentHeight = image.getHeight();
+		do {
+			currentWidth = Math.max(width, currentWidth / 2);
+			currentHeight = Math.max(height, currentHeight / 2);
+			result = scale(result, currentWidth, currentHeight, type);
+		} while (currentWidth != width || currentHeight != height);
+		return result;
+	}
+
+	private static BufferedImage scale(BufferedImage image, int width, int height, int type) {
+		BufferedImage scaled = new BufferedImage(width, height, type);
+		Graphics2D graphics = scaled.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(image, 0, 0, width, height, null);
+		} finally {
+			graphics.dispose();
+		}
+		return scaled;
+	}
+}
@@ -0,0 +1,57 @@
+package fr.esgi.service.image;
+
+import java.nio.file.Path;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * An image stored on disk, with the content type recorded at upload.
+ *
+ * The image is served as a {@link Resource}: the file is streamed and never
+ * loaded in memory, the ranges are read from the file.
+ */
+public class StoredImage {
+
+	private final Path path;
+
+	private final String contentType;
+
+	private final long length;
+
+	private final long lastModified;
+
+	public StoredImage(Path path, String contentType, long length, long lastModified) {
+		this.path = path;
+		this.contentType = contentType;
+		this.length = length;
+		this.lastModified = lastModified;
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	public Resource getResource() {
+		return new FileSystemResource(path);
+	}
+
+	/**
+	 * @return the ETag of the image, built from its modification date and length
+	 */
+	public String getETag() {
+		return "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+	}
+}
@@ -0,0 +1,134 @@
+package fr.esgi.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import fr.esgi.config.Constants;
+import fr.esgi.enums.CatalogItemType;
+import fr.esgi.service.CatalogBroadcastService;
+import fr.esgi.service.CatalogChangeService;
+import fr.esgi.service.catalog.CatalogChangeLog;
+import fr.esgi.service.dto.CatalogChangesDTO;
+import fr.esgi.service.dto.CatalogItemUpdateDTO;
+import fr.esgi.service.dto.CatalogUpdateDTO;
+import fr.esgi.service.dto.MenuDTO;
+import fr.esgi.service.dto.ProductDTO;
+
+/**
+ * Service Implementation for broadcasting the catalog changes.
+ *
+ * The change log is read at a short interval, so the changes of a bulk
+ * import are coalesced: each broadcast holds the items changed since the
+ * previous one, in their current state. Beyond
+ * {@link Constants#CATALOG_BROADCAST_MAX_CHANGES} changes, only a resync
+ * is broadcast and the terminals read the changes through the REST API.
+ */
+@Service("CatalogBroadcastService")
+@Transactional
+public class CatalogBroadcastServiceImpl implements CatalogBroadcastService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CatalogBroadcastServiceImpl.class);
+
+	private final SimpMessageSendingOperations messagingTemplate;
+
+	private final CatalogChangeLog catalogChangeLog;
+
+	private final CatalogChangeService catalogChangeService;
+
+	/**
+	 * The catalog version of the last broadcast.
+	 */
+	private long broadcastVersion;
+
+	@Autowired
+	public CatalogBroadcastServiceImpl(SimpMessageSendingOperations messagingTemplate, CatalogChangeLog catalogChangeLog,
+			CatalogChangeService catalogChangeService) {
+		this.messagingTemplate = messagingTemplate;
+		this.catalogChangeLog = catalogChangeLog;
+		this.catalogChangeService = catalogChangeService;
+		this.broadcastVersion = catalogChangeLog.getVersion();
+	}
+
+	/**
+	 * Broadcast the catalog changes made since the last broadcast.
+	 */
+	@Override
+	@Scheduled(fixedDelayString = "${app.catalogBroadcastDelayInMilliseconds:250}")
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public synchronized void broadcastChanges() {
+		long version = catalogChangeLog.getVersion();
+		if (version == broadcastVersion) {
+			return;
+		}
+
+		CatalogUpdateDTO catalogUpdate;
+		if (version - broadcastVersion > Constants.CATALOG_BROADCAST_MAX_CHANGES) {
+			catalogUpdate = resync(version);
+		} else {
+			CatalogChangesDTO catalogChanges = catalogChangeService.getChangesSince(broadcastVersion);
+			catalogUpdate = catalogChanges.isFull() ? resync(catalogChanges.getVersion()) : update(catalogChanges);
+		}
+		LOGGER.debug("Request to broadcast the catalog changes from {} to {}", broadcastVersion, catalogUpdate.getVersion());
+		messagingTemplate.convertAndSend(Constants.CATALOG_TOPIC, catalogUpdate);
+		broadcastVersion = catalogUpdate.getVersion();
+	}
+
+	private CatalogUpdateDTO resync(long version) {
+		CatalogUpdateDTO catalogUpdate = new CatalogUpdateDTO();
+		catalogUpdate.setFromVersion(broadcastVersion);
+		catalogUpdate.setVersion(version);
+		catalogUpdate.setResync(true);
+		catalogUpdate.setItems(new ArrayList<>());
+		return catalogUpdate;
+	}
+
+	private CatalogUpdateDTO update(CatalogChangesDTO catalogChanges) {
+		List<CatalogItemUpdateDTO> items = new ArrayList<>();
+		for (ProductDTO product : catalogChanges.getProducts()) {
+			CatalogItemUpdateDTO item = item(CatalogItemType.PRODUCT, product.getId(), false);
+			item.setName(product.getName());
+			item.setPrice(product.getPrice());
+			item.setAvailable(product.isAvailable());
+			item.setCategoryId(product.getCategoryId());
+			items.add(item);
+		}
+		for (MenuDTO menu : catalogChanges.getMenus()) {
+			CatalogItemUpdateDTO item = item(CatalogItemType.MENU, menu.getId(), false);
+			item.setName(menu.getName());
+			item.setPrice(menu.getPrice());
+			item.setAvailable(menu.getAvailable());
+			item.setProductIds(menu.getProductsDTO().stream().map(ProductDTO::getId).collect(Collectors.toList()));
+			items.add(item);
+		}
+		for (Long id : catalogChanges.getDeletedProductIds()) {
+			items.add(item(CatalogItemType.PRODUCT, id, true));
+		}
+		for (Long id : catalogChanges.getDeletedMenuIds()) {
+			items.add(item(CatalogItemType.MENU, id, true));
+		}
+
+		CatalogUpdateDTO catalogUpdate = new CatalogUpdateDTO();
+		catalogUpdate.setFromVersion(broadcastVersion);
+		catalogUpdate.setVersion(catalogChanges.getVersion());
+		catalogUpdate.setItems(items);
+		return catalogUpdate;
+	}
+
+	private static CatalogItemUpdateDTO item(CatalogItemType itemType, Long id, boolean deleted) {
+		CatalogItemUpdateDTO item = new CatalogItemUpdateDTO();
+		item.setItemType(itemType);
+		item.setId(id);
+		item.setDeleted(deleted);
+		return item;
+	}
+}
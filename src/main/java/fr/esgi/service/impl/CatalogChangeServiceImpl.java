@@ -0,0 +1,175 @@
+package fr.esgi.service.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import fr.esgi.dao.MenuRepository;
+import fr.esgi.dao.ProductRepository;
+import fr.esgi.enums.CatalogChangeType;
+import fr.esgi.enums.CatalogItemType;
+import fr.esgi.service.CatalogChangeService;
+import fr.esgi.service.CatalogSnapshotService;
+import fr.esgi.service.catalog.CatalogChange;
+import fr.esgi.service.catalog.CatalogChangeLog;
+import fr.esgi.service.catalog.CatalogSnapshot;
+import fr.esgi.service.catalog.CatalogSnapshotReader;
+import fr.esgi.service.dto.CatalogChangesDTO;
+import fr.esgi.service.dto.CatalogSnapshotDTO;
+import fr.esgi.service.dto.MenuDTO;
+import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.event.CatalogChangedEvent;
+
+/**
+ * Service Implementation for the catalog changes read by the terminals.
+ *
+ * The change log only keeps the ids: the upserted products and menus are
+ * read from the database, in their current state. An item changed several
+ * times is returned once, according to its last change.
+ */
+@Service("CatalogChangeService")
+@Transactional
+public class CatalogChangeServiceImpl implements CatalogChangeService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CatalogChangeServiceImpl.class);
+
+	private final CatalogChangeLog catalogChangeLog;
+
+	private final ProductRepository productRepository;
+
+	private final MenuRepository menuRepository;
+
+	private final CatalogSnapshotService catalogSnapshotService;
+
+	@Autowired
+	public CatalogChangeServiceImpl(CatalogChangeLog catalogChangeLog, ProductRepository productRepository,
+			MenuRepository menuRepository, CatalogSnapshotService catalogSnapshotService) {
+		this.catalogChangeLog = catalogChangeLog;
+		this.productRepository = productRepository;
+		this.menuRepository = menuRepository;
+		this.catalogSnapshotService = catalogSnapshotService;
+	}
+
+	/**
+	 * Get the products and menus upserted or deleted since a version.
+	 * The whole catalog is read from the catalog snapshot.
+	 *
+	 * @param since the catalog version known by the terminal
+	 * @return the changes, or the whole catalog if the version is no longer in the change log
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public CatalogChangesDTO getChangesSince(long since) {
+		LOGGER.debug("Request to get the catalog changes since {}", since);
+		List<CatalogChange> changes = catalogChangeLog.getChangesSince(since);
+		if (null == changes) {
+			return getCatalog();
+		}
+
+		Map<Long, CatalogChangeType> productChanges = new LinkedHashMap<>();
+		Map<Long, CatalogChangeType> menuChanges = new LinkedHashMap<>();
+		for (CatalogChange change : changes) {
+			Map<Long, CatalogChangeType> itemChanges = CatalogItemType.MENU == change.getItemType() ? menuChanges
+					: productChanges;
+			itemChanges.put(change.getId(), change.getChangeType());
+		}
+
+		CatalogChangesDTO catalogChanges = new CatalogChangesDTO();
+		catalogChanges.setVersion(since + changes.size());
+		catalogChanges.setCategories(new ArrayList<>());
+		catalogChanges.setProducts(findProducts(idsOf(productChanges, CatalogChangeType.UPSERT)));
+		catalogChanges.setMenus(findMenus(idsOf(menuChanges, CatalogChangeType.UPSERT)));
+		catalogChanges.setDeletedProductIds(idsOf(productChanges, CatalogChangeType.DELETE));
+		catalogChanges.setDeletedMenuIds(idsOf(menuChanges, CatalogChangeType.DELETE));
+		return catalogChanges;
+	}
+
+	/**
+	 * Record a change in the change log once it is committed.
+	 *
+	 * @param event the change
+	 */
+	@Override
+	@TransactionalEventListener(fallbackExecution = true)
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void onCatalogChanged(CatalogChangedEvent event) {
+		catalogChangeLog.append(event.getItemType(), event.getChangeType(), event.getIds());
+	}
+
+	private CatalogChangesDTO getCatalog() {
+		CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+		CatalogSnapshotDTO catalog;
+		try {
+			catalog = CatalogSnapshotReader.read(snapshot.getContent());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		CatalogChangesDTO catalogChanges = new CatalogChangesDTO();
+		catalogChanges.setVersion(snapshot.getCatalogVersion());
+		catalogChanges.setFull(true);
+		catalogChanges.setCategories(catalog.getCategories());
+		catalogChanges.setProducts(catalog.getProducts());
+		catalogChanges.setMenus(catalog.getMenus());
+		catalogChanges.setDeletedProductIds(new ArrayList<>());
+		catalogChanges.setDeletedMenuIds(new ArrayList<>());
+		return catalogChanges;
+	}
+
+	private List<ProductDTO> findProducts(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return new ArrayList<>();
+		}
+		return productRepository.findAllDTOByIdIn(ids);
+	}
+
+	/**
+	 * The products of the menus are read with them.
+	 */
+	private List<MenuDTO> findMenus(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return new ArrayList<>();
+		}
+		List<MenuDTO> menus = menuRepository.findAllDTOByIdIn(ids);
+		List<Object[]> menuIdsAndProductIds = menuRepository.findProductIdsByMenuIdIn(ids);
+		Set<Long> productIds = menuIdsAndProductIds.stream()
+				.map(menuIdAndProductId -> (Long) menuIdAndProductId[1])
+				.collect(Collectors.toSet());
+		Map<Long, ProductDTO> productsById = findProducts(productIds).stream()
+				.collect(Collectors.toMap(ProductDTO::getId, product -> product));
+
+		Map<Long, List<ProductDTO>> productsByMenuId = new HashMap<>();
+		for (Object[] menuIdAndProductId : menuIdsAndProductIds) {
+			ProductDTO product = productsById.get((Long) menuIdAndProductId[1]);
+			if (null != product) {
+				productsByMenuId.computeIfAbsent((Long) menuIdAndProductId[0], id -> new ArrayList<>()).add(product);
+			}
+		}
+		for (MenuDTO menu : menus) {
+			menu.setProductsDTO(productsByMenuId.getOrDefault(menu.getId(), new ArrayList<>()));
+		}
+		return menus;
+	}
+
+	private static List<Long> idsOf(Map<Long, CatalogChangeType> itemChanges, CatalogChangeType changeType) {
+		return itemChanges.entrySet().stream()
+				.filter(entry -> changeType == entry.getValue())
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+	}
+}
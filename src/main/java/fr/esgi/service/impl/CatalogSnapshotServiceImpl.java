@@ -0,0 +1,122 @@
+package fr.esgi.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import fr.esgi.dao.CategoryRepository;
+import fr.esgi.dao.MenuRepository;
+import fr.esgi.dao.ProductRepository;
+import fr.esgi.service.CatalogSnapshotService;
+import fr.esgi.service.catalog.CatalogChangeLog;
+import fr.esgi.service.catalog.CatalogSnapshot;
+import fr.esgi.service.catalog.CatalogSnapshotWriter;
+import fr.esgi.service.dto.CatalogSnapshotDTO;
+import fr.esgi.service.dto.CategoryDTO;
+import fr.esgi.service.dto.MenuDTO;
+import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.mapper.CategoryMapper;
+
+/**
+ * Service Implementation for the binary catalog snapshot.
+ *
+ * The snapshot is kept in memory and built again on the first request after
+ * a change of the catalog, recorded in the catalog change log.
+ */
+@Service("CatalogSnapshotService")
+@Transactional
+public class CatalogSnapshotServiceImpl implements CatalogSnapshotService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CatalogSnapshotServiceImpl.class);
+
+	private final CategoryRepository categoryRepository;
+
+	private final ProductRepository productRepository;
+
+	private final MenuRepository menuRepository;
+
+	private final CategoryMapper categoryMapper;
+
+	private final CatalogChangeLog catalogChangeLog;
+
+	private volatile CatalogSnapshot snapshot;
+
+	@Autowired
+	public CatalogSnapshotServiceImpl(CategoryRepository categoryRepository, ProductRepository productRepository,
+			MenuRepository menuRepository, CategoryMapper categoryMapper, CatalogChangeLog catalogChangeLog) {
+		this.categoryRepository = categoryRepository;
+		this.productRepository = productRepository;
+		this.menuRepository = menuRepository;
+		this.categoryMapper = categoryMapper;
+		this.catalogChangeLog = catalogChangeLog;
+	}
+
+	/**
+	 * Get the snapshot of the current catalog version.
+	 * Only the first request after a change reads the database: the others
+	 * wait for its snapshot.
+	 *
+	 * @return the snapshot
+	 */
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public CatalogSnapshot getSnapshot() {
+		CatalogSnapshot current = snapshot;
+		if (null != current && current.getCatalogVersion() == catalogChangeLog.getVersion()) {
+			return current;
+		}
+		synchronized (this) {
+			current = snapshot;
+			long version = catalogChangeLog.getVersion();
+			if (null == current || current.getCatalogVersion() != version) {
+				current = build(version);
+				snapshot = current;
+			}
+			return current;
+		}
+	}
+
+	/**
+	 * The version is read before the catalog: a change committed while the
+	 * catalog is read starts a newer version, so the snapshot is built again.
+	 */
+	private CatalogSnapshot build(long version) {
+		LOGGER.debug("Request to build the catalog snapshot {}", version);
+		List<CategoryDTO> categories = categoryRepository.findAll().stream()
+				.map(categoryMapper::categoryToCategoryDTO)
+				.collect(Collectors.toList());
+		List<ProductDTO> products = productRepository.findAllDTO();
+		List<MenuDTO> menus = menuRepository.findAllDTO();
+
+		Map<Long, ProductDTO> productsById = new HashMap<>();
+		for (ProductDTO product : products) {
+			productsById.put(product.getId(), product);
+		}
+		Map<Long, List<ProductDTO>> productsByMenuId = new HashMap<>();
+		for (Object[] menuIdAndProductId : menuRepository.findAllProductIds()) {
+			ProductDTO product = productsById.get((Long) menuIdAndProductId[1]);
+			if (null != product) {
+				productsByMenuId.computeIfAbsent((Long) menuIdAndProductId[0], id -> new ArrayList<>()).add(product);
+			}
+		}
+		for (MenuDTO menu : menus) {
+			menu.setProductsDTO(productsByMenuId.getOrDefault(menu.getId(), new ArrayList<>()));
+		}
+
+		CatalogSnapshotDTO catalog = new CatalogSnapshotDTO();
+		catalog.setCatalogVersion(version);
+		catalog.setCategories(categories);
+		catalog.setProducts(products);
+		catalog.setMenus(menus);
+		return new CatalogSnapshot(version, CatalogSnapshotWriter.write(catalog));
+	}
+}
@@ -1,6 +1,8 @@
 package fr.esgi.service.impl;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -47,4 +49,16 @@ public class CategoryServiceImpl implements CategoryService {
 				.map(categoryMapper::categoryToCategoryDTO)
 				.collect(Collectors.toList());
 	}
+
+	/**
+	 * Get the ids of all the categories.
+	 * 
+	 * @return the set of ids
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Set<Long> findAllIds() {
+		LOGGER.debug("Request to get the ids of all categories");
+		return new HashSet<>(categoryRepository.findAllIds());
+	}
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package fr.esgi.service.impl;
 
+import java.time.ZonedDateTime;
 import java.util.Optional;
 
 import org.slf4j.Logger;
@@ -78,6 +79,34 @@ public class CommandServiceImpl implements CommandService {
 				.map(commandMapper::commandToCommandDTO);
 	}
 
+	/**
+	 * Get the id of the "paymentId" command.
+	 *
+	 * @param paymentId the paymentId of the entity
+	 * @return the id of the entity
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public Optional<Long> findIdByPaymentId(String paymentId) {
+		LOGGER.debug("Request to find the id of a command by paymentId: {}", paymentId);
+		return commandRepository.findIdByPaymentId(paymentId);
+	}
+
+	/**
+	 * Update the status, the saleId and the date of the "id" command.
+	 *
+	 * @param id the id of the entity
+	 * @param orderStatus the new status
+	 * @param saleId the id of the PayPal sale
+	 * @param date the date of the payment
+	 * @return true if the entity was updated
+	 */
+	@Override
+	public boolean updatePaymentStatus(Long id, String orderStatus, String saleId, ZonedDateTime date) {
+		LOGGER.debug("Request to update the payment status of a command: {} {}", id, orderStatus);
+		return commandRepository.updatePaymentStatus(id, orderStatus, saleId, date) > 0;
+	}
+
 	/**
 	 * Update a command.
 	 *
@@ -1,39 +1,59 @@
 package fr.esgi.service.impl;
 
 
-import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.StringUtils;
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
 import fr.esgi.config.Constants;
 import fr.esgi.config.ErrorMessage;
 import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.exception.InvalidRowException;
+import fr.esgi.service.CategoryService;
 import fr.esgi.service.DatabaseUpdatorService;
+import fr.esgi.service.ManagerService;
 import fr.esgi.service.MenuService;
 import fr.esgi.service.ProductService;
+import fr.esgi.service.dto.ImportErrorDTO;
+import fr.esgi.service.dto.ImportReportDTO;
 import fr.esgi.service.dto.MenuDTO;
 import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.importer.ChunkWriter;
+import fr.esgi.service.importer.CsvRecordReader;
+import fr.esgi.service.importer.ImportPipeline;
+import fr.esgi.service.importer.ImportProgressListener;
+import fr.esgi.service.importer.JsonRecordReader;
+import fr.esgi.service.importer.RecordSource;
+import fr.esgi.service.importer.RowErrorListener;
+import fr.esgi.service.importer.RowConverter;
+import fr.esgi.service.importer.RowResolver;
 
 /**
  * Service Implementation for managing DatabaseUpdator.
+ *
+ * Imports run through an ImportPipeline and are not run in a single
+ * transaction: every chunk of Constants.IMPORT_CHUNK_SIZE rows is upserted
+ * and committed on its own, the products and menus being found by name.
+ * The imports are run by the import jobs only, on the import job executor,
+ * whose size the pool of the pipeline stages is sized for.
  */
 @Service("DatabaseUpdatorService")
 @Transactional
@@ -41,230 +61,281 @@ public class DatabaseUpdatorServiceImpl implements DatabaseUpdatorService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseUpdatorServiceImpl.class);
 
+	private static final List<String> PRODUCT_COLUMNS = Collections.unmodifiableList(Arrays.asList(
+			Constants.NAME, Constants.PRICE, Constants.AVAILABLE, Constants.CATEGORY_ID, Constants.MANAGER_ID));
+
+	private static final List<String> MENU_COLUMNS = Collections.unmodifiableList(Arrays.asList(
+			Constants.NAME, Constants.PRICE, Constants.AVAILABLE, Constants.MANAGER_ID));
+
 	private final ProductService productService;
 
 	private final MenuService menuService;
 
+	private final CategoryService categoryService;
+
+	private final ManagerService managerService;
+
+	private final Executor importExecutor;
+
 	@Autowired
-	public DatabaseUpdatorServiceImpl(ProductService productService, MenuService menuService) {
+	public DatabaseUpdatorServiceImpl(ProductService productService, MenuService menuService,
+			CategoryService categoryService, ManagerService managerService,
+			@Qualifier("importExecutor") Executor importExecutor) {
 		this.productService = productService;
 		this.menuService = menuService;
+		this.categoryService = categoryService;
+		this.managerService = managerService;
+		this.importExecutor = importExecutor;
 	}
 
 	/**
-	 * Import JSON or CSV file of products. 
-	 * 
-	 * @return the list of entities
+	 * Import JSON or CSV stream of products, skipping the rows already imported.
+	 * With a row error listener, the invalid rows are reported and skipped.
+	 *
+	 * @return the report of the import
 	 */
 	@Override
-	public List<ProductDTO> importProductsFile(MultipartFile fileToImport, String fileFormat) throws BurgerSTerminalException {
-		List<ProductDTO> products = null;
-		LOGGER.debug("Request to import File : {}", fileToImport.getName());
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public ImportReportDTO importProducts(InputStream inputStream, String fileFormat, long skippedRows,
+			ImportProgressListener progressListener, RowErrorListener rowErrorListener) throws BurgerSTerminalException {
+		ImportReportDTO report = null;
 		try {
 			if (Constants.JSON.equals(fileFormat)) {
-				products = importJsonProductsFile(fileToImport);
+				report = importJSONFile(inputStream, PRODUCT_COLUMNS, skippedRows, progressListener, rowErrorListener,
+						DatabaseUpdatorServiceImpl::toProductDTO, productResolver(), productService::upsertAll);
 			} else if (Constants.CSV.equals(fileFormat)) {
-				products = importCSVProductsFile(fileToImport);
+				report = importCSVFile(inputStream, PRODUCT_COLUMNS.size(), skippedRows, progressListener, rowErrorListener,
+						DatabaseUpdatorServiceImpl::toProductDTO, productResolver(), productService::upsertAll);
 			}
 		} catch (IOException e) {
 			throw new BurgerSTerminalException(ErrorMessage.AN_ERROR_OCCURRED_DURING_THE_IMPORT, e);
 		}
-		return products;
+		return report;
 	}
 
-	private List<ProductDTO> importJsonProductsFile(MultipartFile fileToImport) throws BurgerSTerminalException {
-		JSONArray jsonArray = getJSONArray(fileToImport);
-		if (!isValidJSONFile(jsonArray, 5)) {
-			throw new BurgerSTerminalException(ErrorMessage.THE_FILE_DOES_NOT_CONTAIN_THE_CORRECT_NUMBER_OF_COLUMNS);
-		}
-		List<ProductDTO> products = convertJsonToList(jsonArray);
-		return productService.saveAll(products);
+	/**
+	 * The ids of the categories and managers are loaded once per import.
+	 */
+	private RowResolver<ProductDTO> productResolver() {
+		Set<Long> categoryIds = categoryService.findAllIds();
+		Set<Long> managerIds = managerService.findAllIds();
+		return productDTO -> {
+			if (!categoryIds.contains(productDTO.getCategoryId())) {
+				throw new InvalidRowException(Constants.CATEGORY_ID, ErrorMessage.ERROR_CATEGORY_NOT_FOUND);
+			}
+			if (!managerIds.contains(productDTO.getManagerId())) {
+				throw new InvalidRowException(Constants.MANAGER_ID, ErrorMessage.ERROR_MANAGER_NOT_FOUND);
+			}
+		};
 	}
 
-	private List<ProductDTO> convertJsonToList(JSONArray objects) {
-		List<ProductDTO> products = new ArrayList<>();
-
-		for (int i = 0; i < objects.length(); i++) {
-			JSONObject obj = (JSONObject) objects.get(i);
-			ProductDTO productDTO = new ProductDTO();
-			productDTO.setName(obj.getString(Constants.NAME));
-			productDTO.setPrice(obj.getDouble(Constants.PRICE));
-			productDTO.setAvailable(obj.getBoolean(Constants.AVAILABLE));
-			productDTO.setCategoryId(obj.getLong(Constants.CATEGORY_ID));
-			productDTO.setManagerId(obj.getLong(Constants.MANAGER_ID));
+	/**
+	 * Stream the rows of a CSV file into the import pipeline.
+	 * The first line is the header. Without a row error listener, the import
+	 * fails at the first invalid line, the chunks committed before it are kept.
+	 */
+	private <T> ImportReportDTO importCSVFile(InputStream inputStream, int countColumns, long skippedRows,
+			ImportProgressListener progressListener, RowErrorListener rowErrorListener,
+			RowConverter<List<String>, T> converter, RowResolver<T> resolver, ChunkWriter<T> writer)
+			throws IOException, BurgerSTerminalException {
+		ImportReportDTO report = new ImportReportDTO();
+
+		CountingInputStream countingStream = new CountingInputStream(inputStream);
+		try (CsvRecordReader csvReader = new CsvRecordReader(
+				new InputStreamReader(countingStream, StandardCharsets.UTF_8), Constants.COMMA.charAt(0))) {
+			List<String> header = csvReader.readRecord();
+			if (header == null) {
+				return report;
+			}
+			if (countColumns != header.size()) {
+				ImportErrorDTO error = new ImportErrorDTO(csvReader.getLineNumber(), null,
+						ErrorMessage.THE_FILE_DOES_NOT_CONTAIN_THE_CORRECT_NUMBER_OF_COLUMNS);
+				LOGGER.error(ErrorMessage.ERROR_DURING_READING_OF_FILE + ": {}", error);
+				report.getErrors().add(error);
+				if (null != rowErrorListener) {
+					rowErrorListener.onRowRejected(error);
+				}
+				return report;
+			}
 
-			products.add(productDTO);
+			ImportPipeline<List<String>, T> pipeline = new ImportPipeline<>(importExecutor,
+					Constants.IMPORT_QUEUE_CAPACITY, Constants.IMPORT_CHUNK_SIZE,
+					fields -> {
+						isValidFileCSV(fields, countColumns);
+						return converter.convert(fields);
+					}, resolver, writer);
+			pipeline.setProgressListener(resumedFrom(skippedRows, progressListener));
+			pipeline.setRowErrorListener(rowErrorListener);
+			pipeline.run(skip(csvReader::readRecord, skippedRows), csvReader::getLineNumber, countingStream::getByteCount,
+					report);
 		}
-
-		return products;
+		return report;
 	}
 
-	private List<ProductDTO> importCSVProductsFile(MultipartFile fileToImport) throws IOException, BurgerSTerminalException {
-		String csv = convertCSVToString(fileToImport);
-		if (StringUtils.isEmpty(csv)) {
-			return Collections.emptyList();
+	/**
+	 * Stream the objects of a JSON array into the import pipeline.
+	 * Every object must contain exactly the expected fields.
+	 */
+	private <T> ImportReportDTO importJSONFile(InputStream inputStream, List<String> columns, long skippedRows,
+			ImportProgressListener progressListener, RowErrorListener rowErrorListener,
+			RowConverter<List<String>, T> converter, RowResolver<T> resolver, ChunkWriter<T> writer)
+			throws IOException, BurgerSTerminalException {
+		ImportReportDTO report = new ImportReportDTO();
+
+		CountingInputStream countingStream = new CountingInputStream(inputStream);
+		try (JsonRecordReader jsonReader = new JsonRecordReader(countingStream)) {
+			ImportPipeline<Map<String, String>, T> pipeline = new ImportPipeline<>(importExecutor,
+					Constants.IMPORT_QUEUE_CAPACITY, Constants.IMPORT_CHUNK_SIZE,
+					object -> {
+						isValidJSONObject(object, columns);
+						return converter.convert(toFields(object, columns));
+					}, resolver, writer);
+			pipeline.setProgressListener(resumedFrom(skippedRows, progressListener));
+			pipeline.setRowErrorListener(rowErrorListener);
+			pipeline.run(skip(jsonReader::readRecord, skippedRows), jsonReader::getLineNumber, countingStream::getByteCount,
+					report);
 		}
-		List<ProductDTO> products = convertProductsCSVToList(csv);
-		return productService.saveAll(products);
+		if (0 == report.getRowsRead() && 0 == skippedRows) {
+			throw new BurgerSTerminalException(ErrorMessage.THE_IMPORT_FILE_IS_EMPTY);
+		}
+		return report;
 	}
 
-	private List<ProductDTO> convertProductsCSVToList(String csv) throws BurgerSTerminalException {
-		List<ProductDTO> products = new ArrayList<>();
-
-		try (InputStream inputStream = new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8.name()))) {
-			BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream));
+	/**
+	 * Skip the rows imported before the import was interrupted.
+	 */
+	private static <R> RecordSource<R> skip(RecordSource<R> source, long skippedRows) throws IOException {
+		for (long i = 0; i < skippedRows && null != source.read(); i++) {
+			// The rows have already been written.
+		}
+		return source;
+	}
 
-			String line = null;
-			int index = 0;
+	/**
+	 * The positions and the rows parsed by the pipeline start after the skipped rows.
+	 */
+	private static ImportProgressListener resumedFrom(long skippedRows, ImportProgressListener progressListener) {
+		return (position, bytesRead, rowsParsed, rowsWritten, rowsUpdated) ->
+			progressListener.onChunkWritten(skippedRows + position, bytesRead, skippedRows + rowsParsed, rowsWritten,
+					rowsUpdated);
+	}
 
-			while ((line = bufferedReader.readLine()) != null) {
-				if (!isValidFileCSV(line, 5)) {
-					throw new BurgerSTerminalException(ErrorMessage.THE_FILE_DOES_NOT_CONTAIN_THE_CORRECT_NUMBER_OF_COLUMNS);
-				}
-				String[] theLine = line.split(Constants.COMMA);
+	private static ProductDTO toProductDTO(List<String> fields) throws BurgerSTerminalException {
+		ProductDTO productDTO = new ProductDTO();
+		productDTO.setName(toName(fields.get(0)));
+		productDTO.setPrice(toPrice(fields.get(1)));
+		productDTO.setAvailable(Boolean.parseBoolean(fields.get(2)));
+		productDTO.setCategoryId(toId(fields.get(3), Constants.CATEGORY_ID));
+		productDTO.setManagerId(toId(fields.get(4), Constants.MANAGER_ID));
+		return productDTO;
+	}
 
-				if (index > 0) {
-					ProductDTO productDTO = new ProductDTO();
-					productDTO.setName(theLine[0]);
-					productDTO.setPrice(Double.parseDouble(theLine[1]));
-					productDTO.setAvailable(Boolean.parseBoolean(theLine[2]));
-					productDTO.setCategoryId(Long.parseLong(theLine[3]));
-					productDTO.setManagerId(Long.parseLong(theLine[4]));
+	private static MenuDTO toMenuDTO(List<String> fields) throws BurgerSTerminalException {
+		MenuDTO menuDTO = new MenuDTO();
+		menuDTO.setName(toName(fields.get(0)));
+		menuDTO.setPrice(toPrice(fields.get(1)));
+		menuDTO.setAvailable(Boolean.parseBoolean(fields.get(2)));
+		menuDTO.setManagerId(toId(fields.get(3), Constants.MANAGER_ID));
+		return menuDTO;
+	}
 
-					products.add(productDTO);
-				}
-				index++;
-			}
-		} catch (Exception e) {
-			LOGGER.error(ErrorMessage.ERROR_DURING_READING_OF_FILE, e);
+	/**
+	 * The name is the key of the upsert: it can not be blank.
+	 */
+	private static String toName(String field) throws BurgerSTerminalException {
+		if (StringUtils.isBlank(field)) {
+			throw new InvalidRowException(Constants.NAME, ErrorMessage.THE_VALUE_IS_REQUIRED);
 		}
-		return products;
+		return field.trim();
 	}
 
-	private static String convertCSVToString(MultipartFile fileToImport) throws IOException {
-		String csv = null;		
-		try (InputStream inputStream = fileToImport.getInputStream()) {
-			StringWriter writer = new StringWriter();
-			IOUtils.copy(inputStream, writer, StandardCharsets.UTF_8.name());
-			return writer.toString();
-		} catch (Exception e) {
-			LOGGER.error("Error during reading of the contents of the file: {}", fileToImport.getName());
+	private static double toPrice(String field) throws BurgerSTerminalException {
+		if (null == field) {
+			throw new InvalidRowException(Constants.PRICE, ErrorMessage.THE_VALUE_IS_REQUIRED);
+		}
+		try {
+			return Double.parseDouble(field);
+		} catch (NumberFormatException e) {
+			throw new InvalidRowException(Constants.PRICE, ErrorMessage.THE_VALUE_IS_NOT_A_NUMBER, e);
 		}
-		return csv;
 	}
 
-	private static JSONArray getJSONArray(MultipartFile fileToImport) {
-		JSONArray jsonArray = null;
-		try (InputStream inputStream = fileToImport.getInputStream()) {
-			String datas = IOUtils.toString(inputStream, StandardCharsets.UTF_8.name());
-			jsonArray = new JSONArray(datas);
-		} catch (IOException e) {
-			LOGGER.error("Error during reading of the contents of the file: {}", fileToImport.getName());
-		} 
-		return jsonArray;
+	private static Long toId(String field, String column) throws BurgerSTerminalException {
+		if (null == field) {
+			throw new InvalidRowException(column, ErrorMessage.THE_VALUE_IS_REQUIRED);
+		}
+		try {
+			return Long.parseLong(field.trim());
+		} catch (NumberFormatException e) {
+			throw new InvalidRowException(column, ErrorMessage.THE_VALUE_IS_NOT_A_NUMBER, e);
+		}
 	}
 
-	private static boolean isValidJSONFile(JSONArray jsonArray, int countColumns) {
-		if (jsonArray != null && !jsonArray.isEmpty()) {
-			JSONObject obj = (JSONObject) jsonArray.get(0);
-			if (countColumns == obj.length()) {
-				return true;
+	/**
+	 * The object must contain exactly the columns: the first missing or
+	 * unexpected one is reported.
+	 */
+	private static void isValidJSONObject(Map<String, String> object, List<String> columns) throws BurgerSTerminalException {
+		for (String column : columns) {
+			if (!object.containsKey(column)) {
+				throw new InvalidRowException(column, ErrorMessage.THE_COLUMN_IS_MISSING);
+			}
+		}
+		for (String column : object.keySet()) {
+			if (!columns.contains(column)) {
+				throw new InvalidRowException(column, ErrorMessage.THE_COLUMN_IS_UNEXPECTED);
 			}
-		} 
-		return false;
+		}
 	}
 
-	private static boolean isValidFileCSV(String line, int countColumns) {
-		String[] firstLine = line.split(Constants.COMMA);
-		return countColumns == firstLine.length;
-	}	
+	private static List<String> toFields(Map<String, String> object, List<String> columns) {
+		List<String> fields = new ArrayList<>(columns.size());
+		for (String column : columns) {
+			fields.add(object.get(column));
+		}
+		return fields;
+	}
+
+	private static void isValidFileCSV(List<String> fields, int countColumns) throws BurgerSTerminalException {
+		if (countColumns != fields.size()) {
+			throw new InvalidRowException(null, ErrorMessage.THE_FILE_DOES_NOT_CONTAIN_THE_CORRECT_NUMBER_OF_COLUMNS);
+		}
+	}
 
 	/**
-	 * Import JSON or CSV file of menus. 
-	 * 
-	 * @return the list of entities
+	 * Import JSON or CSV stream of menus, skipping the rows already imported.
+	 * With a row error listener, the invalid rows are reported and skipped.
+	 *
+	 * @return the report of the import
 	 */
 	@Override
-	public List<MenuDTO> importMenusFile(MultipartFile fileToImport, String fileFormat) throws BurgerSTerminalException {
-		List<MenuDTO> menus = null;
-		LOGGER.debug("Request to import File : {}", fileToImport.getName());
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public ImportReportDTO importMenus(InputStream inputStream, String fileFormat, long skippedRows,
+			ImportProgressListener progressListener, RowErrorListener rowErrorListener) throws BurgerSTerminalException {
+		ImportReportDTO report = null;
 		try {
 			if (Constants.JSON.equals(fileFormat)) {
-				menus = importJsonMenusFile(fileToImport);
+				report = importJSONFile(inputStream, MENU_COLUMNS, skippedRows, progressListener, rowErrorListener,
+						DatabaseUpdatorServiceImpl::toMenuDTO, menuResolver(), menuService::upsertAll);
 			} else if (Constants.CSV.equals(fileFormat)) {
-				menus = importCSVMenusFile(fileToImport);
+				report = importCSVFile(inputStream, MENU_COLUMNS.size(), skippedRows, progressListener, rowErrorListener,
+						DatabaseUpdatorServiceImpl::toMenuDTO, menuResolver(), menuService::upsertAll);
 			}
 		} catch (IOException e) {
 			throw new BurgerSTerminalException(ErrorMessage.AN_ERROR_OCCURRED_DURING_THE_IMPORT, e);
 		}
-		return menus;
+		return report;
 	}
 
-	private List<MenuDTO> importCSVMenusFile(MultipartFile fileToImport) throws IOException, BurgerSTerminalException {
-		String csv = convertCSVToString(fileToImport);
-		if (StringUtils.isEmpty(csv)) {
-			return Collections.emptyList();
-		}
-		List<MenuDTO> menus = convertMenusCSVToList(csv);
-		return menuService.saveAll(menus);
-	}
-
-	private List<MenuDTO> importJsonMenusFile(MultipartFile fileToImport) throws BurgerSTerminalException {
-		JSONArray jsonArray = getJSONArray(fileToImport);
-		if (!isValidJSONFile(jsonArray, 4)) {
-			throw new BurgerSTerminalException(ErrorMessage.THE_FILE_DOES_NOT_CONTAIN_THE_CORRECT_NUMBER_OF_COLUMNS);
-		}
-		List<MenuDTO> menus = convertJsonMenusToList(jsonArray);
-		return menuService.saveAll(menus);
-	}
-
-	private List<MenuDTO> convertJsonMenusToList(JSONArray objects) {
-		List<MenuDTO> menus = new ArrayList<>();
-
-		for (int i = 0; i < objects.length(); i++) {
-			JSONObject obj = (JSONObject) objects.get(i);
-
-			MenuDTO menuDTO = new MenuDTO();
-			menuDTO.setName(obj.getString(Constants.NAME));
-			menuDTO.setPrice(obj.getDouble(Constants.PRICE));
-			menuDTO.setAvailable(obj.getBoolean(Constants.AVAILABLE));
-			menuDTO.setManagerId(obj.getLong(Constants.MANAGER_ID));
-
-			menus.add(menuDTO);
-		}
-		return menus;
-	}
-
-	private List<MenuDTO> convertMenusCSVToList(String csv) throws IOException, BurgerSTerminalException {
-		List<MenuDTO> menus = new ArrayList<>();
-
-		try (InputStream inputStream = new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8.name()))) {
-			BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream));
-
-			String line = null;
-			int index = 0;
-
-			while ((line = bufferedReader.readLine()) != null) {
-				if (!isValidFileCSV(line, 4)) {
-					throw new BurgerSTerminalException(ErrorMessage.THE_FILE_DOES_NOT_CONTAIN_THE_CORRECT_NUMBER_OF_COLUMNS);
-				}
-				String[] theLine = line.split(Constants.COMMA);
-
-				if (index > 0) {
-					MenuDTO menuDTO = new MenuDTO();
-					menuDTO.setName(theLine[0]);
-					menuDTO.setPrice(Double.parseDouble(theLine[1]));
-					menuDTO.setAvailable(Boolean.parseBoolean(theLine[2]));
-					menuDTO.setManagerId(Long.parseLong(theLine[3]));
-
-					menus.add(menuDTO);
-				}
-				index++;
+	/**
+	 * The ids of the managers are loaded once per import.
+	 */
+	private RowResolver<MenuDTO> menuResolver() {
+		Set<Long> managerIds = managerService.findAllIds();
+		return menuDTO -> {
+			if (!managerIds.contains(menuDTO.getManagerId())) {
+				throw new InvalidRowException(Constants.MANAGER_ID, ErrorMessage.ERROR_MANAGER_NOT_FOUND);
 			}
-		} catch (Exception e) {
-			LOGGER.error(ErrorMessage.ERROR_DURING_READING_OF_FILE, e);
-		}
-
-		return menus;
+		};
 	}
 }
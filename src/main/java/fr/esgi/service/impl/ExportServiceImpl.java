@@ -0,0 +1,154 @@
+package fr.esgi.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import fr.esgi.config.Constants;
+import fr.esgi.dao.CommandRepository;
+import fr.esgi.dao.MenuRepository;
+import fr.esgi.dao.ProductRepository;
+import fr.esgi.service.ExportService;
+import fr.esgi.service.dto.CommandDTO;
+import fr.esgi.service.dto.MenuDTO;
+import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.exporter.CsvRecordWriter;
+
+/**
+ * Service Implementation for exporting the catalog and the commands.
+ *
+ * The rows are read from a database cursor and written one by one: the
+ * memory used does not depend on the number of rows.
+ */
+@Service("ExportService")
+@Transactional
+public class ExportServiceImpl implements ExportService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory()
+			.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+	private static final List<String> PRODUCT_COLUMNS = Arrays.asList("id", "name", "price", "available",
+			"categoryId", "managerId");
+
+	private static final List<String> MENU_COLUMNS = Arrays.asList("id", "name", "price", "available", "managerId");
+
+	private static final List<String> COMMAND_COLUMNS = Arrays.asList("id", "orderStatus", "date", "customerId",
+			"paymentId", "price", "saleId");
+
+	private final ProductRepository productRepository;
+
+	private final MenuRepository menuRepository;
+
+	private final CommandRepository commandRepository;
+
+	@Autowired
+	public ExportServiceImpl(ProductRepository productRepository, MenuRepository menuRepository,
+			CommandRepository commandRepository) {
+		this.productRepository = productRepository;
+		this.menuRepository = menuRepository;
+		this.commandRepository = commandRepository;
+	}
+
+	/**
+	 * Write all the products to the stream.
+	 *
+	 * @param format       the format of the export: csv or json
+	 * @param outputStream the stream to write to, left open
+	 * @throws IOException if the stream can not be written
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void exportProducts(String format, OutputStream outputStream) throws IOException {
+		LOGGER.debug("Request to export the products as {}", format);
+		try (Stream<ProductDTO> products = productRepository.streamAll()) {
+			export(products, format, PRODUCT_COLUMNS, product -> Arrays.asList(product.getId(), product.getName(),
+					product.getPrice(), product.isAvailable(), product.getCategoryId(), product.getManagerId()),
+					outputStream);
+		}
+	}
+
+	/**
+	 * Write all the menus to the stream.
+	 *
+	 * @param format       the format of the export: csv or json
+	 * @param outputStream the stream to write to, left open
+	 * @throws IOException if the stream can not be written
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void exportMenus(String format, OutputStream outputStream) throws IOException {
+		LOGGER.debug("Request to export the menus as {}", format);
+		try (Stream<MenuDTO> menus = menuRepository.streamAll()) {
+			export(menus, format, MENU_COLUMNS, menu -> Arrays.asList(menu.getId(), menu.getName(), menu.getPrice(),
+					menu.getAvailable(), menu.getManagerId()), outputStream);
+		}
+	}
+
+	/**
+	 * Write all the commands to the stream.
+	 *
+	 * @param format       the format of the export: csv or json
+	 * @param outputStream the stream to write to, left open
+	 * @throws IOException if the stream can not be written
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void exportCommands(String format, OutputStream outputStream) throws IOException {
+		LOGGER.debug("Request to export the commands as {}", format);
+		try (Stream<CommandDTO> commands = commandRepository.streamAll()) {
+			export(commands, format, COMMAND_COLUMNS, command -> Arrays.asList(command.getId(),
+					command.getOrderStatus(),
+					null == command.getDate() ? null : command.getDate().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
+					command.getCustomerId(), command.getPaymentId(), command.getPrice(), command.getSaleId()),
+					outputStream);
+		}
+	}
+
+	private static <T> void export(Stream<T> rows, String format, List<String> columns,
+			Function<T, List<?>> toValues, OutputStream outputStream) throws IOException {
+		Iterator<T> iterator = rows.iterator();
+		if (Constants.JSON.equalsIgnoreCase(format)) {
+			try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+				generator.writeStartArray();
+				while (iterator.hasNext()) {
+					List<?> values = toValues.apply(iterator.next());
+					generator.writeStartObject();
+					for (int i = 0; i < columns.size(); i++) {
+						generator.writeFieldName(columns.get(i));
+						generator.writeObject(values.get(i));
+					}
+					generator.writeEndObject();
+				}
+				generator.writeEndArray();
+			}
+		} else {
+			CsvRecordWriter writer = new CsvRecordWriter(
+					new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)),
+					Constants.COMMA.charAt(0));
+			writer.writeRecord(columns);
+			while (iterator.hasNext()) {
+				writer.writeRecord(toValues.apply(iterator.next()));
+			}
+			writer.flush();
+		}
+	}
+}
@@ -0,0 +1,278 @@
+package fr.esgi.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.config.Constants;
+import fr.esgi.dao.ImageBlobRepository;
+import fr.esgi.domain.ImageBlob;
+import fr.esgi.service.ImageStoreService;
+import fr.esgi.service.ThumbnailService;
+import fr.esgi.service.cache.ImageCache;
+import fr.esgi.service.image.StoredImage;
+
+/**
+ * Service Implementation for the content-addressed store of the images.
+ *
+ * An image is written once, at blobs/ab/cd/abcd..., where abcd... is the
+ * SHA-256 of its content computed while the upload is copied. The same
+ * image uploaded twice is stored once, with a reference count of 2.
+ *
+ * The reference count and the file of an image are updated under a lock of
+ * its hash. An upload commits its reference in its own transaction before
+ * releasing the lock, and the sweep deletes a file only after the deletion
+ * of its row is committed, under the same lock: an upload either references
+ * the row before the sweep, or writes the file again after it. If the
+ * transaction of the caller rolls back, the reference is released.
+ */
+@Service("ImageStoreService")
+@Transactional
+public class ImageStoreServiceImpl implements ImageStoreService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ImageStoreServiceImpl.class);
+
+	private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private static final int LOCKS = 64;
+
+	private final ImageBlobRepository imageBlobRepository;
+
+	private final ThumbnailService thumbnailService;
+
+	private final ConfigurationService configurationService;
+
+	private final ImageCache imageCache;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final Object[] locks = new Object[LOCKS];
+
+	@Autowired
+	public ImageStoreServiceImpl(ImageBlobRepository imageBlobRepository, ThumbnailService thumbnailService,
+			ConfigurationService configurationService, ImageCache imageCache,
+			PlatformTransactionManager transactionManager) {
+		this.imageBlobRepository = imageBlobRepository;
+		this.thumbnailService = thumbnailService;
+		this.configurationService = configurationService;
+		this.imageCache = imageCache;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		for (int i = 0; i < LOCKS; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	/**
+	 * Store an image, or reference the same one if it is already stored.
+	 *
+	 * @param inputStream the content of the image
+	 * @param contentType the content type of the image
+	 * @return the SHA-256 of the image, in hexadecimal
+	 * @throws IOException if the image can not be written
+	 */
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
+	public String store(InputStream inputStream, String contentType) throws IOException {
+		final Path directory = getBlobDirectory();
+		Files.createDirectories(directory);
+		final Path file = Files.createTempFile(directory, "upload-", null);
+		try {
+			final MessageDigest digest = newDigest();
+			final long length;
+			try (InputStream digestInputStream = new DigestInputStream(inputStream, digest)) {
+				length = Files.copy(digestInputStream, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			final String hash = toHex(digest.digest());
+			LOGGER.debug("Request to store the image : {}", hash);
+
+			final Path blob = getPath(hash);
+			synchronized (getLock(hash)) {
+				transactionTemplate.execute(status -> {
+					if (0 == imageBlobRepository.incrementReferenceCount(hash)) {
+						ImageBlob imageBlob = new ImageBlob();
+						imageBlob.setHash(hash);
+						imageBlob.setContentType(contentType);
+						imageBlob.setLength(length);
+						imageBlob.setReferenceCount(1);
+						imageBlobRepository.saveAndFlush(imageBlob);
+					}
+					return null;
+				});
+				releaseOnRollback(hash);
+				if (!Files.exists(blob)) {
+					Files.createDirectories(blob.getParent());
+					Files.move(file, blob, StandardCopyOption.ATOMIC_MOVE);
+					imageCache.invalidate(blob);
+				}
+			}
+			thumbnailService.generate(blob, contentType);
+			return hash;
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Release a reference to an image. The image is deleted by the next
+	 * sweep once it is no longer referenced.
+	 *
+	 * @param hash the SHA-256 of the image
+	 */
+	@Override
+	public void release(String hash) {
+		LOGGER.debug("Request to release the image : {}", hash);
+		imageBlobRepository.decrementReferenceCount(hash);
+	}
+
+	/**
+	 * Get a stored image.
+	 *
+	 * @param hash the SHA-256 of the image
+	 * @return the image, or an empty Optional if it is not stored
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<StoredImage> getImage(String hash) {
+		if (null == hash || !HASH.matcher(hash).matches()) {
+			return Optional.empty();
+		}
+		final Optional<ImageBlob> imageBlob = imageBlobRepository.findById(hash);
+		if (!imageBlob.isPresent()) {
+			return Optional.empty();
+		}
+
+		final Path blob = getPath(hash);
+		try {
+			final BasicFileAttributes attributes = Files.readAttributes(blob, BasicFileAttributes.class);
+			return Optional.of(new StoredImage(blob, imageBlob.get().getContentType(), attributes.size(),
+					attributes.lastModifiedTime().toMillis()));
+		} catch (NoSuchFileException e) {
+			LOGGER.warn("The file of the image {} does not exist", hash);
+		} catch (IOException e) {
+			LOGGER.warn("The file of the image {} can not be read", hash, e);
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Get the thumbnail of a stored image nearest to a size.
+	 *
+	 * @param hash the SHA-256 of the image
+	 * @param size the size wanted, in pixels
+	 * @return the thumbnail, or an empty Optional if it is not generated yet
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<StoredImage> getThumbnail(String hash, int size) {
+		return getImage(hash).flatMap(image -> thumbnailService.getThumbnail(image, size));
+	}
+
+	/**
+	 * Delete the images no longer referenced.
+	 */
+	@Override
+	@Scheduled(fixedDelayString = "${app.imageSweepDelayInMilliseconds:3600000}")
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void sweep() {
+		for (String hash : imageBlobRepository.findAllUnreferencedHashes()) {
+			synchronized (getLock(hash)) {
+				if (0 == imageBlobRepository.deleteIfUnreferenced(hash)) {
+					continue;
+				}
+				LOGGER.debug("Request to delete the image : {}", hash);
+				final Path blob = getPath(hash);
+				imageCache.invalidate(blob);
+				imageCache.invalidateAll(blob.resolveSibling(hash + "." + Constants.THUMBNAILS));
+				try {
+					Files.deleteIfExists(blob);
+					thumbnailService.delete(blob);
+				} catch (IOException e) {
+					LOGGER.warn("The file of the image {} can not be deleted", hash, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The reference is committed on its own: give it back if the transaction
+	 * of the caller does not commit.
+	 */
+	private void releaseOnRollback(String hash) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCompletion(int status) {
+				if (TransactionSynchronization.STATUS_COMMITTED != status) {
+					LOGGER.debug("Request to release the image of a rolled back upload : {}", hash);
+					transactionTemplate.execute(transactionStatus -> imageBlobRepository.decrementReferenceCount(hash));
+				}
+			}
+		});
+	}
+
+	private Path getBlobDirectory() {
+		return Paths.get(configurationService.getImagesDirectory() + Constants.IMAGES).resolve(Constants.BLOBS);
+	}
+
+	/**
+	 * The files are spread over two levels of folders, named after the first
+	 * four characters of the hash.
+	 */
+	private Path getPath(String hash) {
+		return getBlobDirectory()
+				.resolve(hash.substring(0, 2))
+				.resolve(hash.substring(2, 4))
+				.resolve(hash);
+	}
+
+	private Object getLock(String hash) {
+		return locks[Integer.parseInt(hash.substring(0, 2), 16) % LOCKS];
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported", e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+			chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+		}
+		return new String(chars);
+	}
+}
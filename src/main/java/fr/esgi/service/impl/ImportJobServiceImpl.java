@@ -0,0 +1,409 @@
+package fr.esgi.service.impl;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.config.Constants;
+import fr.esgi.config.ErrorMessage;
+import fr.esgi.dao.ImportJobRepository;
+import fr.esgi.domain.ImportJob;
+import fr.esgi.enums.ImportJobStatus;
+import fr.esgi.enums.ImportType;
+import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.service.DatabaseUpdatorService;
+import fr.esgi.service.ImportJobService;
+import fr.esgi.service.dto.ImportJobDTO;
+import fr.esgi.service.dto.ImportReportDTO;
+import fr.esgi.service.importer.ImportErrorReport;
+import fr.esgi.service.importer.ImportProgressListener;
+import fr.esgi.service.mapper.ImportJobMapper;
+
+/**
+ * Service Implementation for managing the import jobs.
+ *
+ * The uploaded file is copied in the import directory and imported by the
+ * import job executor. Each chunk is committed on its own and moves the
+ * checkpoint of the job: a job interrupted by a shutdown is resumed after its
+ * last committed row. A chunk written again after a crash is upserted, so
+ * the resume does not duplicate rows.
+ *
+ * The invalid rows do not stop a job: they are skipped and written with
+ * their line, column and reason in the CSV error report of the job.
+ *
+ * The files dropped in the ingestion directory are imported in place, from
+ * its processing folder, then moved to its processed or failed folder.
+ *
+ * A job belongs to the node that submitted or resumed it, which beats its
+ * heartbeat while it is pending or running. A node only resumes a job it has
+ * claimed with a conditional update: one with no owner, or whose owner has
+ * missed Constants.IMPORT_JOB_STALE_HEARTBEATS heartbeats.
+ */
+@Service("ImportJobService")
+@Transactional
+public class ImportJobServiceImpl implements ImportJobService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ImportJobServiceImpl.class);
+
+	private static final int ERROR_MESSAGE_MAX_LENGTH = 1024;
+
+	private static final List<ImportJobStatus> ACTIVE_STATUSES = Arrays.asList(ImportJobStatus.PENDING,
+			ImportJobStatus.RUNNING);
+
+	private final ImportJobRepository importJobRepository;
+
+	private final ImportJobMapper importJobMapper;
+
+	private final DatabaseUpdatorService databaseUpdatorService;
+
+	private final ConfigurationService configurationService;
+
+	private final Executor importJobExecutor;
+
+	private final Set<Long> localJobs = ConcurrentHashMap.newKeySet();
+
+	@Autowired
+	public ImportJobServiceImpl(ImportJobRepository importJobRepository, ImportJobMapper importJobMapper,
+			DatabaseUpdatorService databaseUpdatorService, ConfigurationService configurationService,
+			@Qualifier("importJobExecutor") Executor importJobExecutor) {
+		this.importJobRepository = importJobRepository;
+		this.importJobMapper = importJobMapper;
+		this.databaseUpdatorService = databaseUpdatorService;
+		this.configurationService = configurationService;
+		this.importJobExecutor = importJobExecutor;
+	}
+
+	/**
+	 * Save the file and start its import in the background.
+	 * The job is committed before it is started.
+	 *
+	 * @return the pending job
+	 */
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public ImportJobDTO submit(MultipartFile fileToImport, ImportType type, String fileFormat) throws BurgerSTerminalException {
+		LOGGER.debug("Request to submit the import of the file : {}", fileToImport.getOriginalFilename());
+		ImportJob importJob = newImportJob(type, fileFormat, fileToImport.getOriginalFilename());
+
+		try (InputStream inputStream = fileToImport.getInputStream()) {
+			Path directory = Files.createDirectories(Paths.get(configurationService.getImportDirectory()));
+			Path file = Files.createTempFile(directory, "import-", "." + fileFormat);
+			Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+			importJob.setFilePath(file.toAbsolutePath().toString());
+			importJob.setFileSize(Files.size(file));
+		} catch (IOException e) {
+			throw new BurgerSTerminalException(ErrorMessage.AN_ERROR_OCCURRED_DURING_THE_IMPORT, e);
+		}
+
+		return start(importJob);
+	}
+
+	/**
+	 * Move a file of the ingestion directory to its processing folder and
+	 * start its import in the background. The file is not copied.
+	 *
+	 * @return the pending job
+	 */
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public ImportJobDTO submit(Path fileToImport, ImportType type, String fileFormat) throws BurgerSTerminalException {
+		LOGGER.debug("Request to submit the import of the ingested file : {}", fileToImport);
+		ImportJob importJob = newImportJob(type, fileFormat, fileToImport.getFileName().toString());
+
+		try {
+			Path directory = Files.createDirectories(getIngestionFolder(Constants.INGESTION_PROCESSING));
+			Path file = Files.move(fileToImport,
+					directory.resolve(System.currentTimeMillis() + "-" + fileToImport.getFileName()));
+			importJob.setFilePath(file.toAbsolutePath().toString());
+			importJob.setFileSize(Files.size(file));
+		} catch (IOException e) {
+			throw new BurgerSTerminalException(ErrorMessage.AN_ERROR_OCCURRED_DURING_THE_IMPORT, e);
+		}
+
+		return start(importJob);
+	}
+
+	private ImportJob newImportJob(ImportType type, String fileFormat, String fileName) {
+		ImportJob importJob = new ImportJob();
+		importJob.setType(type);
+		importJob.setFileFormat(fileFormat);
+		importJob.setFileName(fileName);
+		importJob.setStatus(ImportJobStatus.PENDING);
+		importJob.setLastUpdate(ZonedDateTime.now());
+		importJob.setOwner(configurationService.getNodeId());
+		importJob.setHeartbeat(importJob.getLastUpdate());
+		return importJob;
+	}
+
+	private ImportJobDTO start(ImportJob importJob) {
+		ImportJob result = importJobRepository.save(importJob);
+		localJobs.add(result.getId());
+		execute(result.getId());
+		return toImportJobDTO(result);
+	}
+
+	/**
+	 * The job is in localJobs until it ends, so the node does not claim it
+	 * again. A job rejected by the full queue of the executor stays pending,
+	 * owned by the node, and is started by a later heartbeat.
+	 */
+	private void execute(Long id) {
+		try {
+			importJobExecutor.execute(() -> {
+				try {
+					run(id);
+				} finally {
+					localJobs.remove(id);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			localJobs.remove(id);
+			LOGGER.info("The import job {} waits for a free slot of the import job executor", id);
+		}
+	}
+
+	/**
+	 * Get the "id" import job with its progress.
+	 *
+	 * @param id the id of the entity
+	 * @return the entity
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public Optional<ImportJobDTO> findOne(Long id) {
+		LOGGER.debug("Request to find an import job by id: {}", id);
+		return importJobRepository.findById(id)
+				.map(this::toImportJobDTO);
+	}
+
+	/**
+	 * Get the CSV report of the rows rejected by the "id" import job.
+	 *
+	 * @param id the id of the entity
+	 * @return the report, empty if the job does not exist or has not started
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public Optional<Resource> getErrorReport(Long id) {
+		LOGGER.debug("Request to get the error report of an import job: {}", id);
+		return importJobRepository.findById(id)
+				.map(importJob -> getErrorReportFile(importJob.getId()))
+				.filter(Files::exists)
+				.map(FileSystemResource::new);
+	}
+
+	/**
+	 * Get all the import jobs.
+	 *
+	 * @return the page of entities
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public Page<ImportJobDTO> findAll(Pageable pageable) {
+		LOGGER.debug("Request to find all import jobs");
+		return importJobRepository.findAll(pageable)
+				.map(this::toImportJobDTO);
+	}
+
+	/**
+	 * Beat the heartbeat of the jobs of this node, then claim and resume the
+	 * jobs interrupted by a shutdown after their last committed row.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(initialDelayString = "${app.importJobHeartbeatDelayInMilliseconds:30000}",
+			fixedDelayString = "${app.importJobHeartbeatDelayInMilliseconds:30000}")
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	@Override
+	public void resumeInterruptedJobs() {
+		String owner = configurationService.getNodeId();
+		ZonedDateTime now = ZonedDateTime.now();
+		importJobRepository.beat(owner, ACTIVE_STATUSES, now);
+		ZonedDateTime staleBefore = now.minus(
+				Constants.IMPORT_JOB_STALE_HEARTBEATS * configurationService.getImportJobHeartbeatDelayInMilliseconds(),
+				ChronoUnit.MILLIS);
+		for (ImportJob importJob : importJobRepository.findAllByStatusInOrderByIdAsc(ACTIVE_STATUSES)) {
+			Long id = importJob.getId();
+			if (!localJobs.add(id)) {
+				continue;
+			}
+			if (0 == importJobRepository.claim(id, owner, ACTIVE_STATUSES, now, staleBefore)) {
+				localJobs.remove(id);
+				continue;
+			}
+			LOGGER.info("Resume the import job {} after the row {}", id, importJob.getCheckpoint());
+			execute(id);
+		}
+	}
+
+	/**
+	 * Import the file of the job, from the row following its checkpoint.
+	 * Runs outside of any transaction: each chunk commits on its own.
+	 */
+	private void run(Long id) {
+		Optional<ImportJob> found = importJobRepository.findById(id);
+		if (!found.isPresent()) {
+			return;
+		}
+		ImportJob importJob = found.get();
+		importJob.setStatus(ImportJobStatus.RUNNING);
+		if (null == importJob.getStartDate()) {
+			importJob.setStartDate(ZonedDateTime.now());
+		}
+		importJob.setLastUpdate(ZonedDateTime.now());
+		importJobRepository.save(importJob);
+
+		long rowsFailed = importJob.getRowsFailed();
+		long processingTime = importJob.getProcessingTime();
+		long resumedAt = System.currentTimeMillis();
+		LongSupplier totalProcessingTime = () -> processingTime + System.currentTimeMillis() - resumedAt;
+		try (ImportErrorReport errorReport = ImportErrorReport.open(getErrorReportFile(id))) {
+			try {
+				importFile(importJob, errorReport, rowsFailed, totalProcessingTime);
+				importJob.setStatus(ImportJobStatus.DONE);
+			} finally {
+				importJob.setRowsFailed(rowsFailed + errorReport.getRowsFailed());
+			}
+		} catch (BurgerSTerminalException e) {
+			LOGGER.error("The import job {} failed: {}", id, e.getErrorMessage());
+			fail(importJob, StringUtils.defaultString(e.getErrorMessage(), e.getMessage()));
+		} catch (IOException | RuntimeException e) {
+			LOGGER.error("The import job {} failed", id, e);
+			fail(importJob, StringUtils.defaultString(e.getMessage(), e.getClass().getName()));
+		}
+
+		importJob.setProcessingTime(totalProcessingTime.getAsLong());
+		importJob.setEndDate(ZonedDateTime.now());
+		importJob.setLastUpdate(importJob.getEndDate());
+		importJobRepository.save(importJob);
+		releaseFile(importJob);
+	}
+
+	/**
+	 * The file is streamed from its channel through a buffer: nothing keeps
+	 * it open or mapped once the stream is closed, so it can be moved right
+	 * after, on Windows too. The invalid rows are reported in the error
+	 * report and skipped.
+	 */
+	private void importFile(ImportJob importJob, ImportErrorReport errorReport, long rowsFailed,
+			LongSupplier processingTime) throws IOException, BurgerSTerminalException {
+		long skippedRows = importJob.getCheckpoint();
+		try (InputStream inputStream = new BufferedInputStream(
+				Files.newInputStream(Paths.get(importJob.getFilePath())), Constants.IMPORT_READ_BUFFER_SIZE)) {
+			ImportProgressListener progressListener = (position, bytesRead, rowsParsed, rowsWritten, rowsUpdated) -> {
+				importJob.setCheckpoint(position);
+				importJob.setRowsParsed(rowsParsed);
+				importJob.setRowsWritten(importJob.getRowsWritten() + rowsWritten);
+				importJob.setRowsUpdated(importJob.getRowsUpdated() + rowsUpdated);
+				importJob.setRowsFailed(rowsFailed + errorReport.getRowsFailed());
+				importJob.setBytesRead(bytesRead);
+				importJob.setProcessingTime(processingTime.getAsLong());
+				importJob.setLastUpdate(ZonedDateTime.now());
+				try {
+					errorReport.flush();
+				} catch (IOException e) {
+					LOGGER.warn("The error report of the import job {} can not be written: {}", importJob.getId(), e.getMessage());
+				}
+				importJobRepository.save(importJob);
+			};
+
+			ImportReportDTO report;
+			if (ImportType.MENU == importJob.getType()) {
+				report = databaseUpdatorService.importMenus(inputStream, importJob.getFileFormat(), skippedRows,
+						progressListener, errorReport);
+			} else {
+				report = databaseUpdatorService.importProducts(inputStream, importJob.getFileFormat(), skippedRows,
+						progressListener, errorReport);
+			}
+			if (null != report) {
+				importJob.setRowsParsed(skippedRows + report.getRowsRead());
+			}
+			importJob.setBytesRead(importJob.getFileSize());
+		}
+	}
+
+	private Path getErrorReportFile(Long id) {
+		return Paths.get(configurationService.getImportDirectory()).resolve("import-" + id + "-errors.csv");
+	}
+
+	private static void fail(ImportJob importJob, String errorMessage) {
+		importJob.setStatus(ImportJobStatus.FAILED);
+		importJob.setErrorMessage(StringUtils.abbreviate(errorMessage, ERROR_MESSAGE_MAX_LENGTH));
+	}
+
+	private Path getIngestionFolder(String folder) {
+		return Paths.get(configurationService.getIngestionDirectory()).resolve(folder);
+	}
+
+	/**
+	 * Delete the uploaded file, or move the ingested file to the processed
+	 * or the failed folder.
+	 */
+	private void releaseFile(ImportJob importJob) {
+		Path file = Paths.get(importJob.getFilePath()).normalize();
+		try {
+			if (file.startsWith(getIngestionFolder(Constants.INGESTION_PROCESSING).toAbsolutePath().normalize())) {
+				Path directory = Files.createDirectories(getIngestionFolder(ImportJobStatus.DONE == importJob.getStatus()
+						? Constants.INGESTION_PROCESSED : Constants.INGESTION_FAILED));
+				Files.move(file, directory.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+			} else {
+				Files.deleteIfExists(file);
+			}
+		} catch (IOException e) {
+			LOGGER.warn("The file of the import job {} can not be released: {}", importJob.getId(), e.getMessage());
+		}
+	}
+
+	/**
+	 * Add the throughput and the time left, estimated from the bytes read up
+	 * to the last committed row, not up to the rows still in the pipeline.
+	 * Both are based on the processing time saved with the last checkpoint,
+	 * so the time the job spent interrupted does not count.
+	 */
+	private ImportJobDTO toImportJobDTO(ImportJob importJob) {
+		ImportJobDTO importJobDTO = importJobMapper.importJobToImportJobDTO(importJob);
+		if (importJob.getFileSize() > 0) {
+			importJobDTO.setProgress((int) (100 * importJob.getBytesRead() / importJob.getFileSize()));
+		}
+		long elapsed = importJob.getProcessingTime();
+		if (elapsed > 0) {
+			importJobDTO.setRowsPerSecond(importJob.getRowsWritten() * 1000d / elapsed);
+			if (ImportJobStatus.RUNNING == importJob.getStatus() && importJob.getBytesRead() > 0) {
+				importJobDTO.setEstimatedRemainingSeconds(
+						elapsed * (importJob.getFileSize() - importJob.getBytesRead()) / importJob.getBytesRead() / 1000);
+			}
+		}
+		return importJobDTO;
+	}
+}
@@ -0,0 +1,129 @@
+package fr.esgi.service.impl;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.config.Constants;
+import fr.esgi.enums.ImportType;
+import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.service.ImportJobService;
+import fr.esgi.service.IngestionService;
+
+/**
+ * Service Implementation for the ingestion directory.
+ *
+ * The files dropped in incoming/products and incoming/menus are submitted as
+ * import jobs. A file is submitted once its size and modification date have
+ * not changed between two scans, so a file still being copied is left alone.
+ * The hidden files are ignored, the files which are neither CSV nor JSON are
+ * moved to the failed folder.
+ */
+@Service("IngestionService")
+@Transactional
+public class IngestionServiceImpl implements IngestionService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(IngestionServiceImpl.class);
+
+	private static final String PRODUCTS = "products";
+
+	private static final String MENUS = "menus";
+
+	private final ImportJobService importJobService;
+
+	private final ConfigurationService configurationService;
+
+	/**
+	 * Size and modification date of the files seen by the previous scan.
+	 */
+	private final Map<Path, String> lastSeen = new HashMap<>();
+
+	@Autowired
+	public IngestionServiceImpl(ImportJobService importJobService, ConfigurationService configurationService) {
+		this.importJobService = importJobService;
+		this.configurationService = configurationService;
+	}
+
+	/**
+	 * Submit the import of the new files of the incoming folders.
+	 */
+	@Override
+	@Scheduled(fixedDelayString = "${app.ingestionDelayInMilliseconds:5000}")
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public synchronized void scanIncomingDirectories() {
+		Path incoming = Paths.get(configurationService.getIngestionDirectory()).resolve(Constants.INGESTION_INCOMING);
+		Set<Path> seen = new HashSet<>();
+		scan(incoming.resolve(PRODUCTS), ImportType.PRODUCT, seen);
+		scan(incoming.resolve(MENUS), ImportType.MENU, seen);
+		lastSeen.keySet().retainAll(seen);
+	}
+
+	private void scan(Path directory, ImportType type, Set<Path> seen) {
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			LOGGER.warn("The ingestion directory {} can not be created: {}", directory, e.getMessage());
+			return;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+				if (!attributes.isRegularFile() || file.getFileName().toString().startsWith(".")) {
+					continue;
+				}
+				String state = attributes.size() + "@" + attributes.lastModifiedTime().toMillis();
+				seen.add(file);
+				if (state.equals(lastSeen.put(file, state))) {
+					lastSeen.remove(file);
+					submit(file, type);
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.warn("The ingestion directory {} can not be read: {}", directory, e.getMessage());
+		}
+	}
+
+	private void submit(Path file, ImportType type) {
+		String fileFormat = FilenameUtils.getExtension(file.getFileName().toString()).toLowerCase(Locale.ROOT);
+		if (!Constants.CSV.equals(fileFormat) && !Constants.JSON.equals(fileFormat)) {
+			LOGGER.warn("The ingested file {} is neither a CSV nor a JSON file", file);
+			reject(file);
+			return;
+		}
+		try {
+			LOGGER.info("Import the ingested file {}", file);
+			importJobService.submit(file, type, fileFormat);
+		} catch (BurgerSTerminalException e) {
+			LOGGER.error("The ingested file {} can not be submitted: {}", file, e.getErrorMessage());
+		}
+	}
+
+	private void reject(Path file) {
+		try {
+			Path failed = Files.createDirectories(
+					Paths.get(configurationService.getIngestionDirectory()).resolve(Constants.INGESTION_FAILED));
+			Files.move(file, failed.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			LOGGER.warn("The ingested file {} can not be moved: {}", file, e.getMessage());
+		}
+	}
+}
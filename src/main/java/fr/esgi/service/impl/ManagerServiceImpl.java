@@ -1,5 +1,8 @@
 package fr.esgi.service.impl;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,4 +43,16 @@ public class ManagerServiceImpl implements ManagerService {
     			.map(Manager::getId)
     			.orElse(null);
     }
+
+    /**
+     * Get the ids of all the managers.
+     * 
+     * @return the set of ids
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Long> findAllIds() {
+    	LOGGER.debug("Request to get the ids of all managers");
+    	return new HashSet<>(managerRepository.findAllIds());
+    }
 }
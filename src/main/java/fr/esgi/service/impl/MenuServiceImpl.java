@@ -1,13 +1,19 @@
 package fr.esgi.service.impl;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -17,9 +23,12 @@ import fr.esgi.config.Constants;
 import fr.esgi.dao.MenuRepository;
 import fr.esgi.domain.Menu;
 import fr.esgi.domain.Product;
+import fr.esgi.enums.CatalogChangeType;
+import fr.esgi.enums.CatalogItemType;
 import fr.esgi.service.MenuService;
 import fr.esgi.service.dto.MenuDTO;
 import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.event.CatalogChangedEvent;
 import fr.esgi.service.mapper.MenuMapper;
 import fr.esgi.service.mapper.ProductMapper;
 
@@ -38,11 +47,15 @@ public class MenuServiceImpl implements MenuService {
 
 	private final ProductMapper productMapper;
 
+	private final ApplicationEventPublisher eventPublisher;
+
 	@Autowired
-	public MenuServiceImpl(MenuRepository menuRepository, MenuMapper menuMapper, ProductMapper productMapper) {
+	public MenuServiceImpl(MenuRepository menuRepository, MenuMapper menuMapper, ProductMapper productMapper,
+			ApplicationEventPublisher eventPublisher) {
 		this.menuRepository = menuRepository;
 		this.menuMapper = menuMapper;
 		this.productMapper = productMapper;
+		this.eventPublisher = eventPublisher;
 	}
 
 	/**
@@ -107,11 +120,56 @@ public class MenuServiceImpl implements MenuService {
 				.map(menuMapper::menuDTOToMenu)
 				.collect(Collectors.toList());
 
-		return menuRepository.saveAll(menus).stream()
+		List<Menu> savedMenus = menuRepository.saveAll(menus);
+		publishUpsert(savedMenus.stream().map(Menu::getId).collect(Collectors.toList()));
+		return savedMenus.stream()
 				.map(menuMapper::menuToMenuDTO)
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Create the new menus and update the existing ones, found by name.
+	 * The ids of the existing menus are loaded in one query, then the new
+	 * menus are inserted and the existing ones updated in batches.
+	 * 
+	 * @param menusDTO the list of entities to save
+	 * @return the number of existing rows updated, a name repeated in the list counted once
+	 */
+	@Override
+	public int upsertAll(List<MenuDTO> menusDTO) {
+		LOGGER.debug("Request to upsert {} menus", menusDTO.size());
+		Map<String, Menu> menusByName = new LinkedHashMap<>();
+		for (MenuDTO menuDTO : menusDTO) {
+			Menu menu = menuMapper.menuDTOToMenu(menuDTO);
+			menusByName.put(menu.getName().toLowerCase(Locale.ROOT), menu);
+		}
+
+		Map<String, Long> ids = new HashMap<>();
+		List<String> names = menusByName.values().stream()
+				.map(Menu::getName)
+				.collect(Collectors.toList());
+		for (Object[] idAndName : menuRepository.findIdsByNames(names)) {
+			ids.put(((String) idAndName[1]).toLowerCase(Locale.ROOT), (Long) idAndName[0]);
+		}
+
+		List<Menu> newMenus = new ArrayList<>();
+		List<Menu> existingMenus = new ArrayList<>();
+		for (Map.Entry<String, Menu> entry : menusByName.entrySet()) {
+			Menu menu = entry.getValue();
+			menu.setId(ids.get(entry.getKey()));
+			if (null == menu.getId()) {
+				newMenus.add(menu);
+			} else {
+				existingMenus.add(menu);
+			}
+		}
+
+		menuRepository.saveAll(newMenus);
+		int updated = menuRepository.updateAll(existingMenus);
+		publishUpsert(menusByName.values().stream().map(Menu::getId).collect(Collectors.toList()));
+		return updated;
+	}
+
 	/**
 	 * Delete the "id" menu.
 	 *
@@ -121,6 +179,8 @@ public class MenuServiceImpl implements MenuService {
 	public void delete(Long id) {
 		LOGGER.debug("Request to delete a menu");
 		menuRepository.deleteById(id);
+		eventPublisher.publishEvent(new CatalogChangedEvent(CatalogItemType.MENU, CatalogChangeType.DELETE,
+				Collections.singletonList(id)));
 	}
 
 	/**
@@ -134,6 +194,7 @@ public class MenuServiceImpl implements MenuService {
 		LOGGER.debug("Request to update a menu: {}", menuDTO);
 		Menu menu = menuMapper.menuDTOToMenu(menuDTO);
 		menu = menuRepository.saveAndFlush(menu);
+		publishUpsert(menu);
 		return menuMapper.menuToMenuDTO(menu); 
 	}
 
@@ -148,6 +209,17 @@ public class MenuServiceImpl implements MenuService {
 		LOGGER.debug("Request to save a menu: {}", menuDTO);
 		Menu menu = menuMapper.menuDTOToMenu(menuDTO);	
 		menu = menuRepository.save(menu);
+		publishUpsert(menu);
 		return menuMapper.menuToMenuDTO(menu);
 	}
+
+	private void publishUpsert(Menu menu) {
+		if (null != menu) {
+			publishUpsert(Collections.singletonList(menu.getId()));
+		}
+	}
+
+	private void publishUpsert(List<Long> ids) {
+		eventPublisher.publishEvent(new CatalogChangedEvent(CatalogItemType.MENU, CatalogChangeType.UPSERT, ids));
+	}
 }
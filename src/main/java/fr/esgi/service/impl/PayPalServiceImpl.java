@@ -39,6 +39,8 @@ import fr.esgi.domain.Menu;
 import fr.esgi.domain.Product;
 import fr.esgi.service.CommandService;
 import fr.esgi.service.PayPalService;
+import fr.esgi.service.cache.PaymentSession;
+import fr.esgi.service.cache.PaymentSessionCache;
 import fr.esgi.service.dto.CommandDTO;
 import fr.esgi.service.dto.Paypal;
 import fr.esgi.service.mapper.CommandMapper;
@@ -57,12 +59,15 @@ public class PayPalServiceImpl implements PayPalService {
 
 	private final ConfigurationService configurationService;
 
+	private final PaymentSessionCache paymentSessionCache;
+
 	@Autowired
 	public PayPalServiceImpl(CommandService commandService, CommandMapper commandMapper,
-			ConfigurationService configurationService) {
+			ConfigurationService configurationService, PaymentSessionCache paymentSessionCache) {
 		this.commandService = commandService;
 		this.commandMapper = commandMapper;
 		this.configurationService = configurationService;
+		this.paymentSessionCache = paymentSessionCache;
 	}
 
 	/**
@@ -89,6 +94,7 @@ public class PayPalServiceImpl implements PayPalService {
 				commandDTO.setPrice(BigDecimal.valueOf((getPrice(command.getProducts(), command.getMenus()))));
 				CommandDTO result = commandService.save(commandDTO);
 				if (null != result) {
+					paymentSessionCache.register(createdPayment.getId(), result.getId(), commandDTO.getPrice());
 					response.put(Constants.WAITTING, getRedirectUrl(createdPayment));
 				}
 			}
@@ -237,8 +243,7 @@ public class PayPalServiceImpl implements PayPalService {
 			PaymentExecution paymentExecution = getPaymentExecution(paypal);
 			APIContext apiContext = getApiContext();
 			Payment createdPayment = payment.execute(apiContext, paymentExecution);
-			if (null != createdPayment) {
-				setStatusCommand(paypal, createdPayment);
+			if (null != createdPayment && setStatusCommand(paypal, createdPayment)) {
 				response.put(Constants.STATUS, Constants.SUCCESS);
 				response.put(Constants.PAYMENT, createdPayment);
 			}
@@ -266,16 +271,36 @@ public class PayPalServiceImpl implements PayPalService {
 		return paymentExecution;
 	}
 
-	private void setStatusCommand(Paypal paypal, Payment payment) {
-		Optional<CommandDTO> result = commandService.findByPaymentId(paypal.getPaymentId());
-		if (result.isPresent()) {
-			CommandDTO commandDTO = result.get();
-			commandDTO.setOrderStatus(Constants.PAID);
-			commandDTO.setDate(ZonedDateTime.now(ZoneId.of("Europe/Paris")));
-			commandDTO.setSaleId(payment.getTransactions().get(0).getRelatedResources().get(0).getSale().getId());
-			commandDTO.setCustomerId(commandDTO.getCustomerId());
-			commandService.update(commandDTO);
+	/**
+	 * Mark the command of an executed payment paid, if the payment is of its
+	 * total in euros.
+	 *
+	 * @return true if the command was marked paid
+	 */
+	private boolean setStatusCommand(Paypal paypal, Payment payment) {
+		Optional<PaymentSession> session = paymentSessionCache.remove(paypal.getPaymentId());
+		if (!session.isPresent()) {
+			// The session expired or was created by another instance.
+			session = commandService.findIdByPaymentId(paypal.getPaymentId())
+					.flatMap(commandService::findOne)
+					.map(command -> new PaymentSession(paypal.getPaymentId(), command.getId(), command.getPrice(),
+							Long.MAX_VALUE));
+		}
+		if (!session.isPresent()) {
+			return false;
+		}
+		Transaction transaction = payment.getTransactions().get(0);
+		Amount amount = transaction.getAmount();
+		if (null == amount || !Constants.EUR.equals(amount.getCurrency())
+				|| !session.get().isPaidBy(new BigDecimal(amount.getTotal()))) {
+			LOGGER.error("The payment {} does not match the total of the command {}: {}", paypal.getPaymentId(),
+					session.get().getCommandId(), null == amount ? null : amount.getTotal());
+			return false;
 		}
+		String saleId = transaction.getRelatedResources().get(0).getSale().getId();
+		commandService.updatePaymentStatus(session.get().getCommandId(), Constants.PAID, saleId,
+				ZonedDateTime.now(ZoneId.of("Europe/Paris")));
+		return true;
 	}
 
 	/**
@@ -1,11 +1,18 @@
 package fr.esgi.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,8 +21,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import fr.esgi.dao.ProductRepository;
 import fr.esgi.domain.Product;
+import fr.esgi.enums.CatalogChangeType;
+import fr.esgi.enums.CatalogItemType;
 import fr.esgi.service.ProductService;
 import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.event.CatalogChangedEvent;
 import fr.esgi.service.mapper.ProductMapper;
 
 /**
@@ -32,10 +42,14 @@ public class ProductServiceImpl implements ProductService {
 
 	private final ProductMapper productMapper;
 
+	private final ApplicationEventPublisher eventPublisher;
+
 	@Autowired
-	public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper) {
+	public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper,
+			ApplicationEventPublisher eventPublisher) {
 		this.productRepository = productRepository;
 		this.productMapper = productMapper;
+		this.eventPublisher = eventPublisher;
 	}
 
 	/**
@@ -75,11 +89,56 @@ public class ProductServiceImpl implements ProductService {
 				.map(productMapper::productDTOToProduct)
 				.collect(Collectors.toList());
 
-		return productRepository.saveAll(products).stream()
+		List<Product> savedProducts = productRepository.saveAll(products);
+		publishUpsert(savedProducts.stream().map(Product::getId).collect(Collectors.toList()));
+		return savedProducts.stream()
 				.map(productMapper::productToProductDTO)
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Create the new products and update the existing ones, found by name.
+	 * The ids of the existing products are loaded in one query, then the new
+	 * products are inserted and the existing ones updated in batches.
+	 * 
+	 * @param productsDTO the list of entities to save
+	 * @return the number of existing rows updated, a name repeated in the list counted once
+	 */
+	@Override
+	public int upsertAll(List<ProductDTO> productsDTO) {
+		LOGGER.debug("Request to upsert {} products", productsDTO.size());
+		Map<String, Product> productsByName = new LinkedHashMap<>();
+		for (ProductDTO productDTO : productsDTO) {
+			Product product = productMapper.productDTOToProduct(productDTO);
+			productsByName.put(product.getName().toLowerCase(Locale.ROOT), product);
+		}
+
+		Map<String, Long> ids = new HashMap<>();
+		List<String> names = productsByName.values().stream()
+				.map(Product::getName)
+				.collect(Collectors.toList());
+		for (Object[] idAndName : productRepository.findIdsByNames(names)) {
+			ids.put(((String) idAndName[1]).toLowerCase(Locale.ROOT), (Long) idAndName[0]);
+		}
+
+		List<Product> newProducts = new ArrayList<>();
+		List<Product> existingProducts = new ArrayList<>();
+		for (Map.Entry<String, Product> entry : productsByName.entrySet()) {
+			Product product = entry.getValue();
+			product.setId(ids.get(entry.getKey()));
+			if (null == product.getId()) {
+				newProducts.add(product);
+			} else {
+				existingProducts.add(product);
+			}
+		}
+
+		productRepository.saveAll(newProducts);
+		int updated = productRepository.updateAll(existingProducts);
+		publishUpsert(productsByName.values().stream().map(Product::getId).collect(Collectors.toList()));
+		return updated;
+	}
+
 	/**
 	 * Save the product in database.
 	 * @param ProductDTO
@@ -90,6 +149,7 @@ public class ProductServiceImpl implements ProductService {
 		LOGGER.debug("Request to save a product: {}", productDTO);
 		Product product = productMapper.productDTOToProduct(productDTO);
 		product = productRepository.save(product);
+		publishUpsert(product);
 		return productMapper.productToProductDTO(product);
 	}
 
@@ -102,6 +162,8 @@ public class ProductServiceImpl implements ProductService {
 	public void delete(Long id) {
 		LOGGER.debug("Request to delete a product");
 		productRepository.deleteById(id);
+		eventPublisher.publishEvent(new CatalogChangedEvent(CatalogItemType.PRODUCT, CatalogChangeType.DELETE,
+				Collections.singletonList(id)));
 	}
 
 	/**
@@ -115,6 +177,7 @@ public class ProductServiceImpl implements ProductService {
 		LOGGER.debug("Request to update a product: {}", productDTO);
 		Product product = productMapper.productDTOToProduct(productDTO);
 		product = productRepository.saveAndFlush(product);
+		publishUpsert(product);
 		return productMapper.productToProductDTO(product);
 	}
 
@@ -143,4 +206,14 @@ public class ProductServiceImpl implements ProductService {
 				.map(productMapper::productToProductDTO)
 				.collect(Collectors.toList());
 	}
-}
\ No newline at end of file
+
+	private void publishUpsert(Product product) {
+		if (null != product) {
+			publishUpsert(Collections.singletonList(product.getId()));
+		}
+	}
+
+	private void publishUpsert(List<Long> ids) {
+		eventPublisher.publishEvent(new CatalogChangedEvent(CatalogItemType.PRODUCT, CatalogChangeType.UPSERT, ids));
+	}
+}
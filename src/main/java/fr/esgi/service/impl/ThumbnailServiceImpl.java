@@ -0,0 +1,198 @@
+package fr.esgi.service.impl;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.config.Constants;
+import fr.esgi.service.ThumbnailService;
+import fr.esgi.service.image.ImageResizer;
+import fr.esgi.service.image.StoredImage;
+
+/**
+ * Service Implementation for the thumbnails of the uploaded images.
+ *
+ * The thumbnails of an image are written in a folder next to it, named
+ * after the image, one file per size of {@link Constants#THUMBNAIL_SIZES}.
+ * The JPEG images give JPEG thumbnails, the other ones PNG thumbnails. An
+ * image is never enlarged: the sizes above the one of the image are
+ * skipped and the original image is served for them.
+ *
+ * The images are immutable, so the thumbnails of an image are generated
+ * once. They are all written in a temporary folder first, moved in place at
+ * once: the folder of the thumbnails exists only once they are complete, and
+ * a generation interrupted half way is done again on the next upload.
+ *
+ * The dimensions of an image are read from its header before it is decoded:
+ * an image of more than app.thumbnailMaxPixels pixels gets no thumbnail, so
+ * a small upload declaring a huge image can not exhaust the heap.
+ */
+@Service("ThumbnailService")
+public class ThumbnailServiceImpl implements ThumbnailService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThumbnailServiceImpl.class);
+
+	private static final String JPG = "jpg";
+
+	private static final String PNG = "png";
+
+	private final Executor imageExecutor;
+
+	private final ConfigurationService configurationService;
+
+	@Autowired
+	public ThumbnailServiceImpl(@Qualifier("imageExecutor") Executor imageExecutor,
+			ConfigurationService configurationService) {
+		this.imageExecutor = imageExecutor;
+		this.configurationService = configurationService;
+	}
+
+	/**
+	 * Generate the thumbnails of an image in the background, unless they
+	 * are already generated.
+	 *
+	 * @param image the uploaded image
+	 * @param contentType the content type of the image
+	 */
+	@Override
+	public void generate(Path image, String contentType) {
+		final Path directory = getThumbnailDirectory(image);
+		if (Files.isDirectory(directory)) {
+			return;
+		}
+		LOGGER.debug("Request to generate the thumbnails of : {}", image);
+		final String format = MediaType.IMAGE_JPEG_VALUE.equals(contentType) ? JPG : PNG;
+		try {
+			imageExecutor.execute(() -> createThumbnails(image, directory, format));
+		} catch (RejectedExecutionException e) {
+			LOGGER.warn("The thumbnails of {} are not generated, too many images are waiting", image);
+		}
+	}
+
+	/**
+	 * Get the thumbnail of an image nearest to a size: the smallest one
+	 * at least as large, or the largest one.
+	 *
+	 * @param image the original image
+	 * @param size the size wanted, in pixels
+	 * @return the thumbnail, or an empty Optional if it is not generated yet
+	 */
+	@Override
+	public Optional<StoredImage> getThumbnail(StoredImage image, int size) {
+		int nearest = Constants.THUMBNAIL_SIZES[Constants.THUMBNAIL_SIZES.length - 1];
+		for (int thumbnailSize : Constants.THUMBNAIL_SIZES) {
+			if (thumbnailSize >= size) {
+				nearest = thumbnailSize;
+				break;
+			}
+		}
+
+		final Path directory = getThumbnailDirectory(image.getPath());
+		for (String format : new String[] { JPG, PNG }) {
+			Path thumbnail = directory.resolve(nearest + "." + format);
+			try {
+				BasicFileAttributes attributes = Files.readAttributes(thumbnail, BasicFileAttributes.class);
+				String contentType = JPG.equals(format) ? MediaType.IMAGE_JPEG_VALUE : MediaType.IMAGE_PNG_VALUE;
+				return Optional.of(new StoredImage(thumbnail, contentType, attributes.size(),
+						attributes.lastModifiedTime().toMillis()));
+			} catch (NoSuchFileException e) {
+				// Not generated in this format.
+			} catch (IOException e) {
+				LOGGER.warn("The thumbnail {} can not be read", thumbnail, e);
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Delete the thumbnails of an image.
+	 *
+	 * @param image the original image
+	 * @throws IOException if the thumbnails can not be deleted
+	 */
+	@Override
+	public void delete(Path image) throws IOException {
+		FileUtils.deleteDirectory(getThumbnailDirectory(image).toFile());
+	}
+
+	private void createThumbnails(Path image, Path directory, String format) {
+		try {
+			BufferedImage original = read(image);
+			if (null == original) {
+				return;
+			}
+			Path temporary = Files.createTempDirectory(directory.getParent(), directory.getFileName() + ".");
+			try {
+				for (int size : Constants.THUMBNAIL_SIZES) {
+					if (original.getWidth() <= size && original.getHeight() <= size) {
+						break;
+					}
+					BufferedImage thumbnail = ImageResizer.resize(original, size, JPG.equals(format));
+					ImageIO.write(thumbnail, format, temporary.resolve(size + "." + format).toFile());
+				}
+				Files.move(temporary, directory, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				if (!Files.isDirectory(directory)) {
+					throw e;
+				}
+				LOGGER.debug("The thumbnails of {} are already generated", image);
+			} finally {
+				FileUtils.deleteQuietly(temporary.toFile());
+			}
+		} catch (IOException e) {
+			LOGGER.warn("The thumbnails of {} can not be generated", image, e);
+		}
+	}
+
+	/**
+	 * Decode an image once its dimensions are checked.
+	 *
+	 * @return the image, null if its format is not supported or it is too large
+	 */
+	private BufferedImage read(Path image) throws IOException {
+		try (ImageInputStream input = ImageIO.createImageInputStream(image.toFile())) {
+			Iterator<ImageReader> readers = null == input ? null : ImageIO.getImageReaders(input);
+			if (null == readers || !readers.hasNext()) {
+				LOGGER.debug("No thumbnail for {}, the format is not supported", image);
+				return null;
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(input, true, true);
+				long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+				if (pixels > configurationService.getThumbnailMaxPixels()) {
+					LOGGER.warn("No thumbnail for {}, its {} pixels are over the limit", image, pixels);
+					return null;
+				}
+				return reader.read(0);
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	private static Path getThumbnailDirectory(Path image) {
+		return image.resolveSibling(image.getFileName() + "." + Constants.THUMBNAILS);
+	}
+}
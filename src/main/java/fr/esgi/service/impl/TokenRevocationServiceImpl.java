@@ -0,0 +1,104 @@
+package fr.esgi.service.impl;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import fr.esgi.config.Constants;
+import fr.esgi.dao.RevokedSubjectRepository;
+import fr.esgi.dao.RevokedTokenRepository;
+import fr.esgi.domain.RevokedSubject;
+import fr.esgi.domain.RevokedToken;
+import fr.esgi.security.jwt.RevokedTokenCache;
+import fr.esgi.service.TokenRevocationService;
+
+/**
+ * Service Implementation for revoking the tokens.
+ *
+ * The revoked tokens and subjects are written in the database, shared by the
+ * nodes: each node loads the ones revoked since its last refresh into its
+ * {@link RevokedTokenCache} every
+ * app.tokenRevocationRefreshDelayInMilliseconds, so the requests never read
+ * the database. The revocation times are read from the clocks of the
+ * revoking nodes, so a refresh also loads again the revocations of the
+ * previous {@link Constants#TOKEN_REVOCATION_REFRESH_OVERLAP_IN_MILLISECONDS},
+ * for the transactions committed late and the clocks out of step.
+ */
+@Service("TokenRevocationService")
+@Transactional
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TokenRevocationServiceImpl.class);
+
+	private final RevokedTokenRepository revokedTokenRepository;
+
+	private final RevokedSubjectRepository revokedSubjectRepository;
+
+	private final RevokedTokenCache revokedTokenCache;
+
+	/**
+	 * The start of the last refresh, 0 until the first one loads all the
+	 * revocations.
+	 */
+	private long lastRefresh;
+
+	@Autowired
+	public TokenRevocationServiceImpl(RevokedTokenRepository revokedTokenRepository,
+			RevokedSubjectRepository revokedSubjectRepository, RevokedTokenCache revokedTokenCache) {
+		this.revokedTokenRepository = revokedTokenRepository;
+		this.revokedSubjectRepository = revokedSubjectRepository;
+		this.revokedTokenCache = revokedTokenCache;
+	}
+
+	@Override
+	public void revoke(String tokenId, long expiration) {
+		LOGGER.debug("Request to revoke the token : {}", tokenId);
+		revokedTokenRepository.save(new RevokedToken(tokenId, expiration, System.currentTimeMillis()));
+		revokedTokenCache.revoke(tokenId, expiration);
+	}
+
+	/**
+	 * The iat claim of a token is in seconds, so the not-before is rounded up
+	 * to the next second: the tokens issued in the second of the revocation
+	 * are revoked too.
+	 */
+	@Override
+	public void revokeSubject(String subject, long expiration) {
+		LOGGER.debug("Request to revoke the tokens of the subject : {}", subject);
+		long now = System.currentTimeMillis();
+		long notBefore = TimeUnit.SECONDS.toMillis(TimeUnit.MILLISECONDS.toSeconds(now) + 1);
+		revokedSubjectRepository.save(
+				new RevokedSubject(subject.toLowerCase(Locale.ROOT), notBefore, expiration, now));
+		revokedTokenCache.revokeSubject(subject, notBefore, expiration);
+	}
+
+	/**
+	 * The revocations are only added: a revocation made on this node and not
+	 * yet committed is kept until it expires.
+	 */
+	@Override
+	@Scheduled(fixedDelayString = "${app.tokenRevocationRefreshDelayInMilliseconds:10000}")
+	public void refresh() {
+		long now = System.currentTimeMillis();
+		long since = lastRefresh - Constants.TOKEN_REVOCATION_REFRESH_OVERLAP_IN_MILLISECONDS;
+		revokedTokenRepository.deleteExpired(now);
+		revokedSubjectRepository.deleteExpired(now);
+		for (RevokedToken revokedToken : revokedTokenRepository
+				.findAllByRevokedAtGreaterThanAndExpirationGreaterThan(since, now)) {
+			revokedTokenCache.revoke(revokedToken.getTokenId(), revokedToken.getExpiration());
+		}
+		for (RevokedSubject revokedSubject : revokedSubjectRepository
+				.findAllByRevokedAtGreaterThanAndExpirationGreaterThan(since, now)) {
+			revokedTokenCache.revokeSubject(revokedSubject.getSubject(), revokedSubject.getNotBefore(),
+					revokedSubject.getExpiration());
+		}
+		revokedTokenCache.prune(now);
+		lastRefresh = now;
+	}
+}
@@ -1,21 +1,31 @@
 package fr.esgi.service.impl;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import fr.esgi.config.ConfigurationService;
@@ -28,8 +38,12 @@ import fr.esgi.domain.Customer;
 import fr.esgi.domain.Role;
 import fr.esgi.domain.User;
 import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.service.ImageStoreService;
 import fr.esgi.service.UserService;
+import fr.esgi.service.cache.TakenLoginCache;
 import fr.esgi.service.dto.UserDTO;
+import fr.esgi.service.event.UserChangedEvent;
+import fr.esgi.service.image.StoredImage;
 import fr.esgi.service.mapper.UserMapper;
 
 /**
@@ -53,28 +67,56 @@ public class UserServiceImpl implements UserService {
     
     private final CustomerRepository customerRepository;
 
+    private final ImageStoreService imageStoreService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TakenLoginCache takenLoginCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The roles are not modified by the application, they are read once.
+     */
+    private final Map<Long, Role> rolesById = new ConcurrentHashMap<>();
+
     @Autowired
     public UserServiceImpl(PasswordEncoder passwordEncoder, UserRepository userRepository,
-			RoleRepository roleRepository, UserMapper userMapper, ConfigurationService configurationService, CustomerRepository customerRepository) {
+			RoleRepository roleRepository, UserMapper userMapper, ConfigurationService configurationService, CustomerRepository customerRepository,
+			ImageStoreService imageStoreService, ApplicationEventPublisher eventPublisher, TakenLoginCache takenLoginCache,
+			PlatformTransactionManager transactionManager) {
 		this.passwordEncoder = passwordEncoder;
 		this.userRepository = userRepository;
 		this.roleRepository = roleRepository;
 		this.userMapper = userMapper;
 		this.configurationService = configurationService;
 		this.customerRepository = customerRepository;
+		this.imageStoreService = imageStoreService;
+		this.eventPublisher = eventPublisher;
+		this.takenLoginCache = takenLoginCache;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
 	}
 
 	/**
-     * Save the user in database.
+     * Save the user in database, with his customer profile, in one
+     * transaction. The pseudo and the email are not looked up first: a taken
+     * one fails the unique constraints of the user table on commit, with a
+     * DataIntegrityViolationException.
      * 
      * @param userDTO
      * @param password
      * @return UserDTO
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDTO registerUser(UserDTO userDTO, String password) {
-        User newUser = new User();
+        // Hashed before the transaction, so that no connection is held during BCrypt.
         String encryptedPassword = passwordEncoder.encode(password);
+        return transactionTemplate.execute(status -> saveUser(userDTO, encryptedPassword));
+    }
+
+    private UserDTO saveUser(UserDTO userDTO, String encryptedPassword) {
+        User newUser = new User();
         newUser.setPseudo(userDTO.getPseudo());
         // new user gets initially a generated password
         newUser.setPassword(encryptedPassword);
@@ -84,7 +126,7 @@ public class UserServiceImpl implements UserService {
         newUser.setImageUrl(userDTO.getImageUrl());
         newUser.setBirthDay(userDTO.getBirthDay());
         newUser.setCreateDate(userDTO.getCreateDate());
-        final Optional<Role> role = roleRepository.findById(userDTO.getRoleId());
+        final Optional<Role> role = getRole(userDTO.getRoleId());
         if (role.isPresent()) {
             newUser.setRole(role.get());
         }
@@ -94,11 +136,69 @@ public class UserServiceImpl implements UserService {
         Customer customer = new Customer();
         customer.setUser(newUser);
 		customerRepository.save(customer);
+		eventPublisher.publishEvent(new UserChangedEvent(userDTO.getPseudo(), userDTO.getEmail()));
         
 		LOGGER.debug("Created Information for User: {}", newUser);
         return userMapper.userToUserDTO(newUser);
     }
 
+    /**
+     * Fill the lower case logins of the users created before they existed,
+     * once the application is started.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void normalizeLogins() {
+        int count = userRepository.normalizeLogins();
+        if (count > 0) {
+            LOGGER.info("Normalized the logins of {} users", count);
+        }
+    }
+
+    /**
+     * Fill the filter of the taken logins, once the application is started,
+     * then again periodically with the logins registered on the other nodes.
+     * The filter only grows, a login freed stays a false positive checked in
+     * the database.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.takenLoginRefreshDelayInMilliseconds:300000}",
+            fixedDelayString = "${app.takenLoginRefreshDelayInMilliseconds:300000}")
+    @Transactional(readOnly = true)
+    public void loadTakenLogins() {
+        userRepository.findAllPseudos().forEach(takenLoginCache::putPseudo);
+        userRepository.findAllEmails().forEach(takenLoginCache::putEmail);
+    }
+
+    /**
+     * Check if a pseudo is free, in the database only if the filter of the
+     * taken logins may contain it.
+     * 
+     * @param pseudo the pseudo
+     * @return true if no user has this pseudo
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isPseudoAvailable(String pseudo) {
+        return !takenLoginCache.mightContainPseudo(pseudo)
+                || !userRepository.existsByLoginPseudo(pseudo.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Check if an email is free, in the database only if the filter of the
+     * taken logins may contain it.
+     * 
+     * @param email the email
+     * @return true if no user has this email
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isEmailAvailable(String email) {
+        return !takenLoginCache.mightContainEmail(email)
+                || !userRepository.existsByLoginEmail(email.toLowerCase(Locale.ENGLISH));
+    }
+
     /**
      * Get the user by login.
      * 
@@ -133,13 +233,17 @@ public class UserServiceImpl implements UserService {
         final Optional<User> userOptional = userRepository.findById(userId);
 
         if (userOptional.isPresent()) {
-            try {
+            try (InputStream inputStream = file.getInputStream()) {
                 User user = userOptional.get();
+                final String contentType = getContentType(file);
+                final String hash = imageStoreService.store(inputStream, contentType);
+                if (null != user.getImageHash()) {
+                    imageStoreService.release(user.getImageHash());
+                }
                 user.setImageUrl(file.getOriginalFilename());
+                user.setImageContentType(contentType);
+                user.setImageHash(hash);
                 userRepository.saveAndFlush(user);
-                createFolder(userId);
-                final Path rootLocation = Paths.get(configurationService.getImagesDirectory() + Constants.IMAGES  + Constants.DELIMITER + userId);
-                sendFileToFolder(file, rootLocation);
             } catch (IOException e) {
                 throw new BurgerSTerminalException(ErrorMessage.ERROR_DURING_SAVING_FILE, e);
             }
@@ -147,59 +251,95 @@ public class UserServiceImpl implements UserService {
     }
     
     /**
-     * Download file from pseudo.
+     * Get the image of a user, with the content type recorded at upload.
      * 
      * @param pseudo
-     * @return the Map
-     * @throws BurgerSTerminalException 
+     * @return the image, or an empty Optional if the user does not exist or has no image
+     * @throws BurgerSTerminalException if the file does not exist
      */
     @Override
-    public Map<String, byte[]> getImageURL(String pseudo) throws BurgerSTerminalException {
+    @Transactional(readOnly = true)
+    public Optional<StoredImage> getImage(String pseudo) throws BurgerSTerminalException {
     	final Optional<User> user = userRepository.findOneByPseudoIgnoreCase(pseudo);
-    	final Map<String, byte[]> content = new HashMap<>();
-
-    	if (user.isPresent()) {
-    		try {
-    			final int indexOfBackslash = configurationService.getImagesDirectory().indexOf(Constants.DOUBLE_BACKSLASH);
-    			
-    			final StringBuilder imageUrl = new StringBuilder();
-    			imageUrl.append(configurationService.getImagesDirectory());
-    			imageUrl.append(((indexOfBackslash >= 0) ?  Constants.IMAGES.replace(Constants.DELIMITER, Constants.DOUBLE_BACKSLASH) : Constants.IMAGES));
-    			imageUrl.append((indexOfBackslash >= 0) ? Constants.DOUBLE_BACKSLASH : Constants.DELIMITER);
-    			imageUrl.append(user.get().getId() + ((indexOfBackslash > 0) ? Constants.DOUBLE_BACKSLASH : Constants.DELIMITER));
-    			imageUrl.append(user.get().getImageUrl());
-    			final Path path = new File(imageUrl.toString()).toPath();
-    			byte[] bytesArray = readFile(imageUrl.toString());
-    			content.put(Files.probeContentType(path), bytesArray);
-
-    		} catch (IOException e) {
-    			throw new BurgerSTerminalException("Le fichier n'existe pas", e);
+    	if (!user.isPresent() || null == user.get().getImageUrl()) {
+    		return Optional.empty();
+    	}
+    	if (null != user.get().getImageHash()) {
+    		final Optional<StoredImage> image = imageStoreService.getImage(user.get().getImageHash());
+    		if (!image.isPresent()) {
+    			throw new BurgerSTerminalException("Le fichier n'existe pas");
+    		}
+    		return image;
+    	}
+
+    	// Images uploaded before the image store, in the folder of the user.
+    	final Path path = Paths.get(configurationService.getImagesDirectory() + Constants.IMAGES)
+    			.resolve(String.valueOf(user.get().getId()))
+    			.resolve(user.get().getImageUrl());
+    	try {
+    		final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    		String contentType = user.get().getImageContentType();
+    		if (null == contentType) {
+    			// Images uploaded before the content type was recorded.
+    			contentType = getContentType(path.getFileName().toString());
     		}
+    		return Optional.of(new StoredImage(path, contentType, attributes.size(),
+    				attributes.lastModifiedTime().toMillis()));
+    	} catch (IOException e) {
+    		throw new BurgerSTerminalException("Le fichier n'existe pas", e);
     	}
-    	return content;
     }
 
-	private byte[] readFile(final String imageUrl) throws IOException {
-		return Files.readAllBytes(new File(imageUrl).toPath());
-	}
+    /**
+     * Get the thumbnail of the image of a user nearest to a size. The
+     * original image is returned until the thumbnails are generated.
+     * 
+     * @param pseudo
+     * @param size the size wanted, in pixels
+     * @return the image, or an empty Optional if the user does not exist or has no image
+     * @throws BurgerSTerminalException if the file does not exist
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<StoredImage> getImage(String pseudo, int size) throws BurgerSTerminalException {
+    	final Optional<User> user = userRepository.findOneByPseudoIgnoreCase(pseudo);
+    	if (user.isPresent() && null != user.get().getImageHash()) {
+    		final Optional<StoredImage> thumbnail = imageStoreService.getThumbnail(user.get().getImageHash(), size);
+    		if (thumbnail.isPresent()) {
+    			return thumbnail;
+    		}
+    	}
+    	return getImage(pseudo);
+    }
 
-    private void createFolder(Long userId) throws IOException {
-        String pathname = configurationService.getImagesDirectory() + Constants.IMAGES;
-        File folder = new File(pathname);
-        // creation of first folder
-        if (!folder.exists()) {
-            Files.createDirectories(Paths.get(pathname));
-        }
-        folder = new File(pathname + Constants.DELIMITER + userId);
-        // creation of sub folder
-        if (!folder.exists()) {
-            Files.createDirectories(Paths.get(pathname + Constants.DELIMITER + userId));
-        }
+    /**
+     * The content type sent with the file is kept if it is an image type,
+     * otherwise it is guessed from the file name.
+     */
+    private static String getContentType(MultipartFile file) {
+    	final String contentType = file.getContentType();
+    	if (null != contentType && contentType.startsWith("image/")) {
+    		return contentType;
+    	}
+    	return getContentType(file.getOriginalFilename());
     }
 
-    private void sendFileToFolder(MultipartFile file, Path path) throws IOException {
-        Path resolve = path.resolve(file.getOriginalFilename());
-		InputStream inputStream = file.getInputStream();
-		Files.copy(inputStream, resolve);
+    private static String getContentType(String filename) {
+    	return MediaTypeFactory.getMediaType(filename)
+    			.orElse(MediaType.APPLICATION_OCTET_STREAM)
+    			.toString();
+    }
+
+    private Optional<Role> getRole(Long roleId) {
+        if (null == roleId) {
+            return Optional.empty();
+        }
+        Role role = rolesById.get(roleId);
+        if (null == role) {
+            Optional<Role> storedRole = roleRepository.findById(roleId);
+            storedRole.ifPresent(r -> rolesById.put(roleId, r));
+            return storedRole;
+        }
+        return Optional.of(role);
     }
 }
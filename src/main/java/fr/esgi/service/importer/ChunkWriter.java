@@ -0,0 +1,20 @@
+package fr.esgi.service.importer;
+
+import java.util.List;
+
+/**
+ * Writer of the chunks of rows of an import.
+ *
+ * @param <T> the type of the rows
+ */
+@FunctionalInterface
+public interface ChunkWriter<T> {
+
+	/**
+	 * Write the chunk, creating the new entities and updating the existing ones.
+	 *
+	 * @param chunk the rows to write
+	 * @return the number of rows which updated an existing entity
+	 */
+	int write(List<T> chunk);
+}
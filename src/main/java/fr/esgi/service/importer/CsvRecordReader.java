@@ -0,0 +1,177 @@
+package fr.esgi.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.esgi.config.Constants;
+
+/**
+ * Streaming reader of delimited records.
+ * 
+ * Fields may be enclosed in double quotes, in which case they can contain the
+ * delimiter, line breaks and escaped quotes (""). Only one record is held in
+ * memory at a time, and a record longer than Constants.IMPORT_MAX_RECORD_LENGTH
+ * characters is rejected so an unterminated quote can not load the rest of the
+ * stream.
+ */
+public class CsvRecordReader implements Closeable {
+
+	private static final int EOF = -1;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final char QUOTE = '"';
+
+	private static final char BOM = '\uFEFF';
+
+	private final Reader reader;
+
+	private final char delimiter;
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+
+	private final StringBuilder field = new StringBuilder();
+
+	private int position;
+
+	private int limit;
+
+	private long lineNumber = 1;
+
+	private long recordLineNumber;
+
+	private int recordLength;
+
+	private boolean lastWasCarriageReturn;
+
+	private boolean started;
+
+	public CsvRecordReader(Reader reader, char delimiter) {
+		this.reader = reader;
+		this.delimiter = delimiter;
+	}
+
+	/**
+	 * Read the next record, skipping empty lines.
+	 * 
+	 * @return the fields of the record, null at the end of the stream
+	 * @throws IOException if the stream can not be read, a quoted field is not
+	 *                     terminated or the record is too long
+	 */
+	public List<String> readRecord() throws IOException {
+		int c = read();
+		if (!started) {
+			started = true;
+			if (c == BOM) {
+				c = read();
+			}
+		}
+		while (c == '\r' || c == '\n') {
+			c = read();
+		}
+		if (c == EOF) {
+			return null;
+		}
+
+		recordLineNumber = lineNumber;
+		recordLength = 0;
+		List<String> fields = new ArrayList<>();
+		field.setLength(0);
+		boolean fieldStart = true;
+		boolean inQuotes = false;
+
+		while (true) {
+			if (inQuotes) {
+				if (c == EOF) {
+					throw new IOException("Unterminated quoted field starting at line " + recordLineNumber);
+				}
+				if (c == QUOTE) {
+					if (peek() == QUOTE) {
+						read();
+						append(QUOTE);
+					} else {
+						inQuotes = false;
+					}
+				} else {
+					append((char) c);
+				}
+			} else if (c == delimiter) {
+				fields.add(field.toString());
+				field.setLength(0);
+				fieldStart = true;
+				c = read();
+				continue;
+			} else if (c == '\n' || c == '\r' || c == EOF) {
+				if (c == '\r' && peek() == '\n') {
+					read();
+				}
+				fields.add(field.toString());
+				return fields;
+			} else if (c == QUOTE && fieldStart) {
+				inQuotes = true;
+			} else {
+				append((char) c);
+			}
+			fieldStart = false;
+			c = read();
+		}
+	}
+
+	/**
+	 * Get the line on which the last record read starts.
+	 * 
+	 * @return the line number, starting at 1
+	 */
+	public long getLineNumber() {
+		return recordLineNumber;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	private void append(char c) throws IOException {
+		if (++recordLength > Constants.IMPORT_MAX_RECORD_LENGTH) {
+			throw new IOException("Record starting at line " + recordLineNumber + " is longer than "
+					+ Constants.IMPORT_MAX_RECORD_LENGTH + " characters");
+		}
+		field.append(c);
+	}
+
+	private int read() throws IOException {
+		if (position >= limit && !fill()) {
+			return EOF;
+		}
+		char c = buffer[position++];
+		// CRLF, CR and LF each end one line
+		if (c == '\r' || (c == '\n' && !lastWasCarriageReturn)) {
+			lineNumber++;
+		}
+		lastWasCarriageReturn = c == '\r';
+		return c;
+	}
+
+	private int peek() throws IOException {
+		if (position >= limit && !fill()) {
+			return EOF;
+		}
+		return buffer[position];
+	}
+
+	private boolean fill() throws IOException {
+		int count = reader.read(buffer, 0, BUFFER_SIZE);
+		while (count == 0) {
+			count = reader.read(buffer, 0, BUFFER_SIZE);
+		}
+		if (count < 0) {
+			return false;
+		}
+		position = 0;
+		limit = count;
+		return true;
+	}
+}
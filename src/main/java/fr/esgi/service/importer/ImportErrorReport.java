@@ -0,0 +1,98 @@
+package fr.esgi.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import fr.esgi.config.Constants;
+import fr.esgi.service.dto.ImportErrorDTO;
+import fr.esgi.service.exporter.CsvRecordWriter;
+
+/**
+ * CSV file of the rows rejected by an import: line, column and reason.
+ *
+ * A resumed import appends to the file of the interrupted one. The rows
+ * rejected again, up to the last line already in the file, are not written
+ * twice.
+ */
+public class ImportErrorReport implements RowErrorListener, Closeable {
+
+	private static final List<String> HEADER = Arrays.asList("line", "column", "reason");
+
+	private final CsvRecordWriter writer;
+
+	private final long lastReportedLine;
+
+	private long rowsFailed;
+
+	private ImportErrorReport(Writer writer, long lastReportedLine) {
+		this.writer = new CsvRecordWriter(writer, Constants.COMMA.charAt(0));
+		this.lastReportedLine = lastReportedLine;
+	}
+
+	/**
+	 * Create the file, or open it for appending if it already exists.
+	 */
+	public static ImportErrorReport open(Path file) throws IOException {
+		if (!Files.exists(file)) {
+			ImportErrorReport errorReport = new ImportErrorReport(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 0);
+			errorReport.writer.writeRecord(HEADER);
+			return errorReport;
+		}
+		return new ImportErrorReport(Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND),
+				lastLine(file));
+	}
+
+	private static long lastLine(Path file) throws IOException {
+		long lastLine = 0;
+		try (CsvRecordReader reader = new CsvRecordReader(Files.newBufferedReader(file, StandardCharsets.UTF_8),
+				Constants.COMMA.charAt(0))) {
+			reader.readRecord();
+			List<String> record;
+			while (null != (record = reader.readRecord())) {
+				try {
+					lastLine = Math.max(lastLine, Long.parseLong(record.get(0)));
+				} catch (NumberFormatException e) {
+					// A line cut by the interruption.
+				}
+			}
+		}
+		return lastLine;
+	}
+
+	@Override
+	public synchronized void onRowRejected(ImportErrorDTO error) {
+		if (error.getLine() <= lastReportedLine) {
+			return;
+		}
+		try {
+			writer.writeRecord(Arrays.asList(error.getLine(), error.getColumn(), error.getReason()));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		rowsFailed++;
+	}
+
+	/**
+	 * @return the number of rows written in the file since it was opened
+	 */
+	public synchronized long getRowsFailed() {
+		return rowsFailed;
+	}
+
+	public synchronized void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+}
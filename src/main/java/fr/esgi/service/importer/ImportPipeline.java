@@ -0,0 +1,510 @@
+package fr.esgi.service.importer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import fr.esgi.config.Constants;
+import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.exception.InvalidRowException;
+import fr.esgi.service.dto.ImportErrorDTO;
+import fr.esgi.service.dto.ImportReportDTO;
+import fr.esgi.service.dto.ImportStageDTO;
+
+/**
+ * Staged import: parse, validate, resolve and write.
+ *
+ * The records are parsed on the calling thread, the other stages run on the
+ * import executor, each on its own thread: the executor must start the
+ * Constants.IMPORT_STAGE_THREADS stages of every running import at once,
+ * since a stage left in its queue would block the others for good. The stages are linked by bounded
+ * queues, so a slow stage blocks the ones before it instead of letting the
+ * rows pile up in memory. The rows keep the order of the file: when a stage
+ * rejects a row, the rows before it are still written and the rows after it
+ * are discarded.
+ *
+ * With a row error listener, the rows rejected by the validate and resolve
+ * stages are reported to it and skipped instead: the import goes on with the
+ * next rows, in a single pass over the file.
+ *
+ * Once a chunk is committed, the progress listener is notified with the
+ * position of its last row: an interrupted import can be resumed from there.
+ * The bytes read are sampled when each row is parsed and travel with it, so
+ * the listener gets those of the last committed row, ahead of it by the read
+ * buffer of the parser only, not by the rows still in the queues.
+ *
+ * A pipeline runs a single import.
+ *
+ * @param <R> the type of the raw records
+ * @param <T> the type of the rows to write
+ */
+public class ImportPipeline<R, T> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ImportPipeline.class);
+
+	private static final long POLL_TIMEOUT_IN_MILLISECONDS = 100;
+
+	private static final int PARSE = 0;
+
+	private static final int VALIDATE = 1;
+
+	private static final int RESOLVE = 2;
+
+	private static final int WRITE = 3;
+
+	private static final String[] STAGE_NAMES = { "parse", "validate", "resolve", "write" };
+
+	private static final Item<?> END = new Item<>(null, 0, 0, 0);
+
+	private final Executor executor;
+
+	private final int queueCapacity;
+
+	private final int chunkSize;
+
+	private final RowConverter<R, T> converter;
+
+	private final RowResolver<T> resolver;
+
+	private final ChunkWriter<T> writer;
+
+	private final StageMetrics[] metrics = new StageMetrics[STAGE_NAMES.length];
+
+	private final AtomicReference<Failure> failure = new AtomicReference<>();
+
+	private volatile boolean aborted;
+
+	private volatile long rowsParsed;
+
+	private ImportProgressListener progressListener = ImportProgressListener.NONE;
+
+	private RowErrorListener rowErrorListener;
+
+	private final AtomicLong rowsFailed = new AtomicLong();
+
+	private final List<ImportErrorDTO> errors = Collections.synchronizedList(new ArrayList<>());
+
+	private long rowsWritten;
+
+	private long rowsUpdated;
+
+	private int chunks;
+
+	public ImportPipeline(Executor executor, int queueCapacity, int chunkSize, RowConverter<R, T> converter,
+			RowResolver<T> resolver, ChunkWriter<T> writer) {
+		this.executor = executor;
+		this.queueCapacity = queueCapacity;
+		this.chunkSize = chunkSize;
+		this.converter = converter;
+		this.resolver = resolver;
+		this.writer = writer;
+		for (int i = 0; i < STAGE_NAMES.length; i++) {
+			metrics[i] = new StageMetrics();
+		}
+	}
+
+	public void setProgressListener(ImportProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+
+	/**
+	 * Skip the invalid rows and report them to the listener instead of stopping the import.
+	 */
+	public void setRowErrorListener(RowErrorListener rowErrorListener) {
+		this.rowErrorListener = rowErrorListener;
+	}
+
+	/**
+	 * Run the import and fill the report, even when the import stops on an error.
+	 *
+	 * @param source the source of the records
+	 * @param report the report of the import
+	 * @throws IOException if the source can not be read
+	 * @throws BurgerSTerminalException if a row is invalid or references an unknown entity
+	 */
+	public void run(RecordSource<R> source, ImportReportDTO report) throws IOException, BurgerSTerminalException {
+		run(source, null, null, report);
+	}
+
+	/**
+	 * Run the import and fill the report, even when the import stops on an error.
+	 *
+	 * @param source the source of the records
+	 * @param lineNumber the line on which the last record read starts, null to use the position of the record
+	 * @param bytesRead the bytes read from the file once the last record is read, null if they are not counted
+	 * @param report the report of the import
+	 * @throws IOException if the source can not be read
+	 * @throws BurgerSTerminalException if a row is invalid or references an unknown entity
+	 */
+	public void run(RecordSource<R> source, LongSupplier lineNumber, LongSupplier bytesRead, ImportReportDTO report)
+			throws IOException, BurgerSTerminalException {
+		BlockingQueue<Item<R>> parsed = new ArrayBlockingQueue<>(queueCapacity);
+		BlockingQueue<Item<T>> validated = new ArrayBlockingQueue<>(queueCapacity);
+		BlockingQueue<Item<T>> resolved = new ArrayBlockingQueue<>(queueCapacity);
+
+		List<CompletableFuture<Void>> stages = new ArrayList<>(Constants.IMPORT_STAGE_THREADS);
+		stages.add(CompletableFuture.runAsync(() -> transform(VALIDATE, parsed, validated, converter::convert), executor));
+		stages.add(CompletableFuture.runAsync(() -> transform(RESOLVE, validated, resolved, row -> {
+			resolver.resolve(row);
+			return row;
+		}), executor));
+		stages.add(CompletableFuture.runAsync(() -> write(resolved), executor));
+
+		parse(source, lineNumber, bytesRead, parsed);
+		await(stages);
+
+		report.setRowsRead(metrics[PARSE].processed);
+		report.setRowsWritten(rowsWritten);
+		report.setRowsUpdated(rowsUpdated);
+		report.setRowsFailed(rowsFailed.get());
+		report.setErrors(new ArrayList<>(errors));
+		report.setChunks(chunks);
+		List<ImportStageDTO> stageDTOs = new ArrayList<>(STAGE_NAMES.length);
+		for (int i = 0; i < STAGE_NAMES.length; i++) {
+			stageDTOs.add(metrics[i].toDTO(STAGE_NAMES[i]));
+		}
+		report.setStages(stageDTOs);
+		LOGGER.info("Import done: {}", report);
+
+		rethrowFailure();
+	}
+
+	private void parse(RecordSource<R> source, LongSupplier lineNumber, LongSupplier bytesRead,
+			BlockingQueue<Item<R>> output) throws InterruptedIOException {
+		StageMetrics stage = metrics[PARSE];
+		try {
+			long position = 0;
+			while (null == failure.get()) {
+				long start = System.nanoTime();
+				R record = source.read();
+				stage.busyNanos += System.nanoTime() - start;
+				if (null == record) {
+					break;
+				}
+				stage.processed++;
+				rowsParsed = stage.processed;
+				position++;
+				long line = null != lineNumber ? lineNumber.getAsLong() : position;
+				long offset = null != bytesRead ? bytesRead.getAsLong() : 0;
+				if (!put(output, new Item<>(record, position, line, offset), stage)) {
+					return;
+				}
+			}
+		} catch (IOException e) {
+			fail(PARSE, e, stage.processed + 1);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			aborted = true;
+			throw new InterruptedIOException("The import has been interrupted");
+		} catch (RuntimeException e) {
+			fail(PARSE, e, stage.processed + 1);
+		}
+		try {
+			put(output, end(), stage);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			aborted = true;
+			throw new InterruptedIOException("The import has been interrupted");
+		}
+	}
+
+	private <I, O> void transform(int index, BlockingQueue<Item<I>> input, BlockingQueue<Item<O>> output,
+			StageFunction<I, O> function) {
+		StageMetrics stage = metrics[index];
+		boolean failed = false;
+		try {
+			while (true) {
+				Item<I> item = take(input, stage);
+				if (null == item) {
+					return;
+				}
+				if (END == item) {
+					put(output, end(), stage);
+					return;
+				}
+				if (failed || isStoppedDownstreamOf(index)) {
+					continue;
+				}
+				long start = System.nanoTime();
+				try {
+					O value = function.apply(item.value);
+					stage.busyNanos += System.nanoTime() - start;
+					stage.processed++;
+					if (!put(output, new Item<>(value, item.position, item.line, item.offset), stage)) {
+						return;
+					}
+				} catch (BurgerSTerminalException e) {
+					reject(item.line, e);
+					if (null == rowErrorListener) {
+						failed = true;
+						fail(index, e, item.position);
+					}
+				} catch (RuntimeException e) {
+					failed = true;
+					fail(index, e, item.position);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			aborted = true;
+		}
+	}
+
+	private void write(BlockingQueue<Item<T>> input) {
+		StageMetrics stage = metrics[WRITE];
+		boolean failed = false;
+		List<T> chunk = new ArrayList<>(chunkSize);
+		long firstPosition = 0;
+		long lastPosition = 0;
+		long lastOffset = 0;
+		int lastUpdated = 0;
+		try {
+			while (true) {
+				Item<T> item = take(input, stage);
+				if (null == item) {
+					return;
+				}
+				boolean end = END == item;
+				if (!end && !failed) {
+					if (chunk.isEmpty()) {
+						firstPosition = item.position;
+					}
+					lastPosition = item.position;
+					lastOffset = item.offset;
+					chunk.add(item.value);
+				}
+				if (!failed && !chunk.isEmpty() && (end || chunk.size() >= chunkSize)) {
+					long start = System.nanoTime();
+					try {
+						lastUpdated = writer.write(chunk);
+						stage.busyNanos += System.nanoTime() - start;
+						stage.processed += chunk.size();
+						rowsWritten += chunk.size();
+						rowsUpdated += lastUpdated;
+						chunks++;
+						LOGGER.debug("Chunk {} imported: {} rows, {} updated", chunks, chunk.size(), lastUpdated);
+					} catch (RuntimeException e) {
+						failed = true;
+						fail(WRITE, e, firstPosition);
+					}
+					if (!failed) {
+						notifyProgress(lastPosition, lastOffset, chunk.size(), lastUpdated);
+					}
+					chunk = new ArrayList<>(chunkSize);
+				}
+				if (end) {
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			aborted = true;
+		}
+	}
+
+	/**
+	 * The chunk is already committed: a failing listener does not stop the import.
+	 */
+	private void notifyProgress(long position, long bytesRead, int rowsWritten, int rowsUpdated) {
+		try {
+			progressListener.onChunkWritten(position, bytesRead, rowsParsed, rowsWritten, rowsUpdated);
+		} catch (RuntimeException e) {
+			LOGGER.warn("Progress of the import not saved at row {}: {}", position, e.getMessage());
+		}
+	}
+
+	/**
+	 * Count the rejected row and keep its error in the report, up to
+	 * Constants.IMPORT_REPORT_MAX_ERRORS errors.
+	 */
+	private void reject(long line, BurgerSTerminalException exception) {
+		String column = exception instanceof InvalidRowException ? ((InvalidRowException) exception).getColumn() : null;
+		ImportErrorDTO error = new ImportErrorDTO(line, column, reason(exception));
+		rowsFailed.incrementAndGet();
+		synchronized (errors) {
+			if (errors.size() < Constants.IMPORT_REPORT_MAX_ERRORS) {
+				errors.add(error);
+			}
+		}
+		if (null != rowErrorListener) {
+			try {
+				rowErrorListener.onRowRejected(error);
+			} catch (RuntimeException e) {
+				LOGGER.warn("Rejected row {} not reported: {}", line, e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * BurgerSTerminalException keeps its message in errorMessage.
+	 */
+	private static String reason(Exception exception) {
+		if (exception instanceof BurgerSTerminalException && null != ((BurgerSTerminalException) exception).getErrorMessage()) {
+			return ((BurgerSTerminalException) exception).getErrorMessage();
+		}
+		return exception.getMessage();
+	}
+
+	/**
+	 * A stage stops working once it or a later stage has failed: the rows it
+	 * still receives come after the failed one.
+	 */
+	private boolean isStoppedDownstreamOf(int index) {
+		Failure first = failure.get();
+		return null != first && first.stage >= index;
+	}
+
+	private void fail(int index, Exception exception, long position) {
+		if (failure.compareAndSet(null, new Failure(index, exception))) {
+			LOGGER.warn("Import stopped by the {} stage at row {}: {}", STAGE_NAMES[index], position, reason(exception));
+		} else {
+			LOGGER.warn("Row {} rejected by the {} stage after the import was stopped: {}", position, STAGE_NAMES[index],
+					reason(exception));
+		}
+	}
+
+	private void await(List<CompletableFuture<Void>> stages) throws InterruptedIOException {
+		try {
+			CompletableFuture.allOf(stages.toArray(new CompletableFuture<?>[0])).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			aborted = true;
+			throw new InterruptedIOException("The import has been interrupted");
+		} catch (ExecutionException e) {
+			aborted = true;
+			LOGGER.error("An import stage ended unexpectedly", e.getCause());
+		}
+		if (aborted && null == failure.get()) {
+			throw new InterruptedIOException("The import has been interrupted");
+		}
+	}
+
+	private void rethrowFailure() throws IOException, BurgerSTerminalException {
+		Failure first = failure.get();
+		if (null == first) {
+			return;
+		}
+		Exception exception = first.exception;
+		if (exception instanceof BurgerSTerminalException) {
+			throw (BurgerSTerminalException) exception;
+		}
+		if (exception instanceof IOException) {
+			throw (IOException) exception;
+		}
+		throw (RuntimeException) exception;
+	}
+
+	/**
+	 * @return false if the import has been aborted while waiting for room in the queue
+	 */
+	private <V> boolean put(BlockingQueue<Item<V>> queue, Item<V> item, StageMetrics stage) throws InterruptedException {
+		long start = System.nanoTime();
+		try {
+			while (!queue.offer(item, POLL_TIMEOUT_IN_MILLISECONDS, TimeUnit.MILLISECONDS)) {
+				if (aborted) {
+					return false;
+				}
+			}
+			return true;
+		} finally {
+			stage.blockedNanos += System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * @return the next item, null if the import has been aborted
+	 */
+	private <V> Item<V> take(BlockingQueue<Item<V>> queue, StageMetrics stage) throws InterruptedException {
+		long start = System.nanoTime();
+		try {
+			Item<V> item;
+			while (null == (item = queue.poll(POLL_TIMEOUT_IN_MILLISECONDS, TimeUnit.MILLISECONDS))) {
+				if (aborted) {
+					return null;
+				}
+			}
+			return item;
+		} finally {
+			stage.idleNanos += System.nanoTime() - start;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V> Item<V> end() {
+		return (Item<V>) END;
+	}
+
+	@FunctionalInterface
+	private interface StageFunction<I, O> {
+
+		O apply(I value) throws BurgerSTerminalException;
+	}
+
+	private static final class Item<V> {
+
+		private final V value;
+
+		private final long position;
+
+		private final long line;
+
+		private final long offset;
+
+		private Item(V value, long position, long line, long offset) {
+			this.value = value;
+			this.position = position;
+			this.line = line;
+			this.offset = offset;
+		}
+	}
+
+	private static final class Failure {
+
+		private final int stage;
+
+		private final Exception exception;
+
+		private Failure(int stage, Exception exception) {
+			this.stage = stage;
+			this.exception = exception;
+		}
+	}
+
+	/**
+	 * Counters of a stage, only updated by the thread of the stage.
+	 */
+	private static final class StageMetrics {
+
+		private long processed;
+
+		private long busyNanos;
+
+		private long idleNanos;
+
+		private long blockedNanos;
+
+		private ImportStageDTO toDTO(String name) {
+			ImportStageDTO stageDTO = new ImportStageDTO();
+			stageDTO.setName(name);
+			stageDTO.setProcessed(processed);
+			stageDTO.setBusyInMilliseconds(TimeUnit.NANOSECONDS.toMillis(busyNanos));
+			stageDTO.setIdleInMilliseconds(TimeUnit.NANOSECONDS.toMillis(idleNanos));
+			stageDTO.setBlockedInMilliseconds(TimeUnit.NANOSECONDS.toMillis(blockedNanos));
+			return stageDTO;
+		}
+	}
+}
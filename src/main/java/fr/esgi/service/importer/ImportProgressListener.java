@@ -0,0 +1,25 @@
+package fr.esgi.service.importer;
+
+/**
+ * Listener of the progress of an import, notified once a chunk is committed.
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+	/**
+	 * Listener doing nothing.
+	 */
+	ImportProgressListener NONE = (position, bytesRead, rowsParsed, rowsWritten, rowsUpdated) -> { };
+
+	/**
+	 * Called by the writer once a chunk is committed.
+	 *
+	 * @param position the position in the file of the last row of the chunk
+	 * @param bytesRead the bytes of the file read up to the last row of the
+	 *        chunk, 0 if the source does not count them
+	 * @param rowsParsed the number of rows parsed so far
+	 * @param rowsWritten the number of rows of the chunk
+	 * @param rowsUpdated the number of rows of the chunk which updated an existing entity
+	 */
+	void onChunkWritten(long position, long bytesRead, long rowsParsed, int rowsWritten, int rowsUpdated);
+}
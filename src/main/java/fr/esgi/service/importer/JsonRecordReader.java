@@ -0,0 +1,97 @@
+package fr.esgi.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streaming reader of a JSON array of flat objects.
+ *
+ * The array is read token by token: only the object being read is held in
+ * memory. The values are returned as text, nested objects and arrays are
+ * rejected.
+ */
+public class JsonRecordReader implements Closeable {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private final JsonParser parser;
+
+	private boolean started;
+
+	private long recordNumber;
+
+	private long lineNumber;
+
+	public JsonRecordReader(InputStream inputStream) throws IOException {
+		this.parser = JSON_FACTORY.createParser(inputStream);
+	}
+
+	/**
+	 * Read the next object of the array.
+	 *
+	 * @return the fields of the object by name, null at the end of the array
+	 * @throws IOException if the stream can not be read or is not an array of flat objects
+	 */
+	public Map<String, String> readRecord() throws IOException {
+		if (!started) {
+			started = true;
+			JsonToken token = parser.nextToken();
+			if (token == null) {
+				return null;
+			}
+			if (token != JsonToken.START_ARRAY) {
+				throw new JsonParseException(parser, "The file must contain an array of objects");
+			}
+		}
+
+		JsonToken token = parser.nextToken();
+		if (token == null || token == JsonToken.END_ARRAY) {
+			return null;
+		}
+		if (token != JsonToken.START_OBJECT) {
+			throw new JsonParseException(parser, "The file must contain an array of objects");
+		}
+		recordNumber++;
+		lineNumber = parser.getTokenLocation().getLineNr();
+
+		Map<String, String> fields = new LinkedHashMap<>();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+				throw new JsonParseException(parser, "Unexpected nested value for the field " + name);
+			}
+			fields.put(name, value == JsonToken.VALUE_NULL ? null : parser.getText());
+		}
+		return fields;
+	}
+
+	/**
+	 * @return the position in the array of the last object read, starting at 1
+	 */
+	public long getRecordNumber() {
+		return recordNumber;
+	}
+
+	/**
+	 * Get the line on which the last object read starts.
+	 *
+	 * @return the line number, starting at 1
+	 */
+	public long getLineNumber() {
+		return lineNumber;
+	}
+
+	@Override
+	public void close() throws IOException {
+		parser.close();
+	}
+}
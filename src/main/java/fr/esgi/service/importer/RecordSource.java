@@ -0,0 +1,20 @@
+package fr.esgi.service.importer;
+
+import java.io.IOException;
+
+/**
+ * Source of the raw records of an import.
+ *
+ * @param <R> the type of the raw records
+ */
+@FunctionalInterface
+public interface RecordSource<R> {
+
+	/**
+	 * Read the next record.
+	 *
+	 * @return the record, null at the end of the file
+	 * @throws IOException if the file can not be read
+	 */
+	R read() throws IOException;
+}
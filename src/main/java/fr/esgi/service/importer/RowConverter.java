@@ -0,0 +1,22 @@
+package fr.esgi.service.importer;
+
+import fr.esgi.exception.BurgerSTerminalException;
+
+/**
+ * Validation and conversion of a raw record of an import.
+ *
+ * @param <R> the type of the raw records
+ * @param <T> the type of the converted rows
+ */
+@FunctionalInterface
+public interface RowConverter<R, T> {
+
+	/**
+	 * Convert the record.
+	 *
+	 * @param record the raw record
+	 * @return the row
+	 * @throws BurgerSTerminalException if the record is invalid
+	 */
+	T convert(R record) throws BurgerSTerminalException;
+}
@@ -0,0 +1,15 @@
+package fr.esgi.service.importer;
+
+import fr.esgi.service.dto.ImportErrorDTO;
+
+/**
+ * Listener of the rows rejected by an import which goes on without them.
+ *
+ * The validate and resolve stages run on different threads: the listener is
+ * called concurrently.
+ */
+@FunctionalInterface
+public interface RowErrorListener {
+
+	void onRowRejected(ImportErrorDTO error);
+}
@@ -0,0 +1,20 @@
+package fr.esgi.service.importer;
+
+import fr.esgi.exception.BurgerSTerminalException;
+
+/**
+ * Resolution of the references of a row of an import.
+ *
+ * @param <T> the type of the rows
+ */
+@FunctionalInterface
+public interface RowResolver<T> {
+
+	/**
+	 * Check that the entities referenced by the row exist.
+	 *
+	 * @param row the row
+	 * @throws BurgerSTerminalException if a reference is unknown
+	 */
+	void resolve(T row) throws BurgerSTerminalException;
+}
@@ -0,0 +1,25 @@
+package fr.esgi.service.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Mappings;
+import org.mapstruct.ReportingPolicy;
+
+import fr.esgi.domain.ImportJob;
+import fr.esgi.service.dto.ImportJobDTO;
+
+/**
+ * Mapper for the entity ImportJob and its DTO called ImportJobDTO.
+ * The throughput and the ETA are computed by the service.
+ */
+@Mapper(uses = { ImportJobDTO.class }, componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface ImportJobMapper {
+
+    @Mappings({
+            @Mapping(target = "rowsPerSecond", ignore = true),
+            @Mapping(target = "estimatedRemainingSeconds", ignore = true),
+            @Mapping(target = "progress", ignore = true),
+    })
+    ImportJobDTO importJobToImportJobDTO(ImportJob importJob);
+
+}
@@ -20,6 +20,7 @@ public interface UserMapper {
             @Mapping(source = "createDate", target = "createDate"),
             @Mapping(source = "email", target = "email"),
             @Mapping(source = "imageUrl", target = "imageUrl"),
+            @Mapping(source = "imageHash", target = "imageHash"),
             @Mapping(source = "activated", target = "activated"),
             @Mapping(source = "birthDay", target = "birthDay"),
             @Mapping(source = "role.id", target = "roleId"),
@@ -16,6 +16,7 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.exception.PasswordHashingRejectedException;
 
 /**
  * ResponseEntityExceptionHandler for handle exception and launch error with custom status.
@@ -31,6 +32,13 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
 				HttpStatus.valueOf(ex.getErrorCode()), request);
 	}
 
+	@ExceptionHandler(value = { PasswordHashingRejectedException.class })
+	protected ResponseEntity<Object> handlePasswordHashingRejectedException(final PasswordHashingRejectedException ex, final WebRequest request) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, "1");
+		return handleExceptionInternal(ex, null, headers, HttpStatus.TOO_MANY_REQUESTS, request);
+	}
+
 	@Override
 	protected ResponseEntity<Object> handleMethodArgumentNotValid(
 			MethodArgumentNotValidException ex,
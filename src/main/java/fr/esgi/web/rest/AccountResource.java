@@ -1,12 +1,15 @@
 package fr.esgi.web.rest;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 import org.apache.commons.lang3.StringUtils;
@@ -14,13 +17,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
@@ -29,7 +38,9 @@ import fr.esgi.config.Constants;
 import fr.esgi.config.ErrorMessage;
 import fr.esgi.exception.BurgerSTerminalException;
 import fr.esgi.service.UserService;
+import fr.esgi.service.cache.ImageCache;
 import fr.esgi.service.dto.UserDTO;
+import fr.esgi.service.image.StoredImage;
 import fr.esgi.web.ManagedUser;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -49,10 +60,13 @@ public class AccountResource {
 
     private final MessageSource messageSource;
 
+    private final ImageCache imageCache;
+
     @Autowired
-    public AccountResource(UserService userService, MessageSource messageSource) {
+    public AccountResource(UserService userService, MessageSource messageSource, ImageCache imageCache) {
         this.userService = userService;
         this.messageSource = messageSource;
+        this.imageCache = imageCache;
     }
 
     /**
@@ -80,22 +94,63 @@ public class AccountResource {
                     messageSource.getMessage(ErrorMessage.PASS_IS_NOT_VALID, null, locale));
         }
 
-        if (userService.findUserByPseudo(managedUser).isPresent()) {
+        if (null != managedUser.getPseudo() && !userService.isPseudoAvailable(managedUser.getPseudo())) {
             throw new BurgerSTerminalException(HttpStatus.BAD_REQUEST.value(),
                     messageSource.getMessage(ErrorMessage.PSEUDO_IS_ALREADY_REGISTERED, null, locale));
         }
 
-        if (userService.findUserByEmail(managedUser).isPresent()) {
+        if (null != managedUser.getEmail() && !userService.isEmailAvailable(managedUser.getEmail())) {
             throw new BurgerSTerminalException(HttpStatus.BAD_REQUEST.value(),
                     messageSource.getMessage(ErrorMessage.EMAIL_IS_ALREADY_USED, null, locale));
         }
 
-        UserDTO userDTO = userService.registerUser(managedUser, managedUser.getPassword());
+        UserDTO userDTO;
+        try {
+            userDTO = userService.registerUser(managedUser, managedUser.getPassword());
+        } catch (DataIntegrityViolationException e) {
+            LOGGER.debug("The pseudo or the email of {} is already registered", managedUser.getPseudo());
+            final String errorMessage = userService.findUserByPseudo(managedUser).isPresent()
+                    ? ErrorMessage.PSEUDO_IS_ALREADY_REGISTERED
+                    : ErrorMessage.EMAIL_IS_ALREADY_USED;
+            throw new BurgerSTerminalException(HttpStatus.BAD_REQUEST.value(),
+                    messageSource.getMessage(errorMessage, null, locale), e);
+        }
 
         return ResponseEntity.created(new URI("/api/users/" + userDTO.getId()))
                 .build();
     }
    
+    /**
+     * GET  /register/availability : check if a pseudo or an email is free, to
+     * give feedback while the user types them. The requests are rate limited
+     * per address, by app.rateLimit.availability.
+     *
+     * The answer is a hint, not a reservation: each node checks a filter of
+     * the logins it has loaded, reloaded every app.takenLoginRefreshDelayInMilliseconds,
+     * so a login registered on another node meanwhile may be reported free.
+     * The registration rejects it anyway.
+     *
+     * @param pseudo the pseudo
+     * @param email the email
+     * @return the ResponseEntity with status 200 (OK) and with body, for each value given, true if it is free
+     */
+    @ApiOperation(value = "Check if a pseudo or an email is free.",
+            notes = "A hint: a login registered on another node a few minutes ago may be reported free, the registration rejects it.")
+    @GetMapping("/register/availability")
+    public ResponseEntity<Map<String, Boolean>> getAvailability(
+            @RequestParam(required = false) String pseudo,
+            @RequestParam(required = false) String email) {
+        LOGGER.debug("REST request to check the availability of: {} {}", pseudo, email);
+        final Map<String, Boolean> availability = new LinkedHashMap<>();
+        if (null != pseudo) {
+            availability.put("pseudo", userService.isPseudoAvailable(pseudo));
+        }
+        if (null != email) {
+            availability.put("email", userService.isEmailAvailable(email));
+        }
+        return ResponseEntity.ok(availability);
+    }
+
     /**
      * POST  /register/file/{userId} : update file from userId
      * 
@@ -123,37 +178,46 @@ public class AccountResource {
 
     /**
      * GET  /users/imageURL/{pseudo} : retrieve image from pseudo.
+     * The image is served from the image cache or streamed from the disk, the Range and If-None-Match headers are supported.
      * 
-     * @param response
      * @param pseudo
-     * @return byte[]
-     * @throws BurgerSTerminalException
+     * @param size the size wanted in pixels, to get the nearest thumbnail instead of the original image
+     * @return the ResponseEntity with status 200 (OK) and with body the image
+     * @throws BurgerSTerminalException if the user has no image or if the file can not be read
      */
     @ApiOperation(value = "Retrieve image from pseudo.")
-    @GetMapping(value = "/users/imageURL/{pseudo}",
-    		produces = {
-    				"image/jpg", "image/gif", "image/png", "image/tif"
-    })
-    public ResponseEntity<byte[]> getImageURL(
-    		final HttpServletResponse response,
-    		@PathVariable String pseudo) throws BurgerSTerminalException {
+    @GetMapping("/users/imageURL/{pseudo}")
+    public ResponseEntity<Resource> getImageURL(@PathVariable String pseudo,
+    		@RequestParam(required = false) Integer size, Locale locale) throws BurgerSTerminalException {
     	LOGGER.info("Call API service getImageURL ...");
-    	final String contentType;
-    	byte[] imageURL;
-    	
+    	final Optional<StoredImage> image;
     	try {
-    		final Map.Entry<String, byte[]> entry = userService.getImageURL(pseudo).entrySet().iterator().next();
-    		contentType = entry.getKey();
-    		imageURL = entry.getValue();
+    		image = (null == size) ? userService.getImage(pseudo) : userService.getImage(pseudo, size);
     	} catch (BurgerSTerminalException e) {
     		throw new BurgerSTerminalException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
     				ErrorMessage.ERROR_DURING_READING_OF_IMAGE, e);
     	}
+    	if (!image.isPresent()) {
+    		throw new BurgerSTerminalException(HttpStatus.NOT_FOUND.value(),
+    				messageSource.getMessage(ErrorMessage.ERROR_IMAGE_NOT_FOUND, null, locale));
+    	}
 
-    	response.setHeader("Content-Disposition", "attachment; filename=" + "file." + contentType.split(Constants.DELIMITER)[1]);
-    	response.setContentType(contentType);
-
-    	return new ResponseEntity<>(imageURL, HttpStatus.OK);
+    	final StoredImage storedImage = image.get();
+    	final MediaType contentType = MediaType.parseMediaType(storedImage.getContentType());
+    	final Resource resource;
+    	try {
+    		resource = imageCache.getResource(storedImage);
+    	} catch (IOException e) {
+    		throw new BurgerSTerminalException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+    				ErrorMessage.ERROR_DURING_READING_OF_IMAGE, e);
+    	}
+    	return ResponseEntity.ok()
+    			.contentType(contentType)
+    			.eTag(storedImage.getETag())
+    			.lastModified(storedImage.getLastModified())
+    			.cacheControl(CacheControl.maxAge(Constants.IMAGE_MAX_AGE_IN_SECONDS, TimeUnit.SECONDS))
+    			.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + "file." + contentType.getSubtype())
+    			.body(resource);
     }
 
     /**
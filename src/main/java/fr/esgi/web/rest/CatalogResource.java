@@ -0,0 +1,75 @@
+package fr.esgi.web.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import fr.esgi.service.CatalogChangeService;
+import fr.esgi.service.CatalogSnapshotService;
+import fr.esgi.service.catalog.CatalogSnapshot;
+import fr.esgi.service.dto.CatalogChangesDTO;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+/**
+ * REST controller for the catalog read by the terminals.
+ */
+@Api(value = "Catalog")
+@RestController
+@RequestMapping("/api")
+public class CatalogResource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CatalogResource.class);
+
+	private final CatalogSnapshotService catalogSnapshotService;
+
+	private final CatalogChangeService catalogChangeService;
+
+	@Autowired
+	public CatalogResource(CatalogSnapshotService catalogSnapshotService, CatalogChangeService catalogChangeService) {
+		this.catalogSnapshotService = catalogSnapshotService;
+		this.catalogChangeService = catalogChangeService;
+	}
+
+	/**
+	 * GET /catalog/snapshot : get the categories, products and menus in one
+	 * binary snapshot, the format is described in CatalogSnapshotWriter.
+	 * A request with the ETag of the current snapshot in If-None-Match gets a 304.
+	 *
+	 * @return the ResponseEntity with status 200 (OK) and with body the snapshot
+	 */
+	@ApiOperation(value = "Get the binary snapshot of the catalog.")
+	@GetMapping(value = "/catalog/snapshot", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+	public ResponseEntity<byte[]> getCatalogSnapshot() {
+		LOGGER.debug("REST request to get the catalog snapshot");
+		CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+		return ResponseEntity.ok()
+				.eTag(snapshot.getETag())
+				.cacheControl(CacheControl.noCache())
+				.body(snapshot.getContent());
+	}
+
+	/**
+	 * GET /catalog/changes : get the products and menus upserted or deleted
+	 * since a catalog version. When the version is too old, the whole catalog
+	 * is returned with full set to true.
+	 *
+	 * @param since the catalog version known by the terminal
+	 * @return the ResponseEntity with status 200 (OK) and with body the changes and the new version
+	 */
+	@ApiOperation(value = "Get the catalog changes since a version.")
+	@GetMapping("/catalog/changes")
+	public ResponseEntity<CatalogChangesDTO> getCatalogChanges(@RequestParam long since) {
+		LOGGER.debug("REST request to get the catalog changes since {}", since);
+		return ResponseEntity.ok()
+				.cacheControl(CacheControl.noCache())
+				.body(catalogChangeService.getChangesSince(since));
+	}
+}
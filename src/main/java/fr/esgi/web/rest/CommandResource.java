@@ -27,6 +27,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import fr.esgi.config.ErrorMessage;
 import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.security.SecurityUtils;
 import fr.esgi.service.CommandService;
 import fr.esgi.service.dto.CommandDTO;
 import io.swagger.annotations.Api;
@@ -54,6 +55,8 @@ public class CommandResource {
 
 	/**
 	 * GET  /commands : get all commands by customerId.
+	 * The customer of the token is used, the customerId parameter is read only
+	 * for the users which are not customers.
 	 * 
 	 * @param commandDTO
 	 * @return the ResponseEntity with status 200 (Ok) and with body the assignmentModuleDTO
@@ -65,10 +68,15 @@ public class CommandResource {
 	public ResponseEntity<Page<CommandDTO>> getAllCommands(
 			@RequestParam("page") int page,
 			@RequestParam("size") int size,
-			@RequestParam("customerId") Long customerId,
+			@RequestParam(value = "customerId", required = false) Long customerId,
 			Locale locale) throws URISyntaxException, BurgerSTerminalException {
 		LOGGER.debug("REST request to get all commands: {} {} {}", page, size, customerId);
-		Page<CommandDTO> commandDTOs = commandService.findAllByCustomerId(PageRequest.of(page, size), customerId);
+		final Long currentCustomerId = SecurityUtils.getCurrentCustomerId().orElse(customerId);
+		if (null == currentCustomerId) {
+			throw new BurgerSTerminalException(HttpStatus.BAD_REQUEST.value(),
+					messageSource.getMessage(ErrorMessage.ERROR_CUSTOMER_ID_REQUIRED, null, locale));
+		}
+		Page<CommandDTO> commandDTOs = commandService.findAllByCustomerId(PageRequest.of(page, size), currentCustomerId);
 		if (commandDTOs.isEmpty()) {
 			throw new BurgerSTerminalException(HttpStatus.NOT_FOUND.value(),
 					messageSource.getMessage(ErrorMessage.ERROR_NOT_COMMANDS, null, locale));
@@ -79,6 +87,8 @@ public class CommandResource {
 
 	/**
 	 * POST  /commands : create a command.
+	 * The command of a customer is created for the customer of the token,
+	 * whatever the customerId of the body.
 	 * 
 	 * @param commandDTO
 	 * @return the ResponseEntity with status 201 (Created) and with body the assignmentModuleDTO
@@ -93,6 +103,7 @@ public class CommandResource {
 			throw new BurgerSTerminalException(HttpStatus.BAD_REQUEST.value(),
 					messageSource.getMessage(ErrorMessage.ERROR_NEW_COMMAND_ID_EXIST, null, locale));
 		}
+		SecurityUtils.getCurrentCustomerId().ifPresent(commandDTO::setCustomerId);
 		CommandDTO result = commandService.save(commandDTO);
 		return ResponseEntity.created(new URI("/commands/" + result.getId()))
 				.build();
@@ -100,10 +111,12 @@ public class CommandResource {
 
 	/**
 	 * PUT  /commands : update a command.
+	 * A customer only updates his own commands, and they stay his: the
+	 * customer of the token replaces the customerId of the body.
 	 * 
 	 * @param commandDTO
 	 * @return the ResponseEntity with status 200 (OK) and with body the assignmentModuleDTO
-	 * @throws BurgerSTerminalException if the id of command is empty.
+	 * @throws BurgerSTerminalException if the id of command is empty, or the command is not one of the customer.
 	 */
 	@ApiOperation(value = "Update a command.")
 	@PutMapping("/commands")
@@ -113,6 +126,15 @@ public class CommandResource {
 			throw new BurgerSTerminalException(HttpStatus.BAD_REQUEST.value(),
 					messageSource.getMessage(ErrorMessage.ERROR_COMMAND_MUST_HAVE_ID, null, locale));
 		} 
+		final Optional<Long> currentCustomerId = SecurityUtils.getCurrentCustomerId();
+		if (currentCustomerId.isPresent()) {
+			final Optional<CommandDTO> existing = commandService.findOne(commandDTO.getId());
+			if (!existing.isPresent() || !currentCustomerId.get().equals(existing.get().getCustomerId())) {
+				throw new BurgerSTerminalException(HttpStatus.NOT_FOUND.value(),
+						messageSource.getMessage(ErrorMessage.ERROR_COMMAND_NOT_FOUND, null, locale));
+			}
+			commandDTO.setCustomerId(currentCustomerId.get());
+		}
 		CommandDTO result = commandService.update(commandDTO);
 		return ResponseEntity.ok()
 				.body(result);
@@ -1,16 +1,22 @@
 package fr.esgi.web.rest;
 
-import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -20,10 +26,10 @@ import org.springframework.web.multipart.MultipartFile;
 
 import fr.esgi.annotation.Authorized;
 import fr.esgi.config.ErrorMessage;
+import fr.esgi.enums.ImportType;
 import fr.esgi.exception.BurgerSTerminalException;
-import fr.esgi.service.DatabaseUpdatorService;
-import fr.esgi.service.dto.MenuDTO;
-import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.ImportJobService;
+import fr.esgi.service.dto.ImportJobDTO;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 
@@ -37,13 +43,13 @@ public class DatabaseUpdatorResource {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseUpdatorResource.class);
 	
-	private final DatabaseUpdatorService databaseUpdatorService;
+	private final ImportJobService importJobService;
 	
 	private final MessageSource messageSource;
 
     @Autowired
-	public DatabaseUpdatorResource(DatabaseUpdatorService databaseUpdatorService, MessageSource messageSource) {
-		this.databaseUpdatorService = databaseUpdatorService;
+	public DatabaseUpdatorResource(ImportJobService importJobService, MessageSource messageSource) {
+		this.importJobService = importJobService;
 		this.messageSource = messageSource;
 	}
 
@@ -51,59 +57,101 @@ public class DatabaseUpdatorResource {
      * POST : /product/import : Add or Update products from a JSON/CSV file
      *
      * @param inputfile file used to import product
-     * @return Message on the operation
+     * @return the ResponseEntity with status 202 (Accepted) and with body the import job
      * @throws BurgerSTerminalException
      */
     @Authorized(values = { "ROLE_ADMIN" })
     @ApiOperation(value = "Add or Update products from a JSON/CSV file.")
     @PostMapping(value = "/product/import", headers = "content-type=multipart/*")
-    public ResponseEntity<List<ProductDTO>> uploadProductsFile(
-    		@RequestPart("importfile") MultipartFile inputfile, @RequestParam(required = true) String fileFormat, Locale locale) throws BurgerSTerminalException {
-    	List<ProductDTO> importFile;
+    public ResponseEntity<ImportJobDTO> uploadProductsFile(
+    		@RequestPart("importfile") MultipartFile inputfile, @RequestParam(required = true) String fileFormat) throws BurgerSTerminalException {
 		if (!fileFormat.equalsIgnoreCase(FilenameUtils.getExtension(inputfile.getOriginalFilename()))) {
 			throw new BurgerSTerminalException(HttpStatus.INTERNAL_SERVER_ERROR.value(), ErrorMessage.THE_FILE_FORMAT_IS_INVALID);
 		}
     	LOGGER.debug("Request to import file : {}", inputfile.getName());
-    	try {
-    		importFile = databaseUpdatorService.importProductsFile(inputfile, fileFormat);
-    	} catch (DataIntegrityViolationException e) {
-    		throw new BurgerSTerminalException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
-    				messageSource.getMessage(ErrorMessage.ERROR_FAIL_BATCH_IMPORT_PRODUCT, null, locale));
-    	} catch (BurgerSTerminalException e) {
-    		throw new BurgerSTerminalException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
-    				messageSource.getMessage(ErrorMessage.ERROR_BATCH_INVALID, null, locale));
-    	}
+    	ImportJobDTO importJob = importJobService.submit(inputfile, ImportType.PRODUCT, fileFormat);
     	
-    	return ResponseEntity.ok().body(importFile);
+    	return ResponseEntity.accepted().body(importJob);
     }
     
     /**
      * POST : /menu/import : Add or Update products from a JSON/CSV file
      *
      * @param inputFile file used to import product
-     * @return Message on the operation
+     * @return the ResponseEntity with status 202 (Accepted) and with body the import job
      * @throws BurgerSTerminalException
      */
     @Authorized(values = { "ROLE_ADMIN" })
     @ApiOperation(value = "Add or Update products from a JSON/CSV file.")
     @PostMapping(value = "/menu/import", headers = "content-type=multipart/*")
-    public ResponseEntity<List<MenuDTO>> uploadMenuFile(
-    		@RequestPart("importfile") MultipartFile inputFile, @RequestParam(required = true) String fileFormat, Locale locale) throws BurgerSTerminalException {
-    	List<MenuDTO> importFile;
+    public ResponseEntity<ImportJobDTO> uploadMenuFile(
+    		@RequestPart("importfile") MultipartFile inputFile, @RequestParam(required = true) String fileFormat) throws BurgerSTerminalException {
 		if (!fileFormat.equalsIgnoreCase(FilenameUtils.getExtension(inputFile.getOriginalFilename()))) {
 			throw new BurgerSTerminalException(HttpStatus.INTERNAL_SERVER_ERROR.value(), ErrorMessage.THE_FILE_FORMAT_IS_INVALID);
 		}
     	LOGGER.debug("Request to import file : {}", inputFile.getName());
-    	try {
-    		importFile = databaseUpdatorService.importMenusFile(inputFile, fileFormat);
-    	} catch (DataIntegrityViolationException e) {
-    		throw new BurgerSTerminalException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
-    				messageSource.getMessage(ErrorMessage.ERROR_FAIL_BATCH_IMPORT_PRODUCT, null, locale));
-    	} catch (BurgerSTerminalException e) {
-    		throw new BurgerSTerminalException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
-    				messageSource.getMessage(ErrorMessage.ERROR_BATCH_INVALID, null, locale));
+    	ImportJobDTO importJob = importJobService.submit(inputFile, ImportType.MENU, fileFormat);
+
+    	return ResponseEntity.accepted().body(importJob);
+    }
+
+    /**
+     * GET : /import/jobs : get all the import jobs, the last submitted first.
+     *
+     * @return the ResponseEntity with status 200 (OK) and with body the page of import jobs
+     */
+    @Authorized(values = { "ROLE_ADMIN" })
+    @ApiOperation(value = "Get all the import jobs.")
+    @GetMapping("/import/jobs")
+    public ResponseEntity<Page<ImportJobDTO>> getAllImportJobs(
+    		@RequestParam("page") int page,
+    		@RequestParam("size") int size) {
+    	LOGGER.debug("REST request to get all import jobs: {} {}", page, size);
+    	return ResponseEntity.ok()
+    			.body(importJobService.findAll(PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"))));
+    }
+
+    /**
+     * GET : /import/jobs/{id} : get the progress of an import job.
+     *
+     * @param id the id of the import job
+     * @return the ResponseEntity with status 200 (OK) and with body the import job
+     * @throws BurgerSTerminalException if the import job does not exists.
+     */
+    @Authorized(values = { "ROLE_ADMIN" })
+    @ApiOperation(value = "Get the progress of an import job.")
+    @GetMapping("/import/jobs/{id}")
+    public ResponseEntity<ImportJobDTO> getImportJob(@PathVariable Long id, Locale locale) throws BurgerSTerminalException {
+    	LOGGER.debug("REST request to get an import job: {}", id);
+    	Optional<ImportJobDTO> importJob = importJobService.findOne(id);
+    	if (importJob.isPresent()) {
+    		return ResponseEntity.ok().body(importJob.get());
+    	} else {
+    		throw new BurgerSTerminalException(HttpStatus.NOT_FOUND.value(),
+    				messageSource.getMessage(ErrorMessage.ERROR_IMPORT_JOB_NOT_FOUND, null, locale));
     	}
+    }
 
-    	return ResponseEntity.ok().body(importFile);
+    /**
+     * GET : /import/jobs/{id}/errors : download the rows rejected by an import job.
+     *
+     * @param id the id of the import job
+     * @return the ResponseEntity with status 200 (OK) and with body the CSV report: line, column and reason
+     * @throws BurgerSTerminalException if the import job does not exists or has not started.
+     */
+    @Authorized(values = { "ROLE_ADMIN" })
+    @ApiOperation(value = "Download the rows rejected by an import job.")
+    @GetMapping(value = "/import/jobs/{id}/errors", produces = "text/csv")
+    public ResponseEntity<Resource> getImportJobErrors(@PathVariable Long id, Locale locale) throws BurgerSTerminalException {
+    	LOGGER.debug("REST request to get the errors of an import job: {}", id);
+    	Optional<Resource> errorReport = importJobService.getErrorReport(id);
+    	if (errorReport.isPresent()) {
+    		return ResponseEntity.ok()
+    				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-" + id + "-errors.csv\"")
+    				.body(errorReport.get());
+    	} else {
+    		throw new BurgerSTerminalException(HttpStatus.NOT_FOUND.value(),
+    				messageSource.getMessage(ErrorMessage.ERROR_IMPORT_JOB_NOT_FOUND, null, locale));
+    	}
     }
 }
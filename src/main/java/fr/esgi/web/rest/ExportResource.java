@@ -0,0 +1,112 @@
+package fr.esgi.web.rest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import fr.esgi.annotation.Authorized;
+import fr.esgi.config.Constants;
+import fr.esgi.config.ErrorMessage;
+import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.service.ExportService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+/**
+ * REST controller for exporting the catalog and the commands
+ */
+@Api(value = "Export")
+@RestController
+@RequestMapping("/api")
+public class ExportResource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExportResource.class);
+
+	private static final String TEXT_CSV = "text/csv";
+
+	private final ExportService exportService;
+
+	@Autowired
+	public ExportResource(ExportService exportService) {
+		this.exportService = exportService;
+	}
+
+	/**
+	 * GET : /export/products : download all the products.
+	 *
+	 * @param format   the format of the file: csv or json
+	 * @param response the response the file is streamed to
+	 * @throws BurgerSTerminalException if the format is invalid.
+	 * @throws IOException
+	 */
+	@Authorized(values = { "ROLE_ADMIN" })
+	@ApiOperation(value = "Download all the products as a CSV/JSON file.")
+	@GetMapping("/export/products")
+	public void exportProducts(@RequestParam(defaultValue = Constants.CSV) String format,
+			HttpServletResponse response) throws BurgerSTerminalException, IOException {
+		LOGGER.debug("REST request to export the products: {}", format);
+		String fileFormat = prepare(response, "products", format);
+		exportService.exportProducts(fileFormat, response.getOutputStream());
+	}
+
+	/**
+	 * GET : /export/menus : download all the menus.
+	 *
+	 * @param format   the format of the file: csv or json
+	 * @param response the response the file is streamed to
+	 * @throws BurgerSTerminalException if the format is invalid.
+	 * @throws IOException
+	 */
+	@Authorized(values = { "ROLE_ADMIN" })
+	@ApiOperation(value = "Download all the menus as a CSV/JSON file.")
+	@GetMapping("/export/menus")
+	public void exportMenus(@RequestParam(defaultValue = Constants.CSV) String format,
+			HttpServletResponse response) throws BurgerSTerminalException, IOException {
+		LOGGER.debug("REST request to export the menus: {}", format);
+		String fileFormat = prepare(response, "menus", format);
+		exportService.exportMenus(fileFormat, response.getOutputStream());
+	}
+
+	/**
+	 * GET : /export/commands : download all the commands.
+	 *
+	 * @param format   the format of the file: csv or json
+	 * @param response the response the file is streamed to
+	 * @throws BurgerSTerminalException if the format is invalid.
+	 * @throws IOException
+	 */
+	@Authorized(values = { "ROLE_ADMIN" })
+	@ApiOperation(value = "Download all the commands as a CSV/JSON file.")
+	@GetMapping("/export/commands")
+	public void exportCommands(@RequestParam(defaultValue = Constants.CSV) String format,
+			HttpServletResponse response) throws BurgerSTerminalException, IOException {
+		LOGGER.debug("REST request to export the commands: {}", format);
+		String fileFormat = prepare(response, "commands", format);
+		exportService.exportCommands(fileFormat, response.getOutputStream());
+	}
+
+	private static String prepare(HttpServletResponse response, String name, String format)
+			throws BurgerSTerminalException {
+		String fileFormat = format.toLowerCase(Locale.ROOT);
+		if (!Constants.CSV.equals(fileFormat) && !Constants.JSON.equals(fileFormat)) {
+			throw new BurgerSTerminalException(HttpStatus.BAD_REQUEST.value(), ErrorMessage.THE_FILE_FORMAT_IS_INVALID);
+		}
+		response.setContentType(Constants.JSON.equals(fileFormat) ? MediaType.APPLICATION_JSON_VALUE : TEXT_CSV);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + fileFormat + "\"");
+		return fileFormat;
+	}
+}
@@ -0,0 +1,110 @@
+package fr.esgi.web.rest;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import fr.esgi.config.Constants;
+import fr.esgi.config.ErrorMessage;
+import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.service.ImageStoreService;
+import fr.esgi.service.cache.ImageCache;
+import fr.esgi.service.image.StoredImage;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+/**
+ * REST controller for the images of the content-addressed store.
+ */
+@Api(value = "Image")
+@RestController
+@RequestMapping("/api")
+public class ImageResource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ImageResource.class);
+
+	/**
+	 * The content of an image never changes for its hash.
+	 */
+	private static final String IMMUTABLE = CacheControl
+			.maxAge(Constants.IMAGE_IMMUTABLE_MAX_AGE_IN_DAYS, TimeUnit.DAYS)
+			.cachePublic()
+			.getHeaderValue() + ", immutable";
+
+	private final ImageStoreService imageStoreService;
+
+	private final MessageSource messageSource;
+
+	private final ImageCache imageCache;
+
+	@Autowired
+	public ImageResource(ImageStoreService imageStoreService, MessageSource messageSource, ImageCache imageCache) {
+		this.imageStoreService = imageStoreService;
+		this.messageSource = messageSource;
+		this.imageCache = imageCache;
+	}
+
+	/**
+	 * GET /images/{hash} : get an image by the SHA-256 of its content.
+	 * The response can be cached forever, except the original image served
+	 * while the thumbnail asked for is not generated yet.
+	 *
+	 * @param hash the SHA-256 of the image
+	 * @param size the size wanted in pixels, to get the nearest thumbnail instead of the original image
+	 * @return the ResponseEntity with status 200 (OK) and with body the image
+	 * @throws BurgerSTerminalException if the image does not exist
+	 */
+	@ApiOperation(value = "Get an image by the SHA-256 of its content.")
+	@GetMapping("/images/{hash}")
+	public ResponseEntity<Resource> getImage(@PathVariable String hash,
+			@RequestParam(required = false) Integer size, Locale locale) throws BurgerSTerminalException {
+		LOGGER.debug("REST request to get the image : {} {}", hash, size);
+		Optional<StoredImage> image = Optional.empty();
+		String cacheControl = IMMUTABLE;
+		if (null != size) {
+			image = imageStoreService.getThumbnail(hash, size);
+		}
+		if (!image.isPresent()) {
+			image = imageStoreService.getImage(hash);
+			if (null != size) {
+				cacheControl = CacheControl.maxAge(Constants.IMAGE_MAX_AGE_IN_SECONDS, TimeUnit.SECONDS).getHeaderValue();
+			}
+		}
+		if (!image.isPresent()) {
+			throw new BurgerSTerminalException(HttpStatus.NOT_FOUND.value(),
+					messageSource.getMessage(ErrorMessage.ERROR_IMAGE_NOT_FOUND, null, locale));
+		}
+
+		final StoredImage storedImage = image.get();
+		final Resource resource;
+		try {
+			resource = imageCache.getResource(storedImage);
+		} catch (IOException e) {
+			throw new BurgerSTerminalException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+					ErrorMessage.ERROR_DURING_READING_OF_IMAGE, e);
+		}
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(storedImage.getContentType()))
+				.eTag(storedImage.getETag())
+				.lastModified(storedImage.getLastModified())
+				.header(HttpHeaders.CACHE_CONTROL, cacheControl)
+				.body(resource);
+	}
+}
@@ -10,6 +10,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,10 +18,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import fr.esgi.annotation.Authorized;
+import fr.esgi.security.jwt.AccountUserDetails;
+import fr.esgi.security.jwt.JWTAuthenticationToken;
 import fr.esgi.security.jwt.JWTConfigurer;
 import fr.esgi.security.jwt.TokenProvider;
-import fr.esgi.service.CustomerService;
-import fr.esgi.service.ManagerService;
+import fr.esgi.service.TokenRevocationService;
 import fr.esgi.web.Login;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -37,22 +40,20 @@ public class UserJWTResource {
     private final TokenProvider tokenProvider;
 
     private final AuthenticationManager authenticationManager;
-    
-    private final CustomerService customerService;
-    
-    private final ManagerService managerService;
+
+    private final TokenRevocationService tokenRevocationService;
     
     @Autowired
 	public UserJWTResource(TokenProvider tokenProvider, AuthenticationManager authenticationManager,
-			CustomerService customerService, ManagerService managerService) {
+			TokenRevocationService tokenRevocationService) {
 		this.tokenProvider = tokenProvider;
 		this.authenticationManager = authenticationManager;
-		this.customerService = customerService;
-		this.managerService = managerService;
+		this.tokenRevocationService = tokenRevocationService;
 	}
 
 	/**
      * Authenticate the user and return the token which identify him.
+     * The ids of his customer and manager profiles are read with the user and signed in the token.
      * @param login
      * @return JWTToken
      */
@@ -69,9 +70,56 @@ public class UserJWTResource {
         String jwt = tokenProvider.createToken(authentication, rememberMe);
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.add(JWTConfigurer.AUTHORIZATION_HEADER, "Bearer " + jwt);
-        final Long idCustomer = customerService.findByUserName(login.getUsername());
-        final Long idManager = managerService.findByUserName(login.getUsername());
-		return new ResponseEntity<>(new JWTToken(jwt, idCustomer, idManager), httpHeaders, HttpStatus.OK);
+        final AccountUserDetails account = (AccountUserDetails) authentication.getPrincipal();
+		return new ResponseEntity<>(new JWTToken(jwt, account.getCustomerId(), account.getManagerId()), httpHeaders, HttpStatus.OK);
+    }
+
+    /**
+     * POST  /logout : revoke the token of the current request.
+     * @return the ResponseEntity with status 204 (No Content)
+     */
+    @ApiOperation(value = "Revoke the token of the current request.")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JWTAuthenticationToken) {
+            JWTAuthenticationToken token = (JWTAuthenticationToken) authentication;
+            if (null != token.getTokenId()) {
+                tokenRevocationService.revoke(token.getTokenId(), token.getExpiration());
+            }
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * POST  /tokens/{tokenId}/revoke : revoke a token by its jti, for example the one of a stolen terminal.
+     * The token is kept revoked for the longest validity of a token. To revoke all the tokens of a user,
+     * whose jtis are not recorded, use POST /users/{pseudo}/tokens/revoke.
+     * @param tokenId the jti of the token
+     * @return the ResponseEntity with status 204 (No Content)
+     */
+    @Authorized(values = { "ROLE_ADMIN" })
+    @ApiOperation(value = "Revoke a token.")
+    @PostMapping("/tokens/{tokenId}/revoke")
+    public ResponseEntity<Void> revokeToken(@PathVariable String tokenId) {
+        tokenRevocationService.revoke(tokenId,
+                System.currentTimeMillis() + tokenProvider.getMaxTokenValidityInMilliseconds());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * POST  /users/{pseudo}/tokens/revoke : revoke all the tokens issued to a user or a terminal until now,
+     * for example when its password is changed. The tokens it authenticates for afterwards are valid.
+     * @param pseudo the pseudo of the user
+     * @return the ResponseEntity with status 204 (No Content)
+     */
+    @Authorized(values = { "ROLE_ADMIN" })
+    @ApiOperation(value = "Revoke all the tokens of a user.")
+    @PostMapping("/users/{pseudo}/tokens/revoke")
+    public ResponseEntity<Void> revokeUserTokens(@PathVariable String pseudo) {
+        tokenRevocationService.revokeSubject(pseudo,
+                System.currentTimeMillis() + tokenProvider.getMaxTokenValidityInMilliseconds());
+        return ResponseEntity.noContent().build();
     }
 
     /**
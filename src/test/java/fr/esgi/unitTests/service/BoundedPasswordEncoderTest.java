@@ -0,0 +1,107 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import fr.esgi.exception.PasswordHashingRejectedException;
+import fr.esgi.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class BoundedPasswordEncoderTest {
+
+	private static final String PASSWORD = "password";
+
+	private static final String ENCODED_PASSWORD = "$2a$10$encoded";
+
+	@Mock
+	private PasswordEncoder delegate;
+
+	private BoundedPasswordEncoder passwordEncoder;
+
+	@After
+	public void tearDown() {
+		if (passwordEncoder != null) {
+			passwordEncoder.destroy();
+		}
+	}
+
+	@Test
+	public void shouldEncodeAndMatchWhenIsOK() {
+		// Given
+		when(delegate.encode(PASSWORD)).thenReturn(ENCODED_PASSWORD);
+		when(delegate.matches(PASSWORD, ENCODED_PASSWORD)).thenReturn(true);
+		passwordEncoder = new BoundedPasswordEncoder(delegate, 1, 1);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		passwordEncoder.bindTo(registry);
+
+		// When
+		String encodedPassword = passwordEncoder.encode(PASSWORD);
+		boolean matches = passwordEncoder.matches(PASSWORD, ENCODED_PASSWORD);
+
+		// Then
+		assertThat(encodedPassword).isEqualTo(ENCODED_PASSWORD);
+		assertThat(matches).isTrue();
+		assertThat(registry.get("password.hash.time").tag("operation", "encode").timer().count()).isEqualTo(1);
+		assertThat(registry.get("password.hash.time").tag("operation", "matches").timer().count()).isEqualTo(1);
+		assertThat(registry.get("password.hash.queue.wait").tag("operation", "matches").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldRejectWhenQueueIsFull() throws Exception {
+		// Given
+		CountDownLatch release = new CountDownLatch(1);
+		when(delegate.encode(any())).thenAnswer(invocation -> {
+			release.await(10, TimeUnit.SECONDS);
+			return ENCODED_PASSWORD;
+		});
+		passwordEncoder = new BoundedPasswordEncoder(delegate, 1, 1);
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> running = callers.submit(() -> passwordEncoder.encode(PASSWORD));
+			Future<String> queued = callers.submit(() -> passwordEncoder.encode(PASSWORD));
+			long deadline = System.currentTimeMillis() + 10000;
+			while (passwordEncoder.getQueueSize() < 1 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+
+			// Then
+			assertThatThrownBy(() -> passwordEncoder.encode(PASSWORD))
+					.isInstanceOf(PasswordHashingRejectedException.class);
+
+			release.countDown();
+			assertThat(running.get(10, TimeUnit.SECONDS)).isEqualTo(ENCODED_PASSWORD);
+			assertThat(queued.get(10, TimeUnit.SECONDS)).isEqualTo(ENCODED_PASSWORD);
+		} finally {
+			release.countDown();
+			callers.shutdownNow();
+		}
+	}
+
+	@Test
+	public void shouldRethrowExceptionOfEncoderWhenIsKO() {
+		// Given
+		when(delegate.encode(PASSWORD)).thenThrow(new IllegalArgumentException("Invalid password"));
+		passwordEncoder = new BoundedPasswordEncoder(delegate, 1, 1);
+
+		// Then
+		assertThatThrownBy(() -> passwordEncoder.encode(PASSWORD))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid password");
+	}
+}
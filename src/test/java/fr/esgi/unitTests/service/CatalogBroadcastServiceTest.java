@@ -0,0 +1,139 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import fr.esgi.config.Constants;
+import fr.esgi.enums.CatalogChangeType;
+import fr.esgi.enums.CatalogItemType;
+import fr.esgi.service.CatalogChangeService;
+import fr.esgi.service.catalog.CatalogChangeLog;
+import fr.esgi.service.dto.CatalogChangesDTO;
+import fr.esgi.service.dto.CatalogItemUpdateDTO;
+import fr.esgi.service.dto.CatalogUpdateDTO;
+import fr.esgi.service.dto.MenuDTO;
+import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.impl.CatalogBroadcastServiceImpl;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CatalogBroadcastServiceTest {
+
+	private static final long ID = 1L;
+
+	@Mock
+	private SimpMessageSendingOperations messagingTemplate;
+
+	@Mock
+	private CatalogChangeService catalogChangeService;
+
+	private CatalogChangeLog catalogChangeLog;
+
+	private CatalogBroadcastServiceImpl catalogBroadcastServiceImpl;
+
+	@Before
+	public void init() {
+		catalogChangeLog = new CatalogChangeLog(Constants.CATALOG_CHANGE_LOG_SIZE, 100L);
+		catalogBroadcastServiceImpl = new CatalogBroadcastServiceImpl(messagingTemplate, catalogChangeLog,
+				catalogChangeService);
+	}
+
+	private static CatalogChangesDTO getCatalogChanges(long version) {
+		ProductDTO product = new ProductDTO(ID, "Burger", 5.9, false, ID, ID);
+		MenuDTO menu = new MenuDTO(ID, "Best of", 8.9, Boolean.TRUE, ID);
+		menu.setProductsDTO(Collections.singletonList(product));
+		CatalogChangesDTO catalogChanges = new CatalogChangesDTO();
+		catalogChanges.setVersion(version);
+		catalogChanges.setCategories(new ArrayList<>());
+		catalogChanges.setProducts(Collections.singletonList(product));
+		catalogChanges.setMenus(Collections.singletonList(menu));
+		catalogChanges.setDeletedProductIds(Collections.singletonList(2L));
+		catalogChanges.setDeletedMenuIds(new ArrayList<>());
+		return catalogChanges;
+	}
+
+	private CatalogUpdateDTO getBroadcast() {
+		ArgumentCaptor<CatalogUpdateDTO> captor = ArgumentCaptor.forClass(CatalogUpdateDTO.class);
+		verify(messagingTemplate).convertAndSend(eq(Constants.CATALOG_TOPIC), captor.capture());
+		return captor.getValue();
+	}
+
+	@Test
+	public void shouldBroadcastChangesWhenIsOK() {
+		// Given
+		catalogChangeLog.append(CatalogItemType.PRODUCT, CatalogChangeType.UPSERT, Collections.singletonList(ID));
+		catalogChangeLog.append(CatalogItemType.MENU, CatalogChangeType.UPSERT, Collections.singletonList(ID));
+		catalogChangeLog.append(CatalogItemType.PRODUCT, CatalogChangeType.DELETE, Collections.singletonList(2L));
+		when(catalogChangeService.getChangesSince(100L)).thenReturn(getCatalogChanges(103L));
+
+		// When
+		catalogBroadcastServiceImpl.broadcastChanges();
+
+		// Then
+		CatalogUpdateDTO catalogUpdate = getBroadcast();
+		assertThat(catalogUpdate.getFromVersion()).isEqualTo(100L);
+		assertThat(catalogUpdate.getVersion()).isEqualTo(103L);
+		assertThat(catalogUpdate.isResync()).isFalse();
+		assertThat(catalogUpdate.getItems()).extracting(CatalogItemUpdateDTO::getItemType)
+		.containsExactly(CatalogItemType.PRODUCT, CatalogItemType.MENU, CatalogItemType.PRODUCT);
+		CatalogItemUpdateDTO product = catalogUpdate.getItems().get(0);
+		assertThat(product.getAvailable()).isFalse();
+		assertThat(product.getPrice()).isEqualTo(5.9);
+		assertThat(catalogUpdate.getItems().get(1).getProductIds()).containsExactly(ID);
+		assertThat(catalogUpdate.getItems().get(2).isDeleted()).isTrue();
+		assertThat(catalogUpdate.getItems().get(2).getName()).isNull();
+	}
+
+	@Test
+	public void shouldBroadcastChangesOnceWhenCatalogIsUnchanged() {
+		// Given
+		catalogChangeLog.append(CatalogItemType.PRODUCT, CatalogChangeType.UPSERT, Collections.singletonList(ID));
+		when(catalogChangeService.getChangesSince(100L)).thenReturn(getCatalogChanges(101L));
+
+		// When
+		catalogBroadcastServiceImpl.broadcastChanges();
+		catalogBroadcastServiceImpl.broadcastChanges();
+
+		// Then
+		verify(messagingTemplate, times(1)).convertAndSend(eq(Constants.CATALOG_TOPIC), any(CatalogUpdateDTO.class));
+		verify(catalogChangeService, times(1)).getChangesSince(anyLong());
+	}
+
+	@Test
+	public void shouldBroadcastResyncWhenChangesAreTooMany() {
+		// Given
+		List<Long> ids = LongStream.rangeClosed(1, Constants.CATALOG_BROADCAST_MAX_CHANGES + 1L).boxed()
+				.collect(Collectors.toList());
+		catalogChangeLog.append(CatalogItemType.PRODUCT, CatalogChangeType.UPSERT, ids);
+
+		// When
+		catalogBroadcastServiceImpl.broadcastChanges();
+
+		// Then
+		CatalogUpdateDTO catalogUpdate = getBroadcast();
+		assertThat(catalogUpdate.isResync()).isTrue();
+		assertThat(catalogUpdate.getFromVersion()).isEqualTo(100L);
+		assertThat(catalogUpdate.getVersion()).isEqualTo(catalogChangeLog.getVersion());
+		assertThat(catalogUpdate.getItems()).isEmpty();
+		verify(catalogChangeService, never()).getChangesSince(anyLong());
+	}
+}
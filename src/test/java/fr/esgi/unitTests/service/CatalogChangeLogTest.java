@@ -0,0 +1,70 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import fr.esgi.enums.CatalogChangeType;
+import fr.esgi.enums.CatalogItemType;
+import fr.esgi.service.catalog.CatalogChange;
+import fr.esgi.service.catalog.CatalogChangeLog;
+
+public class CatalogChangeLogTest {
+
+	@Test
+	public void shouldAppendWhenIsOK() {
+		// Given
+		CatalogChangeLog catalogChangeLog = new CatalogChangeLog(10, 100L);
+
+		// When
+		long version = catalogChangeLog.append(CatalogItemType.PRODUCT, CatalogChangeType.UPSERT, Arrays.asList(1L, null, 2L));
+
+		// Then
+		assertThat(version).isEqualTo(102L);
+		assertThat(catalogChangeLog.getVersion()).isEqualTo(102L);
+	}
+
+	@Test
+	public void shouldGetChangesSinceWhenIsOK() {
+		// Given
+		CatalogChangeLog catalogChangeLog = new CatalogChangeLog(10, 100L);
+		catalogChangeLog.append(CatalogItemType.PRODUCT, CatalogChangeType.UPSERT, Arrays.asList(1L, 2L));
+		catalogChangeLog.append(CatalogItemType.MENU, CatalogChangeType.DELETE, Collections.singletonList(3L));
+
+		// When
+		List<CatalogChange> changes = catalogChangeLog.getChangesSince(101L);
+
+		// Then
+		assertThat(changes).extracting(CatalogChange::getVersion).containsExactly(102L, 103L);
+		assertThat(changes).extracting(CatalogChange::getId).containsExactly(2L, 3L);
+		assertThat(changes.get(1).getItemType()).isEqualTo(CatalogItemType.MENU);
+		assertThat(changes.get(1).getChangeType()).isEqualTo(CatalogChangeType.DELETE);
+		assertThat(catalogChangeLog.getChangesSince(103L)).isEmpty();
+	}
+
+	@Test
+	public void shouldGetChangesSinceWhenChangesAreDropped() {
+		// Given
+		CatalogChangeLog catalogChangeLog = new CatalogChangeLog(3, 100L);
+		catalogChangeLog.append(CatalogItemType.PRODUCT, CatalogChangeType.UPSERT, Arrays.asList(1L, 2L, 3L, 4L));
+
+		// Then
+		assertThat(catalogChangeLog.getChangesSince(100L)).isNull();
+		assertThat(catalogChangeLog.getChangesSince(101L)).extracting(CatalogChange::getId).containsExactly(2L, 3L, 4L);
+	}
+
+	@Test
+	public void shouldGetChangesSinceWhenVersionIsUnknown() {
+		// Given
+		CatalogChangeLog catalogChangeLog = new CatalogChangeLog(10, 100L);
+		catalogChangeLog.append(CatalogItemType.PRODUCT, CatalogChangeType.UPSERT, Collections.singletonList(1L));
+
+		// Then
+		assertThat(catalogChangeLog.getChangesSince(102L)).isNull();
+		assertThat(catalogChangeLog.getChangesSince(50L)).isNull();
+	}
+}
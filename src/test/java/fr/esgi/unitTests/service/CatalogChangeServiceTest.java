@@ -0,0 +1,137 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import fr.esgi.dao.MenuRepository;
+import fr.esgi.dao.ProductRepository;
+import fr.esgi.enums.CatalogChangeType;
+import fr.esgi.enums.CatalogItemType;
+import fr.esgi.service.CatalogSnapshotService;
+import fr.esgi.service.catalog.CatalogChangeLog;
+import fr.esgi.service.catalog.CatalogSnapshot;
+import fr.esgi.service.catalog.CatalogSnapshotWriter;
+import fr.esgi.service.dto.CatalogChangesDTO;
+import fr.esgi.service.dto.CatalogSnapshotDTO;
+import fr.esgi.service.dto.CategoryDTO;
+import fr.esgi.service.dto.MenuDTO;
+import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.event.CatalogChangedEvent;
+import fr.esgi.service.impl.CatalogChangeServiceImpl;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CatalogChangeServiceTest {
+
+	private static final long ID = 1L;
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private MenuRepository menuRepository;
+
+	@Mock
+	private CatalogSnapshotService catalogSnapshotService;
+
+	private CatalogChangeLog catalogChangeLog;
+
+	private CatalogChangeServiceImpl catalogChangeServiceImpl;
+
+	@Before
+	public void init() {
+		catalogChangeLog = new CatalogChangeLog(10, 100L);
+		catalogChangeServiceImpl = new CatalogChangeServiceImpl(catalogChangeLog, productRepository, menuRepository,
+				catalogSnapshotService);
+	}
+
+	@Test
+	public void shouldRecordChangeWhenCatalogIsChanged() {
+		// When
+		catalogChangeServiceImpl.onCatalogChanged(
+				new CatalogChangedEvent(CatalogItemType.PRODUCT, CatalogChangeType.UPSERT, Arrays.asList(ID, 2L)));
+
+		// Then
+		assertThat(catalogChangeLog.getVersion()).isEqualTo(102L);
+	}
+
+	@Test
+	public void shouldGetChangesSinceWhenIsOK() {
+		// Given
+		catalogChangeLog.append(CatalogItemType.PRODUCT, CatalogChangeType.UPSERT, Arrays.asList(ID, 2L));
+		catalogChangeLog.append(CatalogItemType.PRODUCT, CatalogChangeType.DELETE, Collections.singletonList(2L));
+		catalogChangeLog.append(CatalogItemType.MENU, CatalogChangeType.UPSERT, Collections.singletonList(ID));
+		when(productRepository.findAllDTOByIdIn(Collections.singletonList(ID)))
+				.thenReturn(Collections.singletonList(new ProductDTO(ID, "Burger", 5.9, true, ID, ID)));
+		when(productRepository.findAllDTOByIdIn(Collections.singleton(ID)))
+				.thenReturn(Collections.singletonList(new ProductDTO(ID, "Burger", 5.9, true, ID, ID)));
+		when(menuRepository.findAllDTOByIdIn(Collections.singletonList(ID)))
+				.thenReturn(Collections.singletonList(new MenuDTO(ID, "Best of", 8.9, Boolean.TRUE, ID)));
+		when(menuRepository.findProductIdsByMenuIdIn(Collections.singletonList(ID)))
+				.thenReturn(Collections.singletonList(new Object[] { ID, ID }));
+
+		// When
+		CatalogChangesDTO result = catalogChangeServiceImpl.getChangesSince(100L);
+
+		// Then
+		assertThat(result.isFull()).isFalse();
+		assertThat(result.getVersion()).isEqualTo(104L);
+		assertThat(result.getProducts()).extracting(ProductDTO::getName).containsExactly("Burger");
+		assertThat(result.getDeletedProductIds()).containsExactly(2L);
+		assertThat(result.getMenus()).extracting(MenuDTO::getName).containsExactly("Best of");
+		assertThat(result.getMenus().get(0).getProductsDTO()).extracting(ProductDTO::getId).containsExactly(ID);
+		assertThat(result.getDeletedMenuIds()).isEmpty();
+		verify(catalogSnapshotService, never()).getSnapshot();
+	}
+
+	@Test
+	public void shouldGetChangesSinceWhenIsUpToDate() {
+		// Given
+		catalogChangeLog.append(CatalogItemType.PRODUCT, CatalogChangeType.UPSERT, Collections.singletonList(ID));
+
+		// When
+		CatalogChangesDTO result = catalogChangeServiceImpl.getChangesSince(101L);
+
+		// Then
+		assertThat(result.isFull()).isFalse();
+		assertThat(result.getVersion()).isEqualTo(101L);
+		assertThat(result.getProducts()).isEmpty();
+		assertThat(result.getMenus()).isEmpty();
+		verify(productRepository, never()).findAllDTOByIdIn(anyCollection());
+	}
+
+	@Test
+	public void shouldGetCatalogWhenVersionIsTooOld() {
+		// Given
+		CategoryDTO categoryDTO = new CategoryDTO();
+		categoryDTO.setId(ID);
+		categoryDTO.setName("BURGER");
+		CatalogSnapshotDTO catalog = new CatalogSnapshotDTO();
+		catalog.setCatalogVersion(100L);
+		catalog.setCategories(Collections.singletonList(categoryDTO));
+		catalog.setProducts(Collections.singletonList(new ProductDTO(ID, "Burger", 5.9, true, ID, null)));
+		catalog.setMenus(Collections.emptyList());
+		when(catalogSnapshotService.getSnapshot()).thenReturn(new CatalogSnapshot(100L, CatalogSnapshotWriter.write(catalog)));
+
+		// When
+		CatalogChangesDTO result = catalogChangeServiceImpl.getChangesSince(10L);
+
+		// Then
+		assertThat(result.isFull()).isTrue();
+		assertThat(result.getVersion()).isEqualTo(100L);
+		assertThat(result.getCategories()).extracting(CategoryDTO::getName).containsExactly("BURGER");
+		assertThat(result.getProducts()).extracting(ProductDTO::getName).containsExactly("Burger");
+		assertThat(result.getMenus()).isEmpty();
+	}
+}
@@ -0,0 +1,119 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import fr.esgi.service.catalog.CatalogSnapshotReader;
+import fr.esgi.service.catalog.CatalogSnapshotWriter;
+import fr.esgi.service.dto.CatalogSnapshotDTO;
+import fr.esgi.service.dto.CategoryDTO;
+import fr.esgi.service.dto.MenuDTO;
+import fr.esgi.service.dto.ProductDTO;
+
+public class CatalogSnapshotReaderTest {
+
+	private static CategoryDTO getCategoryDTO(long id, String name) {
+		CategoryDTO categoryDTO = new CategoryDTO();
+		categoryDTO.setId(id);
+		categoryDTO.setName(name);
+		return categoryDTO;
+	}
+
+	private static ProductDTO getProductDTO(long id, String name, double price, boolean available, Long categoryId) {
+		ProductDTO productDTO = new ProductDTO();
+		productDTO.setId(id);
+		productDTO.setName(name);
+		productDTO.setPrice(price);
+		productDTO.setAvailable(available);
+		productDTO.setCategoryId(categoryId);
+		return productDTO;
+	}
+
+	private static MenuDTO getMenuDTO(long id, String name, double price, boolean available, ProductDTO... products) {
+		MenuDTO menuDTO = new MenuDTO();
+		menuDTO.setId(id);
+		menuDTO.setName(name);
+		menuDTO.setPrice(price);
+		menuDTO.setAvailable(available);
+		menuDTO.setProductsDTO(Arrays.asList(products));
+		return menuDTO;
+	}
+
+	private static CatalogSnapshotDTO getCatalog() {
+		ProductDTO burger = getProductDTO(3L, "Burger \u00e0 l'\u00e9chalote", 5.9, true, 2L);
+		ProductDTO fries = getProductDTO(7L, "Frites", 2.5, false, null);
+		ProductDTO soda = getProductDTO(1_000_000L, "Coca", 0, true, 1L);
+
+		CatalogSnapshotDTO catalog = new CatalogSnapshotDTO();
+		catalog.setCatalogVersion(1_555_000_000_000L);
+		catalog.setCategories(Arrays.asList(getCategoryDTO(1L, "BOISSON"), getCategoryDTO(2L, "BURGER")));
+		catalog.setProducts(Arrays.asList(burger, fries, soda));
+		catalog.setMenus(Arrays.asList(getMenuDTO(4L, "Best of", 8.9, true, burger, fries, soda),
+				getMenuDTO(9L, "Burger", 5.9, false)));
+		return catalog;
+	}
+
+	@Test
+	public void shouldReadWrittenSnapshotWhenIsOK() throws IOException {
+		// Given
+		CatalogSnapshotDTO catalog = getCatalog();
+
+		// When
+		CatalogSnapshotDTO result = CatalogSnapshotReader.read(CatalogSnapshotWriter.write(catalog));
+
+		// Then
+		assertThat(result).isEqualTo(catalog);
+		assertThat(result.getMenus().get(0).getProductsDTO().get(0)).isSameAs(result.getProducts().get(0));
+	}
+
+	@Test
+	public void shouldReadWrittenSnapshotWhenRecordsAreNotSorted() throws IOException {
+		// Given
+		CatalogSnapshotDTO catalog = getCatalog();
+		CatalogSnapshotDTO shuffled = getCatalog();
+		shuffled.setProducts(new ArrayList<>(shuffled.getProducts()));
+		Collections.reverse(shuffled.getProducts());
+
+		// When
+		CatalogSnapshotDTO result = CatalogSnapshotReader.read(CatalogSnapshotWriter.write(shuffled));
+
+		// Then
+		assertThat(result.getProducts()).isEqualTo(catalog.getProducts());
+	}
+
+	@Test
+	public void shouldReadWrittenSnapshotWhenIsEmpty() throws IOException {
+		// Given
+		CatalogSnapshotDTO catalog = new CatalogSnapshotDTO();
+		catalog.setCatalogVersion(1L);
+		catalog.setCategories(new ArrayList<>());
+		catalog.setProducts(new ArrayList<>());
+		catalog.setMenus(new ArrayList<>());
+
+		// When
+		byte[] snapshot = CatalogSnapshotWriter.write(catalog);
+
+		// Then
+		assertThat(snapshot).hasSize(10);
+		assertThat(CatalogSnapshotReader.read(snapshot)).isEqualTo(catalog);
+	}
+
+	@Test
+	public void shouldReadSnapshotWhenIsKO() throws IOException {
+		// Given
+		byte[] snapshot = CatalogSnapshotWriter.write(getCatalog());
+
+		// Then
+		assertThatThrownBy(() -> CatalogSnapshotReader.read("[{}]".getBytes()))
+		.isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> CatalogSnapshotReader.read(Arrays.copyOf(snapshot, snapshot.length - 1)))
+		.isInstanceOf(IOException.class);
+	}
+}
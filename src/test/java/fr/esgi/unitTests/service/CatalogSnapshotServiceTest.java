@@ -0,0 +1,120 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import fr.esgi.dao.CategoryRepository;
+import fr.esgi.dao.MenuRepository;
+import fr.esgi.dao.ProductRepository;
+import fr.esgi.domain.Category;
+import fr.esgi.enums.CatalogChangeType;
+import fr.esgi.enums.CatalogItemType;
+import fr.esgi.service.catalog.CatalogChangeLog;
+import fr.esgi.service.catalog.CatalogSnapshot;
+import fr.esgi.service.catalog.CatalogSnapshotReader;
+import fr.esgi.service.dto.CatalogSnapshotDTO;
+import fr.esgi.service.dto.CategoryDTO;
+import fr.esgi.service.dto.MenuDTO;
+import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.impl.CatalogSnapshotServiceImpl;
+import fr.esgi.service.mapper.CategoryMapper;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CatalogSnapshotServiceTest {
+
+	private static final long ID = 1L;
+
+	@Mock
+	private CategoryRepository categoryRepository;
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private MenuRepository menuRepository;
+
+	@Mock
+	private CategoryMapper categoryMapper;
+
+	private CatalogChangeLog catalogChangeLog;
+
+	private CatalogSnapshotServiceImpl catalogSnapshotServiceImpl;
+
+	@Before
+	public void init() {
+		catalogChangeLog = new CatalogChangeLog(10, 100L);
+		catalogSnapshotServiceImpl = new CatalogSnapshotServiceImpl(categoryRepository, productRepository, menuRepository,
+				categoryMapper, catalogChangeLog);
+	}
+
+	private void initCatalog() {
+		CategoryDTO categoryDTO = new CategoryDTO();
+		categoryDTO.setId(ID);
+		categoryDTO.setName("BURGER");
+		when(categoryRepository.findAll()).thenReturn(Collections.singletonList(new Category()));
+		when(categoryMapper.categoryToCategoryDTO(any(Category.class))).thenReturn(categoryDTO);
+		when(productRepository.findAllDTO()).thenAnswer(invocation -> Arrays.asList(
+				new ProductDTO(ID, "Burger", 5.9, true, ID, ID), new ProductDTO(2L, "Frites", 2.5, true, null, ID)));
+		when(menuRepository.findAllDTO()).thenAnswer(invocation -> Collections.singletonList(
+				new MenuDTO(ID, "Best of", 8.9, Boolean.TRUE, ID)));
+		when(menuRepository.findAllProductIds()).thenReturn(Arrays.asList(new Object[] { ID, ID }, new Object[] { ID, 2L }));
+	}
+
+	@Test
+	public void shouldGetSnapshotWhenIsOK() throws Exception {
+		// Given
+		initCatalog();
+
+		// When
+		CatalogSnapshot snapshot = catalogSnapshotServiceImpl.getSnapshot();
+
+		// Then
+		CatalogSnapshotDTO catalog = CatalogSnapshotReader.read(snapshot.getContent());
+		assertThat(catalog.getCatalogVersion()).isEqualTo(100L).isEqualTo(snapshot.getCatalogVersion());
+		assertThat(catalog.getCategories()).extracting(CategoryDTO::getName).containsExactly("BURGER");
+		assertThat(catalog.getProducts()).extracting(ProductDTO::getName).containsExactly("Burger", "Frites");
+		assertThat(catalog.getMenus()).hasSize(1);
+		assertThat(catalog.getMenus().get(0).getProductsDTO()).extracting(ProductDTO::getId).containsExactly(ID, 2L);
+	}
+
+	@Test
+	public void shouldGetSameSnapshotWhenCatalogIsUnchanged() {
+		// Given
+		initCatalog();
+
+		// When
+		CatalogSnapshot snapshot = catalogSnapshotServiceImpl.getSnapshot();
+
+		// Then
+		assertThat(catalogSnapshotServiceImpl.getSnapshot()).isSameAs(snapshot);
+		verify(productRepository, times(1)).findAllDTO();
+	}
+
+	@Test
+	public void shouldGetNewSnapshotWhenCatalogIsChanged() {
+		// Given
+		initCatalog();
+		CatalogSnapshot snapshot = catalogSnapshotServiceImpl.getSnapshot();
+
+		// When
+		catalogChangeLog.append(CatalogItemType.PRODUCT, CatalogChangeType.UPSERT, Collections.singletonList(ID));
+
+		// Then
+		CatalogSnapshot result = catalogSnapshotServiceImpl.getSnapshot();
+		assertThat(result.getCatalogVersion()).isEqualTo(101L);
+		assertThat(result.getETag()).isNotEqualTo(snapshot.getETag());
+		verify(productRepository, times(2)).findAllDTO();
+	}
+}
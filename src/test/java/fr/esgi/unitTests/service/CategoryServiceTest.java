@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -88,4 +89,16 @@ public class CategoryServiceTest {
 		assertThatThrownBy(() -> categoryServiceImpl.findAll())
 		.isInstanceOf(NullPointerException.class);
 	}
+
+	@Test
+	public void shouldFindAllIdsWhenIsOK() {
+		// Given
+		List<Long> ids = Arrays.asList(ID, ID, 2L);
+
+		// When
+		when(categoryRepository.findAllIds()).thenReturn(ids);
+
+		// Then
+		assertThat(categoryServiceImpl.findAllIds()).containsOnly(ID, 2L);
+	}
 }
@@ -148,6 +148,40 @@ public class CommandServiceTest {
 		assertThat(commandServiceImpl.findByPaymentId(anyString())).isEqualTo(Optional.ofNullable(commandDTO));
 	}
 	
+	@Test
+	public void shouldFindIdByPaymentIdWhenIsOK() {
+		// When
+		when(commandRepository.findIdByPaymentId(anyString())).thenReturn(Optional.of(ID));
+
+		// Then
+		assertThat(commandServiceImpl.findIdByPaymentId(TEST)).contains(ID);
+	}
+
+	@Test
+	public void shouldUpdatePaymentStatusWhenIsOK() {
+		// Given
+		ZonedDateTime date = ZonedDateTime.now();
+
+		// When
+		when(commandRepository.updatePaymentStatus(ID, TEST, TEST, date)).thenReturn(1);
+
+		// Then
+		assertThat(commandServiceImpl.updatePaymentStatus(ID, TEST, TEST, date)).isTrue();
+		verify(commandRepository, times(1)).updatePaymentStatus(ID, TEST, TEST, date);
+	}
+
+	@Test
+	public void shouldUpdatePaymentStatusWhenIsKO() {
+		// Given
+		ZonedDateTime date = ZonedDateTime.now();
+
+		// When
+		when(commandRepository.updatePaymentStatus(ID, TEST, TEST, date)).thenReturn(0);
+
+		// Then
+		assertThat(commandServiceImpl.updatePaymentStatus(ID, TEST, TEST, date)).isFalse();
+	}
+
 	@Test
 	public void shouldUpdateWhenIsOK() {
 		// Given
@@ -0,0 +1,87 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import fr.esgi.config.Constants;
+import fr.esgi.service.importer.CsvRecordReader;
+
+public class CsvRecordReaderTest {
+
+	private static final char DELIMITER = ';';
+
+	@Test
+	public void shouldReadRecordsWhenIsOK() throws IOException {
+		// Given
+		CsvRecordReader reader = new CsvRecordReader(new StringReader("name;price\r\nBurger;1.5\n\nFrites;2\n"), DELIMITER);
+
+		// Then
+		assertThat(reader.readRecord()).containsExactly("name", "price");
+		assertThat(reader.readRecord()).containsExactly("Burger", "1.5");
+		assertThat(reader.getLineNumber()).isEqualTo(2);
+		assertThat(reader.readRecord()).containsExactly("Frites", "2");
+		assertThat(reader.getLineNumber()).isEqualTo(4);
+		assertThat(reader.readRecord()).isNull();
+	}
+
+	@Test
+	public void shouldReadQuotedFieldsWhenIsOK() throws IOException {
+		// Given
+		CsvRecordReader reader = new CsvRecordReader(
+				new StringReader("\"Menu; \"\"XL\"\"\";\"deux\nlignes\";\n"), DELIMITER);
+
+		// Then
+		assertThat(reader.readRecord()).containsExactly("Menu; \"XL\"", "deux\nlignes", "");
+		assertThat(reader.readRecord()).isNull();
+	}
+
+	@Test
+	public void shouldSkipByteOrderMarkWhenIsOK() throws IOException {
+		// Given
+		CsvRecordReader reader = new CsvRecordReader(new StringReader("\uFEFFname;price"), DELIMITER);
+
+		// Then
+		assertThat(reader.readRecord()).containsExactly("name", "price");
+	}
+
+	@Test
+	public void shouldReadRecordWhenQuoteIsUnterminated() {
+		// Given
+		CsvRecordReader reader = new CsvRecordReader(new StringReader("\"Burger;1.5\n"), DELIMITER);
+
+		// Then
+		assertThatThrownBy(reader::readRecord).isInstanceOf(IOException.class);
+	}
+
+	@Test
+	public void shouldCountLinesWhenLinesEndWithCarriageReturn() throws IOException {
+		// Given
+		CsvRecordReader reader = new CsvRecordReader(new StringReader("name;price\rBurger;1.5\r\rFrites;2\r\n"), DELIMITER);
+
+		// Then
+		assertThat(reader.readRecord()).containsExactly("name", "price");
+		assertThat(reader.readRecord()).containsExactly("Burger", "1.5");
+		assertThat(reader.getLineNumber()).isEqualTo(2);
+		assertThat(reader.readRecord()).containsExactly("Frites", "2");
+		assertThat(reader.getLineNumber()).isEqualTo(4);
+		assertThat(reader.readRecord()).isNull();
+	}
+
+	@Test
+	public void shouldThrowWhenRecordIsTooLong() {
+		// Given
+		StringBuilder csv = new StringBuilder("\"");
+		for (int i = 0; i <= Constants.IMPORT_MAX_RECORD_LENGTH; i++) {
+			csv.append('a');
+		}
+		CsvRecordReader reader = new CsvRecordReader(new StringReader(csv.toString()), DELIMITER);
+
+		// Then
+		assertThatThrownBy(reader::readRecord).isInstanceOf(IOException.class).hasMessageContaining("longer than");
+	}
+}
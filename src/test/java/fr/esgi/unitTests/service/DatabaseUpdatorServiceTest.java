@@ -3,26 +3,41 @@ package fr.esgi.unitTests.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import org.json.JSONException;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.mock.web.MockMultipartFile;
 
+import fr.esgi.config.Constants;
+import fr.esgi.config.ErrorMessage;
 import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.service.CategoryService;
+import fr.esgi.service.ManagerService;
 import fr.esgi.service.MenuService;
 import fr.esgi.service.ProductService;
+import fr.esgi.service.dto.ImportErrorDTO;
+import fr.esgi.service.dto.ImportReportDTO;
+import fr.esgi.service.dto.ImportStageDTO;
 import fr.esgi.service.dto.MenuDTO;
 import fr.esgi.service.dto.ProductDTO;
 import fr.esgi.service.impl.DatabaseUpdatorServiceImpl;
+import fr.esgi.service.importer.ImportProgressListener;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class DatabaseUpdatorServiceTest {
@@ -37,9 +52,48 @@ public class DatabaseUpdatorServiceTest {
 	@Mock
 	private MenuService menuService;
 
-	@InjectMocks
+	@Mock
+	private CategoryService categoryService;
+
+	@Mock
+	private ManagerService managerService;
+
+	private ExecutorService importExecutor;
+
 	private DatabaseUpdatorServiceImpl databaseUpdatorServiceImpl;
 
+	@Before
+	public void init() {
+		importExecutor = Executors.newCachedThreadPool();
+		databaseUpdatorServiceImpl = new DatabaseUpdatorServiceImpl(productService, menuService, categoryService,
+				managerService, importExecutor);
+		when(categoryService.findAllIds()).thenReturn(Collections.singleton(2L));
+		when(managerService.findAllIds()).thenReturn(Collections.singleton(1L));
+	}
+
+	@After
+	public void destroy() {
+		importExecutor.shutdownNow();
+	}
+
+	private ImportReportDTO importProducts(MockMultipartFile file, String fileFormat) throws BurgerSTerminalException {
+		try {
+			return databaseUpdatorServiceImpl.importProducts(file.getInputStream(), fileFormat, 0,
+					ImportProgressListener.NONE, null);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private ImportReportDTO importMenus(MockMultipartFile file, String fileFormat) throws BurgerSTerminalException {
+		try {
+			return databaseUpdatorServiceImpl.importMenus(file.getInputStream(), fileFormat, 0,
+					ImportProgressListener.NONE, null);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
 	@Test
 	public void shouldImportProductsFileCSVWhenIsOK() throws BurgerSTerminalException {
 		// Given
@@ -54,10 +108,148 @@ public class DatabaseUpdatorServiceTest {
 		products.add(productDTO);
 
 		// When
-		when(productService.saveAll(anyList())).thenReturn(products);
+		when(productService.upsertAll(anyList())).thenReturn(0);
+
+		// Then
+		assertThat(importProducts(file, CSV).getRowsWritten()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldImportProductsFileCSVInChunksWhenIsOK() throws BurgerSTerminalException {
+		// Given
+		StringBuilder csv = new StringBuilder("name;price;available;categoryId;managerId\n");
+		int rows = Constants.IMPORT_CHUNK_SIZE * 2 + 1;
+		for (int i = 0; i < rows; i++) {
+			csv.append("\"Burger; no ").append(i).append("\";0.50;true;2;1\n");
+		}
+		MockMultipartFile file = new MockMultipartFile("file", "filename.csv", "text/plain", csv.toString().getBytes());
+
+		// When
+		when(productService.upsertAll(anyList())).thenReturn(0);
+
+		// Then
+		ImportReportDTO report = importProducts(file, CSV);
+		assertThat(report.getRowsWritten()).isEqualTo(rows);
+		assertThat(report.getStages()).extracting(ImportStageDTO::getProcessed).containsOnly((long) rows);
+		verify(productService, times(3)).upsertAll(anyList());
+	}
+
+	@Test
+	public void shouldResumeProductsImportCSVAfterTheCheckpoint() throws BurgerSTerminalException {
+		// Given
+		StringBuilder csv = new StringBuilder("name;price;available;categoryId;managerId\n");
+		int rows = Constants.IMPORT_CHUNK_SIZE * 2;
+		for (int i = 0; i < rows; i++) {
+			csv.append("Burger ").append(i).append(";0.50;true;2;1\n");
+		}
+		List<Long> checkpoints = new ArrayList<>();
+
+		// When
+		when(productService.upsertAll(anyList())).thenReturn(0);
+
+		// Then
+		ImportReportDTO report = databaseUpdatorServiceImpl.importProducts(
+				new ByteArrayInputStream(csv.toString().getBytes()), CSV, Constants.IMPORT_CHUNK_SIZE,
+				(position, bytesRead, rowsParsed, rowsWritten, rowsUpdated) -> checkpoints.add(position), null);
+		assertThat(report.getRowsWritten()).isEqualTo(Constants.IMPORT_CHUNK_SIZE);
+		assertThat(checkpoints).containsExactly((long) rows);
+		verify(productService, times(1)).upsertAll(anyList());
+	}
+
+	@Test
+	public void shouldReportBytesReadOfTheCommittedRows() throws BurgerSTerminalException {
+		// Given
+		StringBuilder csv = new StringBuilder("name;price;available;categoryId;managerId\n");
+		int rows = Constants.IMPORT_CHUNK_SIZE * 8;
+		for (int i = 0; i < rows; i++) {
+			csv.append("Burger ").append(i).append(";0.50;true;2;1\n");
+		}
+		byte[] bytes = csv.toString().getBytes();
+		List<Long> bytesReads = Collections.synchronizedList(new ArrayList<>());
+
+		// When
+		when(productService.upsertAll(anyList())).thenReturn(0);
+
+		// Then
+		databaseUpdatorServiceImpl.importProducts(new ByteArrayInputStream(bytes), CSV, 0,
+				(position, bytesRead, rowsParsed, rowsWritten, rowsUpdated) -> bytesReads.add(bytesRead), null);
+		assertThat(bytesReads).hasSize(8).isSorted();
+		assertThat(bytesReads.get(0)).isPositive().isLessThan(bytes.length / 2);
+		assertThat(bytesReads.get(7)).isEqualTo(bytes.length);
+	}
+
+	@Test
+	public void shouldImportProductsCSVWithoutTheInvalidRows() throws BurgerSTerminalException {
+		// Given
+		String csv = "name;price;available;categoryId;managerId\n"
+				+ "Burger;0.50;true;2;1\n"
+				+ "Frites;abc;true;2;1\n"
+				+ "Soda;0.50;true;3;1\n"
+				+ "Salade;0.50;true\n"
+				+ "Glace;0.50;true;2;1\n";
+		List<ImportErrorDTO> errors = Collections.synchronizedList(new ArrayList<>());
+
+		// When
+		when(productService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importProductsFile(file, CSV)).isNotEmpty();
+		ImportReportDTO report = databaseUpdatorServiceImpl.importProducts(new ByteArrayInputStream(csv.getBytes()), CSV, 0,
+				ImportProgressListener.NONE, errors::add);
+		assertThat(report.getRowsWritten()).isEqualTo(2);
+		assertThat(report.getRowsFailed()).isEqualTo(3);
+		assertThat(report.getErrors()).hasSize(3);
+		assertThat(errors).containsExactlyInAnyOrder(
+				new ImportErrorDTO(3, Constants.PRICE, ErrorMessage.THE_VALUE_IS_NOT_A_NUMBER),
+				new ImportErrorDTO(4, Constants.CATEGORY_ID, ErrorMessage.ERROR_CATEGORY_NOT_FOUND),
+				new ImportErrorDTO(5, null, ErrorMessage.THE_FILE_DOES_NOT_CONTAIN_THE_CORRECT_NUMBER_OF_COLUMNS));
+	}
+
+	@Test
+	public void shouldImportMenusJSONWithoutTheInvalidRows() throws BurgerSTerminalException {
+		// Given
+		String json = "[\n{\"name\":\"TBifebo\",\"price\":0.50,\"available\":true,\"managerId\":1},\n"
+				+ "{\"name\":\"Bibi\",\"price\":0.50,\"available\":true},\n"
+				+ "{\"name\":\" \",\"price\":0.50,\"available\":true,\"managerId\":1}\n]";
+		List<ImportErrorDTO> errors = Collections.synchronizedList(new ArrayList<>());
+
+		// When
+		when(menuService.upsertAll(anyList())).thenReturn(0);
+
+		// Then
+		ImportReportDTO report = databaseUpdatorServiceImpl.importMenus(new ByteArrayInputStream(json.getBytes()), JSON, 0,
+				ImportProgressListener.NONE, errors::add);
+		assertThat(report.getRowsWritten()).isEqualTo(1);
+		assertThat(errors).containsExactlyInAnyOrder(
+				new ImportErrorDTO(3, Constants.MANAGER_ID, ErrorMessage.THE_COLUMN_IS_MISSING),
+				new ImportErrorDTO(4, Constants.NAME, ErrorMessage.THE_VALUE_IS_REQUIRED));
+	}
+
+	@Test
+	public void shouldImportProductsFileCSVWhenCategoryIsUnknown() throws BurgerSTerminalException {
+		// Given
+		MockMultipartFile file = new MockMultipartFile("file", "filename.csv", "text/plain",
+				"name;price;available;categoryId;managerId\nBurger;0.50;true;2;1\nFrites;0.50;true;3;1\nSoda;0.50;true;2;1".getBytes());
+
+		// When
+		when(productService.upsertAll(anyList())).thenReturn(0);
+
+		// Then
+		assertThatThrownBy(() -> importProducts(file, CSV))
+		.isInstanceOf(BurgerSTerminalException.class);
+	}
+
+	@Test
+	public void shouldImportMenusFileJSONWhenManagerIsUnknown() throws BurgerSTerminalException {
+		// Given
+		MockMultipartFile file = new MockMultipartFile("file", "filename.json", "text/plain",
+				"[{\"name\":\"TBifebo\",\"price\":0.50,\"available\":true,\"managerId\":4}]".getBytes());
+
+		// When
+		when(menuService.upsertAll(anyList())).thenReturn(0);
+
+		// Then
+		assertThatThrownBy(() -> importMenus(file, JSON))
+		.isInstanceOf(BurgerSTerminalException.class);
 	}
 
 	@Test
@@ -66,10 +258,10 @@ public class DatabaseUpdatorServiceTest {
 		MockMultipartFile file = new MockMultipartFile("file", "filename.txt", "text/plain", "name;price;".getBytes());
 
 		// When
-		when(productService.saveAll(anyList())).thenReturn(Collections.emptyList());
+		when(productService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importProductsFile(file, CSV)).isEmpty();
+		assertThat(importProducts(file, CSV).getRowsWritten()).isZero();
 	}
 
 	@Test
@@ -78,10 +270,10 @@ public class DatabaseUpdatorServiceTest {
 		MockMultipartFile file = new MockMultipartFile("file", "filename.txt", "text/plain", "".getBytes());
 
 		// When
-		when(productService.saveAll(anyList())).thenReturn(Collections.emptyList());
+		when(productService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importProductsFile(file, CSV)).isEmpty();
+		assertThat(importProducts(file, CSV).getRowsWritten()).isZero();
 	}
 
 	@Test
@@ -98,10 +290,44 @@ public class DatabaseUpdatorServiceTest {
 		products.add(productDTO);
 
 		// When
-		when(productService.saveAll(anyList())).thenReturn(products);
+		when(productService.upsertAll(anyList())).thenReturn(0);
+
+		// Then
+		assertThat(importProducts(file, JSON).getRowsWritten()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldImportProductsFileJSONInChunksWhenIsOK() throws BurgerSTerminalException {
+		// Given
+		StringBuilder json = new StringBuilder("[");
+		int rows = Constants.IMPORT_CHUNK_SIZE + 1;
+		for (int i = 0; i < rows; i++) {
+			json.append(i == 0 ? "" : ",")
+			.append("{\"managerId\":1,\"name\":\"Burger ").append(i).append("\",\"price\":0.50,\"available\":true,\"categoryId\":2}");
+		}
+		json.append("]");
+		MockMultipartFile file = new MockMultipartFile("file", "filename.json", "text/plain", json.toString().getBytes());
+
+		// When
+		when(productService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importProductsFile(file, JSON)).isNotEmpty();
+		assertThat(importProducts(file, JSON).getRowsWritten()).isEqualTo(rows);
+		verify(productService, times(2)).upsertAll(anyList());
+	}
+
+	@Test
+	public void shouldImportProductsFileJSONWhenAnObjectIsInvalid() throws BurgerSTerminalException {
+		// Given
+		MockMultipartFile file = new MockMultipartFile("file", "filename.json", "text/plain", ("[{\"name\":\"Tofffedfefeto\",\"price\":0.50,\"available\":true,\"categoryId\":2,\"managerId\":1},"
+				+ "{\"name\":\"TBifebo\",\"price\":0.50,\"available\":true,\"cateyId\":2,\"managerId\":1}]").getBytes());
+
+		// When
+		when(productService.upsertAll(anyList())).thenReturn(0);
+
+		// Then
+		assertThatThrownBy(() -> importProducts(file, JSON))
+		.isInstanceOf(BurgerSTerminalException.class);
 	}
 
 	@Test
@@ -118,10 +344,10 @@ public class DatabaseUpdatorServiceTest {
 		products.add(productDTO);
 
 		// When
-		when(productService.saveAll(anyList())).thenReturn(Collections.emptyList());
+		when(productService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importProductsFile(file, CSV)).isEmpty();
+		assertThat(importProducts(file, CSV).getRowsWritten()).isZero();
 	}
 
 	@Test
@@ -138,10 +364,10 @@ public class DatabaseUpdatorServiceTest {
 		products.add(productDTO);
 
 		// When
-		when(productService.saveAll(anyList())).thenReturn(Collections.emptyList());
+		when(productService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importProductsFile(file, CSV)).isEmpty();
+		assertThat(importProducts(file, CSV).getRowsWritten()).isZero();
 	}
 
 	@Test
@@ -150,10 +376,10 @@ public class DatabaseUpdatorServiceTest {
 		MockMultipartFile file = new MockMultipartFile("file", "filename.txt", "text/plain", "".getBytes());
 
 		// When
-		when(productService.saveAll(anyList())).thenReturn(null);
+		when(productService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importProductsFile(file, CSV)).isEmpty();
+		assertThat(importProducts(file, CSV).getRowsWritten()).isZero();
 	}
 	
 	@Test
@@ -170,11 +396,11 @@ public class DatabaseUpdatorServiceTest {
 		products.add(productDTO);
 
 		// When
-		when(productService.saveAll(anyList())).thenReturn(products);
+		when(productService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThatThrownBy(() -> databaseUpdatorServiceImpl.importProductsFile(file, JSON))
-		.isInstanceOf(JSONException.class);
+		assertThatThrownBy(() -> importProducts(file, JSON))
+		.isInstanceOf(BurgerSTerminalException.class);
 	}
 	
 	@Test
@@ -191,10 +417,10 @@ public class DatabaseUpdatorServiceTest {
 		products.add(productDTO);
 
 		// When
-		when(productService.saveAll(anyList())).thenReturn(products);
+		when(productService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThatThrownBy(() -> databaseUpdatorServiceImpl.importProductsFile(file, JSON))
+		assertThatThrownBy(() -> importProducts(file, JSON))
 		.isInstanceOf(BurgerSTerminalException.class);
 	}
 	
@@ -215,10 +441,10 @@ public class DatabaseUpdatorServiceTest {
 		menuDTOs.add(menuDTO);
 
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(menuDTOs);
+		when(menuService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThatThrownBy(() -> databaseUpdatorServiceImpl.importMenusFile(file, JSON))
+		assertThatThrownBy(() -> importMenus(file, JSON))
 		.isInstanceOf(BurgerSTerminalException.class);
 	}
 
@@ -228,10 +454,10 @@ public class DatabaseUpdatorServiceTest {
 		MockMultipartFile file = new MockMultipartFile("file", "filename.txt", "text/plain", "".getBytes());
 
 		// When
-		when(productService.saveAll(anyList())).thenReturn(Collections.emptyList());
+		when(productService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importProductsFile(file, "Other")).isNull();
+		assertThat(importProducts(file, "Other")).isNull();
 	}
 
 	@Test
@@ -249,10 +475,10 @@ public class DatabaseUpdatorServiceTest {
 		menuDTOs.add(menuDTO);
 
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(menuDTOs);
+		when(menuService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importMenusFile(file, CSV)).isNotEmpty();
+		assertThat(importMenus(file, CSV).getRowsWritten()).isEqualTo(1);
 	}
 
 
@@ -271,10 +497,10 @@ public class DatabaseUpdatorServiceTest {
 		menuDTOs.add(menuDTO);
 
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(Collections.emptyList());
+		when(menuService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importMenusFile(file, CSV)).isEmpty();
+		assertThat(importMenus(file, CSV).getRowsWritten()).isZero();
 	}
 	
 	@Test
@@ -283,10 +509,10 @@ public class DatabaseUpdatorServiceTest {
 		MockMultipartFile file = new MockMultipartFile("file", "filename.txt", "text/plain", "".getBytes());
 
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(Collections.emptyList());
+		when(menuService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importMenusFile(file, CSV)).isEmpty();
+		assertThat(importMenus(file, CSV).getRowsWritten()).isZero();
 	}
 
 	@Test
@@ -304,10 +530,10 @@ public class DatabaseUpdatorServiceTest {
 		menuDTOs.add(menuDTO);
 
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(menuDTOs);
+		when(menuService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importMenusFile(file, JSON)).isNotEmpty();
+		assertThat(importMenus(file, JSON).getRowsWritten()).isEqualTo(1);
 	}
 	
 	// Test
@@ -326,10 +552,10 @@ public class DatabaseUpdatorServiceTest {
 		menuDTOs.add(menuDTO);
 
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(Collections.emptyList());
+		when(menuService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importMenusFile(file, CSV)).isEmpty();
+		assertThat(importMenus(file, CSV).getRowsWritten()).isZero();
 	}
 
 	@Test
@@ -346,10 +572,10 @@ public class DatabaseUpdatorServiceTest {
 		menuDTOs.add(menuDTO);
 
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(Collections.emptyList());
+		when(menuService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importMenusFile(file, CSV)).isEmpty();
+		assertThat(importMenus(file, CSV).getRowsWritten()).isZero();
 	}
 	
 	@Test
@@ -367,10 +593,10 @@ public class DatabaseUpdatorServiceTest {
 		menuDTOs.add(menuDTO);
 
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(menuDTOs);
+		when(menuService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThatThrownBy(() -> databaseUpdatorServiceImpl.importMenusFile(file, JSON))
+		assertThatThrownBy(() -> importMenus(file, JSON))
 		.isInstanceOf(BurgerSTerminalException.class);
 	}
 
@@ -380,10 +606,10 @@ public class DatabaseUpdatorServiceTest {
 		MockMultipartFile file = new MockMultipartFile("file", "filename.txt", "text/plain", "".getBytes());
 
 		// When
-		when(productService.saveAll(anyList())).thenReturn(null);
+		when(productService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importMenusFile(file, CSV)).isEmpty();
+		assertThat(importMenus(file, CSV).getRowsWritten()).isZero();
 	}
 
 	@Test
@@ -392,10 +618,10 @@ public class DatabaseUpdatorServiceTest {
 		MockMultipartFile file = new MockMultipartFile("file", "filename.txt", "text/plain", "".getBytes());
 
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(Collections.emptyList());
+		when(menuService.upsertAll(anyList())).thenReturn(0);
 
 		// Then
-		assertThat(databaseUpdatorServiceImpl.importMenusFile(file, "Other")).isNull();
+		assertThat(importMenus(file, "Other")).isNull();
 	}
 
 
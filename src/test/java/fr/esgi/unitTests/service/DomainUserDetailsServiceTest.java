@@ -0,0 +1,114 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import fr.esgi.dao.UserRepository;
+import fr.esgi.security.jwt.AccountUserDetails;
+import fr.esgi.security.jwt.DomainUserDetailsService;
+import fr.esgi.security.jwt.UserAccountCache;
+import fr.esgi.service.dto.UserAccountDTO;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class DomainUserDetailsServiceTest {
+
+	private static final String PSEUDO = "Ben";
+
+	private static final String EMAIL = "ben.montreuil@gmail.com";
+
+	private static final String PASSWORD = "$2a$10$6dHbYIJm5Mbmnt1OMRc8nu3X1GGn1VTEHNvyS5BhmjPC7PjV6ZMb2";
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private UserAccountCache userAccountCache;
+
+	@InjectMocks
+	private DomainUserDetailsService domainUserDetailsService;
+
+	@Test
+	public void shouldLoadUserByUsernameWhenIsOK() {
+		// Given
+		UserAccountDTO account = new UserAccountDTO(PSEUDO, EMAIL, PASSWORD, true, "ROLE_ADMIN", 2L, 3L);
+
+		// When
+		when(userRepository.findAllAccountsByLogin("ben")).thenReturn(Collections.singletonList(account));
+
+		// Then
+		AccountUserDetails userDetails = (AccountUserDetails) domainUserDetailsService.loadUserByUsername(PSEUDO);
+		assertThat(userDetails.getUsername()).isEqualTo(PSEUDO);
+		assertThat(userDetails.getPassword()).isEqualTo(PASSWORD);
+		assertThat(userDetails.isEnabled()).isTrue();
+		assertThat(userDetails.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+		assertThat(userDetails.getCustomerId()).isEqualTo(2L);
+		assertThat(userDetails.getManagerId()).isEqualTo(3L);
+		verify(userAccountCache, times(1)).put("ben", account);
+	}
+
+	@Test
+	public void shouldLoadUserByUsernameWhenAccountIsCached() {
+		// Given
+		UserAccountDTO account = new UserAccountDTO(PSEUDO, EMAIL, PASSWORD, true, "ROLE_ADMIN", 2L, 3L);
+
+		// When
+		when(userAccountCache.get("ben")).thenReturn(account);
+
+		// Then
+		assertThat(domainUserDetailsService.loadUserByUsername("BEN").getPassword()).isEqualTo(PASSWORD);
+		assertThat(domainUserDetailsService.loadUserByUsername("BEN").getPassword()).isEqualTo(PASSWORD);
+		verify(userRepository, never()).findAllAccountsByLogin(anyString());
+	}
+
+	@Test
+	public void shouldLoadUserByEmailWhenPseudoOfAnotherUserIsTheEmail() {
+		// Given
+		UserAccountDTO byPseudo = new UserAccountDTO(EMAIL, "other@gmail.com", PASSWORD, true, null, 4L, null);
+		UserAccountDTO byEmail = new UserAccountDTO(PSEUDO, EMAIL, PASSWORD, true, null, 2L, null);
+
+		// When
+		when(userRepository.findAllAccountsByLogin(EMAIL)).thenReturn(Arrays.asList(byPseudo, byEmail));
+
+		// Then
+		AccountUserDetails userDetails = (AccountUserDetails) domainUserDetailsService.loadUserByUsername(EMAIL);
+		assertThat(userDetails.getUsername()).isEqualTo(PSEUDO);
+		assertThat(userDetails.getAuthorities()).extracting("authority").containsExactly("ROLE_CUSTOMER");
+	}
+
+	@Test
+	public void shouldLoadUserByUsernameWhenIsNotActivated() {
+		// Given
+		UserAccountDTO account = new UserAccountDTO(PSEUDO, EMAIL, PASSWORD, false, null, 2L, null);
+
+		// When
+		when(userRepository.findAllAccountsByLogin("ben")).thenReturn(Collections.singletonList(account));
+
+		// Then
+		assertThat(domainUserDetailsService.loadUserByUsername(PSEUDO).isEnabled()).isFalse();
+	}
+
+	@Test
+	public void shouldLoadUserByUsernameWhenUserNotExists() {
+		// When
+		when(userRepository.findAllAccountsByLogin("ben")).thenReturn(Collections.emptyList());
+
+		// Then
+		assertThatThrownBy(() -> domainUserDetailsService.loadUserByUsername(PSEUDO))
+		.isInstanceOf(UsernameNotFoundException.class);
+	}
+}
@@ -0,0 +1,107 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import fr.esgi.dao.CommandRepository;
+import fr.esgi.dao.MenuRepository;
+import fr.esgi.dao.ProductRepository;
+import fr.esgi.service.dto.CommandDTO;
+import fr.esgi.service.dto.MenuDTO;
+import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.impl.ExportServiceImpl;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ExportServiceTest {
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private MenuRepository menuRepository;
+
+	@Mock
+	private CommandRepository commandRepository;
+
+	@InjectMocks
+	private ExportServiceImpl exportServiceImpl;
+
+	@Test
+	public void shouldExportProductsAsCSVWhenIsOK() throws Exception {
+		// Given
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		AtomicBoolean closed = new AtomicBoolean();
+		Stream<ProductDTO> products = Stream.of(new ProductDTO(1L, "Coca; zero", 1.5, true, 2L, null),
+				new ProductDTO(2L, "Frites", 2, false, 3L, 1L)).onClose(() -> closed.set(true));
+
+		// When
+		when(productRepository.streamAll()).thenReturn(products);
+		exportServiceImpl.exportProducts("csv", outputStream);
+
+		// Then
+		assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+				.isEqualTo("id;name;price;available;categoryId;managerId\n"
+						+ "1;\"Coca; zero\";1.5;true;2;\n"
+						+ "2;Frites;2.0;false;3;1\n");
+		assertThat(closed).isTrue();
+	}
+
+	@Test
+	public void shouldExportMenusAsJSONWhenIsOK() throws Exception {
+		// Given
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		// When
+		when(menuRepository.streamAll()).thenReturn(Stream.of(new MenuDTO(1L, "Best of", 8.9, Boolean.TRUE, 1L)));
+		exportServiceImpl.exportMenus("json", outputStream);
+
+		// Then
+		assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+				.isEqualTo("[{\"id\":1,\"name\":\"Best of\",\"price\":8.9,\"available\":true,\"managerId\":1}]");
+	}
+
+	@Test
+	public void shouldExportCommandsAsJSONWhenIsOK() throws Exception {
+		// Given
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ZonedDateTime date = ZonedDateTime.of(2019, 3, 1, 12, 30, 0, 0, ZoneOffset.UTC);
+
+		// When
+		when(commandRepository.streamAll()).thenReturn(Stream.of(
+				new CommandDTO(1L, "PAID", date, 2L, "PAY-1", new BigDecimal("12.50"), null)));
+		exportServiceImpl.exportCommands("json", outputStream);
+
+		// Then
+		assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+				.isEqualTo("[{\"id\":1,\"orderStatus\":\"PAID\",\"date\":\"2019-03-01T12:30:00Z\",\"customerId\":2,"
+						+ "\"paymentId\":\"PAY-1\",\"price\":12.50,\"saleId\":null}]");
+	}
+
+	@Test
+	public void shouldExportOnlyTheHeaderWhenThereIsNoCommand() throws Exception {
+		// Given
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		// When
+		when(commandRepository.streamAll()).thenReturn(Stream.empty());
+		exportServiceImpl.exportCommands("csv", outputStream);
+
+		// Then
+		assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+				.isEqualTo("id;orderStatus;date;customerId;paymentId;price;saleId\n");
+	}
+}
@@ -0,0 +1,167 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.service.cache.ByteBufferResource;
+import fr.esgi.service.cache.ImageCache;
+import fr.esgi.service.image.StoredImage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ImageCacheTest {
+
+	@Mock
+	private ConfigurationService configurationService;
+
+	private Path directory;
+
+	private ImageCache imageCache;
+
+	@Before
+	public void init() throws IOException {
+		directory = Files.createTempDirectory("cache");
+		when(configurationService.getImageCacheSizeInBytes()).thenReturn(10L);
+		imageCache = new ImageCache(configurationService);
+	}
+
+	@After
+	public void destroy() throws IOException {
+		FileUtils.deleteDirectory(directory.toFile());
+	}
+
+	private StoredImage getStoredImage(String name, String content) throws IOException {
+		Path file = Files.write(directory.resolve(name), content.getBytes());
+		return new StoredImage(file, "image/png", Files.size(file), Files.getLastModifiedTime(file).toMillis());
+	}
+
+	private static String read(Resource resource) throws IOException {
+		try (InputStream inputStream = resource.getInputStream()) {
+			return IOUtils.toString(inputStream, "UTF-8");
+		}
+	}
+
+	@Test
+	public void shouldGetResourceFromCacheWhenIsServedAgain() throws IOException {
+		// Given
+		StoredImage image = getStoredImage("a.png", "abcd");
+		imageCache.getResource(image);
+		Files.delete(image.getPath());
+
+		// When
+		Resource resource = imageCache.getResource(image);
+
+		// Then
+		assertThat(resource).isInstanceOf(ByteBufferResource.class);
+		assertThat(resource.contentLength()).isEqualTo(4L);
+		assertThat(read(resource)).isEqualTo("abcd");
+		assertThat(imageCache.getHitCount()).isEqualTo(1L);
+		assertThat(imageCache.getMissCount()).isEqualTo(1L);
+		assertThat(imageCache.getHitRatio()).isEqualTo(0.5);
+	}
+
+	@Test
+	public void shouldGetResourceFromDiskWhenFileHasChanged() throws IOException {
+		// Given
+		StoredImage image = getStoredImage("a.png", "abcd");
+		imageCache.getResource(image);
+
+		// When
+		StoredImage changed = new StoredImage(Files.write(image.getPath(), "efg".getBytes()), "image/png", 3L,
+				image.getLastModified() + 1000);
+
+		// Then
+		assertThat(read(imageCache.getResource(changed))).isEqualTo("efg");
+		assertThat(imageCache.getHitCount()).isZero();
+		assertThat(imageCache.getSizeInBytes()).isEqualTo(3L);
+	}
+
+	@Test
+	public void shouldEvictLeastRecentlyServedWhenCacheIsFull() throws IOException {
+		// Given
+		StoredImage first = getStoredImage("a.png", "abcd");
+		StoredImage second = getStoredImage("b.png", "efgh");
+		StoredImage third = getStoredImage("c.png", "ijkl");
+		imageCache.getResource(first);
+		imageCache.getResource(second);
+		imageCache.getResource(first);
+
+		// When
+		imageCache.getResource(third);
+
+		// Then
+		assertThat(imageCache.size()).isEqualTo(2);
+		assertThat(imageCache.getSizeInBytes()).isEqualTo(8L);
+		assertThat(imageCache.getEvictionCount()).isEqualTo(1L);
+		imageCache.getResource(first);
+		assertThat(imageCache.getHitCount()).isEqualTo(2L);
+		imageCache.getResource(second);
+		assertThat(imageCache.getMissCount()).isEqualTo(4L);
+	}
+
+	@Test
+	public void shouldGetResourceFromDiskWhenImageIsTooLarge() throws IOException {
+		// Given
+		StoredImage image = getStoredImage("a.png", "0123456789abc");
+
+		// When
+		Resource resource = imageCache.getResource(image);
+
+		// Then
+		assertThat(resource).isInstanceOf(FileSystemResource.class);
+		assertThat(imageCache.size()).isZero();
+	}
+
+	@Test
+	public void shouldGetResourceFromDiskWhenIsInvalidated() throws IOException {
+		// Given
+		StoredImage image = getStoredImage("a.png", "abcd");
+		imageCache.getResource(image);
+
+		// When
+		imageCache.invalidateAll(directory);
+
+		// Then
+		assertThat(imageCache.size()).isZero();
+		assertThat(imageCache.getSizeInBytes()).isZero();
+		imageCache.getResource(image);
+		assertThat(imageCache.getHitCount()).isZero();
+	}
+
+	@Test
+	public void shouldPublishMetricsWhenIsBound() throws IOException {
+		// Given
+		MeterRegistry registry = new SimpleMeterRegistry();
+		imageCache.bindTo(registry);
+		StoredImage image = getStoredImage("a.png", "abcd");
+
+		// When
+		imageCache.getResource(image);
+		imageCache.getResource(image);
+		imageCache.getResource(image);
+
+		// Then
+		assertThat(registry.get("images.cache.hits").functionCounter().count()).isEqualTo(2.0);
+		assertThat(registry.get("images.cache.misses").functionCounter().count()).isEqualTo(1.0);
+		assertThat(registry.get("images.cache.size").gauge().value()).isEqualTo(4.0);
+		assertThat(registry.get("images.cache.hit.ratio").gauge().value()).isEqualTo(2.0 / 3);
+	}
+}
@@ -0,0 +1,208 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.dao.ImageBlobRepository;
+import fr.esgi.domain.ImageBlob;
+import fr.esgi.service.ThumbnailService;
+import fr.esgi.service.cache.ImageCache;
+import fr.esgi.service.image.StoredImage;
+import fr.esgi.service.impl.ImageStoreServiceImpl;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ImageStoreServiceTest {
+
+	/**
+	 * The SHA-256 of "test".
+	 */
+	private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+	private static final byte[] CONTENT = "test".getBytes();
+
+	@Mock
+	private ImageBlobRepository imageBlobRepository;
+
+	@Mock
+	private ThumbnailService thumbnailService;
+
+	@Mock
+	private ConfigurationService configurationService;
+
+	@Mock
+	private ImageCache imageCache;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private Path imagesDirectory;
+
+	private ImageStoreServiceImpl imageStoreServiceImpl;
+
+	@Before
+	public void init() throws IOException {
+		imagesDirectory = Files.createTempDirectory("store");
+		when(configurationService.getImagesDirectory()).thenReturn(imagesDirectory.toString());
+		imageStoreServiceImpl = new ImageStoreServiceImpl(imageBlobRepository, thumbnailService, configurationService,
+				imageCache, transactionManager);
+	}
+
+	@After
+	public void destroy() throws IOException {
+		FileUtils.deleteDirectory(imagesDirectory.toFile());
+	}
+
+	private Path getBlob() {
+		return imagesDirectory.resolve("images/blobs/9f/86/" + HASH);
+	}
+
+	private static ImageBlob getImageBlob() {
+		ImageBlob imageBlob = new ImageBlob();
+		imageBlob.setHash(HASH);
+		imageBlob.setContentType("image/png");
+		imageBlob.setLength(CONTENT.length);
+		imageBlob.setReferenceCount(1);
+		return imageBlob;
+	}
+
+	@Test
+	public void shouldStoreWhenIsOK() throws IOException {
+		// When
+		when(imageBlobRepository.incrementReferenceCount(HASH)).thenReturn(0);
+		String hash = imageStoreServiceImpl.store(new ByteArrayInputStream(CONTENT), "image/png");
+
+		// Then
+		assertThat(hash).isEqualTo(HASH);
+		assertThat(Files.readAllBytes(getBlob())).isEqualTo(CONTENT);
+		verify(imageBlobRepository, times(1)).saveAndFlush(getImageBlob());
+		verify(thumbnailService, times(1)).generate(getBlob(), "image/png");
+		verify(imageCache, times(1)).invalidate(getBlob());
+	}
+
+	@Test
+	public void shouldStoreWhenTransactionIsRolledBack() throws IOException {
+		// Given
+		TransactionSynchronizationManager.initSynchronization();
+
+		// When
+		when(imageBlobRepository.incrementReferenceCount(HASH)).thenReturn(1);
+		try {
+			imageStoreServiceImpl.store(new ByteArrayInputStream(CONTENT), "image/png");
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		// Then
+		verify(transactionManager, times(2)).getTransaction(any(TransactionDefinition.class));
+		verify(imageBlobRepository, times(1)).decrementReferenceCount(HASH);
+	}
+
+	@Test
+	public void shouldStoreOnceWhenImageIsAlreadyStored() throws IOException {
+		// When
+		when(imageBlobRepository.incrementReferenceCount(HASH)).thenReturn(0, 1);
+		imageStoreServiceImpl.store(new ByteArrayInputStream(CONTENT), "image/png");
+		String hash = imageStoreServiceImpl.store(new ByteArrayInputStream(CONTENT), "image/png");
+
+		// Then
+		assertThat(hash).isEqualTo(HASH);
+		verify(imageBlobRepository, times(1)).saveAndFlush(any(ImageBlob.class));
+		assertThat(Files.list(getBlob().getParent()).count()).isEqualTo(1L);
+		assertThat(Files.list(imagesDirectory.resolve("images/blobs")).count()).isEqualTo(1L);
+	}
+
+	@Test
+	public void shouldGetImageWhenIsOK() throws IOException {
+		// When
+		imageStoreServiceImpl.store(new ByteArrayInputStream(CONTENT), "image/png");
+		when(imageBlobRepository.findById(HASH)).thenReturn(Optional.of(getImageBlob()));
+
+		// Then
+		Optional<StoredImage> image = imageStoreServiceImpl.getImage(HASH);
+		assertThat(image).isPresent();
+		assertThat(image.get().getContentType()).isEqualTo("image/png");
+		assertThat(image.get().getLength()).isEqualTo(CONTENT.length);
+	}
+
+	@Test
+	public void shouldGetImageWhenHashIsInvalid() {
+		// Then
+		assertThat(imageStoreServiceImpl.getImage("../../application.properties")).isEmpty();
+		verify(imageBlobRepository, times(0)).findById(anyString());
+	}
+
+	@Test
+	public void shouldGetImageWhenIsNotStored() {
+		// When
+		when(imageBlobRepository.findById(HASH)).thenReturn(Optional.empty());
+
+		// Then
+		assertThat(imageStoreServiceImpl.getImage(HASH)).isEmpty();
+	}
+
+	@Test
+	public void shouldReleaseWhenIsOK() {
+		// When
+		imageStoreServiceImpl.release(HASH);
+
+		// Then
+		verify(imageBlobRepository, times(1)).decrementReferenceCount(HASH);
+	}
+
+	@Test
+	public void shouldSweepWhenImageIsNotReferenced() throws IOException {
+		// Given
+		imageStoreServiceImpl.store(new ByteArrayInputStream(CONTENT), "image/png");
+
+		// When
+		when(imageBlobRepository.findAllUnreferencedHashes()).thenReturn(Collections.singletonList(HASH));
+		when(imageBlobRepository.deleteIfUnreferenced(HASH)).thenReturn(1);
+		imageStoreServiceImpl.sweep();
+
+		// Then
+		assertThat(Files.exists(getBlob())).isFalse();
+		verify(thumbnailService, times(1)).delete(getBlob());
+		verify(imageCache, times(1)).invalidate(getBlob());
+	}
+
+	@Test
+	public void shouldSweepWhenImageIsReferencedAgain() throws IOException {
+		// Given
+		imageStoreServiceImpl.store(new ByteArrayInputStream(CONTENT), "image/png");
+
+		// When
+		when(imageBlobRepository.findAllUnreferencedHashes()).thenReturn(Collections.singletonList(HASH));
+		when(imageBlobRepository.deleteIfUnreferenced(HASH)).thenReturn(0);
+		imageStoreServiceImpl.sweep();
+
+		// Then
+		assertThat(Files.exists(getBlob())).isTrue();
+	}
+}
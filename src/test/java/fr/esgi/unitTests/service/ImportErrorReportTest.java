@@ -0,0 +1,64 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.esgi.service.dto.ImportErrorDTO;
+import fr.esgi.service.importer.ImportErrorReport;
+
+public class ImportErrorReportTest {
+
+	private Path file;
+
+	@Before
+	public void init() throws IOException {
+		file = Files.createTempFile("import", "-errors.csv");
+		Files.delete(file);
+	}
+
+	@After
+	public void destroy() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void shouldWriteErrorsWhenIsOK() throws IOException {
+		// Given
+		try (ImportErrorReport errorReport = ImportErrorReport.open(file)) {
+			// When
+			errorReport.onRowRejected(new ImportErrorDTO(3, "price", "The value is not a number"));
+			errorReport.onRowRejected(new ImportErrorDTO(5, null, "Invalid; \"row\""));
+
+			// Then
+			assertThat(errorReport.getRowsFailed()).isEqualTo(2);
+		}
+		assertThat(Files.readAllLines(file)).containsExactly("line;column;reason",
+				"3;price;The value is not a number", "5;;\"Invalid; \"\"row\"\"\"");
+	}
+
+	@Test
+	public void shouldWriteErrorsWhenIsResumed() throws IOException {
+		// Given
+		try (ImportErrorReport errorReport = ImportErrorReport.open(file)) {
+			errorReport.onRowRejected(new ImportErrorDTO(3, "price", "The value is not a number"));
+		}
+
+		// When
+		try (ImportErrorReport errorReport = ImportErrorReport.open(file)) {
+			errorReport.onRowRejected(new ImportErrorDTO(3, "price", "The value is not a number"));
+			errorReport.onRowRejected(new ImportErrorDTO(8, "name", "The value is required"));
+
+			// Then
+			assertThat(errorReport.getRowsFailed()).isEqualTo(1);
+		}
+		assertThat(Files.readAllLines(file)).containsExactly("line;column;reason",
+				"3;price;The value is not a number", "8;name;The value is required");
+	}
+}
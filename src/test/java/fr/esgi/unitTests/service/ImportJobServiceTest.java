@@ -0,0 +1,307 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.dao.ImportJobRepository;
+import fr.esgi.domain.ImportJob;
+import fr.esgi.enums.ImportJobStatus;
+import fr.esgi.enums.ImportType;
+import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.service.DatabaseUpdatorService;
+import fr.esgi.service.dto.ImportErrorDTO;
+import fr.esgi.service.dto.ImportJobDTO;
+import fr.esgi.service.dto.ImportReportDTO;
+import fr.esgi.service.importer.ImportProgressListener;
+import fr.esgi.service.importer.RowErrorListener;
+import fr.esgi.service.impl.ImportJobServiceImpl;
+import fr.esgi.service.mapper.ImportJobMapper;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ImportJobServiceTest {
+
+	private static final long ID = 1L;
+
+	private static final String CSV = "csv";
+
+	private static final String NODE_ID = "node-1";
+
+	@Mock
+	private ImportJobRepository importJobRepository;
+
+	@Mock
+	private ImportJobMapper importJobMapper;
+
+	@Mock
+	private DatabaseUpdatorService databaseUpdatorService;
+
+	@Mock
+	private ConfigurationService configurationService;
+
+	private Path importDirectory;
+
+	private ImportJob savedImportJob;
+
+	private ImportJobServiceImpl importJobServiceImpl;
+
+	@Before
+	public void init() throws IOException {
+		importDirectory = Files.createTempDirectory("imports");
+		// The jobs run on the calling thread.
+		Executor importJobExecutor = Runnable::run;
+		importJobServiceImpl = new ImportJobServiceImpl(importJobRepository, importJobMapper, databaseUpdatorService,
+				configurationService, importJobExecutor);
+		when(configurationService.getImportDirectory()).thenReturn(importDirectory.toString());
+		when(configurationService.getIngestionDirectory()).thenReturn(importDirectory.resolve("ingestion").toString());
+		when(configurationService.getNodeId()).thenReturn(NODE_ID);
+		when(configurationService.getImportJobHeartbeatDelayInMilliseconds()).thenReturn(30000L);
+		when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> {
+			savedImportJob = invocation.getArgument(0);
+			savedImportJob.setId(ID);
+			return savedImportJob;
+		});
+		when(importJobRepository.findById(ID)).thenAnswer(invocation -> Optional.ofNullable(savedImportJob));
+		when(importJobMapper.importJobToImportJobDTO(any(ImportJob.class))).thenAnswer(invocation -> new ImportJobDTO());
+	}
+
+	@After
+	public void destroy() throws IOException {
+		FileUtils.deleteDirectory(importDirectory.toFile());
+	}
+
+	@Test
+	public void shouldSubmitImportJobWhenIsOK() throws BurgerSTerminalException {
+		// Given
+		MockMultipartFile file = new MockMultipartFile("file", "filename.csv", "text/plain",
+				"name;price;available;categoryId;managerId\nBurger;0.50;true;2;1".getBytes());
+		ImportReportDTO report = new ImportReportDTO();
+		report.setRowsRead(1);
+
+		// When
+		when(databaseUpdatorService.importProducts(any(InputStream.class), eq(CSV), eq(0L), any(ImportProgressListener.class),
+				any(RowErrorListener.class)))
+		.thenAnswer(invocation -> {
+			ImportProgressListener progressListener = invocation.getArgument(3);
+			progressListener.onChunkWritten(1, 45, 1, 1, 0);
+			return report;
+		});
+
+		// Then
+		assertThat(importJobServiceImpl.submit(file, ImportType.PRODUCT, CSV)).isNotNull();
+		assertThat(savedImportJob.getStatus()).isEqualTo(ImportJobStatus.DONE);
+		assertThat(savedImportJob.getRowsParsed()).isEqualTo(1);
+		assertThat(savedImportJob.getRowsWritten()).isEqualTo(1);
+		assertThat(savedImportJob.getCheckpoint()).isEqualTo(1);
+		assertThat(savedImportJob.getBytesRead()).isEqualTo(savedImportJob.getFileSize());
+		assertThat(savedImportJob.getEndDate()).isNotNull();
+		assertThat(Paths.get(savedImportJob.getFilePath())).doesNotExist();
+	}
+
+	@Test
+	public void shouldSubmitImportJobWhenARowIsRejected() throws Exception {
+		// Given
+		MockMultipartFile file = new MockMultipartFile("file", "filename.json", "text/plain",
+				"[{\"name\":\"TBifebo\",\"price\":0.50,\"available\":true,\"managerId\":4}]".getBytes());
+
+		// When
+		when(databaseUpdatorService.importMenus(any(InputStream.class), anyString(), anyLong(), any(ImportProgressListener.class),
+				any(RowErrorListener.class)))
+		.thenAnswer(invocation -> {
+			RowErrorListener rowErrorListener = invocation.getArgument(4);
+			rowErrorListener.onRowRejected(new ImportErrorDTO(1, "managerId", "error.manager.not.found"));
+			return new ImportReportDTO();
+		});
+
+		// Then
+		importJobServiceImpl.submit(file, ImportType.MENU, "json");
+		assertThat(savedImportJob.getStatus()).isEqualTo(ImportJobStatus.DONE);
+		assertThat(savedImportJob.getRowsFailed()).isEqualTo(1);
+		Optional<Resource> errorReport = importJobServiceImpl.getErrorReport(ID);
+		assertThat(errorReport).isPresent();
+		assertThat(Files.readAllLines(errorReport.get().getFile().toPath()))
+		.containsExactly("line;column;reason", "1;managerId;error.manager.not.found");
+	}
+
+	@Test
+	public void shouldSubmitImportJobWhenIsKO() throws BurgerSTerminalException {
+		// Given
+		MockMultipartFile file = new MockMultipartFile("file", "filename.json", "text/plain", "{}".getBytes());
+
+		// When
+		when(databaseUpdatorService.importMenus(any(InputStream.class), anyString(), anyLong(), any(ImportProgressListener.class),
+				any(RowErrorListener.class)))
+		.thenThrow(new BurgerSTerminalException("An error occurred during the import"));
+
+		// Then
+		importJobServiceImpl.submit(file, ImportType.MENU, "json");
+		assertThat(savedImportJob.getStatus()).isEqualTo(ImportJobStatus.FAILED);
+		assertThat(savedImportJob.getErrorMessage()).isEqualTo("An error occurred during the import");
+	}
+
+	@Test
+	public void shouldSubmitIngestedFileWhenIsOK() throws Exception {
+		// Given
+		Path file = Files.write(importDirectory.resolve("products.csv"), "name;price;available;categoryId;managerId".getBytes());
+
+		// When
+		when(databaseUpdatorService.importProducts(any(InputStream.class), eq(CSV), eq(0L), any(ImportProgressListener.class),
+				any(RowErrorListener.class)))
+		.thenReturn(new ImportReportDTO());
+
+		// Then
+		importJobServiceImpl.submit(file, ImportType.PRODUCT, CSV);
+		assertThat(savedImportJob.getStatus()).isEqualTo(ImportJobStatus.DONE);
+		assertThat(savedImportJob.getFileName()).isEqualTo("products.csv");
+		assertThat(file).doesNotExist();
+		Path processedFile = importDirectory.resolve("ingestion/processed")
+				.resolve(Paths.get(savedImportJob.getFilePath()).getFileName());
+		assertThat(processedFile).hasContent("name;price;available;categoryId;managerId");
+	}
+
+	@Test
+	public void shouldSubmitIngestedFileWhenIsKO() throws Exception {
+		// Given
+		Path file = Files.write(importDirectory.resolve("menus.json"), "{}".getBytes());
+
+		// When
+		when(databaseUpdatorService.importMenus(any(InputStream.class), anyString(), anyLong(), any(ImportProgressListener.class),
+				any(RowErrorListener.class)))
+		.thenThrow(new BurgerSTerminalException("An error occurred during the import"));
+
+		// Then
+		importJobServiceImpl.submit(file, ImportType.MENU, "json");
+		assertThat(savedImportJob.getStatus()).isEqualTo(ImportJobStatus.FAILED);
+		assertThat(importDirectory.resolve("ingestion/failed")
+				.resolve(Paths.get(savedImportJob.getFilePath()).getFileName())).exists();
+	}
+
+	@Test
+	public void shouldResumeInterruptedJobsAfterTheCheckpoint() throws Exception {
+		// Given
+		Path file = Files.write(importDirectory.resolve("import.csv"), "name;price;available;managerId".getBytes());
+		ImportJob importJob = new ImportJob();
+		importJob.setId(ID);
+		importJob.setType(ImportType.MENU);
+		importJob.setFileFormat(CSV);
+		importJob.setFilePath(file.toString());
+		importJob.setStatus(ImportJobStatus.RUNNING);
+		importJob.setCheckpoint(500);
+		savedImportJob = importJob;
+
+		// When
+		when(importJobRepository.findAllByStatusInOrderByIdAsc(any())).thenReturn(Collections.singletonList(importJob));
+		when(importJobRepository.claim(eq(ID), eq(NODE_ID), any(), any(), any())).thenReturn(1);
+		when(databaseUpdatorService.importMenus(any(InputStream.class), eq(CSV), eq(500L), any(ImportProgressListener.class),
+				any(RowErrorListener.class)))
+		.thenReturn(new ImportReportDTO());
+
+		// Then
+		importJobServiceImpl.resumeInterruptedJobs();
+		verify(databaseUpdatorService).importMenus(any(InputStream.class), eq(CSV), eq(500L), any(ImportProgressListener.class),
+				any(RowErrorListener.class));
+		assertThat(savedImportJob.getStatus()).isEqualTo(ImportJobStatus.DONE);
+		assertThat(savedImportJob.getRowsParsed()).isEqualTo(500);
+		verify(importJobRepository).beat(eq(NODE_ID), any(), any());
+	}
+
+	@Test
+	public void shouldNotResumeInterruptedJobsWhenClaimedByAnotherNode() throws Exception {
+		// Given
+		ImportJob importJob = new ImportJob();
+		importJob.setId(ID);
+		importJob.setType(ImportType.MENU);
+		importJob.setStatus(ImportJobStatus.RUNNING);
+		importJob.setOwner("node-2");
+
+		// When
+		when(importJobRepository.findAllByStatusInOrderByIdAsc(any())).thenReturn(Collections.singletonList(importJob));
+		when(importJobRepository.claim(eq(ID), eq(NODE_ID), any(), any(), any())).thenReturn(0);
+
+		// Then
+		importJobServiceImpl.resumeInterruptedJobs();
+		verify(databaseUpdatorService, never()).importMenus(any(InputStream.class), anyString(), anyLong(),
+				any(ImportProgressListener.class), any(RowErrorListener.class));
+	}
+
+	@Test
+	public void shouldKeepImportJobPendingWhenExecutorIsFull() throws Exception {
+		// Given
+		ImportJobServiceImpl fullImportJobServiceImpl = new ImportJobServiceImpl(importJobRepository, importJobMapper,
+				databaseUpdatorService, configurationService, command -> {
+					throw new RejectedExecutionException("full");
+				});
+		MockMultipartFile file = new MockMultipartFile("file", "filename.csv", "text/plain",
+				"name;price;available;categoryId;managerId\nBurger;0.50;true;2;1".getBytes());
+
+		// When
+		ImportJobDTO importJobDTO = fullImportJobServiceImpl.submit(file, ImportType.PRODUCT, CSV);
+
+		// Then
+		assertThat(importJobDTO).isNotNull();
+		assertThat(savedImportJob.getStatus()).isEqualTo(ImportJobStatus.PENDING);
+		assertThat(savedImportJob.getOwner()).isEqualTo(NODE_ID);
+		assertThat(Paths.get(savedImportJob.getFilePath())).exists();
+	}
+
+	@Test
+	public void shouldFindOneWhenIsRunning() {
+		// Given
+		ImportJob importJob = new ImportJob();
+		importJob.setId(ID);
+		importJob.setStatus(ImportJobStatus.RUNNING);
+		// Interrupted for an hour after 10 seconds of processing
+		importJob.setStartDate(ZonedDateTime.now().minusHours(1));
+		importJob.setProcessingTime(10000);
+		importJob.setFileSize(100);
+		importJob.setBytesRead(50);
+		importJob.setRowsWritten(1000);
+
+		// When
+		when(importJobRepository.findById(ID)).thenReturn(Optional.of(importJob));
+
+		// Then
+		Optional<ImportJobDTO> importJobDTO = importJobServiceImpl.findOne(ID);
+		assertThat(importJobDTO).isPresent();
+		assertThat(importJobDTO.get().getProgress()).isEqualTo(50);
+		assertThat(importJobDTO.get().getRowsPerSecond()).isCloseTo(100d, within(5d));
+		assertThat(importJobDTO.get().getEstimatedRemainingSeconds()).isEqualTo(10L);
+	}
+
+	@Test
+	public void shouldFindOneWhenIsEmpty() {
+		// When
+		when(importJobRepository.findById(ID)).thenReturn(Optional.empty());
+
+		// Then
+		assertThat(importJobServiceImpl.findOne(ID)).isEmpty();
+	}
+}
@@ -0,0 +1,100 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.enums.ImportType;
+import fr.esgi.service.ImportJobService;
+import fr.esgi.service.impl.IngestionServiceImpl;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class IngestionServiceTest {
+
+	@Mock
+	private ImportJobService importJobService;
+
+	@Mock
+	private ConfigurationService configurationService;
+
+	private Path ingestionDirectory;
+
+	private IngestionServiceImpl ingestionServiceImpl;
+
+	@Before
+	public void init() throws IOException {
+		ingestionDirectory = Files.createTempDirectory("ingestion");
+		when(configurationService.getIngestionDirectory()).thenReturn(ingestionDirectory.toString());
+		ingestionServiceImpl = new IngestionServiceImpl(importJobService, configurationService);
+	}
+
+	@After
+	public void destroy() throws IOException {
+		FileUtils.deleteDirectory(ingestionDirectory.toFile());
+	}
+
+	@Test
+	public void shouldSubmitFileWhenItIsStable() throws Exception {
+		// Given
+		Path directory = Files.createDirectories(ingestionDirectory.resolve("incoming/menus"));
+		Path file = Files.write(directory.resolve("menus.JSON"), "[]".getBytes());
+
+		// When
+		ingestionServiceImpl.scanIncomingDirectories();
+
+		// Then
+		verify(importJobService, never()).submit(any(Path.class), any(ImportType.class), anyString());
+		ingestionServiceImpl.scanIncomingDirectories();
+		verify(importJobService).submit(file, ImportType.MENU, "json");
+	}
+
+	@Test
+	public void shouldNotSubmitFileWhenItIsBeingCopied() throws Exception {
+		// Given
+		Path directory = Files.createDirectories(ingestionDirectory.resolve("incoming/products"));
+		Path file = Files.write(directory.resolve("products.csv"), "name;price".getBytes());
+
+		// When
+		ingestionServiceImpl.scanIncomingDirectories();
+		Files.write(file, "name;price;available;categoryId;managerId\n".getBytes());
+		ingestionServiceImpl.scanIncomingDirectories();
+
+		// Then
+		verify(importJobService, never()).submit(any(Path.class), any(ImportType.class), anyString());
+		ingestionServiceImpl.scanIncomingDirectories();
+		verify(importJobService).submit(eq(file), eq(ImportType.PRODUCT), eq("csv"));
+	}
+
+	@Test
+	public void shouldMoveFileToFailedWhenFormatIsKO() throws Exception {
+		// Given
+		Path directory = Files.createDirectories(ingestionDirectory.resolve("incoming/products"));
+		Path file = Files.write(directory.resolve("products.xml"), "<products/>".getBytes());
+
+		// When
+		ingestionServiceImpl.scanIncomingDirectories();
+		ingestionServiceImpl.scanIncomingDirectories();
+
+		// Then
+		verify(importJobService, never()).submit(any(Path.class), any(ImportType.class), anyString());
+		assertThat(file).doesNotExist();
+		assertThat(ingestionDirectory.resolve("failed/products.xml")).exists();
+	}
+}
@@ -0,0 +1,70 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import fr.esgi.service.importer.JsonRecordReader;
+
+public class JsonRecordReaderTest {
+
+	@Test
+	public void shouldReadRecordsWhenIsOK() throws IOException {
+		// Given
+		JsonRecordReader reader = newReader("[{\"name\":\"Burger\",\"price\":1.5,\"available\":true},{\"name\":null}]");
+
+		// Then
+		assertThat(reader.readRecord()).containsEntry("name", "Burger").containsEntry("price", "1.5")
+		.containsEntry("available", "true");
+		assertThat(reader.readRecord()).containsEntry("name", null);
+		assertThat(reader.getRecordNumber()).isEqualTo(2);
+		assertThat(reader.readRecord()).isNull();
+	}
+
+	@Test
+	public void shouldReadRecordsLineNumberWhenIsOK() throws IOException {
+		// Given
+		JsonRecordReader reader = newReader("[\n  {\"name\":\"Burger\"},\n  {\"name\":\"Frites\"}\n]");
+
+		// Then
+		reader.readRecord();
+		assertThat(reader.getLineNumber()).isEqualTo(2);
+		reader.readRecord();
+		assertThat(reader.getLineNumber()).isEqualTo(3);
+	}
+
+	@Test
+	public void shouldReadRecordWhenIsEmpty() throws IOException {
+		// Given
+		JsonRecordReader reader = newReader("");
+
+		// Then
+		assertThat(reader.readRecord()).isNull();
+	}
+
+	@Test
+	public void shouldReadRecordWhenIsNotAnArray() throws IOException {
+		// Given
+		JsonRecordReader reader = newReader("{\"name\":\"Burger\"}");
+
+		// Then
+		assertThatThrownBy(reader::readRecord).isInstanceOf(IOException.class);
+	}
+
+	@Test
+	public void shouldReadRecordWhenValueIsNested() throws IOException {
+		// Given
+		JsonRecordReader reader = newReader("[{\"name\":{\"fr\":\"Burger\"}}]");
+
+		// Then
+		assertThatThrownBy(reader::readRecord).isInstanceOf(IOException.class);
+	}
+
+	private static JsonRecordReader newReader(String content) throws IOException {
+		return new JsonRecordReader(new ByteArrayInputStream(content.getBytes()));
+	}
+}
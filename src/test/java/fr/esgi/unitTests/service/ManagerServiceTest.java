@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.Test;
@@ -68,4 +70,16 @@ public class ManagerServiceTest {
 		// Then
 		assertThat(managerServiceImpl.findByUserName(PSEUDO)).isEqualTo(null);
 	}
+
+	@Test
+	public void shouldFindAllIdsWhenIsOK() {
+		// Given
+		List<Long> ids = Arrays.asList(ID, ID, 2L);
+
+		// When
+		when(managerRepository.findAllIds()).thenReturn(ids);
+
+		// Then
+		assertThat(managerServiceImpl.findAllIds()).containsOnly(ID, 2L);
+	}
 }
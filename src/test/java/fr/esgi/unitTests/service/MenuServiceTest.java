@@ -3,10 +3,12 @@ package fr.esgi.unitTests.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -23,6 +25,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 
@@ -63,6 +66,9 @@ public class MenuServiceTest {
 	@Mock
 	private ProductMapper productMapper;
 
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	@InjectMocks
 	private MenuServiceImpl menuServiceImpl;
 	
@@ -383,5 +389,32 @@ public class MenuServiceTest {
 		// Then
 		assertThat(menuServiceImpl.update(menuDTO)).isNull();
 	}
-	
+
+	@Test
+	public void shouldUpsertAllWhenIsOK() {
+		// Given
+		MenuDTO existing = getMenuDTO();
+		existing.setId(null);
+		MenuDTO created = getMenuDTO();
+		created.setId(null);
+		created.setName(NAME);
+
+		// When
+		when(menuMapper.menuDTOToMenu(any())).thenAnswer(invocation -> {
+			MenuDTO menuDTO = invocation.getArgument(0);
+			Menu menu = new Menu();
+			menu.setName(menuDTO.getName());
+			return menu;
+		});
+		when(menuRepository.findIdsByNames(anyCollection()))
+		.thenReturn(Collections.singletonList(new Object[] { ID, MENU_TASTY }));
+		when(menuRepository.updateAll(anyList())).thenReturn(1);
+
+		// Then
+		assertThat(menuServiceImpl.upsertAll(Arrays.asList(existing, created))).isEqualTo(1);
+		verify(menuRepository).saveAll(argThat((List<Menu> menus) -> menus.size() == 1
+				&& NAME.equals(menus.get(0).getName())));
+		verify(menuRepository).updateAll(argThat(menus -> menus.size() == 1
+				&& Long.valueOf(ID).equals(menus.get(0).getId())));
+	}
 }
@@ -0,0 +1,79 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.service.cache.PaymentSession;
+import fr.esgi.service.cache.PaymentSessionCache;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PaymentSessionCacheTest {
+
+	private static final String PAYMENT_ID = "PAY-1";
+
+	private static final long ID = 1L;
+
+	@Mock
+	private ConfigurationService configurationService;
+
+	@Test
+	public void shouldRemoveRegisteredSessionWhenIsOK() {
+		// Given
+		when(configurationService.getPaymentSessionTtlInMilliseconds()).thenReturn(60000L);
+		PaymentSessionCache cache = new PaymentSessionCache(configurationService);
+
+		// When
+		cache.register(PAYMENT_ID, ID, BigDecimal.ONE);
+
+		// Then
+		assertThat(cache.remove(PAYMENT_ID).map(PaymentSession::getCommandId)).contains(ID);
+		assertThat(cache.remove(PAYMENT_ID)).isEmpty();
+	}
+
+	@Test
+	public void shouldNotReturnExpiredSessionWhenIsKO() {
+		// Given
+		when(configurationService.getPaymentSessionTtlInMilliseconds()).thenReturn(-1L);
+		PaymentSessionCache cache = new PaymentSessionCache(configurationService);
+
+		// When
+		cache.register(PAYMENT_ID, ID, BigDecimal.ONE);
+
+		// Then
+		assertThat(cache.remove(PAYMENT_ID)).isEmpty();
+	}
+
+	@Test
+	public void shouldBePaidByTotalWhenScaleDiffers() {
+		// Given
+		when(configurationService.getPaymentSessionTtlInMilliseconds()).thenReturn(60000L);
+		PaymentSessionCache cache = new PaymentSessionCache(configurationService);
+
+		// When
+		PaymentSession session = cache.register(PAYMENT_ID, ID, new BigDecimal("12.5"));
+
+		// Then
+		assertThat(session.isPaidBy(new BigDecimal("12.50"))).isTrue();
+		assertThat(session.isPaidBy(new BigDecimal("0.01"))).isFalse();
+		assertThat(session.isPaidBy(null)).isFalse();
+	}
+
+	@Test
+	public void shouldRemoveUnknownSessionWhenIsKO() {
+		// Given
+		when(configurationService.getPaymentSessionTtlInMilliseconds()).thenReturn(60000L);
+		PaymentSessionCache cache = new PaymentSessionCache(configurationService);
+
+		// Then
+		assertThat(cache.remove(PAYMENT_ID)).isEmpty();
+		assertThat(cache.remove(null)).isEmpty();
+	}
+}
@@ -28,6 +28,7 @@ import fr.esgi.domain.Manager;
 import fr.esgi.domain.Menu;
 import fr.esgi.domain.Product;
 import fr.esgi.service.CommandService;
+import fr.esgi.service.cache.PaymentSessionCache;
 import fr.esgi.service.dto.CommandDTO;
 import fr.esgi.service.dto.Paypal;
 import fr.esgi.service.impl.PayPalServiceImpl;
@@ -59,6 +60,9 @@ public class PaypalServiceTest {
 	@Mock
 	private ConfigurationService configurationService;
 
+	@Mock
+	private PaymentSessionCache paymentSessionCache;
+
 	@InjectMocks
 	private PayPalServiceImpl payPalServiceImpl;
 
@@ -3,9 +3,11 @@ package fr.esgi.unitTests.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -15,6 +17,7 @@ import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
@@ -22,6 +25,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -33,6 +37,7 @@ import fr.esgi.domain.Manager;
 import fr.esgi.domain.Menu;
 import fr.esgi.domain.Product;
 import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.service.event.CatalogChangedEvent;
 import fr.esgi.service.impl.ProductServiceImpl;
 import fr.esgi.service.mapper.ProductMapper;
 
@@ -59,6 +64,9 @@ public class ProductServiceTest {
 	@Mock
 	private ProductMapper productMapper;
 
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	@InjectMocks
 	private ProductServiceImpl productServiceImpl;
 
@@ -374,6 +382,7 @@ public class ProductServiceTest {
 		
 		// Then
 		verify(productRepository, times(1)).deleteById(anyLong());
+		verify(eventPublisher).publishEvent(any(CatalogChangedEvent.class));
 	}
 	
 	@Test
@@ -404,4 +413,36 @@ public class ProductServiceTest {
 		assertThat(productServiceImpl.update(productDTO)).isNull();
 	}
 	
+
+	@Test
+	public void shouldUpsertAllWhenIsOK() {
+		// Given
+		ProductDTO existing = getProductDTO();
+		existing.setId(null);
+		existing.setName("Burger");
+		ProductDTO duplicate = getProductDTO();
+		duplicate.setId(null);
+		duplicate.setName("BURGER");
+		ProductDTO created = getProductDTO();
+		created.setId(null);
+		created.setName("Frites");
+
+		// When
+		when(productMapper.productDTOToProduct(any())).thenAnswer(invocation -> {
+			ProductDTO productDTO = invocation.getArgument(0);
+			Product product = new Product();
+			product.setName(productDTO.getName());
+			return product;
+		});
+		when(productRepository.findIdsByNames(anyCollection()))
+		.thenReturn(Collections.singletonList(new Object[] { 5L, "Burger" }));
+		when(productRepository.updateAll(anyList())).thenReturn(1);
+
+		// Then
+		assertThat(productServiceImpl.upsertAll(Arrays.asList(existing, duplicate, created))).isEqualTo(1);
+		verify(productRepository).saveAll(argThat((List<Product> products) -> products.size() == 1
+				&& "Frites".equals(products.get(0).getName())));
+		verify(productRepository).updateAll(argThat(products -> products.size() == 1
+				&& Long.valueOf(5L).equals(products.get(0).getId()) && "BURGER".equals(products.get(0).getName())));
+	}
 }
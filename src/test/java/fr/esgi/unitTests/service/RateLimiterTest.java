@@ -0,0 +1,103 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.security.ratelimit.RateLimitPolicy;
+import fr.esgi.security.ratelimit.RateLimiter;
+import fr.esgi.security.ratelimit.TokenBucket;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class RateLimiterTest {
+
+	private static final long MINUTE_IN_NANOS = 60_000_000_000L;
+
+	@Mock
+	private ConfigurationService configurationService;
+
+	@Before
+	public void setUp() {
+		when(configurationService.getAuthenticateRateLimit()).thenReturn(2);
+		when(configurationService.getRegisterRateLimit()).thenReturn(2);
+		when(configurationService.getPaymentRateLimit()).thenReturn(2);
+		when(configurationService.getAvailabilityRateLimit()).thenReturn(2);
+		when(configurationService.getRateLimitPeriodInMilliseconds()).thenReturn(60000L);
+	}
+
+	@Test
+	public void shouldLimitClientWhenBucketIsEmpty() {
+		// Given
+		RateLimiter rateLimiter = new RateLimiter(configurationService);
+		RateLimitPolicy policy = rateLimiter.getPolicy("/api/authenticate/").get();
+
+		// When
+		long first = rateLimiter.tryAcquire(policy, "ip:10.0.0.1");
+		long second = rateLimiter.tryAcquire(policy, "ip:10.0.0.1");
+		long third = rateLimiter.tryAcquire(policy, "ip:10.0.0.1");
+
+		// Then
+		assertThat(first).isZero();
+		assertThat(second).isZero();
+		assertThat(third).isPositive().isLessThanOrEqualTo(30000);
+		assertThat(rateLimiter.tryAcquire(policy, "ip:10.0.0.2")).isZero();
+		assertThat(rateLimiter.getPolicy("/api/products")).isEmpty();
+	}
+
+	@Test
+	public void shouldLimitSubPathsWhenRouteIsPattern() {
+		// Given
+		RateLimiter rateLimiter = new RateLimiter(configurationService);
+
+		// When
+		String register = rateLimiter.getPolicy("/api/register").get().getName();
+		String file = rateLimiter.getPolicy("/api/register/file/1").get().getName();
+		String availability = rateLimiter.getPolicy("/api/register/availability").get().getName();
+
+		// Then
+		assertThat(register).isEqualTo("register");
+		assertThat(file).isEqualTo("register");
+		assertThat(availability).isEqualTo("availability");
+		assertThat(rateLimiter.getPolicy("/api/authenticate/other")).isEmpty();
+	}
+
+	@Test
+	public void shouldShareBucketWhenTooManyClients() {
+		// Given
+		RateLimiter rateLimiter = new RateLimiter(configurationService, 1);
+		RateLimitPolicy policy = rateLimiter.getPolicy("/api/register").get();
+		rateLimiter.tryAcquire(policy, "ip:10.0.0.1");
+
+		// When
+		rateLimiter.tryAcquire(policy, "ip:10.0.0.2");
+		rateLimiter.tryAcquire(policy, "ip:10.0.0.3");
+		long wait = rateLimiter.tryAcquire(policy, "ip:10.0.0.4");
+
+		// Then
+		assertThat(rateLimiter.size()).isEqualTo(1);
+		assertThat(wait).isPositive();
+	}
+
+	@Test
+	public void shouldRefillBucketWhenIsOK() {
+		// Given
+		TokenBucket bucket = new TokenBucket(2, MINUTE_IN_NANOS, 0);
+		bucket.tryConsume(0);
+		bucket.tryConsume(0);
+
+		// When
+		long wait = bucket.tryConsume(0);
+
+		// Then
+		assertThat(wait).isEqualTo(MINUTE_IN_NANOS / 2);
+		assertThat(bucket.tryConsume(MINUTE_IN_NANOS / 2)).isZero();
+		assertThat(bucket.isFull(MINUTE_IN_NANOS / 2)).isFalse();
+		assertThat(bucket.isFull(MINUTE_IN_NANOS * 3 / 2)).isTrue();
+	}
+}
@@ -0,0 +1,97 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import fr.esgi.security.jwt.RevokedTokenCache;
+import fr.esgi.service.cache.BloomFilter;
+
+public class RevokedTokenCacheTest {
+
+	private static final String TOKEN_ID = "6f1c3f0e-8a52-4d8b-9a36-0d4c1e0b7a11";
+
+	private static final String OTHER_TOKEN_ID = "0b7e5a2c-3d4f-4b6a-8c9d-1e2f3a4b5c6d";
+
+	@Test
+	public void shouldBeRevokedWhenIsOK() {
+		// Given
+		RevokedTokenCache cache = new RevokedTokenCache();
+
+		// When
+		cache.revoke(TOKEN_ID, System.currentTimeMillis() + 60000);
+
+		// Then
+		assertThat(cache.isRevoked(TOKEN_ID)).isTrue();
+		assertThat(cache.isRevoked(OTHER_TOKEN_ID)).isFalse();
+	}
+
+	@Test
+	public void shouldForgetExpiredTokenWhenPruned() {
+		// Given
+		long now = System.currentTimeMillis();
+		RevokedTokenCache cache = new RevokedTokenCache();
+		cache.revoke(TOKEN_ID, now - 1);
+		cache.revoke(OTHER_TOKEN_ID, now + 60000);
+
+		// When
+		cache.prune(now);
+
+		// Then
+		assertThat(cache.isRevoked(TOKEN_ID)).isFalse();
+		assertThat(cache.isRevoked(OTHER_TOKEN_ID)).isTrue();
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldRevokeTokensIssuedBeforeNotBeforeWhenSubjectIsRevoked() {
+		// Given
+		long now = System.currentTimeMillis();
+		RevokedTokenCache cache = new RevokedTokenCache();
+
+		// When
+		cache.revokeSubject("Ben", now, now + 60000);
+
+		// Then
+		assertThat(cache.isRevoked("ben", now - 1000)).isTrue();
+		assertThat(cache.isRevoked("ben", now)).isFalse();
+		assertThat(cache.isRevoked("other", now - 1000)).isFalse();
+	}
+
+	@Test
+	public void shouldForgetExpiredSubjectWhenPruned() {
+		// Given
+		long now = System.currentTimeMillis();
+		RevokedTokenCache cache = new RevokedTokenCache();
+		cache.revokeSubject("Ben", now, now - 1);
+
+		// When
+		cache.prune(now);
+
+		// Then
+		assertThat(cache.isRevoked("Ben", now - 1000)).isFalse();
+	}
+
+	@Test
+	public void shouldContainAddedValuesWhenIsOK() {
+		// Given
+		BloomFilter bloomFilter = new BloomFilter(1 << 16, 7);
+		for (int i = 0; i < 1000; i++) {
+			bloomFilter.put("token-" + i);
+		}
+
+		// When
+		int falsePositives = 0;
+		for (int i = 1000; i < 11000; i++) {
+			if (bloomFilter.mightContain("token-" + i)) {
+				falsePositives++;
+			}
+		}
+
+		// Then
+		for (int i = 0; i < 1000; i++) {
+			assertThat(bloomFilter.mightContain("token-" + i)).isTrue();
+		}
+		assertThat(falsePositives).isLessThan(100);
+	}
+}
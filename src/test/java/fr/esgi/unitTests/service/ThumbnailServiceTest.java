@@ -0,0 +1,224 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.service.image.StoredImage;
+import fr.esgi.service.impl.ThumbnailServiceImpl;
+
+public class ThumbnailServiceTest {
+
+	private Path imagesDirectory;
+
+	private List<Runnable> tasks;
+
+	private ConfigurationService configurationService;
+
+	private ThumbnailServiceImpl thumbnailServiceImpl;
+
+	@Before
+	public void init() throws IOException {
+		imagesDirectory = Files.createTempDirectory("images");
+		tasks = new ArrayList<>();
+		configurationService = mock(ConfigurationService.class);
+		when(configurationService.getThumbnailMaxPixels()).thenReturn(25000000L);
+		thumbnailServiceImpl = new ThumbnailServiceImpl(tasks::add, configurationService);
+	}
+
+	@After
+	public void destroy() throws IOException {
+		FileUtils.deleteDirectory(imagesDirectory.toFile());
+	}
+
+	private Path createImage(String name, String format, int width, int height) throws IOException {
+		Path image = imagesDirectory.resolve(name);
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, image.toFile());
+		return image;
+	}
+
+	private static StoredImage getStoredImage(Path image, String contentType) throws IOException {
+		return new StoredImage(image, contentType, Files.size(image), Files.getLastModifiedTime(image).toMillis());
+	}
+
+	private void runTasks() {
+		tasks.forEach(Runnable::run);
+		tasks.clear();
+	}
+
+	@Test
+	public void shouldGenerateThumbnailsWhenIsOK() throws IOException {
+		// Given
+		Path image = createImage("avatar.png", "png", 600, 300);
+
+		// When
+		thumbnailServiceImpl.generate(image, "image/png");
+		runTasks();
+
+		// Then
+		StoredImage storedImage = getStoredImage(image, "image/png");
+		Optional<StoredImage> thumbnail = thumbnailServiceImpl.getThumbnail(storedImage, 100);
+		assertThat(thumbnail).isPresent();
+		assertThat(thumbnail.get().getContentType()).isEqualTo("image/png");
+		BufferedImage result = ImageIO.read(thumbnail.get().getPath().toFile());
+		assertThat(result.getWidth()).isEqualTo(128);
+		assertThat(result.getHeight()).isEqualTo(64);
+		assertThat(thumbnailServiceImpl.getThumbnail(storedImage, 64).get().getPath().getFileName())
+		.hasToString("64.png");
+		assertThat(thumbnailServiceImpl.getThumbnail(storedImage, 1000).get().getPath().getFileName())
+		.hasToString("256.png");
+	}
+
+	@Test
+	public void shouldGenerateJpegThumbnailsWhenImageIsJpeg() throws IOException {
+		// Given
+		Path image = createImage("avatar.jpg", "jpg", 300, 300);
+
+		// When
+		thumbnailServiceImpl.generate(image, "image/jpeg");
+		runTasks();
+
+		// Then
+		Optional<StoredImage> thumbnail = thumbnailServiceImpl.getThumbnail(getStoredImage(image, "image/jpeg"), 256);
+		assertThat(thumbnail).isPresent();
+		assertThat(thumbnail.get().getContentType()).isEqualTo("image/jpeg");
+		assertThat(ImageIO.read(thumbnail.get().getPath().toFile()).getWidth()).isEqualTo(256);
+	}
+
+	@Test
+	public void shouldGetThumbnailWhenIsNotGenerated() throws IOException {
+		// Given
+		Path image = createImage("avatar.png", "png", 600, 300);
+
+		// When
+		thumbnailServiceImpl.generate(image, "image/png");
+
+		// Then
+		assertThat(thumbnailServiceImpl.getThumbnail(getStoredImage(image, "image/png"), 64)).isEmpty();
+	}
+
+	@Test
+	public void shouldGenerateThumbnailsWhenImageIsSmall() throws IOException {
+		// Given
+		Path image = createImage("avatar.png", "png", 100, 80);
+
+		// When
+		thumbnailServiceImpl.generate(image, "image/png");
+		runTasks();
+
+		// Then
+		StoredImage storedImage = getStoredImage(image, "image/png");
+		assertThat(thumbnailServiceImpl.getThumbnail(storedImage, 64)).isPresent();
+		assertThat(thumbnailServiceImpl.getThumbnail(storedImage, 128)).isEmpty();
+	}
+
+	@Test
+	public void shouldGenerateThumbnailsOnceWhenAreAlreadyGenerated() throws IOException {
+		// Given
+		Path image = createImage("avatar.png", "png", 600, 600);
+		thumbnailServiceImpl.generate(image, "image/png");
+		runTasks();
+
+		// When
+		thumbnailServiceImpl.generate(image, "image/png");
+
+		// Then
+		assertThat(tasks).isEmpty();
+		assertThat(Files.isDirectory(imagesDirectory.resolve("avatar.png.thumbnails"))).isTrue();
+	}
+
+	@Test
+	public void shouldGenerateThumbnailsWhenGenerationWasInterrupted() throws IOException {
+		// Given
+		Path image = createImage("avatar.png", "png", 600, 600);
+		Path interrupted = Files.createDirectory(imagesDirectory.resolve("avatar.png.thumbnails.1"));
+		ImageIO.write(new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB), "png",
+				interrupted.resolve("64.png").toFile());
+
+		// When
+		thumbnailServiceImpl.generate(image, "image/png");
+		runTasks();
+
+		// Then
+		StoredImage storedImage = getStoredImage(image, "image/png");
+		assertThat(thumbnailServiceImpl.getThumbnail(storedImage, 64)).isPresent();
+		assertThat(thumbnailServiceImpl.getThumbnail(storedImage, 256)).isPresent();
+	}
+
+	@Test
+	public void shouldGenerateThumbnailsOnceWhenAreGeneratedTwiceAtOnce() throws IOException {
+		// Given
+		Path image = createImage("avatar.png", "png", 600, 600);
+		thumbnailServiceImpl.generate(image, "image/png");
+		thumbnailServiceImpl.generate(image, "image/png");
+
+		// When
+		runTasks();
+
+		// Then
+		assertThat(thumbnailServiceImpl.getThumbnail(getStoredImage(image, "image/png"), 256)).isPresent();
+		try (Stream<Path> files = Files.list(imagesDirectory)) {
+			assertThat(files.map(file -> file.getFileName().toString()))
+			.containsOnly("avatar.png", "avatar.png.thumbnails");
+		}
+	}
+
+	@Test
+	public void shouldDeleteThumbnailsWhenIsOK() throws IOException {
+		// Given
+		Path image = createImage("avatar.png", "png", 600, 600);
+		thumbnailServiceImpl.generate(image, "image/png");
+		runTasks();
+
+		// When
+		thumbnailServiceImpl.delete(image);
+
+		// Then
+		assertThat(Files.exists(imagesDirectory.resolve("avatar.png.thumbnails"))).isFalse();
+		assertThat(thumbnailServiceImpl.getThumbnail(getStoredImage(image, "image/png"), 64)).isEmpty();
+	}
+
+	@Test
+	public void shouldGenerateThumbnailsWhenFileIsNotAnImage() throws IOException {
+		// Given
+		Path file = Files.write(imagesDirectory.resolve("avatar.txt"), "some xml".getBytes());
+
+		// When
+		thumbnailServiceImpl.generate(file, "text/plain");
+		runTasks();
+
+		// Then
+		assertThat(thumbnailServiceImpl.getThumbnail(getStoredImage(file, "text/plain"), 64)).isEmpty();
+	}
+
+	@Test
+	public void shouldGenerateThumbnailsWhenImageIsTooLarge() throws IOException {
+		// Given
+		Path image = createImage("avatar.png", "png", 600, 300);
+
+		// When
+		when(configurationService.getThumbnailMaxPixels()).thenReturn(600L * 300 - 1);
+		thumbnailServiceImpl.generate(image, "image/png");
+		runTasks();
+
+		// Then
+		assertThat(thumbnailServiceImpl.getThumbnail(getStoredImage(image, "image/png"), 64)).isEmpty();
+	}
+}
@@ -0,0 +1,239 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import fr.esgi.security.jwt.AccountUserDetails;
+import fr.esgi.security.jwt.AuthenticationCache;
+import fr.esgi.security.jwt.JWTAuthenticationToken;
+import fr.esgi.security.jwt.TokenProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+public class TokenProviderTest {
+
+	private static final String SECRET_KEY = "secret-key";
+
+	private static final String PSEUDO = "Ben";
+
+	private TokenProvider tokenProvider;
+
+	@Before
+	public void init() {
+		tokenProvider = new TokenProvider();
+		ReflectionTestUtils.setField(tokenProvider, "secretKey", SECRET_KEY);
+		ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000L);
+		ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMillisecondsForRememberMe", 60000L);
+	}
+
+	private String createToken() {
+		Authentication authentication = new UsernamePasswordAuthenticationToken(PSEUDO, "",
+				Collections.singletonList(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+		return tokenProvider.createToken(authentication, false);
+	}
+
+	@Test
+	public void shouldSignIssueTimeWhenIsOK() {
+		// Given
+		long now = System.currentTimeMillis();
+		String token = createToken();
+
+		// When
+		Optional<Authentication> authentication = tokenProvider.getValidAuthentication(token);
+
+		// Then
+		assertThat(((JWTAuthenticationToken) authentication.get()).getIssuedAt())
+				.isBetween(now - 1000, System.currentTimeMillis());
+	}
+
+	@Test
+	public void shouldGetValidAuthenticationWhenIsOK() {
+		// Given
+		String token = createToken();
+
+		// When
+		Optional<Authentication> authentication = tokenProvider.getValidAuthentication(token);
+
+		// Then
+		assertThat(authentication).isPresent();
+		assertThat(authentication.get().getName()).isEqualTo(PSEUDO);
+		assertThat(authentication.get().getAuthorities()).extracting("authority").containsExactly("ROLE_CUSTOMER");
+	}
+
+	@Test
+	public void shouldGetTokenIdWhenIsOK() {
+		// Given
+		String token = createToken();
+		String otherToken = createToken();
+
+		// When
+		Authentication authentication = tokenProvider.getValidAuthentication(token).get();
+		Authentication otherAuthentication = tokenProvider.getValidAuthentication(otherToken).get();
+
+		// Then
+		assertThat(authentication).isInstanceOf(JWTAuthenticationToken.class);
+		JWTAuthenticationToken jwtAuthentication = (JWTAuthenticationToken) authentication;
+		assertThat(jwtAuthentication.getTokenId()).isNotEmpty()
+				.isNotEqualTo(((JWTAuthenticationToken) otherAuthentication).getTokenId());
+		assertThat(jwtAuthentication.getExpiration()).isGreaterThan(System.currentTimeMillis());
+	}
+
+	@Test
+	public void shouldGetCustomerAndManagerIdsWhenAreInToken() {
+		// Given
+		AccountUserDetails account = new AccountUserDetails(PSEUDO, "password", true,
+				Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")), 2L, 3L);
+		String token = tokenProvider.createToken(
+				new UsernamePasswordAuthenticationToken(account, "", account.getAuthorities()), false);
+
+		// When
+		Authentication authentication = tokenProvider.getValidAuthentication(token).get();
+
+		// Then
+		assertThat(authentication.getPrincipal()).isInstanceOf(AccountUserDetails.class);
+		AccountUserDetails principal = (AccountUserDetails) authentication.getPrincipal();
+		assertThat(principal.getUsername()).isEqualTo(PSEUDO);
+		assertThat(principal.getCustomerId()).isEqualTo(2L);
+		assertThat(principal.getManagerId()).isEqualTo(3L);
+	}
+
+	@Test
+	public void shouldGetValidAuthenticationFromCacheWhenTokenIsVerified() {
+		// Given
+		String token = createToken();
+		Authentication authentication = tokenProvider.getValidAuthentication(token).get();
+
+		// When
+		Optional<Authentication> cachedAuthentication = tokenProvider.getValidAuthentication(token);
+
+		// Then
+		assertThat(cachedAuthentication).containsSame(authentication);
+	}
+
+	@Test
+	public void shouldNotAlterCachedAuthenticationWhenIsShared() {
+		// Given
+		String token = createToken();
+		Authentication authentication = tokenProvider.getValidAuthentication(token).get();
+
+		// Then
+		assertThatThrownBy(() -> ((JWTAuthenticationToken) authentication).setDetails("details"))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> authentication.setAuthenticated(false))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> ((JWTAuthenticationToken) authentication).eraseCredentials())
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> authentication.getAuthorities().clear())
+				.isInstanceOf(UnsupportedOperationException.class);
+		Authentication cachedAuthentication = tokenProvider.getValidAuthentication(token).get();
+		assertThat(cachedAuthentication.isAuthenticated()).isTrue();
+		assertThat(cachedAuthentication.getDetails()).isNull();
+		assertThat(cachedAuthentication.getCredentials()).isEqualTo(token);
+	}
+
+	@Test
+	public void shouldShareAuthoritiesWhenTokensHaveSameRole() {
+		// Given
+		String token = createToken();
+		String otherToken = Jwts.builder()
+				.setSubject("Other")
+				.claim("auth", "ROLE_CUSTOMER")
+				.signWith(SignatureAlgorithm.HS512, SECRET_KEY)
+				.setExpiration(new Date(System.currentTimeMillis() + 60000L))
+				.compact();
+
+		// When
+		Authentication authentication = tokenProvider.getValidAuthentication(token).get();
+		Authentication otherAuthentication = tokenProvider.getValidAuthentication(otherToken).get();
+
+		// Then
+		assertThat(otherAuthentication.getName()).isEqualTo("Other");
+		assertThat(otherAuthentication.getAuthorities()).containsExactlyElementsOf(authentication.getAuthorities());
+	}
+
+	@Test
+	public void shouldGetValidAuthenticationWhenSignatureIsInvalid() {
+		// Given
+		String token = Jwts.builder()
+				.setSubject(PSEUDO)
+				.claim("auth", "ROLE_ADMIN")
+				.signWith(SignatureAlgorithm.HS512, "other-key")
+				.setExpiration(new Date(System.currentTimeMillis() + 60000L))
+				.compact();
+
+		// Then
+		assertThat(tokenProvider.getValidAuthentication(token)).isEmpty();
+	}
+
+	@Test
+	public void shouldGetValidAuthenticationWhenTokenIsExpired() {
+		// Given
+		ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -1000L);
+		String token = createToken();
+
+		// Then
+		assertThat(tokenProvider.getValidAuthentication(token)).isEmpty();
+	}
+
+	@Test
+	public void shouldExpireCachedAuthenticationWhenTokenIsExpired() {
+		// Given
+		AuthenticationCache authenticationCache = new AuthenticationCache(10);
+		Authentication authentication = new UsernamePasswordAuthenticationToken(PSEUDO, "token");
+
+		// When
+		authenticationCache.put("token", authentication, 2000L);
+
+		// Then
+		assertThat(authenticationCache.get("token", 1999L)).isSameAs(authentication);
+		assertThat(authenticationCache.get("token", 2000L)).isNull();
+		assertThat(authenticationCache.size()).isZero();
+	}
+
+	@Test
+	public void shouldBoundCacheWhenIsFull() {
+		// Given
+		AuthenticationCache authenticationCache = new AuthenticationCache(2);
+		Authentication authentication = new UsernamePasswordAuthenticationToken(PSEUDO, "token");
+		authenticationCache.put("expired", authentication, 1500L);
+		authenticationCache.put("first", authentication, 5000L);
+
+		// When
+		authenticationCache.put("second", authentication, 5000L);
+
+		// Then
+		assertThat(authenticationCache.size()).isEqualTo(2);
+		assertThat(authenticationCache.get("first", 2000L)).isSameAs(authentication);
+		assertThat(authenticationCache.get("second", 2000L)).isSameAs(authentication);
+	}
+
+	@Test
+	public void shouldEvictLeastRecentlyUsedAuthenticationWhenCacheIsFull() {
+		// Given
+		AuthenticationCache authenticationCache = new AuthenticationCache(2);
+		Authentication authentication = new UsernamePasswordAuthenticationToken(PSEUDO, "token");
+		authenticationCache.put("first", authentication, 5000L);
+		authenticationCache.put("second", authentication, 5000L);
+		authenticationCache.get("first", 2000L);
+
+		// When
+		authenticationCache.put("third", authentication, 5000L);
+
+		// Then
+		assertThat(authenticationCache.size()).isEqualTo(2);
+		assertThat(authenticationCache.get("first", 2000L)).isSameAs(authentication);
+		assertThat(authenticationCache.get("second", 2000L)).isNull();
+		assertThat(authenticationCache.get("third", 2000L)).isSameAs(authentication);
+	}
+}
@@ -0,0 +1,110 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import fr.esgi.config.Constants;
+import fr.esgi.dao.RevokedSubjectRepository;
+import fr.esgi.dao.RevokedTokenRepository;
+import fr.esgi.domain.RevokedSubject;
+import fr.esgi.domain.RevokedToken;
+import fr.esgi.security.jwt.RevokedTokenCache;
+import fr.esgi.service.impl.TokenRevocationServiceImpl;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TokenRevocationServiceTest {
+
+	private static final String TOKEN_ID = "6f1c3f0e-8a52-4d8b-9a36-0d4c1e0b7a11";
+
+	@Mock
+	private RevokedTokenRepository revokedTokenRepository;
+
+	@Mock
+	private RevokedSubjectRepository revokedSubjectRepository;
+
+	private RevokedTokenCache revokedTokenCache;
+
+	private TokenRevocationServiceImpl tokenRevocationServiceImpl;
+
+	@Before
+	public void setUp() {
+		revokedTokenCache = new RevokedTokenCache();
+		tokenRevocationServiceImpl = new TokenRevocationServiceImpl(revokedTokenRepository, revokedSubjectRepository,
+				revokedTokenCache);
+	}
+
+	@Test
+	public void shouldRevokeWhenIsOK() {
+		// Given
+		long expiration = System.currentTimeMillis() + 60000;
+
+		// When
+		tokenRevocationServiceImpl.revoke(TOKEN_ID, expiration);
+
+		// Then
+		verify(revokedTokenRepository).save(argThat((RevokedToken revokedToken) -> TOKEN_ID.equals(revokedToken.getTokenId())
+				&& expiration == revokedToken.getExpiration()));
+		assertThat(revokedTokenCache.isRevoked(TOKEN_ID)).isTrue();
+	}
+
+	@Test
+	public void shouldLoadTokensRevokedByOtherNodesWhenRefreshed() {
+		// Given
+		long expiration = System.currentTimeMillis() + 60000;
+		when(revokedTokenRepository.findAllByRevokedAtGreaterThanAndExpirationGreaterThan(anyLong(), anyLong()))
+				.thenReturn(Collections.singletonList(new RevokedToken(TOKEN_ID, expiration, expiration - 60000)));
+
+		// When
+		tokenRevocationServiceImpl.refresh();
+
+		// Then
+		verify(revokedTokenRepository).deleteExpired(anyLong());
+		assertThat(revokedTokenCache.isRevoked(TOKEN_ID)).isTrue();
+	}
+
+	@Test
+	public void shouldRevokeTokensIssuedUntilNowWhenSubjectIsRevoked() {
+		// Given
+		long now = System.currentTimeMillis();
+
+		// When
+		tokenRevocationServiceImpl.revokeSubject("Ben", now + 60000);
+
+		// Then
+		verify(revokedSubjectRepository).save(argThat((RevokedSubject revokedSubject) -> "ben".equals(revokedSubject.getSubject())
+				&& revokedSubject.getNotBefore() > now));
+		assertThat(revokedTokenCache.isRevoked("Ben", now)).isTrue();
+		assertThat(revokedTokenCache.isRevoked("Ben", now + 1000)).isFalse();
+	}
+
+	@Test
+	public void shouldLoadOnlyRecentRevocationsWhenRefreshedAgain() {
+		// Given
+		long start = System.currentTimeMillis();
+		tokenRevocationServiceImpl.refresh();
+
+		// When
+		tokenRevocationServiceImpl.refresh();
+
+		// Then
+		ArgumentCaptor<Long> since = ArgumentCaptor.forClass(Long.class);
+		verify(revokedTokenRepository, times(2))
+				.findAllByRevokedAtGreaterThanAndExpirationGreaterThan(since.capture(), anyLong());
+		assertThat(since.getAllValues().get(0)).isNegative();
+		assertThat(since.getAllValues().get(1))
+				.isGreaterThanOrEqualTo(start - Constants.TOKEN_REVOCATION_REFRESH_OVERLAP_IN_MILLISECONDS);
+	}
+}
@@ -0,0 +1,75 @@
+package fr.esgi.unitTests.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.security.jwt.UserAccountCache;
+import fr.esgi.service.dto.UserAccountDTO;
+import fr.esgi.service.event.UserChangedEvent;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class UserAccountCacheTest {
+
+	private static final String PSEUDO = "Ben";
+
+	private static final String EMAIL = "ben.montreuil@gmail.com";
+
+	@Mock
+	private ConfigurationService configurationService;
+
+	private static UserAccountDTO getAccount() {
+		return new UserAccountDTO(PSEUDO, EMAIL, "password", true, "ROLE_CUSTOMER", 1L, null);
+	}
+
+	@Test
+	public void shouldGetCachedAccountWhenIsOK() {
+		// Given
+		when(configurationService.getUserCacheTtlInMilliseconds()).thenReturn(60000L);
+		UserAccountCache cache = new UserAccountCache(configurationService);
+		UserAccountDTO account = getAccount();
+
+		// When
+		cache.put("ben", account);
+
+		// Then
+		assertThat(cache.get("ben")).isSameAs(account);
+		assertThat(cache.get(EMAIL)).isNull();
+	}
+
+	@Test
+	public void shouldNotReturnExpiredAccountWhenIsKO() {
+		// Given
+		when(configurationService.getUserCacheTtlInMilliseconds()).thenReturn(-1L);
+		UserAccountCache cache = new UserAccountCache(configurationService);
+
+		// When
+		cache.put("ben", getAccount());
+
+		// Then
+		assertThat(cache.get("ben")).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void shouldRemoveAccountWhenUserChanged() {
+		// Given
+		when(configurationService.getUserCacheTtlInMilliseconds()).thenReturn(60000L);
+		UserAccountCache cache = new UserAccountCache(configurationService);
+		cache.put("ben", getAccount());
+		cache.put(EMAIL, getAccount());
+
+		// When
+		cache.onUserChanged(new UserChangedEvent("BEN", null));
+
+		// Then
+		assertThat(cache.get("ben")).isNull();
+		assertThat(cache.get(EMAIL)).isNull();
+		assertThat(cache.size()).isZero();
+	}
+}
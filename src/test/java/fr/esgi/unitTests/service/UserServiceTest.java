@@ -5,8 +5,10 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -16,6 +18,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,8 +30,10 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import fr.esgi.config.ConfigurationService;
 import fr.esgi.dao.CustomerRepository;
@@ -39,7 +44,11 @@ import fr.esgi.domain.Role;
 import fr.esgi.domain.User;
 import fr.esgi.enums.RoleName;
 import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.service.ImageStoreService;
+import fr.esgi.service.cache.TakenLoginCache;
 import fr.esgi.service.dto.UserDTO;
+import fr.esgi.service.event.UserChangedEvent;
+import fr.esgi.service.image.StoredImage;
 import fr.esgi.service.impl.UserServiceImpl;
 import fr.esgi.service.mapper.UserMapper;
 
@@ -52,6 +61,7 @@ public class UserServiceTest {
 	private static final long ID = 1L;
     private static final String PSEUDO = "Ben";
     private static final String EMAIL = "ben.montreuil@gmail.com";
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
 
     @Mock
     private PasswordEncoder passwordEncoder;
@@ -71,6 +81,18 @@ public class UserServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private ImageStoreService imageStoreService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TakenLoginCache takenLoginCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private UserServiceImpl userServiceImpl;
 
@@ -170,6 +192,68 @@ public class UserServiceTest {
         
         // Then
         assertThat(userServiceImpl.registerUser(userDTO, "Totobibi24!")).isEqualTo(userDTO);
+        verify(eventPublisher, times(1)).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    public void shouldNormalizeLoginsWhenIsOK() {
+        // When
+        when(userRepository.normalizeLogins()).thenReturn(2);
+        userServiceImpl.normalizeLogins();
+
+        // Then
+        verify(userRepository, times(1)).normalizeLogins();
+    }
+
+    @Test
+    public void shouldReadRoleOnceWhenRegisterTwice() {
+        // Given
+        UserDTO userDTO = new UserDTO();
+        userDTO.setPseudo(PSEUDO);
+        userDTO.setEmail(EMAIL);
+        userDTO.setRoleId(ID);
+
+        // When
+        when(roleRepository.findById(ID)).thenReturn(Optional.of(getRole()));
+        when(userRepository.save((User) any())).thenReturn(user);
+        when(userMapper.userToUserDTO((User) any())).thenReturn(userDTO);
+        userServiceImpl.registerUser(userDTO, "Totobibi24!");
+        userServiceImpl.registerUser(userDTO, "Totobibi24!");
+
+        // Then
+        verify(roleRepository, times(1)).findById(ID);
+    }
+
+    @Test
+    public void shouldBeAvailableWhenPseudoIsNotInTakenLogins() {
+        // When
+        when(takenLoginCache.mightContainPseudo(PSEUDO)).thenReturn(false);
+
+        // Then
+        assertThat(userServiceImpl.isPseudoAvailable(PSEUDO)).isTrue();
+        verify(userRepository, never()).existsByLoginPseudo(anyString());
+    }
+
+    @Test
+    public void shouldNotBeAvailableWhenEmailIsRegistered() {
+        // When
+        when(takenLoginCache.mightContainEmail(EMAIL)).thenReturn(true);
+        when(userRepository.existsByLoginEmail(EMAIL)).thenReturn(true);
+
+        // Then
+        assertThat(userServiceImpl.isEmailAvailable(EMAIL)).isFalse();
+    }
+
+    @Test
+    public void shouldLoadTakenLoginsWhenIsOK() {
+        // When
+        when(userRepository.findAllPseudos()).thenReturn(Collections.singletonList(PSEUDO));
+        when(userRepository.findAllEmails()).thenReturn(Collections.singletonList(EMAIL));
+        userServiceImpl.loadTakenLogins();
+
+        // Then
+        verify(takenLoginCache, times(1)).putPseudo(PSEUDO);
+        verify(takenLoginCache, times(1)).putEmail(EMAIL);
     }
 
     @Test
@@ -219,10 +303,63 @@ public class UserServiceTest {
     	createFoldersAndFile();
     	
     	// Then
-    	assertThat(userServiceImpl.getImageURL(user.getPseudo())).isNotNull();
+    	Optional<StoredImage> image = userServiceImpl.getImage(user.getPseudo());
+    	assertThat(image).isPresent();
+    	assertThat(image.get().getContentType()).isEqualTo("text/plain");
+    	assertThat(image.get().getLength()).isZero();
+    	assertThat(image.get().getResource().exists()).isTrue();
     }
     
     
+    @Test
+    public void shouldGetImageWithSizeWhenThumbnailIsGenerated() throws BurgerSTerminalException {
+    	// Given
+    	User user = this.user;
+    	user.setImageUrl("avatar.png");
+    	user.setImageHash(HASH);
+    	StoredImage thumbnail = new StoredImage(Paths.get("./images/blobs/9f/86/" + HASH + ".thumbnails/64.png"), "image/png", 10L, 0L);
+
+    	// When
+    	when(userRepository.findOneByPseudoIgnoreCase(anyString())).thenReturn(Optional.ofNullable(user));
+    	when(imageStoreService.getThumbnail(HASH, 50)).thenReturn(Optional.of(thumbnail));
+
+    	// Then
+    	assertThat(userServiceImpl.getImage(user.getPseudo(), 50)).contains(thumbnail);
+    }
+
+    @Test
+    public void shouldGetImageWithSizeWhenThumbnailIsNotGenerated() throws BurgerSTerminalException {
+    	// Given
+    	User user = this.user;
+    	user.setImageUrl("avatar.png");
+    	user.setImageHash(HASH);
+    	StoredImage image = new StoredImage(Paths.get("./images/blobs/9f/86/" + HASH), "image/png", 10L, 0L);
+
+    	// When
+    	when(userRepository.findOneByPseudoIgnoreCase(anyString())).thenReturn(Optional.ofNullable(user));
+    	when(imageStoreService.getThumbnail(HASH, 50)).thenReturn(Optional.empty());
+    	when(imageStoreService.getImage(HASH)).thenReturn(Optional.of(image));
+
+    	// Then
+    	assertThat(userServiceImpl.getImage(user.getPseudo(), 50)).contains(image);
+    }
+
+    @Test
+    public void shouldGetImageWhenIsStoredByHashButMissing() {
+    	// Given
+    	User user = this.user;
+    	user.setImageUrl("avatar.png");
+    	user.setImageHash(HASH);
+
+    	// When
+    	when(userRepository.findOneByPseudoIgnoreCase(anyString())).thenReturn(Optional.ofNullable(user));
+    	when(imageStoreService.getImage(HASH)).thenReturn(Optional.empty());
+
+    	// Then
+    	assertThatThrownBy(() -> userServiceImpl.getImage(user.getPseudo()))
+		.isInstanceOf(BurgerSTerminalException.class);
+    }
+
     @Test
     public void shouldGetImageURLWhenUserNotExists() throws BurgerSTerminalException, IOException {
     	// Given
@@ -236,7 +373,7 @@ public class UserServiceTest {
     	createFoldersAndFile();
     	
     	// Then
-    	assertThat(userServiceImpl.getImageURL(user.getPseudo())).isNotNull();
+    	assertThat(userServiceImpl.getImage(user.getPseudo())).isEmpty();
     }
     
     @Test
@@ -251,7 +388,7 @@ public class UserServiceTest {
     	when(configurationService.getImagesDirectory()).thenReturn(imageDirectory);
     	
     	// Then
-    	assertThatThrownBy(() -> userServiceImpl.getImageURL(user.getPseudo()))
+    	assertThatThrownBy(() -> userServiceImpl.getImage(user.getPseudo()))
 		.isInstanceOf(BurgerSTerminalException.class);
     }
     
@@ -263,14 +400,32 @@ public class UserServiceTest {
     	// When
     	when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
     	when(userRepository.saveAndFlush((User) any())).thenReturn(user);
-    	when(configurationService.getImagesDirectory()).thenReturn(".");
+    	when(imageStoreService.store(any(), eq("text/plain"))).thenReturn(HASH);
     	userServiceImpl.store(file, user.getId());
 
     	// Then
     	verify(userRepository, times(1)).findById(anyLong());
-    	verify(configurationService, atLeast(1)).getImagesDirectory();
     	verify(userRepository, atLeast(1)).saveAndFlush((User) any());
-    	
+    	assertThat(user.getImageContentType()).isEqualTo("text/plain");
+    	assertThat(user.getImageHash()).isEqualTo(HASH);
+    }
+
+    @Test
+    public void shouldStoreWhenIsImage() throws BurgerSTerminalException, IOException {
+    	// Given
+    	MockMultipartFile file = new MockMultipartFile("file", "avatar", "image/png", new byte[] { 1, 2, 3 });
+    	user.setImageHash("0000000000000000000000000000000000000000000000000000000000000000");
+
+    	// When
+    	when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+    	when(userRepository.saveAndFlush((User) any())).thenReturn(user);
+    	when(imageStoreService.store(any(), eq("image/png"))).thenReturn(HASH);
+    	userServiceImpl.store(file, user.getId());
+
+    	// Then
+    	assertThat(user.getImageContentType()).isEqualTo("image/png");
+    	assertThat(user.getImageHash()).isEqualTo(HASH);
+    	verify(imageStoreService, times(1)).release("0000000000000000000000000000000000000000000000000000000000000000");
     }
     
     @Test
@@ -2,12 +2,18 @@ package fr.esgi.unitTests.web;
 
 import static fr.esgi.unitTests.web.TestUtil.convertObjectToJsonBytes;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.File;
@@ -30,9 +36,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -44,8 +54,12 @@ import fr.esgi.dao.UserRepository;
 import fr.esgi.domain.Customer;
 import fr.esgi.domain.Role;
 import fr.esgi.domain.User;
+import fr.esgi.service.ImageStoreService;
 import fr.esgi.service.UserService;
+import fr.esgi.service.cache.ImageCache;
+import fr.esgi.service.cache.TakenLoginCache;
 import fr.esgi.service.dto.UserDTO;
+import fr.esgi.service.image.StoredImage;
 import fr.esgi.service.impl.UserServiceImpl;
 import fr.esgi.service.mapper.UserMapper;
 import fr.esgi.web.ManagedUser;
@@ -86,11 +100,19 @@ public class AccountResourceTest {
 	@Mock
 	private CustomerRepository customerRepository;
 
+	@Mock
+	private ImageStoreService imageStoreService;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	@InjectMocks
 	private AccountResource accountResource;
 
 	private User user;
 
+	private TakenLoginCache takenLoginCache;
+
 //	private UserDTO userDTO;
 
 	private static final String IMAGES_FOLDER = "./images";
@@ -106,8 +128,10 @@ public class AccountResourceTest {
 	}
 
 	private void initMocks() {
-		userService = new UserServiceImpl(passwordEncoder, userRepository, roleRepository, userMapper, configurationService, customerRepository);
-		accountResource = new AccountResource(userService, messageSource);
+		takenLoginCache = new TakenLoginCache();
+		userService = new UserServiceImpl(passwordEncoder, userRepository, roleRepository, userMapper, configurationService, customerRepository,
+				imageStoreService, eventPublisher, takenLoginCache, mock(PlatformTransactionManager.class));
+		accountResource = new AccountResource(userService, messageSource, new ImageCache(configurationService));
 	}
 
 	@Before
@@ -280,9 +304,9 @@ public class AccountResourceTest {
 
 		// When
 		//		when(userService.findUserByPseudo(userDTO)).thenReturn(Optional.ofNullable(user));
+		when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_user_pseudo"));
 		when(userRepository.findOneByPseudoIgnoreCase(anyString())).thenReturn(Optional.ofNullable(user));
 
-
 		// Then
 		mockMvc.perform(post("/api/register")
 				.contentType(TestUtil.APPLICATION_JSON_UTF8)
@@ -304,6 +328,8 @@ public class AccountResourceTest {
 		managedUser.setPassword(PASSWORD);
 
 		// When
+		when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_user_email"));
+		when(userRepository.findOneByPseudoIgnoreCase(anyString())).thenReturn(Optional.empty());
 		when(userRepository.findOneByEmailIgnoreCase(anyString())).thenReturn(Optional.ofNullable(user));
 
 		// Then
@@ -313,6 +339,45 @@ public class AccountResourceTest {
 		.andExpect(status().isBadRequest());
 	}
 
+	@Test
+	public void shouldRegisterWhenPseudoIsInTakenLogins() throws Exception {
+		// Given
+		ManagedUser managedUser = new ManagedUser();
+		managedUser.setPseudo(PSEUDO);
+		managedUser.setEmail(EMAIL);
+		managedUser.setPassword(PASSWORD);
+		takenLoginCache.putPseudo(PSEUDO);
+
+		// When
+		when(userRepository.existsByLoginPseudo(PSEUDO.toLowerCase())).thenReturn(true);
+
+		// Then
+		mockMvc.perform(post("/api/register")
+				.contentType(TestUtil.APPLICATION_JSON_UTF8)
+				.content(convertObjectToJsonBytes(managedUser)))
+		.andExpect(status().isBadRequest());
+		verify(userRepository, never()).save(any(User.class));
+		verify(passwordEncoder, never()).encode(any());
+	}
+
+	@Test
+	public void shouldGetAvailabilityWhenIsOK() throws Exception {
+		// Given
+		takenLoginCache.putEmail(EMAIL);
+
+		// When
+		when(userRepository.existsByLoginEmail(EMAIL)).thenReturn(true);
+
+		// Then
+		mockMvc.perform(get("/api/register/availability")
+				.param("pseudo", PSEUDO)
+				.param("email", EMAIL))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.pseudo").value(true))
+		.andExpect(jsonPath("$.email").value(false));
+		verify(userRepository, never()).existsByLoginPseudo(anyString());
+	}
+
 	@Test
 	public void shouldRegisterWithFileWhenIsOK() throws Exception {
 		// Given
@@ -370,6 +435,79 @@ public class AccountResourceTest {
 		.andExpect(status().isOk());
 	}
 
+	@Test
+	public void shouldGetImageURLWhenRangeIsRequested() throws Exception {
+		// Given
+		File file = createFoldersAndFile();
+		Files.write(file.toPath(), "0123456789".getBytes());
+		user.setImageUrl("filename.txt");
+		user.setImageContentType("image/png");
+
+		// When
+		when(userRepository.findOneByPseudoIgnoreCase(anyString())).thenReturn(Optional.ofNullable(user));
+		when(configurationService.getImagesDirectory()).thenReturn(".");
+
+		// Then
+		mockMvc.perform(get("/api/users/imageURL/" + PSEUDO).header(HttpHeaders.RANGE, "bytes=2-5"))
+		.andExpect(status().isPartialContent())
+		.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+		.andExpect(content().bytes("2345".getBytes()));
+	}
+
+	@Test
+	public void shouldGetImageURLWhenIsNotModified() throws Exception {
+		// Given
+		createFoldersAndFile();
+		user.setImageUrl("filename.txt");
+		user.setImageContentType("image/png");
+
+		// When
+		when(userRepository.findOneByPseudoIgnoreCase(anyString())).thenReturn(Optional.ofNullable(user));
+		when(configurationService.getImagesDirectory()).thenReturn(".");
+		String eTag = mockMvc.perform(get("/api/users/imageURL/" + PSEUDO))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("image/png"))
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		// Then
+		mockMvc.perform(get("/api/users/imageURL/" + PSEUDO).header(HttpHeaders.IF_NONE_MATCH, eTag))
+		.andExpect(status().isNotModified());
+	}
+
+	@Test
+	public void shouldGetImageURLWithSizeWhenThumbnailIsGenerated() throws Exception {
+		// Given
+		createFoldersAndFile();
+		Files.createDirectory(Paths.get("./images/1/thumbnails"));
+		Path thumbnail = Files.write(Paths.get("./images/1/thumbnails/64.png"), "64".getBytes());
+		user.setImageUrl("filename.txt");
+		user.setImageContentType("image/jpeg");
+		user.setImageHash("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+
+		// When
+		when(userRepository.findOneByPseudoIgnoreCase(anyString())).thenReturn(Optional.ofNullable(user));
+		when(imageStoreService.getThumbnail(anyString(), anyInt()))
+		.thenReturn(Optional.of(new StoredImage(thumbnail, "image/png", 2L, 0L)));
+
+		// Then
+		mockMvc.perform(get("/api/users/imageURL/" + PSEUDO).param("size", "64"))
+		.andExpect(status().isOk())
+		.andExpect(content().contentType("image/png"))
+		.andExpect(content().bytes("64".getBytes()));
+	}
+
+	@Test
+	public void shouldGetImageURLWhenUserNotExists() throws Exception {
+		// When
+		when(userRepository.findOneByPseudoIgnoreCase(anyString())).thenReturn(Optional.empty());
+
+		// Then
+		mockMvc.perform(get("/api/users/imageURL/" + PSEUDO))
+		.andExpect(status().isNotFound());
+	}
+
 	private File createFoldersAndFile() throws IOException {
 		Files.createDirectory(Paths.get("./images"));
 		Files.createDirectory(Paths.get("./images/1"));
@@ -0,0 +1,102 @@
+package fr.esgi.unitTests.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.MessageSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import fr.esgi.annotation.Authorized;
+import fr.esgi.annotation.AuthorizedAspect;
+import fr.esgi.config.ErrorMessage;
+import fr.esgi.exception.BurgerSTerminalException;
+import fr.esgi.security.jwt.AccountUserDetails;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class AuthorizedAspectTest {
+
+	private static final String MESSAGE = "Role required";
+
+	@Mock
+	private MessageSource messageSource;
+
+	@Mock
+	private ApplicationContext applicationContext;
+
+	@Mock
+	private JoinPoint joinPoint;
+
+	@Mock
+	private MethodSignature methodSignature;
+
+	private AuthorizedAspect authorizedAspect;
+
+	private Authorized authorized;
+
+	@Before
+	public void setUp() throws NoSuchMethodException {
+		authorizedAspect = new AuthorizedAspect(messageSource, applicationContext);
+		authorized = AdminController.class.getMethod("delete").getAnnotation(Authorized.class);
+		when(joinPoint.getSignature()).thenReturn(methodSignature);
+		when(methodSignature.getMethod()).thenReturn(AdminController.class.getMethod("delete"));
+		when(messageSource.getMessage(eq(ErrorMessage.ERROR_USER_ROLE_REQUIRED_ACTION), any(), any()))
+				.thenReturn(MESSAGE);
+	}
+
+	@After
+	public void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	private static void authenticate(String role) {
+		AccountUserDetails account = new AccountUserDetails("Ben", "", true,
+				Collections.singletonList(new SimpleGrantedAuthority(role)), 1L, null);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(account, "", account.getAuthorities()));
+	}
+
+	@Test
+	public void shouldAuthorizeWhenIsOK() {
+		// Given
+		authenticate("ROLE_ADMIN");
+
+		// Then
+		assertThatCode(() -> authorizedAspect.checkUser(joinPoint, authorized)).doesNotThrowAnyException();
+	}
+
+	@Test
+	public void shouldNotAuthorizeWhenIsKO() {
+		// Given
+		authenticate("ROLE_CUSTOMER");
+
+		// Then
+		assertThatThrownBy(() -> authorizedAspect.checkUser(joinPoint, authorized))
+				.isInstanceOf(BurgerSTerminalException.class)
+				.satisfies(e -> assertThat(((BurgerSTerminalException) e).getErrorMessage()).isEqualTo(MESSAGE));
+	}
+
+	public static class AdminController {
+
+		@Authorized(values = { "ROLE_ADMIN" })
+		public void delete() {
+			// Nothing to do
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package fr.esgi.unitTests.web;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import fr.esgi.service.CatalogChangeService;
+import fr.esgi.service.CatalogSnapshotService;
+import fr.esgi.service.catalog.CatalogSnapshot;
+import fr.esgi.service.dto.CatalogChangesDTO;
+import fr.esgi.service.dto.ProductDTO;
+import fr.esgi.web.handler.RestResponseEntityExceptionHandler;
+import fr.esgi.web.rest.CatalogResource;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CatalogResourceTest {
+
+	private static final byte[] CONTENT = { 'B', 'S', 'T', 'C', 1, 1, 0, 0, 0, 0 };
+
+	private MockMvc mockMvc;
+
+	@Mock
+	private CatalogSnapshotService catalogSnapshotService;
+
+	@Mock
+	private CatalogChangeService catalogChangeService;
+
+	@InjectMocks
+	private CatalogResource catalogResource;
+
+	@Before
+	public void init() {
+		MockitoAnnotations.initMocks(this);
+		mockMvc = MockMvcBuilders
+				.standaloneSetup(catalogResource)
+				.setControllerAdvice(new RestResponseEntityExceptionHandler())
+				.build();
+		when(catalogSnapshotService.getSnapshot()).thenReturn(new CatalogSnapshot(1L, CONTENT));
+	}
+
+	@Test
+	public void shouldGetCatalogSnapshotWhenIsOK() throws Exception {
+		// When
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/catalog/snapshot"))
+		// Then
+		.andExpect(status().isOk())
+		.andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+		.andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+		.andExpect(content().bytes(CONTENT));
+	}
+
+	@Test
+	public void shouldGetCatalogSnapshotWhenIsNotModified() throws Exception {
+		// When
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/catalog/snapshot").header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+		// Then
+		.andExpect(status().isNotModified())
+		.andExpect(content().bytes(new byte[0]));
+	}
+
+	@Test
+	public void shouldGetCatalogChangesWhenIsOK() throws Exception {
+		// Given
+		ProductDTO product = new ProductDTO();
+		product.setId(1L);
+		product.setName("Big Mac");
+		CatalogChangesDTO catalogChanges = new CatalogChangesDTO();
+		catalogChanges.setVersion(12L);
+		catalogChanges.setCategories(new ArrayList<>());
+		catalogChanges.setProducts(Collections.singletonList(product));
+		catalogChanges.setMenus(new ArrayList<>());
+		catalogChanges.setDeletedProductIds(new ArrayList<>());
+		catalogChanges.setDeletedMenuIds(Collections.singletonList(2L));
+
+		when(catalogChangeService.getChangesSince(10L)).thenReturn(catalogChanges);
+
+		// When
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/catalog/changes").param("since", "10"))
+		// Then
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.version").value(12))
+		.andExpect(jsonPath("$.full").value(false))
+		.andExpect(jsonPath("$.products[0].name").value("Big Mac"))
+		.andExpect(jsonPath("$.deletedMenuIds[0]").value(2));
+	}
+
+	@Test
+	public void shouldGetCatalogChangesWhenSinceIsMissing() throws Exception {
+		// When
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/catalog/changes"))
+		// Then
+		.andExpect(status().isBadRequest());
+	}
+}
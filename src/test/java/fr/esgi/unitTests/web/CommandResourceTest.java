@@ -4,8 +4,12 @@ import static fr.esgi.unitTests.web.TestUtil.convertObjectToJsonBytes;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -16,9 +20,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -29,11 +35,15 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import fr.esgi.dao.CommandRepository;
 import fr.esgi.domain.Command;
+import fr.esgi.security.jwt.AccountUserDetails;
 import fr.esgi.service.CommandService;
 import fr.esgi.service.dto.CommandDTO;
 import fr.esgi.service.impl.CommandServiceImpl;
@@ -75,6 +85,11 @@ public class CommandResourceTest {
 				.build();
 	}
 
+	@After
+	public void clearAuthentication() {
+		SecurityContextHolder.clearContext();
+	}
+
 	private void initMocks() {
 		commandService = new CommandServiceImpl(commandRepository, commandMapper);
 		commandResource = new CommandResource(commandService, messageSource);
@@ -92,6 +107,13 @@ public class CommandResourceTest {
 		return commandDTO;
 	}
 	
+	private static void authenticateCustomer(Long customerId) {
+		AccountUserDetails account = new AccountUserDetails(TEST, "", true,
+				Collections.singletonList(new SimpleGrantedAuthority("ROLE_CUSTOMER")), customerId, null);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(account, "", account.getAuthorities()));
+	}
+
 	private static Command getCommand() {
 		Command command = new Command();
 		command.setId(ID);
@@ -154,6 +176,43 @@ public class CommandResourceTest {
 		.andExpect(status().isBadRequest());
 	}
 
+	@Test
+	public void shouldCreateCommandOfCurrentCustomerWhenIsCustomer() throws Exception {
+		// Given
+		authenticateCustomer(2L);
+		CommandDTO commandDTO = getCommandDTO();
+		commandDTO.setId(null);
+
+		// When
+		when(commandRepository.save(any())).thenReturn(getCommand());
+		when(commandMapper.commandToCommandDTO((Command) any())).thenReturn(getCommandDTO());
+
+		// Then
+		mockMvc.perform(post("/api/commands")
+				.contentType(TestUtil.APPLICATION_JSON_UTF8)
+				.content(convertObjectToJsonBytes(commandDTO)))
+		.andExpect(status().isCreated());
+		verify(commandMapper).commandDTOToCommand(argThat(dto -> Long.valueOf(2L).equals(dto.getCustomerId())));
+	}
+
+	@Test
+	public void shouldUpdateCommandWhenIsNotOfCurrentCustomer() throws Exception {
+		// Given
+		authenticateCustomer(2L);
+		CommandDTO commandDTO = getCommandDTO();
+
+		// When
+		when(commandRepository.findById(ID)).thenReturn(Optional.of(getCommand()));
+		when(commandMapper.commandToCommandDTO((Command) any())).thenReturn(getCommandDTO());
+
+		// Then
+		mockMvc.perform(put("/api/commands")
+				.contentType(TestUtil.APPLICATION_JSON_UTF8)
+				.content(convertObjectToJsonBytes(commandDTO)))
+		.andExpect(status().isNotFound());
+		verify(commandRepository, never()).saveAndFlush(any());
+	}
+
 	@Test
 	public void shouldUpdateCommandWhenIsOk() throws Exception {
 		// Given
@@ -263,6 +322,39 @@ public class CommandResourceTest {
 		.andExpect(status().isNotFound());
 	}
 	
+	@Test
+	public void shouldGetAllCommandsOfCurrentCustomerWhenIsCustomer() throws Exception {
+		// Given
+		AccountUserDetails account = new AccountUserDetails(TEST, "", true,
+				Collections.singletonList(new SimpleGrantedAuthority("ROLE_CUSTOMER")), 2L, null);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(account, "", account.getAuthorities()));
+		List<Command> content = new ArrayList<Command>();
+		content.add(getCommand());
+
+		// When
+		when(commandRepository.findAllByCustomerId((org.springframework.data.domain.Pageable) any(), eq(2L), anyString())).thenReturn(new PageImpl<>(content));
+		when(commandMapper.commandToCommandDTO((Command) any())).thenReturn(getCommandDTO());
+
+		// Then
+		mockMvc.perform(get("/api/commands")
+				.param("page", "0")
+				.param("size", "10")
+				.param("customerId", "1")
+				)
+		.andExpect(status().isOk());
+	}
+
+	@Test
+	public void shouldGetAllCommandsWhenCustomerIdIsMissing() throws Exception {
+		// Then
+		mockMvc.perform(get("/api/commands")
+				.param("page", "0")
+				.param("size", "10")
+				)
+		.andExpect(status().isBadRequest());
+	}
+
 	@Test
 	public void shouldGetCommandWhenIsOK() throws Exception {
 		// Given
@@ -0,0 +1,102 @@
+package fr.esgi.unitTests.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.config.CorsFilter;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CorsFilterTest {
+
+	private static final String ORIGIN = "http://localhost:4200";
+
+	@Mock
+	private ConfigurationService configurationService;
+
+	private CorsFilter corsFilter;
+
+	@Before
+	public void setUp() {
+		when(configurationService.getCorsAllowedOrigins())
+				.thenReturn(new HashSet<>(Arrays.asList(ORIGIN, " https://*.burgersterminal.fr")));
+		corsFilter = new CorsFilter(configurationService);
+	}
+
+	private static MockHttpServletRequest getRequest(String method, String origin) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/products");
+		request.addHeader(HttpHeaders.ORIGIN, origin);
+		return request;
+	}
+
+	@Test
+	public void shouldAllowOriginWhenIsOK() throws Exception {
+		// Given
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		// When
+		corsFilter.doFilter(getRequest("GET", ORIGIN), response, chain);
+
+		// Then
+		assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo(ORIGIN);
+		assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS)).isEqualTo("true");
+		assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ORIGIN);
+		assertThat(chain.getRequest()).isNotNull();
+	}
+
+	@Test
+	public void shouldAnswerPreflightWhenOriginMatchesSubdomainPattern() throws Exception {
+		// Given
+		MockHttpServletRequest request = getRequest("OPTIONS", "https://kiosk.lyon.burgersterminal.fr");
+		request.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "X-Injected");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		// When
+		corsFilter.doFilter(request, response, chain);
+
+		// Then
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN))
+				.isEqualTo("https://kiosk.lyon.burgersterminal.fr");
+		assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS))
+				.contains("Authorization")
+				.doesNotContain("X-Injected");
+		assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_MAX_AGE)).isEqualTo("86400");
+		assertThat(chain.getRequest()).isNull();
+	}
+
+	@Test
+	public void shouldNotAllowOriginWhenIsKO() throws Exception {
+		// Given
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockHttpServletResponse otherSchemeResponse = new MockHttpServletResponse();
+		MockHttpServletResponse suffixResponse = new MockHttpServletResponse();
+
+		// When
+		corsFilter.doFilter(getRequest("GET", "https://evil.fr"), response, new MockFilterChain());
+		corsFilter.doFilter(getRequest("GET", "http://kiosk.burgersterminal.fr"), otherSchemeResponse,
+				new MockFilterChain());
+		corsFilter.doFilter(getRequest("GET", "https://evilburgersterminal.fr"), suffixResponse,
+				new MockFilterChain());
+
+		// Then
+		assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isNull();
+		assertThat(otherSchemeResponse.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isNull();
+		assertThat(suffixResponse.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isNull();
+	}
+}
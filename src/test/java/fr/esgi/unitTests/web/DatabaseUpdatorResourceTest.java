@@ -1,13 +1,19 @@
 package fr.esgi.unitTests.web;
 
-import static org.mockito.ArgumentMatchers.anyList;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Optional;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -17,42 +23,32 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.context.MessageSource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.mock.web.MockPart;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.multipart.MultipartFile;
 
-import fr.esgi.service.DatabaseUpdatorService;
-import fr.esgi.service.MenuService;
-import fr.esgi.service.ProductService;
-import fr.esgi.service.dto.MenuDTO;
-import fr.esgi.service.dto.ProductDTO;
-import fr.esgi.service.impl.DatabaseUpdatorServiceImpl;
+import fr.esgi.enums.ImportJobStatus;
+import fr.esgi.enums.ImportType;
+import fr.esgi.service.ImportJobService;
+import fr.esgi.service.dto.ImportJobDTO;
 import fr.esgi.web.handler.RestResponseEntityExceptionHandler;
 import fr.esgi.web.rest.DatabaseUpdatorResource;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class DatabaseUpdatorResourceTest {
-	
-	private static final boolean AVAILABLE = true;
-
-	private static final double PRICE = 0.50;
-
-	private static final String NAME = "nBisdeddzdzedzedzap";
 
 	private static final long ID = 1L;
 
 	private MockMvc mockMvc;
-	
-	@Mock
-	private ProductService productService;
 
 	@Mock
-	private MenuService menuService;
-	
-	@Mock
-	private DatabaseUpdatorService databaseUpdatorService;
+	private ImportJobService importJobService;
 
 	@Mock
 	private MessageSource messageSource;
@@ -63,235 +59,178 @@ public class DatabaseUpdatorResourceTest {
 	@Before
 	public void init(){
 		MockitoAnnotations.initMocks(this);
-		initMocks();
 		mockMvc = MockMvcBuilders
 				.standaloneSetup(databaseUpdatorResource)
 				.setControllerAdvice(new RestResponseEntityExceptionHandler())
 				.build();
 	}
 
-	private void initMocks() {
-		databaseUpdatorService = new DatabaseUpdatorServiceImpl(productService, menuService);
-		databaseUpdatorResource = new DatabaseUpdatorResource(databaseUpdatorService, messageSource);
-	}
-	
-	private static ProductDTO getProductDTO() {
-		ProductDTO productDTO = new ProductDTO();
-		productDTO.setId(ID);
-		productDTO.setName(NAME);
-		productDTO.setPrice(PRICE);
-		productDTO.setAvailable(AVAILABLE);
-		productDTO.setCategoryId(2L);
-		productDTO.setManagerId(1L);
-
-		return productDTO;
-	}
-	
-	private static MenuDTO getMenuDTO() {
-		List<MenuDTO> menuDTOs = new ArrayList<>();
-		MenuDTO menuDTO = new MenuDTO();
-		menuDTO.setId(1L);
-		menuDTO.setName("Bibi");
-		menuDTO.setPrice(0.50);
-		menuDTO.setAvailable(true);
-		menuDTO.setManagerId(1L);
-		menuDTOs.add(menuDTO);
-		return menuDTO;
+	private static ImportJobDTO getImportJobDTO(ImportType type, String fileFormat) {
+		ImportJobDTO importJobDTO = new ImportJobDTO();
+		importJobDTO.setId(ID);
+		importJobDTO.setType(type);
+		importJobDTO.setFileFormat(fileFormat);
+		importJobDTO.setStatus(ImportJobStatus.PENDING);
+		return importJobDTO;
 	}
 	
 	@Test
 	public void shouldUploadProductsFileCSVWhenIsOK() throws Exception {
 		// Given
 		MockMultipartFile file = new MockMultipartFile("file", "filename.csv", "text/plain", "name;price;available;categoryId;managerId\nBisdeddzdzedzedzap;0.50;true;2;1".getBytes());
-		
-		List<ProductDTO> products = new ArrayList<>();
-		products.add(getProductDTO());
 
 		MockPart part = new MockPart("importfile", "filename.csv", file.getBytes());
 		
 		// When
-		when(productService.saveAll(anyList())).thenReturn(products);
+		when(importJobService.submit(any(MultipartFile.class), eq(ImportType.PRODUCT), eq("csv")))
+		.thenReturn(getImportJobDTO(ImportType.PRODUCT, "csv"));
 		
 		// Then
 		mockMvc.perform(MockMvcRequestBuilders.multipart("/api/product/import?fileFormat=csv")
 				.part(part))
-		.andExpect(status().isOk())
-		.andExpect(jsonPath("$").isNotEmpty());
+		.andExpect(status().isAccepted())
+		.andExpect(jsonPath("$.id").value(ID))
+		.andExpect(jsonPath("$.status").value("PENDING"));
 	}
 	
 	@Test
 	public void shouldUploadProductsFileCSVWhenIsKO1() throws Exception {
 		// Given
 		MockMultipartFile file = new MockMultipartFile("file", "filename.csv", "text/plain", "name;price;available;categoryId;managerId\nBisdeddzdzedzedzap;0.50;true;2;1".getBytes());
-		
-		List<ProductDTO> products = Collections.emptyList();
 
 		MockPart part = new MockPart("importfile", "filename.txt", file.getBytes());
 		
 		// When
-		when(productService.saveAll(anyList())).thenReturn(products);
+		when(importJobService.submit(any(MultipartFile.class), eq(ImportType.PRODUCT), eq("txt")))
+		.thenReturn(getImportJobDTO(ImportType.PRODUCT, "txt"));
 		
 		// Then
 		mockMvc.perform(MockMvcRequestBuilders.multipart("/api/product/import?fileFormat=txt")
 				.part(part))
-		.andExpect(status().isOk());
-	}
-	
-	@Test
-	public void shouldUploadProductsFileCSVWhenIsEmpty() throws Exception {
-		// Given
-		MockMultipartFile file = new MockMultipartFile("file", "filename.csv", "text/plain", "name;price;avaianager".getBytes());
-		
-		List<ProductDTO> products = Collections.emptyList();
-
-		MockPart part = new MockPart("importfile", "filename.csv", file.getBytes());
-		
-		// When
-		when(productService.saveAll(anyList())).thenReturn(products);
-		
-		// Then
-		mockMvc.perform(MockMvcRequestBuilders.multipart("/api/product/import?fileFormat=csv")
-				.part(part))
-		.andExpect(status().isOk())
-		.andExpect(jsonPath("$").isEmpty());
+		.andExpect(status().isAccepted());
 	}
 	
 	@Test
 	public void shouldUploadProductsFileJSONWhenIsOK() throws Exception {
 		// Given
 		MockMultipartFile file = new MockMultipartFile("file", "filename.json", "text/plain", "[{\"name\":\"Tofffedfefeto\",\"price\":0.50,\"available\":true,\"categoryId\":2,\"managerId\":1}]".getBytes());
-		
-		List<ProductDTO> products = new ArrayList<>();
-		products.add(getProductDTO());
 
 		MockPart part = new MockPart("importfile", "filename.json", file.getBytes());
 		
 		// When
-		when(productService.saveAll(anyList())).thenReturn(products);
+		when(importJobService.submit(any(MultipartFile.class), eq(ImportType.PRODUCT), eq("json")))
+		.thenReturn(getImportJobDTO(ImportType.PRODUCT, "json"));
 		
 		// Then
 		mockMvc.perform(MockMvcRequestBuilders.multipart("/api/product/import?fileFormat=json")
 				.part(part))
-		.andExpect(status().isOk())
-		.andExpect(jsonPath("$").isNotEmpty());
+		.andExpect(status().isAccepted())
+		.andExpect(jsonPath("$.fileFormat").value("json"));
 	}
-	
-	@Test
-	public void shouldUploadProductsFileJSONWhenIsKO() throws Exception {
-		// Given
-		MockMultipartFile file = new MockMultipartFile("file", "filename.json", "text/plain", "[{\"name\":\"Tofffedfefeto\",\"price\":0.50,\"available\":true,\"categoryId\":2,\"managerId\":1}]".getBytes());
-		
-		List<ProductDTO> products = Collections.emptyList();
 
-		MockPart part = new MockPart("importfile", "filename.json", file.getBytes());
-		
-		// When
-		when(productService.saveAll(anyList())).thenReturn(products);
-		
-		// Then
-		mockMvc.perform(MockMvcRequestBuilders.multipart("/api/product/import?fileFormat=json")
-				.part(part))
-		.andExpect(status().isOk())
-		.andExpect(jsonPath("$").isEmpty());
-	}
 	// Menu
 	
-	
 	@Test
 	public void shouldUploadMenusFileCSVWhenIsOK() throws Exception {
 		// Given
 		MockMultipartFile file = new MockMultipartFile("file", "filename.csv", "text/plain", "name;price;available;managerId\nBibi;0.50;true;1".getBytes());
-		
-		List<MenuDTO> menus = new ArrayList<>();
-		menus.add(getMenuDTO());
 
 		MockPart part = new MockPart("importfile", "filename.csv", file.getBytes());
 		
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(menus);
+		when(importJobService.submit(any(MultipartFile.class), eq(ImportType.MENU), eq("csv")))
+		.thenReturn(getImportJobDTO(ImportType.MENU, "csv"));
 		
 		// Then
 		mockMvc.perform(MockMvcRequestBuilders.multipart("/api/menu/import?fileFormat=csv")
 				.part(part))
-		.andExpect(status().isOk())
-		.andExpect(jsonPath("$").isNotEmpty());
+		.andExpect(status().isAccepted())
+		.andExpect(jsonPath("$.type").value("MENU"));
 	}
 	
 	@Test
 	public void shouldUploadMenusFileCSVWhenIsKO1() throws Exception {
 		// Given
 		MockMultipartFile file = new MockMultipartFile("file", "filename.csv", "text/plain", "name;price;available;categoryId;managerId\nBisdeddzdzedzedzap;0.50;true;2;1".getBytes());
-		
-		List<MenuDTO> menus = Collections.emptyList();
 
 		MockPart part = new MockPart("importfile", "filename.txt", file.getBytes());
 		
-		// When
-		when(menuService.saveAll(anyList())).thenReturn(menus);
-		
 		// Then
 		mockMvc.perform(MockMvcRequestBuilders.multipart("/api/menu/import?fileFormat=csv")
 				.part(part))
 		.andExpect(status().isInternalServerError());
+		verify(importJobService, never()).submit(any(MultipartFile.class), any(ImportType.class), anyString());
 	}
 	
 	@Test
-	public void shouldUploadMenusFileCSVWhenIsEmpty() throws Exception {
+	public void shouldUploadMenusFileJSONWhenIsOK() throws Exception {
 		// Given
-		MockMultipartFile file = new MockMultipartFile("file", "filename.csv", "text/plain", "name;price;avaianager".getBytes());
-		
-		List<MenuDTO> menus = Collections.emptyList();
+		MockMultipartFile file = new MockMultipartFile("file", "filename.json", "text/plain", "[{\"name\":\"TBifebo\",\"price\":0.50,\"available\":true,\"managerId\":1}]".getBytes());
 
-		MockPart part = new MockPart("importfile", "filename.csv", file.getBytes());
+		MockPart part = new MockPart("importfile", "filename.json", file.getBytes());
 		
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(menus);
+		when(importJobService.submit(any(MultipartFile.class), eq(ImportType.MENU), eq("json")))
+		.thenReturn(getImportJobDTO(ImportType.MENU, "json"));
 		
 		// Then
-		mockMvc.perform(MockMvcRequestBuilders.multipart("/api/menu/import?fileFormat=csv")
+		mockMvc.perform(MockMvcRequestBuilders.multipart("/api/menu/import?fileFormat=json")
 				.part(part))
-		.andExpect(status().isOk())
-		.andExpect(jsonPath("$").isEmpty());
+		.andExpect(status().isAccepted())
+		.andExpect(jsonPath("$.id").value(ID));
 	}
-	
+
+	// Import jobs
+
 	@Test
-	public void shouldUploadMenusFileJSONWhenIsOK() throws Exception {
+	public void shouldGetImportJobWhenIsOK() throws Exception {
 		// Given
-		MockMultipartFile file = new MockMultipartFile("file", "filename.json", "text/plain", "[{\"name\":\"TBifebo\",\"price\":0.50,\"available\":true,\"managerId\":1}]".getBytes());
-		
-		List<MenuDTO> menus = new ArrayList<>();
-		menus.add(getMenuDTO());
+		ImportJobDTO importJobDTO = getImportJobDTO(ImportType.PRODUCT, "csv");
+		importJobDTO.setStatus(ImportJobStatus.RUNNING);
+		importJobDTO.setRowsWritten(500);
 
-		MockPart part = new MockPart("importfile", "filename.json", file.getBytes());
-		
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(menus);
-		
+		when(importJobService.findOne(ID)).thenReturn(Optional.of(importJobDTO));
+
 		// Then
-		mockMvc.perform(MockMvcRequestBuilders.multipart("/api/menu/import?fileFormat=json")
-				.part(part))
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/import/jobs/{id}", ID))
 		.andExpect(status().isOk())
-		.andExpect(jsonPath("$").isNotEmpty());
+		.andExpect(jsonPath("$.status").value("RUNNING"))
+		.andExpect(jsonPath("$.rowsWritten").value(500));
 	}
-	
+
+	@Test
+	public void shouldGetImportJobWhenIsNotFound() throws Exception {
+		// When
+		when(importJobService.findOne(anyLong())).thenReturn(Optional.empty());
+
+		// Then
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/import/jobs/{id}", ID))
+		.andExpect(status().isNotFound());
+	}
+
 	@Test
-	public void shouldUploadMenusFileJSONWhenIsKO() throws Exception {
+	public void shouldGetImportJobErrorsWhenIsOK() throws Exception {
 		// Given
-		MockMultipartFile file = new MockMultipartFile("file", "filename.json", "text/plain", "[{\"name\":\"TBifebo\",\"price\":0.50,\"available\":true,\"managerId\":1}]".getBytes());
-		
-		List<MenuDTO> menus = Collections.emptyList();
+		Resource errorReport = new ByteArrayResource("line;column;reason\n3;price;The value is not a number\n".getBytes());
 
-		MockPart part = new MockPart("importfile", "filename.json", file.getBytes());
-		
 		// When
-		when(menuService.saveAll(anyList())).thenReturn(menus);
-		
+		when(importJobService.getErrorReport(ID)).thenReturn(Optional.of(errorReport));
+
 		// Then
-		mockMvc.perform(MockMvcRequestBuilders.multipart("/api/menu/import?fileFormat=json")
-				.part(part))
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/import/jobs/{id}/errors", ID))
 		.andExpect(status().isOk())
-		.andExpect(jsonPath("$").isEmpty());
+		.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-1-errors.csv\""))
+		.andExpect(content().string(containsString("3;price;The value is not a number")));
 	}
-	
 
+	@Test
+	public void shouldGetImportJobErrorsWhenIsNotFound() throws Exception {
+		// When
+		when(importJobService.getErrorReport(anyLong())).thenReturn(Optional.empty());
+
+		// Then
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/import/jobs/{id}/errors", ID))
+		.andExpect(status().isNotFound());
+	}
 }
@@ -0,0 +1,89 @@
+package fr.esgi.unitTests.web;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import fr.esgi.service.ExportService;
+import fr.esgi.web.handler.RestResponseEntityExceptionHandler;
+import fr.esgi.web.rest.ExportResource;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ExportResourceTest {
+
+	private MockMvc mockMvc;
+
+	@Mock
+	private ExportService exportService;
+
+	@InjectMocks
+	private ExportResource exportResource;
+
+	@Before
+	public void init() {
+		MockitoAnnotations.initMocks(this);
+		mockMvc = MockMvcBuilders
+				.standaloneSetup(exportResource)
+				.setControllerAdvice(new RestResponseEntityExceptionHandler())
+				.build();
+	}
+
+	@Test
+	public void shouldExportProductsAsCSVWhenIsOK() throws Exception {
+		// Given
+		doAnswer(invocation -> {
+			OutputStream outputStream = invocation.getArgument(1);
+			outputStream.write("id;name\n1;Frites\n".getBytes(StandardCharsets.UTF_8));
+			return null;
+		}).when(exportService).exportProducts(eq("csv"), any());
+
+		// When
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/export/products"))
+		// Then
+		.andExpect(status().isOk())
+		.andExpect(content().contentTypeCompatibleWith("text/csv"))
+		.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.csv\""))
+		.andExpect(content().string("id;name\n1;Frites\n"));
+	}
+
+	@Test
+	public void shouldExportMenusAsJSONWhenIsOK() throws Exception {
+		// When
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/export/menus").param("format", "JSON"))
+		// Then
+		.andExpect(status().isOk())
+		.andExpect(content().contentTypeCompatibleWith("application/json"))
+		.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"menus.json\""));
+		verify(exportService).exportMenus(eq("json"), any());
+	}
+
+	@Test
+	public void shouldExportCommandsWhenFormatIsKO() throws Exception {
+		// When
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/export/commands").param("format", "xml"))
+		// Then
+		.andExpect(status().isBadRequest());
+		verify(exportService, never()).exportCommands(anyString(), any());
+	}
+}
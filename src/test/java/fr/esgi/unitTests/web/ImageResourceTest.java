@@ -0,0 +1,139 @@
+package fr.esgi.unitTests.web;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.service.ImageStoreService;
+import fr.esgi.service.cache.ImageCache;
+import fr.esgi.service.image.StoredImage;
+import fr.esgi.web.handler.RestResponseEntityExceptionHandler;
+import fr.esgi.web.rest.ImageResource;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ImageResourceTest {
+
+	private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+	private MockMvc mockMvc;
+
+	@Mock
+	private ImageStoreService imageStoreService;
+
+	@Mock
+	private MessageSource messageSource;
+
+	@Mock
+	private ConfigurationService configurationService;
+
+	private ImageResource imageResource;
+
+	private Path directory;
+
+	@Before
+	public void init() throws IOException {
+		MockitoAnnotations.initMocks(this);
+		when(configurationService.getImageCacheSizeInBytes()).thenReturn(1024L);
+		imageResource = new ImageResource(imageStoreService, messageSource, new ImageCache(configurationService));
+		mockMvc = MockMvcBuilders
+				.standaloneSetup(imageResource)
+				.setControllerAdvice(new RestResponseEntityExceptionHandler())
+				.build();
+		directory = Files.createTempDirectory("blobs");
+	}
+
+	@After
+	public void destroy() throws IOException {
+		FileUtils.deleteDirectory(directory.toFile());
+	}
+
+	private StoredImage getStoredImage(String name, String content) throws IOException {
+		Path file = Files.write(directory.resolve(name), content.getBytes());
+		return new StoredImage(file, "image/png", Files.size(file), Files.getLastModifiedTime(file).toMillis());
+	}
+
+	@Test
+	public void shouldGetImageWhenIsOK() throws Exception {
+		// When
+		when(imageStoreService.getImage(HASH)).thenReturn(Optional.of(getStoredImage(HASH, "test")));
+
+		// Then
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/images/" + HASH))
+		.andExpect(status().isOk())
+		.andExpect(content().contentType("image/png"))
+		.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+		.andExpect(content().bytes("test".getBytes()));
+	}
+
+	@Test
+	public void shouldGetImageWithSizeWhenThumbnailIsGenerated() throws Exception {
+		// When
+		when(imageStoreService.getThumbnail(HASH, 64)).thenReturn(Optional.of(getStoredImage("64.png", "64")));
+
+		// Then
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/images/" + HASH).param("size", "64"))
+		.andExpect(status().isOk())
+		.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+		.andExpect(content().bytes("64".getBytes()));
+	}
+
+	@Test
+	public void shouldGetImageWithSizeWhenThumbnailIsNotGenerated() throws Exception {
+		// When
+		when(imageStoreService.getThumbnail(HASH, 64)).thenReturn(Optional.empty());
+		when(imageStoreService.getImage(HASH)).thenReturn(Optional.of(getStoredImage(HASH, "test")));
+
+		// Then
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/images/" + HASH).param("size", "64"))
+		.andExpect(status().isOk())
+		.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60"))
+		.andExpect(content().bytes("test".getBytes()));
+	}
+
+	@Test
+	public void shouldGetImageWhenRangeIsRequested() throws Exception {
+		// Given
+		StoredImage image = getStoredImage(HASH, "0123456789");
+		when(imageStoreService.getImage(HASH)).thenReturn(Optional.of(image));
+
+		// When
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/images/" + HASH));
+
+		// Then
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/images/" + HASH).header(HttpHeaders.RANGE, "bytes=2-5"))
+		.andExpect(status().isPartialContent())
+		.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+		.andExpect(content().bytes("2345".getBytes()));
+	}
+
+	@Test
+	public void shouldGetImageWhenIsNotStored() throws Exception {
+		// When
+		when(imageStoreService.getImage(HASH)).thenReturn(Optional.empty());
+
+		// Then
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/images/" + HASH))
+		.andExpect(status().isNotFound());
+	}
+}
@@ -27,6 +27,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -85,6 +86,9 @@ public class MenuResourceTest {
 	@Mock
 	private MessageSource messageSource;
 
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	@InjectMocks
 	private MenuResource menuResource;
 
@@ -99,7 +103,7 @@ public class MenuResourceTest {
 	}
 
 	private void initMocks() {
-		menuService = new MenuServiceImpl(menuRepository, menuMapper, productMapper);
+		menuService = new MenuServiceImpl(menuRepository, menuMapper, productMapper, eventPublisher);
 		menuResource = new MenuResource(menuService, messageSource);
 	}
 
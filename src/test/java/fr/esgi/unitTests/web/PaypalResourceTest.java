@@ -31,6 +31,7 @@ import fr.esgi.domain.Menu;
 import fr.esgi.domain.Product;
 import fr.esgi.service.CommandService;
 import fr.esgi.service.PayPalService;
+import fr.esgi.service.cache.PaymentSessionCache;
 import fr.esgi.service.dto.CommandDTO;
 import fr.esgi.service.impl.PayPalServiceImpl;
 import fr.esgi.service.mapper.CommandMapper;
@@ -65,6 +66,9 @@ public class PaypalResourceTest {
 	@Mock
 	private ConfigurationService configurationService;
 
+	@Mock
+	private PaymentSessionCache paymentSessionCache;
+
 	@Mock
 	private PayPalService payPalService;
 	
@@ -85,7 +89,7 @@ public class PaypalResourceTest {
 	}
 
 	private void initMocks() {
-		payPalService = new PayPalServiceImpl(commandService, commandMapper, configurationService);
+		payPalService = new PayPalServiceImpl(commandService, commandMapper, configurationService, paymentSessionCache);
 		payPalResource = new PayPalResource(payPalService, messageSource);
 	}
 	
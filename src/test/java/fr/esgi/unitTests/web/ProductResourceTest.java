@@ -25,6 +25,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -79,6 +80,9 @@ public class ProductResourceTest {
 	@Mock
 	private MessageSource messageSource;
 
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	@InjectMocks
 	private ProductResource productResource;
 
@@ -93,7 +97,7 @@ public class ProductResourceTest {
 	}
 
 	private void initMocks() {
-		productService = new ProductServiceImpl(productRepository, productMapper);
+		productService = new ProductServiceImpl(productRepository, productMapper, eventPublisher);
 		productResource = new ProductResource(productService, messageSource);
 	}
 	
@@ -0,0 +1,76 @@
+package fr.esgi.unitTests.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import fr.esgi.config.ConfigurationService;
+import fr.esgi.security.ratelimit.RateLimitFilter;
+import fr.esgi.security.ratelimit.RateLimiter;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class RateLimitFilterTest {
+
+	@Mock
+	private ConfigurationService configurationService;
+
+	private RateLimitFilter rateLimitFilter;
+
+	@Before
+	public void setUp() {
+		when(configurationService.getAuthenticateRateLimit()).thenReturn(1);
+		when(configurationService.getRegisterRateLimit()).thenReturn(1);
+		when(configurationService.getPaymentRateLimit()).thenReturn(1);
+		when(configurationService.getAvailabilityRateLimit()).thenReturn(1);
+		when(configurationService.getRateLimitPeriodInMilliseconds()).thenReturn(60000L);
+		rateLimitFilter = new RateLimitFilter(new RateLimiter(configurationService));
+	}
+
+	private static MockHttpServletRequest getRequest(String requestUri) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", requestUri);
+		request.setContextPath("/app");
+		request.setRemoteAddr("10.0.0.1");
+		return request;
+	}
+
+	@Test
+	public void shouldLimitRouteWhenPathIsEncoded() throws Exception {
+		// Given
+		rateLimitFilter.doFilter(getRequest("/app/api/register"), new MockHttpServletResponse(),
+				new MockFilterChain());
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		// When
+		rateLimitFilter.doFilter(getRequest("/app/api/%72egister;jsessionid=1"), response, chain);
+
+		// Then
+		assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+		assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isNotNull();
+		assertThat(chain.getRequest()).isNull();
+	}
+
+	@Test
+	public void shouldPassWhenRouteIsNotLimited() throws Exception {
+		// Given
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		// When
+		rateLimitFilter.doFilter(getRequest("/app/api/products"), response, chain);
+
+		// Then
+		assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+		assertThat(chain.getRequest()).isNotNull();
+	}
+}
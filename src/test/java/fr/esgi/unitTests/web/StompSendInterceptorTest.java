@@ -0,0 +1,49 @@
+package fr.esgi.unitTests.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import fr.esgi.config.Constants;
+import fr.esgi.config.StompSendInterceptor;
+
+public class StompSendInterceptorTest {
+
+	private final StompSendInterceptor stompSendInterceptor = new StompSendInterceptor();
+
+	private final MessageChannel channel = mock(MessageChannel.class);
+
+	private static Message<byte[]> getMessage(StompCommand command) {
+		StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+		accessor.setDestination(Constants.CATALOG_TOPIC);
+		accessor.setLeaveMutable(true);
+		return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+	}
+
+	@Test
+	public void shouldPreSendWhenIsSubscribe() {
+		// Given
+		Message<byte[]> message = getMessage(StompCommand.SUBSCRIBE);
+
+		// Then
+		assertThat(stompSendInterceptor.preSend(message, channel)).isSameAs(message);
+	}
+
+	@Test
+	public void shouldPreSendWhenIsSendToTopic() {
+		// Given
+		Message<byte[]> message = getMessage(StompCommand.SEND);
+
+		// Then
+		assertThatThrownBy(() -> stompSendInterceptor.preSend(message, channel))
+				.isInstanceOf(MessageDeliveryException.class);
+	}
+}